@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Caches mappings from one thing to another thing, with computations of missing mappings running
+ * asynchronously. Cached mappings are returned as already completed futures, so callers can serve
+ * hits inline and only need to wait for misses. Concurrent computations of the same key are
+ * deduplicated, so that callers that miss while a computation is pending receive the pending
+ * future instead of starting another one.
+ * <p>Futures returned by this cache are copies of the shared pending futures. Completing or
+ * cancelling them does not affect other callers or the computation itself.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public interface AsyncMapCache<K, V> {
+    /**
+     * Gets the optional mapping for given key. If a computation for given key is currently
+     * pending, the returned future completes once it does, with an empty optional if the
+     * computation fails.
+     *
+     * @param key the key to retrieve the mapping for
+     * @return a future of an optional containing the value of the mapping if it exists, or an
+     * empty optional if it doesn't
+     */
+    CompletableFuture<Optional<V>> getAsync(K key);
+
+    /**
+     * Gets the currently cached value for given key, if present. Otherwise, computes the mapping
+     * for given key by running given supplier function on given executor, and caches it once the
+     * computation completes successfully. If a computation for given key is already pending, its
+     * future is returned and given supplier is not run.
+     *
+     * @param key      the key to get or compute the mapping for
+     * @param supplier the value supplier, must not return null
+     * @param executor the executor to run the supplier on
+     * @return a future of the found or computed value of the mapping for given key, completing
+     * exceptionally if the computation fails
+     */
+    CompletableFuture<V> getOrComputeAsync(K key, Function<? super K, ? extends V> supplier, Executor executor);
+
+    /**
+     * Invalidates the mapping for given key, if any. If a computation for given key is currently
+     * pending, its result will not be cached.
+     *
+     * @param key the key to operate on
+     */
+    void invalidateKey(K key);
+
+    /**
+     * Invalidates all entries of this cache and discards the results of all pending computations.
+     */
+    void clear();
+
+    /**
+     * Returns a synchronous view of this cache. The view shares its storage with this cache, and
+     * its {@link MapCache#getOrCompute(Object, Function) getOrCompute} method takes part in the
+     * deduplication of pending computations, running the supplier in the calling thread if there
+     * is no pending computation. Suppliers passed to it must not compute the same key
+     * recursively, since they would wait for themselves indefinitely.
+     *
+     * @return a synchronous view of this cache
+     */
+    MapCache<K, V> synchronous();
+}
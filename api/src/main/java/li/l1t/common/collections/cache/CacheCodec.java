@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Converts values to and from their binary representation for {@linkplain
+ * ConcurrentMapCache#saveSnapshot(java.nio.file.Path, CacheCodec, CacheCodec) cache snapshots}.
+ * Codecs must read exactly the bytes they have written.
+ *
+ * @param <T> the type of values converted by this codec
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public interface CacheCodec<T> {
+    /**
+     * Writes given value.
+     *
+     * @param value the value to write, never null
+     * @param out   the output to write to
+     * @throws IOException if an I/O error occurs
+     */
+    void write(T value, DataOutput out) throws IOException;
+
+    /**
+     * Reads a value previously written by {@link #write(Object, DataOutput)}.
+     *
+     * @param in the input to read from
+     * @return the value read, must not be null
+     * @throws IOException if an I/O error occurs or the data is malformed
+     */
+    T read(DataInput in) throws IOException;
+
+    /**
+     * @return a codec storing UUIDs as their two halves
+     */
+    static CacheCodec<UUID> uuid() {
+        return new CacheCodec<UUID>() {
+            @Override
+            public void write(UUID value, DataOutput out) throws IOException {
+                out.writeLong(value.getMostSignificantBits());
+                out.writeLong(value.getLeastSignificantBits());
+            }
+
+            @Override
+            public UUID read(DataInput in) throws IOException {
+                return new UUID(in.readLong(), in.readLong());
+            }
+        };
+    }
+
+    /**
+     * @return a codec storing strings in modified UTF-8, limited to 65535 bytes each
+     * @see DataOutput#writeUTF(String)
+     */
+    static CacheCodec<String> string() {
+        return new CacheCodec<String>() {
+            @Override
+            public void write(String value, DataOutput out) throws IOException {
+                out.writeUTF(value);
+            }
+
+            @Override
+            public String read(DataInput in) throws IOException {
+                return in.readUTF();
+            }
+        };
+    }
+
+    /**
+     * @return a codec storing integers as four bytes
+     */
+    static CacheCodec<Integer> integer() {
+        return new CacheCodec<Integer>() {
+            @Override
+            public void write(Integer value, DataOutput out) throws IOException {
+                out.writeInt(value);
+            }
+
+            @Override
+            public Integer read(DataInput in) throws IOException {
+                return in.readInt();
+            }
+        };
+    }
+}
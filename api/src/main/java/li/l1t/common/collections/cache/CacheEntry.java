@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import java.util.Map;
+
+/**
+ * A single mapping stored in a {@link StripedCache}. Entries are immutable with regard to their key
+ * and value, so writing a new value for a key always creates a new entry. The intrusive links are
+ * guarded by the lock of the stripe the key belongs to.
+ * <p>Entries use identity equality, so that conditional map operations only ever affect the exact
+ * entry they were given and never a newer entry with an equal value. This deviates from the
+ * {@link Map.Entry} contract, so entries must be copied before being exposed to users.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+final class CacheEntry<K, V> implements Map.Entry<K, V> {
+    private final K key;
+    private final V value;
+    private final int weight;
+    private final long writeTime;
+    private volatile long accessTime;
+    private volatile boolean alive = true;
+
+    CacheEntry<K, V> previousInWriteOrder;
+    CacheEntry<K, V> nextInWriteOrder;
+    CacheEntry<K, V> previousInAccessOrder;
+    CacheEntry<K, V> nextInAccessOrder;
+    CacheEntry<K, V> previousInPolicyOrder;
+    CacheEntry<K, V> nextInPolicyOrder;
+    /**
+     * The eviction policy queue this entry is currently part of, zero if none.
+     */
+    byte policyQueue;
+
+    CacheEntry(K key, V value, int weight, long now) {
+        this.key = key;
+        this.value = value;
+        this.weight = weight;
+        this.writeTime = now;
+        this.accessTime = now;
+    }
+
+    @Override
+    public K getKey() {
+        return key;
+    }
+
+    @Override
+    public V getValue() {
+        return value;
+    }
+
+    /**
+     * Cache entries are immutable, write a new mapping to the cache instead.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public V setValue(V value) {
+        throw new UnsupportedOperationException("cache entries are immutable");
+    }
+
+    /**
+     * @return the weight of this entry as determined by the cache's weigher when it was written
+     */
+    int getWeight() {
+        return weight;
+    }
+
+    long getWriteTime() {
+        return writeTime;
+    }
+
+    long getAccessTime() {
+        return accessTime;
+    }
+
+    void setAccessTime(long accessTime) {
+        this.accessTime = accessTime;
+    }
+
+    /**
+     * @return whether this entry is still mapped in its cache, as far as the writer that removed or
+     * replaced it has announced
+     */
+    boolean isAlive() {
+        return alive;
+    }
+
+    /**
+     * Marks this entry as no longer being mapped in its cache. Must be called by the thread that
+     * removed or replaced the mapping, before it acquires the stripe lock to unlink this entry.
+     */
+    void retire() {
+        alive = false;
+    }
+
+    @Override
+    public String toString() {
+        return key + "=" + value;
+    }
+}
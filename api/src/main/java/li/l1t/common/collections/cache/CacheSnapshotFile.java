@@ -0,0 +1,222 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reads and writes snapshots of the valid entries of a {@link StripedCache} in a compact binary
+ * format. Since ticker times are meaningless after a restart, each entry is stored with the wall
+ * clock time it expires at, and entries that have expired by the time a snapshot is read are
+ * skipped. Entries are written in order of expiry, so that restoring them keeps the write order
+ * of the cache intact. Snapshots are written to a temporary file that then atomically replaces
+ * the target file, and read through a memory-mapped buffer.
+ * <p>Format: magic number, format version, whether keys are stored, entry count, and for each
+ * entry the expiry time in epoch milliseconds ({@link Long#MAX_VALUE} if it never expires),
+ * the key if keys are stored, and the value.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+final class CacheSnapshotFile {
+    private static final int MAGIC = 0x58594353;
+    private static final int VERSION = 1;
+    private static final long NEVER = Long.MAX_VALUE;
+
+    private CacheSnapshotFile() {
+
+    }
+
+    /**
+     * Writes the valid entries of given cache to given file, replacing it if it exists.
+     *
+     * @param file       the file to write to
+     * @param cache      the cache to write the entries of
+     * @param keyCodec   the codec to write keys with, or null to not store keys because they can
+     *                   be derived from values
+     * @param valueCodec the codec to write values with
+     * @return the number of entries written
+     * @throws IOException if an I/O error occurs
+     */
+    static <K, V> int write(Path file, StripedCache<K, V> cache, CacheCodec<? super K> keyCodec,
+                            CacheCodec<? super V> valueCodec) throws IOException {
+        long now = cache.now();
+        long nowMillis = System.currentTimeMillis();
+        List<SnapshotEntry<K, V>> entries = cache.entries()
+                .map(entry -> new SnapshotEntry<>(entry, expiryMillis(cache.remainingLifetimeNanos(entry, now), nowMillis)))
+                .sorted(Comparator.comparingLong(SnapshotEntry::getExpiresAtMillis))
+                .collect(Collectors.toList());
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeBoolean(keyCodec != null);
+                out.writeInt(entries.size());
+                for (SnapshotEntry<K, V> snapshotEntry : entries) {
+                    CacheEntry<K, V> entry = snapshotEntry.getEntry();
+                    out.writeLong(snapshotEntry.getExpiresAtMillis());
+                    if (keyCodec != null) {
+                        keyCodec.write(entry.getKey(), out);
+                    }
+                    valueCodec.write(entry.getValue(), out);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return entries.size();
+    }
+
+    private static long expiryMillis(long remainingNanos, long nowMillis) {
+        if (remainingNanos == Long.MAX_VALUE) {
+            return NEVER;
+        }
+        return nowMillis + TimeUnit.NANOSECONDS.toMillis(remainingNanos);
+    }
+
+    /**
+     * Restores the entries stored in given file into given cache. Entries that have expired are
+     * skipped, as are keys that are already mapped in the cache.
+     *
+     * @param file       the file to read from
+     * @param cache      the cache to restore the entries into
+     * @param keyCodec   the codec to read keys with, or null if keys are not stored
+     * @param valueCodec the codec to read values with
+     * @param idFunction the function deriving keys from values if keys are not stored, may be
+     *                   null otherwise
+     * @return the number of entries restored, zero if the file does not exist
+     * @throws IOException if an I/O error occurs, or the file is not a snapshot written with the
+     *                     same kind of key storage
+     */
+    static <K, V> int read(Path file, StripedCache<K, V> cache, CacheCodec<? extends K> keyCodec,
+                           CacheCodec<? extends V> valueCodec, Function<? super V, ? extends K> idFunction)
+            throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+        DataInputStream in = new DataInputStream(new ByteBufferInputStream(buffer));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a cache snapshot: " + file);
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported cache snapshot version " + version + ": " + file);
+        }
+        if (in.readBoolean() != (keyCodec != null)) {
+            throw new IOException("Cache snapshot was written by a different kind of cache: " + file);
+        }
+        int count = in.readInt();
+        long nowMillis = System.currentTimeMillis();
+        int restored = 0;
+        for (int i = 0; i < count; i++) {
+            long expiresAtMillis = in.readLong();
+            K key = keyCodec == null ? null : keyCodec.read(in);
+            V value = valueCodec.read(in);
+            if (expiresAtMillis <= nowMillis) {
+                continue;
+            }
+            if (key == null) {
+                key = idFunction.apply(value);
+            }
+            long remainingNanos = expiresAtMillis == NEVER ?
+                    Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(expiresAtMillis - nowMillis);
+            if (cache.restore(key, value, remainingNanos)) {
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    private static class SnapshotEntry<K, V> {
+        private final CacheEntry<K, V> entry;
+        private final long expiresAtMillis;
+
+        SnapshotEntry(CacheEntry<K, V> entry, long expiresAtMillis) {
+            this.entry = entry;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        CacheEntry<K, V> getEntry() {
+            return entry;
+        }
+
+        long getExpiresAtMillis() {
+            return expiresAtMillis;
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            } else if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A weakly consistent spliterator over the valid entries of a {@link StripedCache}, mapping each
+ * entry to the element type of the stream it backs. Traverses the entries of the backing {@link
+ * java.util.concurrent.ConcurrentHashMap} directly, so it neither copies the cache nor blocks
+ * writers, and splits exactly like the map does for parallel streams. Entries are checked for
+ * expiry as they are traversed, relative to the time the spliterator was created.
+ *
+ * @param <K> the key type of the cache
+ * @param <V> the value type of the cache
+ * @param <T> the type of elements produced
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+final class CacheSpliterator<K, V, T> implements Spliterator<T>, Consumer<CacheEntry<K, V>> {
+    private final StripedCache<K, V> cache;
+    private final Spliterator<CacheEntry<K, V>> entries;
+    private final Function<? super CacheEntry<K, V>, ? extends T> mapper;
+    private final int characteristics;
+    private final long now;
+    private CacheEntry<K, V> current;
+
+    /**
+     * @param cache           the cache the entries belong to
+     * @param entries         the spliterator over the entries of the backing map
+     * @param mapper          the function mapping entries to produced elements, must not return
+     *                        null
+     * @param characteristics the characteristics of the produced elements in addition to {@link
+     *                        #CONCURRENT} and {@link #NONNULL}
+     * @param now             the ticker time to check expiry against
+     */
+    CacheSpliterator(StripedCache<K, V> cache, Spliterator<CacheEntry<K, V>> entries,
+                     Function<? super CacheEntry<K, V>, ? extends T> mapper, int characteristics, long now) {
+        this.cache = cache;
+        this.entries = entries;
+        this.mapper = mapper;
+        this.characteristics = characteristics | CONCURRENT | NONNULL;
+        this.now = now;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (entries.tryAdvance(this)) {
+            CacheEntry<K, V> entry = current;
+            current = null;
+            if (!cache.isExpired(entry, now)) {
+                action.accept(mapper.apply(entry));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Receives the next entry from the backing spliterator in {@link #tryAdvance(Consumer)}, so
+     * that advancing does not allocate.
+     *
+     * @param entry the next entry
+     */
+    @Override
+    public void accept(CacheEntry<K, V> entry) {
+        current = entry;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        entries.forEachRemaining(entry -> {
+            if (!cache.isExpired(entry, now)) {
+                action.accept(mapper.apply(entry));
+            }
+        });
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        Spliterator<CacheEntry<K, V>> split = entries.trySplit();
+        return split == null ? null : new CacheSpliterator<>(cache, split, mapper, characteristics, now);
+    }
+
+    @Override
+    public long estimateSize() {
+        return entries.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+}
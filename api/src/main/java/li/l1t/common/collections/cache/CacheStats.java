@@ -0,0 +1,264 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package li.l1t.common.collections.cache;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable snapshot of the statistics of a cache. Counters only ever increase over the
+ * lifetime of a cache, so the statistics for a period of time, for example for periodic export to
+ * monitoring, can be obtained by {@linkplain #minus(CacheStats) subtracting} the snapshot taken at
+ * its start from the one taken at its end.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @see ConcurrentCacheBuilder#recordStats()
+ * @since 2026-10-17
+ */
+public final class CacheStats {
+    private static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0, new long[EvictionCause.values().length]);
+    private final long hitCount;
+    private final long absentHitCount;
+    private final long missCount;
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final long totalLoadTimeNanos;
+    private final long[] evictionCounts;
+
+    CacheStats(long hitCount, long absentHitCount, long missCount, long loadSuccessCount,
+               long loadFailureCount, long totalLoadTimeNanos, long[] evictionCounts) {
+        Preconditions.checkArgument(evictionCounts.length == EvictionCause.values().length, "evictionCounts");
+        this.hitCount = hitCount;
+        this.absentHitCount = absentHitCount;
+        this.missCount = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTimeNanos = totalLoadTimeNanos;
+        this.evictionCounts = evictionCounts;
+    }
+
+    /**
+     * @return statistics with all counters set to zero, as reported by caches that do not record
+     * statistics
+     */
+    public static CacheStats empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return the number of lookups that found a valid mapping
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of hits that found a mapping caching the presence of a value, which is
+     * the same as the hit count for caches that do not cache absence
+     * @see OptionalCache
+     */
+    public long getPresentHitCount() {
+        return hitCount - absentHitCount;
+    }
+
+    /**
+     * @return the number of hits that found a mapping caching the absence of a value
+     * @see OptionalCache#cacheAbsence(Object)
+     */
+    public long getAbsentHitCount() {
+        return absentHitCount;
+    }
+
+    /**
+     * @return the number of lookups that did not find a valid mapping
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the total number of lookups
+     */
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * @return the ratio of lookups that were hits, or one if there were no lookups
+     */
+    public double getHitRate() {
+        long requestCount = getRequestCount();
+        return requestCount == 0 ? 1.0D : (double) hitCount / requestCount;
+    }
+
+    /**
+     * @return the ratio of lookups that were misses, or zero if there were no lookups
+     */
+    public double getMissRate() {
+        long requestCount = getRequestCount();
+        return requestCount == 0 ? 0.0D : (double) missCount / requestCount;
+    }
+
+    /**
+     * @return the number of values that were computed successfully, including background refreshes
+     */
+    public long getLoadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    /**
+     * @return the number of computations that failed with an exception
+     */
+    public long getLoadFailureCount() {
+        return loadFailureCount;
+    }
+
+    /**
+     * @return the total number of computations
+     */
+    public long getLoadCount() {
+        return loadSuccessCount + loadFailureCount;
+    }
+
+    /**
+     * @param unit the unit to return the time in
+     * @return the total time spent computing values, truncated to given unit
+     */
+    public long getTotalLoadTime(TimeUnit unit) {
+        return unit.convert(totalLoadTimeNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the average time spent per computation in nanoseconds, or zero if there were no
+     * computations
+     */
+    public double getAverageLoadPenaltyNanos() {
+        long loadCount = getLoadCount();
+        return loadCount == 0 ? 0.0D : (double) totalLoadTimeNanos / loadCount;
+    }
+
+    /**
+     * @return the total number of evicted mappings
+     */
+    public long getEvictionCount() {
+        long sum = 0;
+        for (long count : evictionCounts) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    /**
+     * @param cause the cause to get the eviction count for
+     * @return the number of mappings evicted due to given cause
+     */
+    public long getEvictionCount(EvictionCause cause) {
+        return evictionCounts[cause.ordinal()];
+    }
+
+    /**
+     * Computes the difference between this snapshot and an earlier one, for example to obtain the
+     * statistics of the last minute. Negative differences are reported as zero.
+     *
+     * @param earlier the earlier snapshot to subtract
+     * @return the statistics recorded after given snapshot and until this one
+     */
+    public CacheStats minus(CacheStats earlier) {
+        Preconditions.checkNotNull(earlier, "earlier");
+        long[] evictions = new long[evictionCounts.length];
+        for (int i = 0; i < evictions.length; i++) {
+            evictions[i] = Math.max(0, evictionCounts[i] - earlier.evictionCounts[i]);
+        }
+        return new CacheStats(
+                Math.max(0, hitCount - earlier.hitCount),
+                Math.max(0, absentHitCount - earlier.absentHitCount),
+                Math.max(0, missCount - earlier.missCount),
+                Math.max(0, loadSuccessCount - earlier.loadSuccessCount),
+                Math.max(0, loadFailureCount - earlier.loadFailureCount),
+                Math.max(0, totalLoadTimeNanos - earlier.totalLoadTimeNanos),
+                evictions
+        );
+    }
+
+    /**
+     * Computes the sum of this snapshot and another one, for example to aggregate the statistics
+     * of multiple caches.
+     *
+     * @param other the snapshot to add
+     * @return the sum of both snapshots
+     */
+    public CacheStats plus(CacheStats other) {
+        Preconditions.checkNotNull(other, "other");
+        long[] evictions = new long[evictionCounts.length];
+        for (int i = 0; i < evictions.length; i++) {
+            evictions[i] = evictionCounts[i] + other.evictionCounts[i];
+        }
+        return new CacheStats(
+                hitCount + other.hitCount,
+                absentHitCount + other.absentHitCount,
+                missCount + other.missCount,
+                loadSuccessCount + other.loadSuccessCount,
+                loadFailureCount + other.loadFailureCount,
+                totalLoadTimeNanos + other.totalLoadTimeNanos,
+                evictions
+        );
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CacheStats that = (CacheStats) o;
+        return hitCount == that.hitCount &&
+                absentHitCount == that.absentHitCount &&
+                missCount == that.missCount &&
+                loadSuccessCount == that.loadSuccessCount &&
+                loadFailureCount == that.loadFailureCount &&
+                totalLoadTimeNanos == that.totalLoadTimeNanos &&
+                Arrays.equals(evictionCounts, that.evictionCounts);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(hitCount);
+        result = 31 * result + Long.hashCode(absentHitCount);
+        result = 31 * result + Long.hashCode(missCount);
+        result = 31 * result + Long.hashCode(loadSuccessCount);
+        result = 31 * result + Long.hashCode(loadFailureCount);
+        result = 31 * result + Long.hashCode(totalLoadTimeNanos);
+        result = 31 * result + Arrays.hashCode(evictionCounts);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hits=" + hitCount + ", absentHits=" + absentHitCount + ", misses=" + missCount +
+                ", loadSuccesses=" + loadSuccessCount + ", loadFailures=" + loadFailureCount +
+                ", totalLoadTimeNanos=" + totalLoadTimeNanos +
+                ", expired=" + getEvictionCount(EvictionCause.EXPIRED) +
+                ", evictedBySize=" + getEvictionCount(EvictionCause.SIZE) + "}";
+    }
+}
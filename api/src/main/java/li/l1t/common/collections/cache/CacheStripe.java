@@ -0,0 +1,195 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the expiry bookkeeping for the subset of keys of a {@link StripedCache} whose hash maps to
+ * this stripe. Entries are kept in write order and in access order, so that expired entries can be
+ * found at the heads of these deques instead of having to scan the whole map. All bookkeeping is
+ * guarded by the lock of the stripe, while the actual mappings are kept in the cache's concurrent
+ * map. If the cache is bounded, the stripe also feeds its {@link SizePolicy} and evicts the
+ * entries it selects after each write.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+final class CacheStripe<K, V> {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final StripedCache<K, V> cache;
+    private final EntryDeque<K, V> writeOrder = EntryDeque.writeOrder();
+    private final EntryDeque<K, V> accessOrder = EntryDeque.accessOrder();
+    private final ReadBuffer<CacheEntry<K, V>> readBuffer = new ReadBuffer<>();
+    private final SizePolicy<K, V> policy;
+
+    /**
+     * @param cache  the cache this stripe belongs to
+     * @param policy the size policy for this stripe, or null if the cache is not bounded
+     */
+    CacheStripe(StripedCache<K, V> cache, SizePolicy<K, V> policy) {
+        this.cache = cache;
+        this.policy = policy;
+    }
+
+    /**
+     * Records that a value has been written to the cache, replacing another entry if non-null.
+     * Also opportunistically removes expired entries of this stripe and evicts entries if the
+     * stripe is overweight.
+     *
+     * @param added    the entry that was just written
+     * @param replaced the entry that was replaced by the write, or null if there was none
+     * @param now      the current ticker time
+     */
+    void afterWrite(CacheEntry<K, V> added, CacheEntry<K, V> replaced, long now) {
+        lock.lock();
+        try {
+            drainReadBuffer();
+            boolean addedAlive = added.isAlive();
+            if (replaced != null) {
+                if (addedAlive && policy != null && policy.contains(replaced)) {
+                    policy.onReplace(replaced, added);
+                }
+                unlink(replaced);
+            }
+            if (addedAlive) {
+                link(added);
+            }
+            expireEntries(now);
+            evictEntries();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that an entry has been removed from the cache. The entry must already be {@link
+     * CacheEntry#retire() retired}.
+     *
+     * @param removed the entry that was removed
+     */
+    void afterRemoval(CacheEntry<K, V> removed) {
+        lock.lock();
+        try {
+            unlink(removed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a read of given entry for access ordering. This does not block. If the read buffer
+     * needs to be drained and the lock is not currently held, the buffer is drained and expired
+     * entries are removed.
+     *
+     * @param entry the entry that was read
+     */
+    void afterRead(CacheEntry<K, V> entry) {
+        if (readBuffer.offer(entry) && lock.tryLock()) {
+            try {
+                drainReadBuffer();
+                expireEntries(cache.now());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Removes all expired entries of this stripe from the cache.
+     *
+     * @param now the current ticker time
+     */
+    void cleanUp(long now) {
+        lock.lock();
+        try {
+            drainReadBuffer();
+            expireEntries(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void link(CacheEntry<K, V> entry) {
+        if (cache.expiresAfterWrite()) {
+            writeOrder.addLast(entry);
+        }
+        if (cache.expiresAfterAccess()) {
+            accessOrder.addLast(entry);
+        }
+        if (policy != null && !policy.contains(entry)) {
+            policy.onAdd(entry);
+        }
+    }
+
+    private void unlink(CacheEntry<K, V> entry) {
+        writeOrder.remove(entry);
+        accessOrder.remove(entry);
+        if (policy != null) {
+            policy.onRemove(entry);
+        }
+    }
+
+    private void drainReadBuffer() {
+        readBuffer.drainTo(this::applyRead);
+    }
+
+    private void applyRead(CacheEntry<K, V> entry) {
+        if (entry.isAlive()) {
+            accessOrder.moveToLast(entry);
+            if (policy != null) {
+                policy.onAccess(entry);
+            }
+        }
+    }
+
+    private void expireEntries(long now) {
+        expireFrom(writeOrder, now);
+        expireFrom(accessOrder, now);
+    }
+
+    private void evictEntries() {
+        if (policy == null) {
+            return;
+        }
+        CacheEntry<K, V> victim;
+        while ((victim = policy.selectVictim()) != null) {
+            if (cache.removeIfSame(victim)) {
+                cache.getStatsCounter().recordEviction(EvictionCause.SIZE);
+            }
+            unlink(victim);
+        }
+    }
+
+    private void expireFrom(EntryDeque<K, V> deque, long now) {
+        CacheEntry<K, V> candidate;
+        while ((candidate = deque.peekFirst()) != null && cache.isExpired(candidate, now)) {
+            if (cache.removeIfSame(candidate)) {
+                cache.getStatsCounter().recordEviction(EvictionCause.EXPIRED);
+            }
+            unlink(candidate);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A thread-safe asynchronous map cache backed by a {@link ConcurrentMapCache}, sharing its expiry
+ * and eviction behaviour. Pending computations are tracked per key, and a successful computation
+ * is only cached if its key has not been invalidated or written to while it was pending. Neither
+ * keys nor values may be null.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @see ConcurrentCacheBuilder for more configuration options
+ * @since 2026-10-17
+ */
+public class ConcurrentAsyncMapCache<K, V> implements AsyncMapCache<K, V> {
+    private final ConcurrentMapCache<K, V> storage;
+    private final StripedCache<K, V> striped;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> pending = new ConcurrentHashMap<>();
+    private final MapCache<K, V> synchronousView = new SynchronousView();
+
+    /**
+     * Creates a new cache that expires mappings after a fixed time since they have been written.
+     *
+     * @param writeExpiry the amount of time after which mappings expire once written
+     * @param unit        the unit of the amount of time
+     */
+    public ConcurrentAsyncMapCache(long writeExpiry, TimeUnit unit) {
+        this(ConcurrentCacheBuilder.newBuilder().expireAfterWrite(writeExpiry, unit));
+    }
+
+    ConcurrentAsyncMapCache(ConcurrentCacheBuilder<? super K, ? super V> builder) {
+        this.storage = new ConcurrentMapCache<>(builder);
+        this.striped = storage.getStripedCache();
+    }
+
+    @Override
+    public CompletableFuture<Optional<V>> getAsync(K key) {
+        Optional<V> cached = storage.get(key);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<V> future = pending.get(key);
+        if (future == null) {
+            // a computation may have completed since the first lookup
+            return CompletableFuture.completedFuture(Optional.ofNullable(valueOf(striped.lookup(key))));
+        }
+        return future.handle((value, failure) -> Optional.ofNullable(value));
+    }
+
+    @Override
+    public CompletableFuture<V> getOrComputeAsync(K key, Function<? super K, ? extends V> supplier, Executor executor) {
+        Preconditions.checkNotNull(supplier, "supplier");
+        Preconditions.checkNotNull(executor, "executor");
+        Optional<V> cached = storage.get(key);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = pending.putIfAbsent(key, future);
+        if (existing != null) {
+            return copyOf(existing);
+        }
+        V completed = valueOf(striped.lookup(key));
+        if (completed != null) {
+            pending.remove(key, future);
+            future.complete(completed);
+            return CompletableFuture.completedFuture(completed);
+        }
+        long start = striped.now();
+        try {
+            CompletableFuture.supplyAsync(() -> supplier.apply(key), executor)
+                    .whenComplete((value, failure) -> completeLoad(key, future, value, failure, start));
+        } catch (RuntimeException e) {
+            completeLoad(key, future, null, e, start);
+        }
+        return copyOf(future);
+    }
+
+    private V valueOf(CacheEntry<K, V> entry) {
+        return entry == null ? null : entry.getValue();
+    }
+
+    private CompletableFuture<V> copyOf(CompletableFuture<V> future) {
+        return future.thenApply(Function.identity());
+    }
+
+    private void completeLoad(K key, CompletableFuture<V> future, V value, Throwable failure, long start) {
+        Throwable cause = unwrap(failure);
+        if (cause == null && value == null) {
+            cause = new NullPointerException("supplier returned null for " + key);
+        }
+        StatsCounter stats = striped.getStatsCounter();
+        if (cause != null) {
+            stats.recordLoadFailure(striped.now() - start);
+            pending.remove(key, future);
+            future.completeExceptionally(cause);
+            return;
+        }
+        stats.recordLoadSuccess(striped.now() - start);
+        pending.computeIfPresent(key, (ignored, current) -> {
+            if (current != future) {
+                return current;
+            }
+            storage.cache(key, value);
+            return null;
+        });
+        future.complete(value);
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        if (failure instanceof CompletionException && failure.getCause() != null) {
+            return failure.getCause();
+        }
+        return failure;
+    }
+
+    @Override
+    public void invalidateKey(K key) {
+        pending.remove(key);
+        storage.invalidateKey(key);
+    }
+
+    @Override
+    public void clear() {
+        pending.clear();
+        storage.clear();
+    }
+
+    @Override
+    public MapCache<K, V> synchronous() {
+        return synchronousView;
+    }
+
+    /**
+     * @return a snapshot of the current statistics of this cache
+     * @see ConcurrentCacheBuilder#recordStats()
+     */
+    public CacheStats stats() {
+        return storage.stats();
+    }
+
+    /**
+     * Removes all expired mappings from this cache. Calling this method is never necessary for
+     * correctness, but may be used to release memory held by expired mappings in caches that are
+     * rarely used.
+     */
+    public void cleanUp() {
+        storage.cleanUp();
+    }
+
+    /**
+     * @return the approximate number of mappings in this cache, which may include expired
+     * mappings that have not yet been cleaned up
+     */
+    public long estimatedSize() {
+        return storage.estimatedSize();
+    }
+
+    /**
+     * @return the number of computations currently pending
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private class SynchronousView implements MapCache<K, V> {
+        @Override
+        public void clear() {
+            ConcurrentAsyncMapCache.this.clear();
+        }
+
+        @Override
+        public <R extends V> R cache(K key, R value) {
+            pending.remove(key);
+            return storage.cache(key, value);
+        }
+
+        @Override
+        public <R extends V> R compute(K key, Function<? super K, R> supplier) {
+            Preconditions.checkNotNull(supplier, "supplier");
+            return cache(key, supplier.apply(key));
+        }
+
+        @Override
+        public Optional<V> get(K key) {
+            return storage.get(key);
+        }
+
+        @Override
+        public V getOrCompute(K key, Function<K, ? extends V> supplier) {
+            try {
+                return getOrComputeAsync(key, supplier, Runnable::run).join();
+            } catch (CompletionException e) {
+                Throwable cause = unwrap(e);
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public void invalidateKey(K key) {
+            ConcurrentAsyncMapCache.this.invalidateKey(key);
+        }
+
+        @Override
+        public boolean containsKey(K key) {
+            return storage.containsKey(key);
+        }
+
+        @Override
+        public Stream<Map.Entry<K, V>> entryStream() {
+            return storage.entryStream();
+        }
+
+        @Override
+        public Stream<K> keyStream() {
+            return storage.keyStream();
+        }
+
+        @Override
+        public Stream<V> valueStream() {
+            return storage.valueStream();
+        }
+
+        @Override
+        public CacheStats stats() {
+            return storage.stats();
+        }
+    }
+}
@@ -0,0 +1,461 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Weigher;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Fluent builder for the concurrent cache implementations in this package. By default, built
+ * caches never expire their mappings. Builders may be reused, changes made after a cache has been
+ * built do not affect that cache.
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * MapCache<UUID, String> names = ConcurrentCacheBuilder.newBuilder()
+ *         .expireAfterWrite(5, TimeUnit.MINUTES)
+ *         .buildMapCache();
+ * }</pre>
+ *
+ * @param <K> the lower bound for key types of caches built by this builder
+ * @param <V> the lower bound for value types of caches built by this builder
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public final class ConcurrentCacheBuilder<K, V> {
+    static final long UNSET = -1L;
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    private static final int MAXIMUM_NEAR_CAPACITY = 1 << 16;
+    private long writeExpiryNanos = UNSET;
+    private long accessExpiryNanos = UNSET;
+    private int concurrencyLevel = DEFAULT_CONCURRENCY_LEVEL;
+    private Ticker ticker = Ticker.systemTicker();
+    private long maximumWeight = UNSET;
+    private boolean sizeBounded;
+    private Weigher<? super K, ? super V> weigher;
+    private EvictionPolicy evictionPolicy = EvictionPolicy.WINDOW_TINY_LFU;
+    private boolean singleFlightLoading;
+    private long refreshNanos = UNSET;
+    private boolean recordingStats;
+    private long absenceExpiryNanos = UNSET;
+    private long maximumAbsenceSize = UNSET;
+    private Executor refreshExecutor;
+
+    private ConcurrentCacheBuilder() {
+
+    }
+
+    /**
+     * @return a new builder with default settings
+     */
+    public static ConcurrentCacheBuilder<Object, Object> newBuilder() {
+        return new ConcurrentCacheBuilder<>();
+    }
+
+    /**
+     * Sets the time after which mappings expire once they have been written.
+     *
+     * @param duration the amount of time, must be positive
+     * @param unit     the unit of the amount of time
+     * @return this builder
+     */
+    public ConcurrentCacheBuilder<K, V> expireAfterWrite(long duration, TimeUnit unit) {
+        this.writeExpiryNanos = toPositiveNanos(duration, unit);
+        return this;
+    }
+
+    /**
+     * Sets the time after which mappings expire once they have last been read or written.
+     *
+     * @param duration the amount of time, must be positive
+     * @param unit     the unit of the amount of time
+     * @return this builder
+     */
+    public ConcurrentCacheBuilder<K, V> expireAfterAccess(long duration, TimeUnit unit) {
+        this.accessExpiryNanos = toPositiveNanos(duration, unit);
+        return this;
+    }
+
+    private long toPositiveNanos(long duration, TimeUnit unit) {
+        Preconditions.checkNotNull(unit, "unit");
+        Preconditions.checkArgument(duration > 0, "duration must be positive: %s", duration);
+        return unit.toNanos(duration);
+    }
+
+    /**
+     * Sets the expected number of threads writing to built caches concurrently. This determines
+     * the number of lock stripes used for bookkeeping. The default is 16.
+     *
+     * @param concurrencyLevel the expected number of concurrent writers, must be positive
+     * @return this builder
+     */
+    public ConcurrentCacheBuilder<K, V> concurrencyLevel(int concurrencyLevel) {
+        Preconditions.checkArgument(concurrencyLevel > 0, "concurrencyLevel must be positive: %s", concurrencyLevel);
+        this.concurrencyLevel = concurrencyLevel;
+        return this;
+    }
+
+    /**
+     * Sets the time source used to determine expiry. Mostly useful for testing. The default is
+     * {@link Ticker#systemTicker()}.
+     *
+     * @param ticker the time source, nanosecond precision
+     * @return this builder
+     */
+    public ConcurrentCacheBuilder<K, V> ticker(Ticker ticker) {
+        this.ticker = Preconditions.checkNotNull(ticker, "ticker");
+        return this;
+    }
+
+    /**
+     * Bounds built caches to given number of mappings. Mappings are evicted according to the
+     * {@linkplain #evictionPolicy(EvictionPolicy) eviction policy} once the bound is exceeded. The
+     * bound is split evenly across the lock stripes, so mappings may be evicted before the total
+     * size reaches the maximum if keys are unevenly distributed. Mutually exclusive with {@link
+     * #maximumWeight(long)}.
+     *
+     * @param maximumSize the maximum number of mappings, must not be negative
+     * @return this builder
+     * @throws IllegalStateException if a maximum size or weight has already been set
+     */
+    public ConcurrentCacheBuilder<K, V> maximumSize(long maximumSize) {
+        Preconditions.checkState(weigher == null, "maximumSize cannot be combined with a weigher");
+        maximumWeight(maximumSize);
+        this.sizeBounded = true;
+        return this;
+    }
+
+    /**
+     * Bounds built caches to given total weight of mappings, as determined by the {@linkplain
+     * #weigher(Weigher) weigher}. Mappings are evicted according to the {@linkplain
+     * #evictionPolicy(EvictionPolicy) eviction policy} once the bound is exceeded. The bound is
+     * split evenly across the lock stripes, so mappings may be evicted before the total weight
+     * reaches the maximum if keys are unevenly distributed. If no weigher is set, each mapping has
+     * a weight of one.
+     *
+     * @param maximumWeight the maximum total weight of mappings, must not be negative
+     * @return this builder
+     * @throws IllegalStateException if a maximum size or weight has already been set
+     */
+    public ConcurrentCacheBuilder<K, V> maximumWeight(long maximumWeight) {
+        Preconditions.checkState(this.maximumWeight == UNSET, "maximum weight was already set to %s", this.maximumWeight);
+        Preconditions.checkArgument(maximumWeight >= 0, "maximumWeight must not be negative: %s", maximumWeight);
+        this.maximumWeight = maximumWeight;
+        return this;
+    }
+
+    /**
+     * Sets the function determining the weight of mappings for the {@linkplain
+     * #maximumWeight(long) maximum weight}. The weight of a mapping is computed once when it is
+     * written. Weights must not be negative. Mutually exclusive with {@link #maximumSize(long)}.
+     *
+     * @param weigher the weigher to use
+     * @param <K1>    the key type of caches built by this builder
+     * @param <V1>    the value type of caches built by this builder
+     * @return this builder
+     * @throws IllegalStateException if a maximum size has already been set
+     */
+    @SuppressWarnings("unchecked")
+    public <K1 extends K, V1 extends V> ConcurrentCacheBuilder<K1, V1> weigher(Weigher<? super K1, ? super V1> weigher) {
+        Preconditions.checkNotNull(weigher, "weigher");
+        Preconditions.checkState(!sizeBounded, "a weigher cannot be combined with maximumSize");
+        ConcurrentCacheBuilder<K1, V1> self = (ConcurrentCacheBuilder<K1, V1>) this;
+        self.weigher = weigher;
+        return self;
+    }
+
+    /**
+     * Sets the strategy used to select mappings for eviction once the maximum size or weight is
+     * exceeded. The default is {@link EvictionPolicy#WINDOW_TINY_LFU}.
+     *
+     * @param evictionPolicy the eviction policy
+     * @return this builder
+     */
+    public ConcurrentCacheBuilder<K, V> evictionPolicy(EvictionPolicy evictionPolicy) {
+        this.evictionPolicy = Preconditions.checkNotNull(evictionPolicy, "evictionPolicy");
+        return this;
+    }
+
+    /**
+     * Makes concurrent {@code getOrCompute} calls that miss for the same key share a single
+     * computation. Only the first caller runs its supplier, while the others wait for it and
+     * receive its result or rethrow its exception. Loads of different keys still run in parallel,
+     * and no lock is held while a supplier runs. Suppliers must not recursively compute the same
+     * key in the same cache, which is detected and results in an {@link IllegalStateException}.
+     * By default, every caller that misses runs its supplier.
+     *
+     * @return this builder
+     */
+    public ConcurrentCacheBuilder<K, V> singleFlightLoading() {
+        this.singleFlightLoading = true;
+        return this;
+    }
+
+    /**
+     * Sets the time after which cached absence expires once it has been written in built
+     * {@linkplain OptionalCache optional caches}. This is typically shorter than the expiry of
+     * present values, so that lookups of keys that do not exist do not linger. By default, absence
+     * expires like present values do.
+     *
+     * @param duration the amount of time, must be positive
+     * @param unit     the unit of the amount of time
+     * @return this builder
+     * @see OptionalCache#cacheAbsence(Object)
+     */
+    public ConcurrentCacheBuilder<K, V> expireAbsenceAfterWrite(long duration, TimeUnit unit) {
+        this.absenceExpiryNanos = toPositiveNanos(duration, unit);
+        return this;
+    }
+
+    /**
+     * Bounds the number of keys whose absence is cached by built {@linkplain OptionalCache optional
+     * caches}. Absence is stored separately from present values, so that caching absence of many
+     * keys never evicts present values. By default, the number of cached absent keys is bounded by
+     * the {@linkplain #maximumSize(long) maximum size} of the cache, if any, independently of the
+     * present values.
+     *
+     * @param maximumAbsenceSize the maximum number of absent keys, must not be negative
+     * @return this builder
+     */
+    public ConcurrentCacheBuilder<K, V> maximumAbsenceSize(long maximumAbsenceSize) {
+        Preconditions.checkArgument(maximumAbsenceSize >= 0, "maximumAbsenceSize must not be negative: %s", maximumAbsenceSize);
+        this.maximumAbsenceSize = maximumAbsenceSize;
+        return this;
+    }
+
+    /**
+     * Makes built caches record {@linkplain CacheStats statistics} about hits, misses, loads and
+     * evictions, which can be obtained from {@link MapCache#stats()} or {@link IdCache#stats()}.
+     * Recording uses striped counters and does not contend between threads, but still has a small
+     * cost on every operation. By default, caches report empty statistics.
+     *
+     * @return this builder
+     */
+    public ConcurrentCacheBuilder<K, V> recordStats() {
+        this.recordingStats = true;
+        return this;
+    }
+
+    /**
+     * Makes {@code getOrCompute} calls that hit a mapping written longer than given time ago
+     * return the current value immediately and reload the mapping in the background, using the
+     * supplier passed to that call. Only one reload per key runs at a time, and its result only
+     * replaces the mapping if it has not been written or invalidated in the meantime. Failed
+     * reloads are logged and leave the current mapping in place. Plain {@code get} calls never
+     * trigger reloads, since they have no supplier. The refresh time should be shorter than the
+     * {@linkplain #expireAfterWrite(long, TimeUnit) write expiry}, otherwise mappings expire before
+     * they are refreshed.
+     *
+     * @param duration the amount of time, must be positive
+     * @param unit     the unit of the amount of time
+     * @param executor the executor to run reloads on
+     * @return this builder
+     */
+    public ConcurrentCacheBuilder<K, V> refreshAfterWrite(long duration, TimeUnit unit, Executor executor) {
+        this.refreshExecutor = Preconditions.checkNotNull(executor, "executor");
+        this.refreshNanos = toPositiveNanos(duration, unit);
+        return this;
+    }
+
+    /**
+     * @param <K1> the key type of the cache
+     * @param <V1> the value type of the cache
+     * @return a new map cache with the settings of this builder
+     */
+    public <K1 extends K, V1 extends V> ConcurrentMapCache<K1, V1> buildMapCache() {
+        return new ConcurrentMapCache<>(this);
+    }
+
+    /**
+     * @param <K1> the key type of the cache
+     * @param <V1> the value type of the cache
+     * @return a new asynchronous map cache with the settings of this builder
+     */
+    public <K1 extends K, V1 extends V> ConcurrentAsyncMapCache<K1, V1> buildAsyncMapCache() {
+        return new ConcurrentAsyncMapCache<>(this);
+    }
+
+    /**
+     * @param idFunction the function obtaining the identifier of values
+     * @param <K1>       the key type of the cache
+     * @param <V1>       the value type of the cache
+     * @return a new id cache with the settings of this builder
+     */
+    public <K1 extends K, V1 extends V> ConcurrentIdCache<K1, V1> buildIdCache(
+            Function<? super V1, ? extends K1> idFunction) {
+        return new ConcurrentIdCache<>(this, idFunction);
+    }
+
+    /**
+     * Builds a two-level id cache, which places a tiny unsynchronised per-thread near cache in
+     * front of a shared cache with the settings of this builder. This is only worth it for
+     * extremely hot keys, since each thread keeps its own copy of recently read mappings.
+     *
+     * @param idFunction   the function obtaining the identifier of values
+     * @param nearCapacity the number of mappings each per-thread near cache holds, rounded up to
+     *                     the next power of two
+     * @param nearExpiry   the amount of time after which near mappings expire once read from the
+     *                     shared cache, which bounds how long they may outlive expiry in the shared
+     *                     cache
+     * @param unit         the unit of the amount of time
+     * @param <K1>         the key type of the cache
+     * @param <V1>         the value type of the cache
+     * @return a new two-level id cache with the settings of this builder for the shared cache
+     * @see TwoLevelIdCache
+     */
+    public <K1 extends K, V1 extends V> TwoLevelIdCache<K1, V1> buildTwoLevelIdCache(
+            Function<? super V1, ? extends K1> idFunction, int nearCapacity, long nearExpiry, TimeUnit unit) {
+        Preconditions.checkArgument(nearCapacity <= MAXIMUM_NEAR_CAPACITY,
+                "nearCapacity must not exceed %s: %s", MAXIMUM_NEAR_CAPACITY, nearCapacity);
+        return new TwoLevelIdCache<>(this, idFunction, nearCapacity, toPositiveNanos(nearExpiry, unit));
+    }
+
+    /**
+     * Builds a compact map cache for {@link UUID} keys. Such caches only support {@linkplain
+     * #expireAfterWrite(long, TimeUnit) write expiry} and a custom {@linkplain #ticker(Ticker)
+     * ticker}. They are never bounded and do not record statistics, so this method fails if any
+     * other setting was changed.
+     *
+     * @param <V1> the value type of the cache
+     * @return a new UUID map cache with the settings of this builder
+     * @throws IllegalStateException if a setting not supported by UUID caches was changed
+     * @see UuidMapCache
+     */
+    public <V1 extends V> UuidMapCache<V1> buildUuidMapCache() {
+        checkUuidCacheSettings();
+        return new UuidMapCache<>(writeExpiryNanos, ticker);
+    }
+
+    /**
+     * Builds a compact cache mapping {@link UUID} keys to primitive int values. Such caches only
+     * support {@linkplain #expireAfterWrite(long, TimeUnit) write expiry} and a custom {@linkplain
+     * #ticker(Ticker) ticker}. They are never bounded and do not record statistics, so this method
+     * fails if any other setting was changed.
+     *
+     * @return a new UUID int cache with the settings of this builder
+     * @throws IllegalStateException if a setting not supported by UUID caches was changed
+     * @see UuidIntCache
+     */
+    public UuidIntCache buildUuidIntCache() {
+        checkUuidCacheSettings();
+        return new UuidIntCache(writeExpiryNanos, ticker);
+    }
+
+    private void checkUuidCacheSettings() {
+        Preconditions.checkState(maximumWeight == UNSET, "UUID caches cannot be bounded");
+        Preconditions.checkState(accessExpiryNanos == UNSET, "UUID caches do not support access expiry");
+        Preconditions.checkState(!recordingStats, "UUID caches do not record statistics");
+        Preconditions.checkState(refreshNanos == UNSET, "UUID caches do not support refreshing");
+        Preconditions.checkState(!singleFlightLoading, "UUID caches do not support single-flight loading");
+    }
+
+    /**
+     * @param <K1> the key type of the cache
+     * @param <V1> the type of the values wrapped in optionals by the cache
+     * @return a new optional cache with the settings of this builder
+     */
+    @SuppressWarnings("unchecked")
+    public <K1 extends K, V1> ConcurrentOptionalCache<K1, V1> buildOptionalCache() {
+        return new ConcurrentOptionalCache<>((ConcurrentCacheBuilder<? super K1, ? super Optional<V1>>) this);
+    }
+
+    /**
+     * @return a new builder with the settings for the absence store of optional caches built by
+     * this builder
+     */
+    ConcurrentCacheBuilder<Object, Object> toAbsenceBuilder() {
+        ConcurrentCacheBuilder<Object, Object> absence = newBuilder();
+        absence.concurrencyLevel = concurrencyLevel;
+        absence.ticker = ticker;
+        absence.evictionPolicy = evictionPolicy;
+        if (absenceExpiryNanos != UNSET) {
+            absence.writeExpiryNanos = absenceExpiryNanos;
+        } else {
+            absence.writeExpiryNanos = writeExpiryNanos;
+            absence.accessExpiryNanos = accessExpiryNanos;
+        }
+        if (maximumAbsenceSize != UNSET) {
+            absence.maximumWeight = maximumAbsenceSize;
+        } else if (weigher == null) {
+            absence.maximumWeight = maximumWeight;
+        }
+        return absence;
+    }
+
+    long getWriteExpiryNanos() {
+        return writeExpiryNanos;
+    }
+
+    long getAccessExpiryNanos() {
+        return accessExpiryNanos;
+    }
+
+    long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    boolean isBounded() {
+        return maximumWeight != UNSET;
+    }
+
+    Weigher<? super K, ? super V> getWeigher() {
+        Preconditions.checkState(weigher == null || isBounded(), "weigher requires maximumWeight");
+        return weigher;
+    }
+
+    EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    boolean isSingleFlightLoading() {
+        return singleFlightLoading;
+    }
+
+    boolean isRecordingStats() {
+        return recordingStats;
+    }
+
+    long getRefreshNanos() {
+        return refreshNanos;
+    }
+
+    Executor getRefreshExecutor() {
+        return refreshExecutor;
+    }
+
+    int getConcurrencyLevel() {
+        return concurrencyLevel;
+    }
+
+    Ticker getTicker() {
+        return ticker;
+    }
+}
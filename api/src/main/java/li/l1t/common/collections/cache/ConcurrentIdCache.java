@@ -0,0 +1,208 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A thread-safe id cache that expires mappings after a fixed time since they have been written
+ * and/or last accessed. Shares its concurrency and expiry behaviour with {@link
+ * ConcurrentMapCache}. Neither identifiers nor values may be null.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @see ConcurrentCacheBuilder for more configuration options
+ * @since 2026-10-17
+ */
+public class ConcurrentIdCache<K, V> implements IdCache<K, V> {
+    private final StripedCache<K, V> cache;
+    private final Function<? super V, ? extends K> idFunction;
+
+    /**
+     * Creates a new cache that expires mappings after a fixed time since they have been written.
+     *
+     * @param idFunction  the function obtaining the identifier of values
+     * @param writeExpiry the amount of time after which mappings expire once written
+     * @param unit        the unit of the amount of time
+     */
+    public ConcurrentIdCache(Function<? super V, ? extends K> idFunction, long writeExpiry, TimeUnit unit) {
+        this(ConcurrentCacheBuilder.newBuilder().expireAfterWrite(writeExpiry, unit), idFunction);
+    }
+
+    ConcurrentIdCache(ConcurrentCacheBuilder<? super K, ? super V> builder, Function<? super V, ? extends K> idFunction) {
+        this.idFunction = Preconditions.checkNotNull(idFunction, "idFunction");
+        this.cache = new StripedCache<>(builder);
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public <R extends V> R cache(R value) {
+        Preconditions.checkNotNull(value, "value");
+        cache.put(idOf(value), value);
+        return value;
+    }
+
+    private K idOf(V value) {
+        return Preconditions.checkNotNull(idFunction.apply(value), "idFunction returned null for %s", value);
+    }
+
+    @Override
+    public <R extends V> R compute(K id, Function<? super K, R> supplier) {
+        Preconditions.checkNotNull(supplier, "supplier");
+        return cache(supplier.apply(id));
+    }
+
+    @Override
+    public Optional<V> get(K id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    @Override
+    public V getOrCompute(K id, Function<? super K, ? extends V> supplier) {
+        Preconditions.checkNotNull(supplier, "supplier");
+        return cache.getOrLoad(id, () -> cache(supplier.apply(id)), () -> reload(id, supplier));
+    }
+
+    /**
+     * {@inheritDoc} <p>Each requested identifier that is not cached counts as a miss, and each call to
+     * the loader counts as a single load in the {@linkplain #stats() statistics}, regardless of
+     * how many mappings it returns.</p>
+     */
+    @Override
+    public Map<K, V> getOrComputeAll(Collection<? extends K> ids,
+                                     Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> loader) {
+        Preconditions.checkNotNull(loader, "loader");
+        return IdCache.super.getOrComputeAll(ids, cache.timedBulkLoader(loader));
+    }
+
+    private V reload(K id, Function<? super K, ? extends V> supplier) {
+        V value = Preconditions.checkNotNull(supplier.apply(id), "supplier returned null for %s", id);
+        if (id.equals(idOf(value))) {
+            return value;
+        }
+        cache(value);
+        return null;
+    }
+
+    @Override
+    public void invalidateValue(V value) {
+        Preconditions.checkNotNull(value, "value");
+        cache.invalidate(idOf(value));
+    }
+
+    @Override
+    public void invalidateKey(K key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public boolean containsKey(K id) {
+        return cache.containsKey(id);
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        Preconditions.checkNotNull(value, "value");
+        return get(idOf(value)).filter(value::equals).isPresent();
+    }
+
+    @Override
+    public Stream<V> stream() {
+        return cache.stream(CacheEntry::getValue, 0);
+    }
+
+    @Override
+    public CacheStats stats() {
+        return cache.getStatsCounter().snapshot();
+    }
+
+    /**
+     * Writes the valid mappings of this cache to given file, replacing it if it exists, for
+     * example on shutdown. Only values are stored, since identifiers are derived from them. Each
+     * mapping is stored with the time it would expire at, so that it can be {@linkplain
+     * #loadSnapshot(Path, CacheCodec) restored} with its remaining lifetime after a restart.
+     *
+     * @param file       the file to write to
+     * @param valueCodec the codec to write values with
+     * @return the number of mappings written
+     * @throws IOException if an I/O error occurs
+     */
+    public int saveSnapshot(Path file, CacheCodec<? super V> valueCodec) throws IOException {
+        Preconditions.checkNotNull(file, "file");
+        Preconditions.checkNotNull(valueCodec, "valueCodec");
+        return CacheSnapshotFile.write(file, cache, null, valueCodec);
+    }
+
+    /**
+     * Restores the mappings of a snapshot written by {@link #saveSnapshot(Path, CacheCodec)}, for
+     * example on startup. Mappings keep their remaining lifetime and are skipped if they have
+     * expired since. Identifiers that are already mapped in this cache are not overwritten, so
+     * this may run in the background while the cache is already in use.
+     *
+     * @param file       the file to read from
+     * @param valueCodec the codec to read values with
+     * @return the number of mappings restored, zero if the file does not exist
+     * @throws IOException if an I/O error occurs or the file is not a valid snapshot
+     */
+    public int loadSnapshot(Path file, CacheCodec<? extends V> valueCodec) throws IOException {
+        Preconditions.checkNotNull(file, "file");
+        Preconditions.checkNotNull(valueCodec, "valueCodec");
+        return CacheSnapshotFile.read(file, cache, null, valueCodec, this::idOf);
+    }
+
+    /**
+     * Removes all expired mappings from this cache. Calling this method is never necessary for
+     * correctness, but may be used to release memory held by expired mappings in caches that are
+     * rarely used.
+     */
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    /**
+     * @return the approximate number of mappings in this cache, which may include expired
+     * mappings that have not yet been cleaned up
+     */
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    StripedCache<K, V> getStripedCache() {
+        return cache;
+    }
+}
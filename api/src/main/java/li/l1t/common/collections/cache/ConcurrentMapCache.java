@@ -0,0 +1,219 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A thread-safe map cache that expires mappings after a fixed time since they have been written
+ * and/or last accessed. Reads do not block, and writes to keys in different lock stripes do not
+ * contend. Expired mappings are never returned and are cleaned up incrementally as part of normal
+ * operations, without scanning the whole cache. Streams are weakly consistent and traverse the
+ * cache directly, without copying it or blocking writers, and split efficiently for parallel
+ * processing. Neither keys nor values may be null.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @see ConcurrentCacheBuilder for more configuration options
+ * @since 2026-10-17
+ */
+public class ConcurrentMapCache<K, V> implements MapCache<K, V> {
+    private final StripedCache<K, V> cache;
+
+    /**
+     * Creates a new cache that expires mappings after a fixed time since they have been written.
+     *
+     * @param writeExpiry the amount of time after which mappings expire once written
+     * @param unit        the unit of the amount of time
+     */
+    public ConcurrentMapCache(long writeExpiry, TimeUnit unit) {
+        this(ConcurrentCacheBuilder.newBuilder().expireAfterWrite(writeExpiry, unit));
+    }
+
+    ConcurrentMapCache(ConcurrentCacheBuilder<? super K, ? super V> builder) {
+        this.cache = new StripedCache<>(builder);
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public <R extends V> R cache(K key, R value) {
+        cache.put(key, value);
+        return value;
+    }
+
+    @Override
+    public <R extends V> R compute(K key, Function<? super K, R> supplier) {
+        Preconditions.checkNotNull(supplier, "supplier");
+        return cache(key, supplier.apply(key));
+    }
+
+    @Override
+    public Optional<V> get(K key) {
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    @Override
+    public V getOrCompute(K key, Function<K, ? extends V> supplier) {
+        Preconditions.checkNotNull(supplier, "supplier");
+        return cache.getOrLoad(key, () -> cache(key, supplier.apply(key)), () -> reload(key, supplier));
+    }
+
+    /**
+     * {@inheritDoc} <p>Each requested key that is not cached counts as a miss, and each call to
+     * the loader counts as a single load in the {@linkplain #stats() statistics}, regardless of
+     * how many mappings it returns.</p>
+     */
+    @Override
+    public Map<K, V> getOrComputeAll(Collection<? extends K> keys,
+                                     Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> loader) {
+        Preconditions.checkNotNull(loader, "loader");
+        return MapCache.super.getOrComputeAll(keys, cache.timedBulkLoader(loader));
+    }
+
+    /**
+     * Computes a fresh value for a background refresh.
+     *
+     * @param key      the key to refresh
+     * @param supplier the supplier to compute the value with
+     * @return the value to replace the current mapping with, or null to keep it
+     */
+    V reload(K key, Function<K, ? extends V> supplier) {
+        return supplier.apply(key);
+    }
+
+    @Override
+    public void invalidateKey(K key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return cache.containsKey(key);
+    }
+
+    @Override
+    public Stream<Map.Entry<K, V>> entryStream() {
+        return cache.stream(ConcurrentMapCache::exportEntry, Spliterator.DISTINCT);
+    }
+
+    @Override
+    public Stream<K> keyStream() {
+        return cache.stream(CacheEntry::getKey, Spliterator.DISTINCT);
+    }
+
+    @Override
+    public Stream<V> valueStream() {
+        return cache.stream(CacheEntry::getValue, 0);
+    }
+
+    @Override
+    public CacheStats stats() {
+        return cache.getStatsCounter().snapshot();
+    }
+
+    /**
+     * Writes the valid mappings of this cache to given file, replacing it if it exists, for
+     * example on shutdown. Each mapping is stored with the time it would expire at, so that it can
+     * be {@linkplain #loadSnapshot(Path, CacheCodec, CacheCodec) restored} with its remaining
+     * lifetime after a restart.
+     *
+     * @param file       the file to write to
+     * @param keyCodec   the codec to write keys with
+     * @param valueCodec the codec to write values with
+     * @return the number of mappings written
+     * @throws IOException if an I/O error occurs
+     */
+    public int saveSnapshot(Path file, CacheCodec<? super K> keyCodec, CacheCodec<? super V> valueCodec) throws IOException {
+        Preconditions.checkNotNull(file, "file");
+        Preconditions.checkNotNull(keyCodec, "keyCodec");
+        Preconditions.checkNotNull(valueCodec, "valueCodec");
+        return CacheSnapshotFile.write(file, cache, keyCodec, valueCodec);
+    }
+
+    /**
+     * Restores the mappings of a snapshot written by {@link #saveSnapshot(Path, CacheCodec,
+     * CacheCodec)}, for example on startup. Mappings keep their remaining lifetime and are skipped
+     * if they have expired since. Keys that are already mapped in this cache are not overwritten,
+     * so this may run in the background while the cache is already in use.
+     *
+     * @param file       the file to read from
+     * @param keyCodec   the codec to read keys with
+     * @param valueCodec the codec to read values with
+     * @return the number of mappings restored, zero if the file does not exist
+     * @throws IOException if an I/O error occurs or the file is not a valid snapshot
+     */
+    public int loadSnapshot(Path file, CacheCodec<? extends K> keyCodec, CacheCodec<? extends V> valueCodec) throws IOException {
+        Preconditions.checkNotNull(file, "file");
+        Preconditions.checkNotNull(keyCodec, "keyCodec");
+        Preconditions.checkNotNull(valueCodec, "valueCodec");
+        return CacheSnapshotFile.read(file, cache, keyCodec, valueCodec, null);
+    }
+
+    /**
+     * Removes all expired mappings from this cache. Calling this method is never necessary for
+     * correctness, but may be used to release memory held by expired mappings in caches that are
+     * rarely used.
+     */
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    /**
+     * @return the approximate number of mappings in this cache, which may include expired
+     * mappings that have not yet been cleaned up
+     */
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Copies given entry for exposure to users, since cache entries use identity equality.
+     *
+     * @param entry the entry to copy
+     * @return an immutable copy of given entry that adheres to the {@link Map.Entry} contract
+     */
+    static <K, V> Map.Entry<K, V> exportEntry(CacheEntry<K, V> entry) {
+        return new AbstractMap.SimpleImmutableEntry<>(entry);
+    }
+
+    StripedCache<K, V> getStripedCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A thread-safe optional cache that expires mappings after a fixed time since they have been
+ * written and/or last accessed. Shares its concurrency and expiry behaviour with {@link
+ * ConcurrentMapCache}.
+ * <p>Cached absence is kept in a separate store, which may have its own {@linkplain
+ * ConcurrentCacheBuilder#expireAbsenceAfterWrite(long, TimeUnit) expiry} and {@linkplain
+ * ConcurrentCacheBuilder#maximumAbsenceSize(long) size bound}, so that lookups of many keys that
+ * do not exist never evict present values. All absent mappings share the empty optional
+ * instance. Writes to the same key are serialized across both stores, so that a key is never
+ * cached as both present and absent and the last write wins.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @see ConcurrentCacheBuilder for more configuration options
+ * @since 2026-10-17
+ */
+public class ConcurrentOptionalCache<K, V> extends ConcurrentMapCache<K, Optional<V>> implements OptionalCache<K, V> {
+    /**
+     * Number of locks serializing writes across both stores, must be a power of two.
+     */
+    private static final int WRITE_LOCK_COUNT = 64;
+    private final StripedCache<K, Optional<V>> absences;
+    private final Object[] writeLocks = new Object[WRITE_LOCK_COUNT];
+
+    /**
+     * Creates a new cache that expires mappings after a fixed time since they have been written.
+     *
+     * @param writeExpiry the amount of time after which mappings expire once written
+     * @param unit        the unit of the amount of time
+     */
+    public ConcurrentOptionalCache(long writeExpiry, TimeUnit unit) {
+        this(ConcurrentCacheBuilder.newBuilder().expireAfterWrite(writeExpiry, unit));
+    }
+
+    ConcurrentOptionalCache(ConcurrentCacheBuilder<? super K, ? super Optional<V>> builder) {
+        super(builder);
+        this.absences = new StripedCache<>(builder.toAbsenceBuilder(), getStripedCache().getStatsCounter());
+        for (int i = 0; i < WRITE_LOCK_COUNT; i++) {
+            writeLocks[i] = new Object();
+        }
+    }
+
+    private Object writeLockFor(K key) {
+        int hash = key.hashCode();
+        return writeLocks[(hash ^ (hash >>> 16)) & (WRITE_LOCK_COUNT - 1)];
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        absences.invalidateAll();
+    }
+
+    @Override
+    public <O extends Optional<V>> O cache(K id, O value) {
+        Preconditions.checkNotNull(id, "id");
+        Preconditions.checkNotNull(value, "value");
+        synchronized (writeLockFor(id)) {
+            if (value.isPresent()) {
+                absences.invalidate(id);
+                return super.cache(id, value);
+            } else {
+                getStripedCache().invalidate(id);
+                absences.put(id, Optional.empty());
+                return value;
+            }
+        }
+    }
+
+    @Override
+    public Optional<V> cacheValue(K id, V value) {
+        return cache(id, Optional.ofNullable(value));
+    }
+
+    @Override
+    public void cacheAbsence(K id) {
+        cache(id, Optional.empty());
+    }
+
+    @Override
+    public Optional<Optional<V>> get(K key) {
+        CacheEntry<K, Optional<V>> entry = getStripedCache().lookup(key);
+        if (entry == null) {
+            entry = absences.lookup(key);
+        }
+        StatsCounter stats = getStripedCache().getStatsCounter();
+        if (entry == null) {
+            stats.recordMiss();
+            return Optional.empty();
+        }
+        stats.recordHit(entry.getValue());
+        return Optional.of(entry.getValue());
+    }
+
+    @Override
+    public Optional<V> getOrCompute(K key, Function<K, ? extends Optional<V>> supplier) {
+        Preconditions.checkNotNull(supplier, "supplier");
+        CacheEntry<K, Optional<V>> absence = absences.lookup(key);
+        if (absence != null) {
+            getStripedCache().getStatsCounter().recordHit(absence.getValue());
+            return absence.getValue();
+        }
+        // a load that finished since the check above may have cached absence instead of a value
+        return getStripedCache().getOrLoad(key, () -> cachedAbsence(key),
+                () -> cache(key, supplier.apply(key)), () -> reload(key, supplier));
+    }
+
+    private Optional<V> cachedAbsence(K key) {
+        CacheEntry<K, Optional<V>> absence = absences.lookup(key);
+        return absence == null ? null : absence.getValue();
+    }
+
+    @Override
+    Optional<V> reload(K key, Function<K, ? extends Optional<V>> supplier) {
+        Optional<V> value = supplier.apply(key);
+        if (value != null && !value.isPresent()) {
+            cache(key, value);
+            return null;
+        }
+        return value;
+    }
+
+    @Override
+    public Optional<V> getOptionally(K key) {
+        return get(key).flatMap(Function.identity());
+    }
+
+    @Override
+    public void invalidateKey(K key) {
+        synchronized (writeLockFor(key)) {
+            super.invalidateKey(key);
+            absences.invalidate(key);
+        }
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return super.containsKey(key) || absences.containsKey(key);
+    }
+
+    @Override
+    public Stream<Map.Entry<K, Optional<V>>> entryStream() {
+        return Stream.concat(super.entryStream(),
+                absences.stream(ConcurrentMapCache::exportEntry, Spliterator.DISTINCT));
+    }
+
+    @Override
+    public Stream<K> keyStream() {
+        return Stream.concat(super.keyStream(), absences.stream(CacheEntry::getKey, Spliterator.DISTINCT));
+    }
+
+    @Override
+    public Stream<Optional<V>> valueStream() {
+        return Stream.concat(super.valueStream(), absences.stream(CacheEntry::getValue, 0));
+    }
+
+    @Override
+    public void cleanUp() {
+        super.cleanUp();
+        absences.cleanUp();
+    }
+
+    @Override
+    public long estimatedSize() {
+        return super.estimatedSize() + absences.estimatedSize();
+    }
+
+    /**
+     * @return the approximate number of keys whose absence is cached, which may include expired
+     * mappings that have not yet been cleaned up
+     */
+    public long estimatedAbsenceSize() {
+        return absences.estimatedSize();
+    }
+}
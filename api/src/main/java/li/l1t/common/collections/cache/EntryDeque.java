@@ -0,0 +1,254 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+/**
+ * An intrusive doubly-linked deque of cache entries. The links are stored in the entries
+ * themselves, so adding, removing and moving entries does not allocate. Each subclass uses a
+ * different pair of link fields, which allows an entry to be part of multiple deques at once. This
+ * class is not thread-safe, all access must be guarded by the lock of the owning stripe.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+abstract class EntryDeque<K, V> {
+    private CacheEntry<K, V> first;
+    private CacheEntry<K, V> last;
+
+    /**
+     * @param <K> the key type of the entries
+     * @param <V> the value type of the entries
+     * @return a new deque using the write order links of entries
+     */
+    static <K, V> EntryDeque<K, V> writeOrder() {
+        return new WriteOrderDeque<>();
+    }
+
+    /**
+     * @param <K> the key type of the entries
+     * @param <V> the value type of the entries
+     * @return a new deque using the access order links of entries
+     */
+    static <K, V> EntryDeque<K, V> accessOrder() {
+        return new AccessOrderDeque<>();
+    }
+
+    /**
+     * @param <K> the key type of the entries
+     * @param <V> the value type of the entries
+     * @return a new deque using the eviction policy links of entries
+     */
+    static <K, V> EntryDeque<K, V> policyOrder() {
+        return new PolicyOrderDeque<>();
+    }
+
+    abstract CacheEntry<K, V> previousOf(CacheEntry<K, V> entry);
+
+    abstract void setPrevious(CacheEntry<K, V> entry, CacheEntry<K, V> previous);
+
+    abstract CacheEntry<K, V> nextOf(CacheEntry<K, V> entry);
+
+    abstract void setNext(CacheEntry<K, V> entry, CacheEntry<K, V> next);
+
+    /**
+     * @param entry the entry to check
+     * @return whether given entry is currently linked into this deque
+     */
+    boolean contains(CacheEntry<K, V> entry) {
+        return previousOf(entry) != null || nextOf(entry) != null || entry == first;
+    }
+
+    /**
+     * @return the first entry in this deque, or null if it is empty
+     */
+    CacheEntry<K, V> peekFirst() {
+        return first;
+    }
+
+    boolean isEmpty() {
+        return first == null;
+    }
+
+    /**
+     * Links given entry at the end of this deque. The entry must not be part of this deque.
+     *
+     * @param entry the entry to add
+     */
+    void addLast(CacheEntry<K, V> entry) {
+        CacheEntry<K, V> oldLast = last;
+        last = entry;
+        if (oldLast == null) {
+            first = entry;
+        } else {
+            setNext(oldLast, entry);
+            setPrevious(entry, oldLast);
+        }
+    }
+
+    /**
+     * Unlinks given entry from this deque, if it is part of it.
+     *
+     * @param entry the entry to remove
+     * @return whether the entry was part of this deque
+     */
+    boolean remove(CacheEntry<K, V> entry) {
+        if (!contains(entry)) {
+            return false;
+        }
+        CacheEntry<K, V> previous = previousOf(entry);
+        CacheEntry<K, V> next = nextOf(entry);
+        if (previous == null) {
+            first = next;
+        } else {
+            setNext(previous, next);
+            setPrevious(entry, null);
+        }
+        if (next == null) {
+            last = previous;
+        } else {
+            setPrevious(next, previous);
+            setNext(entry, null);
+        }
+        return true;
+    }
+
+    /**
+     * Moves given entry to the end of this deque, if it is part of it.
+     *
+     * @param entry the entry to move
+     */
+    void moveToLast(CacheEntry<K, V> entry) {
+        if (entry != last && remove(entry)) {
+            addLast(entry);
+        }
+    }
+
+    /**
+     * Replaces an entry of this deque with another entry, which takes over its position. The
+     * replacement must not be part of this deque.
+     *
+     * @param entry       the entry to replace, must be part of this deque
+     * @param replacement the entry to put in its place
+     */
+    void replace(CacheEntry<K, V> entry, CacheEntry<K, V> replacement) {
+        CacheEntry<K, V> previous = previousOf(entry);
+        CacheEntry<K, V> next = nextOf(entry);
+        setPrevious(replacement, previous);
+        setNext(replacement, next);
+        if (previous == null) {
+            first = replacement;
+        } else {
+            setNext(previous, replacement);
+        }
+        if (next == null) {
+            last = replacement;
+        } else {
+            setPrevious(next, replacement);
+        }
+        setPrevious(entry, null);
+        setNext(entry, null);
+    }
+
+    /**
+     * Unlinks all entries from this deque.
+     */
+    void clear() {
+        CacheEntry<K, V> current = first;
+        while (current != null) {
+            CacheEntry<K, V> next = nextOf(current);
+            setPrevious(current, null);
+            setNext(current, null);
+            current = next;
+        }
+        first = null;
+        last = null;
+    }
+
+    private static class WriteOrderDeque<K, V> extends EntryDeque<K, V> {
+        @Override
+        CacheEntry<K, V> previousOf(CacheEntry<K, V> entry) {
+            return entry.previousInWriteOrder;
+        }
+
+        @Override
+        void setPrevious(CacheEntry<K, V> entry, CacheEntry<K, V> previous) {
+            entry.previousInWriteOrder = previous;
+        }
+
+        @Override
+        CacheEntry<K, V> nextOf(CacheEntry<K, V> entry) {
+            return entry.nextInWriteOrder;
+        }
+
+        @Override
+        void setNext(CacheEntry<K, V> entry, CacheEntry<K, V> next) {
+            entry.nextInWriteOrder = next;
+        }
+    }
+
+    private static class AccessOrderDeque<K, V> extends EntryDeque<K, V> {
+        @Override
+        CacheEntry<K, V> previousOf(CacheEntry<K, V> entry) {
+            return entry.previousInAccessOrder;
+        }
+
+        @Override
+        void setPrevious(CacheEntry<K, V> entry, CacheEntry<K, V> previous) {
+            entry.previousInAccessOrder = previous;
+        }
+
+        @Override
+        CacheEntry<K, V> nextOf(CacheEntry<K, V> entry) {
+            return entry.nextInAccessOrder;
+        }
+
+        @Override
+        void setNext(CacheEntry<K, V> entry, CacheEntry<K, V> next) {
+            entry.nextInAccessOrder = next;
+        }
+    }
+
+    private static class PolicyOrderDeque<K, V> extends EntryDeque<K, V> {
+        @Override
+        CacheEntry<K, V> previousOf(CacheEntry<K, V> entry) {
+            return entry.previousInPolicyOrder;
+        }
+
+        @Override
+        void setPrevious(CacheEntry<K, V> entry, CacheEntry<K, V> previous) {
+            entry.previousInPolicyOrder = previous;
+        }
+
+        @Override
+        CacheEntry<K, V> nextOf(CacheEntry<K, V> entry) {
+            return entry.nextInPolicyOrder;
+        }
+
+        @Override
+        void setNext(CacheEntry<K, V> entry, CacheEntry<K, V> next) {
+            entry.nextInPolicyOrder = next;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+/**
+ * The strategy a size-bounded cache uses to decide which mappings to evict once its maximum weight
+ * is exceeded.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @see ConcurrentCacheBuilder#evictionPolicy(EvictionPolicy)
+ * @since 2026-10-17
+ */
+public enum EvictionPolicy {
+    /**
+     * Evicts the least recently used mapping. Cheap, but a single pass over many rarely used keys,
+     * for example when a command lists all known players, evicts all frequently used mappings.
+     */
+    LRU {
+        @Override
+        <K, V> SizePolicy<K, V> newStripePolicy(long maximumWeight) {
+            return new LruPolicy<>(maximumWeight);
+        }
+    },
+    /**
+     * Window TinyLFU: New mappings enter a small LRU window and are only admitted to the main space
+     * if they are estimated to be used more frequently than the mapping they would replace.
+     * Frequencies are tracked in a compact count-min sketch that ages over time. This keeps
+     * frequently used mappings cached when there are scans over many rarely used keys, while still
+     * adapting to recency-biased workloads. This is the default.
+     */
+    WINDOW_TINY_LFU {
+        @Override
+        <K, V> SizePolicy<K, V> newStripePolicy(long maximumWeight) {
+            return new WindowTinyLfuPolicy<>(maximumWeight);
+        }
+    };
+
+    /**
+     * @param maximumWeight the maximum weight of the stripe
+     * @param <K>           the key type of the cache
+     * @param <V>           the value type of the cache
+     * @return a new policy instance for a single stripe
+     */
+    abstract <K, V> SizePolicy<K, V> newStripePolicy(long maximumWeight);
+}
@@ -24,7 +24,14 @@
 
 package li.l1t.common.collections.cache;
 
+import com.google.common.base.Preconditions;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -82,6 +89,57 @@ public interface IdCache<K, V> {
      */
     V getOrCompute(K id, Function<? super K, ? extends V> supplier);
 
+    /**
+     * Gets the currently cached values for given identifiers. Identifiers without a valid mapping
+     * are not contained in the result.
+     *
+     * @param ids the identifiers to retrieve the mappings for
+     * @return a map of the found mappings, iterating in the order of given identifiers
+     */
+    default Map<K, V> getAll(Collection<? extends K> ids) {
+        Preconditions.checkNotNull(ids, "ids");
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K id : ids) {
+            get(id).ifPresent(value -> result.put(id, value));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the currently cached values for given identifiers, computing all missing mappings with
+     * a single call to given loader. This allows to load misses in bulk, for example using a single
+     * database query. All values returned by the loader are cached, and like with {@link
+     * #cache(Object)}, they are always mapped to the identifier returned by the id function.
+     * Requested identifiers that the loader does not return a value for are not contained in the
+     * result. If all identifiers are cached, the loader is not called.
+     *
+     * @param ids    the identifiers to get or compute the mappings for
+     * @param loader the function computing the values for the set of missing identifiers
+     * @return a map of the found and computed mappings, iterating in the order of given
+     * identifiers
+     */
+    default Map<K, V> getOrComputeAll(Collection<? extends K> ids,
+                                      Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> loader) {
+        Preconditions.checkNotNull(loader, "loader");
+        Map<K, V> found = getAll(ids);
+        Set<K> missing = new LinkedHashSet<>(ids);
+        missing.removeAll(found.keySet());
+        if (missing.isEmpty()) {
+            return found;
+        }
+        Map<? extends K, ? extends V> loaded = loader.apply(missing);
+        Preconditions.checkNotNull(loaded, "loader returned null for %s", missing);
+        loaded.values().forEach(this::cache);
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K id : ids) {
+            V value = missing.contains(id) ? loaded.get(id) : found.get(id);
+            if (value != null) {
+                result.put(id, value);
+            }
+        }
+        return result;
+    }
+
     /**
      * Invalidates the mapping for given value, if present, using the id function to obtain the
      * key.
@@ -114,4 +172,15 @@ public interface IdCache<K, V> {
      * @return a stream of all current entries of this cache
      */
     Stream<V> stream();
+
+    /**
+     * Returns a snapshot of the statistics of this cache. Caches that do not record statistics
+     * return {@linkplain CacheStats#empty() empty statistics}, which is also what this default
+     * implementation does.
+     *
+     * @return a snapshot of the current statistics of this cache
+     */
+    default CacheStats stats() {
+        return CacheStats.empty();
+    }
 }
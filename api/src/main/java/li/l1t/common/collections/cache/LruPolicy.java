@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+/**
+ * Evicts the least recently used entry of a stripe.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+final class LruPolicy<K, V> extends SizePolicy<K, V> {
+    private static final byte QUEUE = 1;
+    private final EntryDeque<K, V> deque = EntryDeque.policyOrder();
+
+    LruPolicy(long maximumWeight) {
+        super(maximumWeight);
+    }
+
+    @Override
+    void onAdd(CacheEntry<K, V> entry) {
+        entry.policyQueue = QUEUE;
+        deque.addLast(entry);
+        addWeight(entry.getWeight());
+    }
+
+    @Override
+    void onAccess(CacheEntry<K, V> entry) {
+        if (contains(entry)) {
+            deque.moveToLast(entry);
+        }
+    }
+
+    @Override
+    void onRemove(CacheEntry<K, V> entry) {
+        if (contains(entry)) {
+            deque.remove(entry);
+            entry.policyQueue = 0;
+            addWeight(-entry.getWeight());
+        }
+    }
+
+    @Override
+    void onReplace(CacheEntry<K, V> entry, CacheEntry<K, V> replacement) {
+        deque.replace(entry, replacement);
+        deque.moveToLast(replacement);
+        replacement.policyQueue = QUEUE;
+        entry.policyQueue = 0;
+        addWeight(replacement.getWeight() - entry.getWeight());
+    }
+
+    @Override
+    CacheEntry<K, V> selectVictim() {
+        return isOverweight() ? deque.peekFirst() : null;
+    }
+}
@@ -24,8 +24,14 @@
 
 package li.l1t.common.collections.cache;
 
+import com.google.common.base.Preconditions;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -82,6 +88,55 @@ public interface MapCache<K, V> {
      */
     V getOrCompute(K key, Function<K, ? extends V> supplier);
 
+    /**
+     * Gets the currently cached values for given keys. Keys without a valid mapping are not
+     * contained in the result.
+     *
+     * @param keys the keys to retrieve the mappings for
+     * @return a map of the found mappings, iterating in the order of given keys
+     */
+    default Map<K, V> getAll(Collection<? extends K> keys) {
+        Preconditions.checkNotNull(keys, "keys");
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            get(key).ifPresent(value -> result.put(key, value));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the currently cached values for given keys, computing all missing mappings with a
+     * single call to given loader. This allows to load misses in bulk, for example using a single
+     * database query. All mappings returned by the loader are cached, including ones for keys that
+     * were not requested. Requested keys that the loader does not return a mapping for are not
+     * contained in the result. If all keys are cached, the loader is not called.
+     *
+     * @param keys   the keys to get or compute the mappings for
+     * @param loader the function computing the mappings for the set of missing keys
+     * @return a map of the found and computed mappings, iterating in the order of given keys
+     */
+    default Map<K, V> getOrComputeAll(Collection<? extends K> keys,
+                                      Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> loader) {
+        Preconditions.checkNotNull(loader, "loader");
+        Map<K, V> found = getAll(keys);
+        Set<K> missing = new LinkedHashSet<>(keys);
+        missing.removeAll(found.keySet());
+        if (missing.isEmpty()) {
+            return found;
+        }
+        Map<? extends K, ? extends V> loaded = loader.apply(missing);
+        Preconditions.checkNotNull(loaded, "loader returned null for %s", missing);
+        loaded.forEach((key, value) -> found.put(key, cache(key, value)));
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = found.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
     /**
      * Invalidates the mapping for given key, if any.
      *
@@ -109,4 +164,15 @@ public interface MapCache<K, V> {
      * @return a stream of all current values of this cache
      */
     Stream<V> valueStream();
+
+    /**
+     * Returns a snapshot of the statistics of this cache. Caches that do not record statistics
+     * return {@linkplain CacheStats#empty() empty statistics}, which is also what this default
+     * implementation does.
+     *
+     * @return a snapshot of the current statistics of this cache
+     */
+    default CacheStats stats() {
+        return CacheStats.empty();
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+/**
+ * A tiny direct-mapped cache that is confined to a single thread and therefore uses no
+ * synchronization at all. Each key maps to exactly one slot, so a colliding key simply replaces
+ * the previous mapping. Mappings are stamped with the invalidation version of their key at the
+ * time they were read from the shared cache and are only returned while that version is still
+ * current, which is how invalidations on other threads reach this cache without touching it.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @see TwoLevelIdCache
+ * @since 2026-10-17
+ */
+class NearCache<K, V> {
+    private final Object[] keys;
+    private final Object[] values;
+    private final long[] versions;
+    private final long[] writeTimes;
+    private final int mask;
+
+    /**
+     * @param capacity the number of slots, must be a power of two
+     */
+    NearCache(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        versions = new long[capacity];
+        writeTimes = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @param key             the key to look up
+     * @param hash            the spread hash of the key
+     * @param currentVersion  the current invalidation version of the key
+     * @param oldestWriteTime the earliest write time a mapping may have to be returned
+     * @return the value mapped to given key, or null if there is no valid mapping
+     */
+    @SuppressWarnings("unchecked")
+    V get(K key, int hash, long currentVersion, long oldestWriteTime) {
+        int slot = hash & mask;
+        Object slotKey = keys[slot];
+        if (slotKey == null || versions[slot] != currentVersion || writeTimes[slot] - oldestWriteTime < 0 ||
+                !(slotKey == key || slotKey.equals(key))) {
+            return null;
+        }
+        return (V) values[slot];
+    }
+
+    /**
+     * @param key       the key to map
+     * @param hash      the spread hash of the key
+     * @param value     the value to map the key to
+     * @param version   the invalidation version of the key at the time the value was read
+     * @param writeTime the current time
+     */
+    void put(K key, int hash, V value, long version, long writeTime) {
+        int slot = hash & mask;
+        keys[slot] = key;
+        values[slot] = value;
+        versions[slot] = version;
+        writeTimes[slot] = writeTime;
+    }
+}
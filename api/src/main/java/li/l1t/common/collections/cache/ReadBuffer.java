@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A small, lossy ring buffer that records reads so that they can be replayed against the access
+ * order of a stripe later, under its lock. Recording a read never blocks and never allocates. If
+ * readers lap the drainer, older reads are overwritten. This is fine, since the access order is
+ * only used to find expiry candidates, while the access time stored in the entry stays
+ * authoritative.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+final class ReadBuffer<E> {
+    private static final int SIZE = 16;
+    private static final int MASK = SIZE - 1;
+    private final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(SIZE);
+    private final AtomicInteger writeIndex = new AtomicInteger();
+
+    /**
+     * Records an element in this buffer.
+     *
+     * @param element the element to record
+     * @return whether the buffer has just been filled and should be drained
+     */
+    boolean offer(E element) {
+        int index = writeIndex.getAndIncrement() & MASK;
+        buffer.lazySet(index, element);
+        return index == MASK;
+    }
+
+    /**
+     * Removes all elements currently recorded in this buffer and passes them to given consumer.
+     *
+     * @param consumer the consumer to receive the elements
+     */
+    void drainTo(Consumer<? super E> consumer) {
+        for (int i = 0; i < SIZE; i++) {
+            E element = buffer.getAndSet(i, null);
+            if (element != null) {
+                consumer.accept(element);
+            }
+        }
+    }
+}
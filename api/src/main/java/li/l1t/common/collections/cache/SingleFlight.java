@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates concurrent computations for the same key. The first caller for a key runs its
+ * computation in its own thread, while callers arriving before it has finished wait for it and
+ * receive its result or rethrow its exception. Only the map bin of the key is locked, and only for
+ * registering and removing the flight, never while a computation runs.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+final class SingleFlight<K, V> {
+    private final ConcurrentHashMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Runs given computation for given key, unless there is already a computation in flight for
+     * that key, in which case its outcome is awaited and returned instead.
+     *
+     * @param key         the key to compute for
+     * @param computation the computation to run if this caller is the first
+     * @return the result of the computation for given key
+     * @throws IllegalStateException if the current thread is already computing given key
+     */
+    V execute(K key, Supplier<? extends V> computation) {
+        Flight<V> ownFlight = new Flight<>();
+        Flight<V> existingFlight = flights.putIfAbsent(key, ownFlight);
+        if (existingFlight != null) {
+            return existingFlight.await(key);
+        }
+        try {
+            V result = computation.get();
+            ownFlight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            ownFlight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, ownFlight);
+        }
+    }
+
+    /**
+     * @return the number of computations currently in flight
+     */
+    int getInFlightCount() {
+        return flights.size();
+    }
+
+    private static class Flight<V> extends CompletableFuture<V> {
+        private final Thread owner = Thread.currentThread();
+
+        V await(Object key) {
+            if (owner == Thread.currentThread()) {
+                throw new IllegalStateException("Recursive load of the same key: " + key);
+            }
+            try {
+                return join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+/**
+ * Keeps the weighted size of a single cache stripe within its maximum by choosing entries to
+ * evict. Instances are created per stripe by an {@link EvictionPolicy} and are only ever accessed
+ * with the stripe lock held. Entries are linked into the policy's deques using their policy order
+ * links, and {@link CacheEntry#policyQueue} is zero iff an entry is not part of this policy.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+abstract class SizePolicy<K, V> {
+    private final long maximumWeight;
+    private long weightedSize;
+
+    SizePolicy(long maximumWeight) {
+        this.maximumWeight = maximumWeight;
+    }
+
+    /**
+     * Starts tracking a newly written entry.
+     *
+     * @param entry the entry, not yet part of this policy
+     */
+    abstract void onAdd(CacheEntry<K, V> entry);
+
+    /**
+     * Records a read of an entry, if it is part of this policy.
+     *
+     * @param entry the entry that was read
+     */
+    abstract void onAccess(CacheEntry<K, V> entry);
+
+    /**
+     * Stops tracking an entry, if it is part of this policy.
+     *
+     * @param entry the entry that was removed from the cache
+     */
+    abstract void onRemove(CacheEntry<K, V> entry);
+
+    /**
+     * Replaces a tracked entry with a new entry for the same key, which takes over its position.
+     *
+     * @param entry       the replaced entry, part of this policy
+     * @param replacement the new entry, not yet part of this policy
+     */
+    abstract void onReplace(CacheEntry<K, V> entry, CacheEntry<K, V> replacement);
+
+    /**
+     * Selects the next entry to evict. The caller must remove the returned entry via {@link
+     * #onRemove(CacheEntry)} before calling this method again.
+     *
+     * @return the entry to evict, or null if the weighted size is within the maximum
+     */
+    abstract CacheEntry<K, V> selectVictim();
+
+    boolean contains(CacheEntry<K, V> entry) {
+        return entry.policyQueue != 0;
+    }
+
+    boolean isOverweight() {
+        return weightedSize > maximumWeight;
+    }
+
+    void addWeight(long delta) {
+        weightedSize += delta;
+    }
+
+    long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    long getWeightedSize() {
+        return weightedSize;
+    }
+}
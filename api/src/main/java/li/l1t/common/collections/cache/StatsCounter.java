@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package li.l1t.common.collections.cache;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the statistics of a single cache. Counters are striped {@link LongAdder}s, so that
+ * recording from many threads does not contend. Caches that do not record statistics use {@link
+ * #disabled()}, which ignores all recordings.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class StatsCounter {
+    private static final StatsCounter DISABLED = new DisabledStatsCounter();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder absentHitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTimeNanos = new LongAdder();
+    private final LongAdder[] evictionCounts = new LongAdder[EvictionCause.values().length];
+
+    StatsCounter() {
+        for (int i = 0; i < evictionCounts.length; i++) {
+            evictionCounts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @return a counter that ignores all recordings and always reports empty statistics
+     */
+    static StatsCounter disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * @return whether this counter records anything, so that callers can skip measuring load
+     * times otherwise
+     */
+    boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Records a lookup that found given value. Hits of empty optionals are also counted as absent
+     * hits, since that is how {@link OptionalCache} caches absence.
+     *
+     * @param value the value that was found
+     */
+    void recordHit(Object value) {
+        hitCount.increment();
+        if (value instanceof Optional && !((Optional<?>) value).isPresent()) {
+            absentHitCount.increment();
+        }
+    }
+
+    void recordMiss() {
+        missCount.increment();
+    }
+
+    void recordLoadSuccess(long loadTimeNanos) {
+        loadSuccessCount.increment();
+        totalLoadTimeNanos.add(loadTimeNanos);
+    }
+
+    void recordLoadFailure(long loadTimeNanos) {
+        loadFailureCount.increment();
+        totalLoadTimeNanos.add(loadTimeNanos);
+    }
+
+    void recordEviction(EvictionCause cause) {
+        evictionCounts[cause.ordinal()].increment();
+    }
+
+    /**
+     * @return a snapshot of the current counter values, which is not atomic with regard to
+     * concurrent recordings
+     */
+    CacheStats snapshot() {
+        long[] evictions = new long[evictionCounts.length];
+        for (int i = 0; i < evictions.length; i++) {
+            evictions[i] = evictionCounts[i].sum();
+        }
+        return new CacheStats(hitCount.sum(), absentHitCount.sum(), missCount.sum(), loadSuccessCount.sum(),
+                loadFailureCount.sum(), totalLoadTimeNanos.sum(), evictions);
+    }
+
+    private static class DisabledStatsCounter extends StatsCounter {
+        @Override
+        boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        void recordHit(Object value) {
+
+        }
+
+        @Override
+        void recordMiss() {
+
+        }
+
+        @Override
+        void recordLoadSuccess(long loadTimeNanos) {
+
+        }
+
+        @Override
+        void recordLoadFailure(long loadTimeNanos) {
+
+        }
+
+        @Override
+        void recordEviction(EvictionCause cause) {
+
+        }
+
+        @Override
+        CacheStats snapshot() {
+            return CacheStats.empty();
+        }
+    }
+}
@@ -0,0 +1,543 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Weigher;
+
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The concurrent storage engine behind the cache implementations in this package. Mappings are
+ * stored in a {@link ConcurrentHashMap}, so reads never block. Expiry bookkeeping is split into
+ * lock-protected stripes by key hash, so that writes to different stripes do not contend. Expired
+ * entries are never returned and are removed from the heads of the per-stripe write and access
+ * order deques whenever a stripe is maintained, which happens on writes and periodically on reads.
+ * This amortises the cleanup cost over normal operations instead of scanning the whole map.
+ * <p>If the cache is bounded, each stripe gets an equal share of the maximum weight and its own
+ * {@link SizePolicy}, which selects entries to evict after writes to that stripe.</p>
+ * <p>Null keys and values are not permitted.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+final class StripedCache<K, V> {
+    private static final Logger LOGGER = Logger.getLogger(StripedCache.class.getName());
+    private static final int MAXIMUM_STRIPES = 1 << 16;
+    /**
+     * Bounded caches use fewer stripes than requested if each stripe would otherwise get less
+     * than this weight, since eviction decisions get less accurate with small stripes.
+     */
+    private static final long MINIMUM_STRIPE_WEIGHT = 32L;
+    private final ConcurrentHashMap<K, CacheEntry<K, V>> map = new ConcurrentHashMap<>();
+    private final CacheStripe<K, V>[] stripes;
+    private final int stripeMask;
+    private final Ticker ticker;
+    private final long writeExpiryNanos;
+    private final long accessExpiryNanos;
+    private final boolean bounded;
+    private final Weigher<? super K, ? super V> weigher;
+    private final SingleFlight<K, V> loads;
+    private final StatsCounter stats;
+    private final long refreshNanos;
+    private final Executor refreshExecutor;
+    private final ConcurrentHashMap<K, CacheEntry<K, V>> refreshes;
+
+    StripedCache(ConcurrentCacheBuilder<? super K, ? super V> builder) {
+        this(builder, builder.isRecordingStats() ? new StatsCounter() : StatsCounter.disabled());
+    }
+
+    /**
+     * @param builder the builder to take the settings from
+     * @param stats   the counter to record statistics to, may be shared with other caches
+     */
+    StripedCache(ConcurrentCacheBuilder<? super K, ? super V> builder, StatsCounter stats) {
+        this.loads = builder.isSingleFlightLoading() ? new SingleFlight<>() : null;
+        this.stats = stats;
+        this.refreshNanos = builder.getRefreshNanos();
+        this.refreshExecutor = builder.getRefreshExecutor();
+        this.refreshes = refreshNanos == ConcurrentCacheBuilder.UNSET ? null : new ConcurrentHashMap<>();
+        this.ticker = builder.getTicker();
+        this.writeExpiryNanos = builder.getWriteExpiryNanos();
+        this.accessExpiryNanos = builder.getAccessExpiryNanos();
+        this.bounded = builder.isBounded();
+        this.weigher = builder.getWeigher();
+        int stripeCount = stripeCountFor(builder);
+        this.stripeMask = stripeCount - 1;
+        this.stripes = newStripeArray(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new CacheStripe<>(this, createStripePolicy(builder, i, stripeCount));
+        }
+    }
+
+    private static int stripeCountFor(ConcurrentCacheBuilder<?, ?> builder) {
+        int stripeCount = 1;
+        while (stripeCount < builder.getConcurrencyLevel() && stripeCount < MAXIMUM_STRIPES) {
+            stripeCount <<= 1;
+        }
+        if (builder.isBounded()) {
+            while (stripeCount > 1 && builder.getMaximumWeight() / stripeCount < MINIMUM_STRIPE_WEIGHT) {
+                stripeCount >>= 1;
+            }
+        }
+        return stripeCount;
+    }
+
+    private static <K, V> SizePolicy<K, V> createStripePolicy(ConcurrentCacheBuilder<?, ?> builder,
+                                                             int stripeIndex, int stripeCount) {
+        if (!builder.isBounded()) {
+            return null;
+        }
+        long maximumWeight = builder.getMaximumWeight();
+        long stripeWeight = maximumWeight / stripeCount;
+        if (stripeIndex < maximumWeight % stripeCount) {
+            stripeWeight++;
+        }
+        return builder.getEvictionPolicy().newStripePolicy(stripeWeight);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> CacheStripe<K, V>[] newStripeArray(int size) {
+        return (CacheStripe<K, V>[]) new CacheStripe<?, ?>[size];
+    }
+
+    /**
+     * @param key the key to look up
+     * @return the value currently mapped to given key, or null if there is no valid mapping
+     */
+    V getIfPresent(K key) {
+        CacheEntry<K, V> entry = getEntry(key);
+        return entry == null ? null : entry.getValue();
+    }
+
+    /**
+     * Looks up the valid entry for given key and records the access, as well as the hit or miss.
+     *
+     * @param key the key to look up
+     * @return the entry currently mapped to given key, or null if there is no valid mapping
+     */
+    CacheEntry<K, V> getEntry(K key) {
+        CacheEntry<K, V> entry = lookup(key);
+        if (entry == null) {
+            stats.recordMiss();
+        } else {
+            stats.recordHit(entry.getValue());
+        }
+        return entry;
+    }
+
+    /**
+     * Looks up the valid entry for given key and records the access, but not the hit or miss.
+     * Used for repeated lookups as part of a single operation.
+     *
+     * @param key the key to look up
+     * @return the entry currently mapped to given key, or null if there is no valid mapping
+     */
+    CacheEntry<K, V> lookup(K key) {
+        Preconditions.checkNotNull(key, "key");
+        CacheEntry<K, V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long now = now();
+        if (isExpired(entry, now)) {
+            if (discard(entry)) {
+                stats.recordEviction(EvictionCause.EXPIRED);
+            }
+            return null;
+        }
+        recordRead(entry, now);
+        return entry;
+    }
+
+    private void recordRead(CacheEntry<K, V> entry, long now) {
+        if (expiresAfterAccess()) {
+            entry.setAccessTime(now);
+        }
+        if (expiresAfterAccess() || bounded) {
+            stripeFor(entry.getKey()).afterRead(entry);
+        }
+    }
+
+    /**
+     * Maps given key to given value, replacing any previous mapping.
+     *
+     * @param key   the key to map
+     * @param value the value to map the key to
+     */
+    void put(K key, V value) {
+        Preconditions.checkNotNull(key, "key");
+        Preconditions.checkNotNull(value, "value");
+        long now = now();
+        CacheEntry<K, V> entry = new CacheEntry<>(key, value, weigh(key, value), now);
+        CacheEntry<K, V> replaced = map.put(key, entry);
+        if (replaced != null) {
+            replaced.retire();
+        }
+        if (needsBookkeeping()) {
+            stripeFor(key).afterWrite(entry, replaced, now);
+        }
+    }
+
+    /**
+     * Gets the value currently mapped to given key, or runs given load if there is none. If
+     * single-flight loading is enabled, concurrent loads of the same key are deduplicated, with
+     * only the first caller running its load and the others receiving its result or exception. If
+     * refreshing is enabled and the current mapping is due for a refresh, given reload is scheduled
+     * in the background and the current value is returned.
+     *
+     * @param key    the key to look up
+     * @param load   the computation that supplies a value for given key and stores it in this
+     *               cache, must not return null
+     * @param reload the computation that supplies a fresh value for given key without storing it,
+     *               may return null to keep the current mapping
+     * @return the cached or loaded value
+     */
+    V getOrLoad(K key, Supplier<? extends V> load, Supplier<? extends V> reload) {
+        return getOrLoad(key, () -> null, load, reload);
+    }
+
+    /**
+     * Gets the value currently mapped to given key, or runs given load if there is none, like
+     * {@link #getOrLoad(Object, Supplier, Supplier)}. Before a single-flight load, given recheck
+     * is consulted together with this cache, so that callers that wait for a load see values it
+     * stored outside of this cache.
+     *
+     * @param key     the key to look up
+     * @param recheck the lookup of a value stored outside of this cache, returning null if there is
+     *                none
+     * @param load    the computation that supplies a value for given key and stores it, must not
+     *                return null
+     * @param reload  the computation that supplies a fresh value for given key without storing it,
+     *                may return null to keep the current mapping
+     * @return the cached or loaded value
+     */
+    V getOrLoad(K key, Supplier<? extends V> recheck, Supplier<? extends V> load, Supplier<? extends V> reload) {
+        CacheEntry<K, V> entry = getEntry(key);
+        if (entry != null) {
+            refreshIfDue(entry, reload);
+            return entry.getValue();
+        } else if (loads == null) {
+            return timedLoad(load);
+        } else {
+            return loads.execute(key, () -> loadIfStillAbsent(key, recheck, load));
+        }
+    }
+
+    private void refreshIfDue(CacheEntry<K, V> entry, Supplier<? extends V> reload) {
+        if (refreshes == null || now() - entry.getWriteTime() < refreshNanos) {
+            return;
+        }
+        K key = entry.getKey();
+        if (refreshes.putIfAbsent(key, entry) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> refresh(entry, reload));
+        } catch (RuntimeException e) {
+            refreshes.remove(key, entry);
+            LOGGER.log(Level.WARNING, "Unable to schedule refresh of " + key, e);
+        }
+    }
+
+    private void refresh(CacheEntry<K, V> entry, Supplier<? extends V> reload) {
+        try {
+            V value = timedLoad(reload);
+            if (value != null) {
+                replaceIfSame(entry, value);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to refresh " + entry.getKey(), e);
+        } finally {
+            refreshes.remove(entry.getKey(), entry);
+        }
+    }
+
+    /**
+     * Maps the key of given entry to given value, but only if given entry is still the current
+     * mapping for its key.
+     *
+     * @param expected the entry expected to be current
+     * @param value    the value to map the key to
+     * @return whether the mapping was replaced by this call
+     */
+    boolean replaceIfSame(CacheEntry<K, V> expected, V value) {
+        Preconditions.checkNotNull(value, "value");
+        K key = expected.getKey();
+        long now = now();
+        CacheEntry<K, V> entry = new CacheEntry<>(key, value, weigh(key, value), now);
+        if (!map.replace(key, expected, entry)) {
+            return false;
+        }
+        expected.retire();
+        if (needsBookkeeping()) {
+            stripeFor(key).afterWrite(entry, expected, now);
+        }
+        return true;
+    }
+
+    private V loadIfStillAbsent(K key, Supplier<? extends V> recheck, Supplier<? extends V> load) {
+        CacheEntry<K, V> entry = lookup(key);
+        if (entry != null) {
+            return entry.getValue();
+        }
+        V stored = recheck.get();
+        return stored == null ? timedLoad(load) : stored;
+    }
+
+    /**
+     * Wraps given bulk loader so that each call to it counts as a single load in the statistics of
+     * this cache.
+     *
+     * @param loader the loader to wrap
+     * @return a loader recording its calls, or given loader if statistics are disabled
+     */
+    <T, R> Function<T, R> timedBulkLoader(Function<T, R> loader) {
+        return stats.isEnabled() ? keys -> timedLoad(() -> loader.apply(keys)) : loader;
+    }
+
+    private <T> T timedLoad(Supplier<? extends T> load) {
+        if (!stats.isEnabled()) {
+            return load.get();
+        }
+        long start = now();
+        try {
+            T value = load.get();
+            stats.recordLoadSuccess(now() - start);
+            return value;
+        } catch (RuntimeException | Error e) {
+            stats.recordLoadFailure(now() - start);
+            throw e;
+        }
+    }
+
+    private int weigh(K key, V value) {
+        if (weigher == null) {
+            return 1;
+        }
+        int weight = weigher.weigh(key, value);
+        Preconditions.checkState(weight >= 0, "weigher returned negative weight %s for %s", weight, key);
+        return weight;
+    }
+
+    /**
+     * Maps given key to given value if it is not currently mapped, backdating the new mapping so
+     * that it expires after at most given remaining lifetime. Used to restore mappings from
+     * snapshots without overwriting mappings written in the meantime.
+     *
+     * @param key            the key to map
+     * @param value          the value to map the key to
+     * @param remainingNanos the remaining lifetime of the mapping, must be positive
+     * @return whether the mapping was added
+     */
+    boolean restore(K key, V value, long remainingNanos) {
+        Preconditions.checkNotNull(key, "key");
+        Preconditions.checkNotNull(value, "value");
+        long elapsed = 0L;
+        if (expiresAfterWrite()) {
+            elapsed = Math.max(elapsed, writeExpiryNanos - remainingNanos);
+        }
+        if (expiresAfterAccess()) {
+            elapsed = Math.max(elapsed, accessExpiryNanos - remainingNanos);
+        }
+        long now = now();
+        CacheEntry<K, V> entry = new CacheEntry<>(key, value, weigh(key, value), now - elapsed);
+        if (map.putIfAbsent(key, entry) != null) {
+            return false;
+        }
+        if (needsBookkeeping()) {
+            stripeFor(key).afterWrite(entry, null, now);
+        }
+        return true;
+    }
+
+    /**
+     * @param entry the entry to compute the lifetime of
+     * @param now   the current ticker time
+     * @return the time in nanoseconds until given entry expires if it is not accessed, or {@link
+     * Long#MAX_VALUE} if it never expires
+     */
+    long remainingLifetimeNanos(CacheEntry<K, V> entry, long now) {
+        long remaining = Long.MAX_VALUE;
+        if (expiresAfterWrite()) {
+            remaining = Math.min(remaining, writeExpiryNanos - (now - entry.getWriteTime()));
+        }
+        if (expiresAfterAccess()) {
+            remaining = Math.min(remaining, accessExpiryNanos - (now - entry.getAccessTime()));
+        }
+        return remaining;
+    }
+
+    /**
+     * Removes the mapping for given key, if any.
+     *
+     * @param key the key whose mapping to remove
+     */
+    void invalidate(K key) {
+        Preconditions.checkNotNull(key, "key");
+        CacheEntry<K, V> removed = map.remove(key);
+        if (removed != null) {
+            removed.retire();
+            afterRemoval(removed);
+        }
+    }
+
+    /**
+     * Removes all mappings from this cache. Mappings written concurrently may or may not be
+     * removed.
+     */
+    void invalidateAll() {
+        for (CacheEntry<K, V> entry : map.values()) {
+            discard(entry);
+        }
+    }
+
+    /**
+     * @param key the key to check
+     * @return whether there is currently a valid mapping for given key, without recording an
+     * access
+     */
+    boolean containsKey(K key) {
+        Preconditions.checkNotNull(key, "key");
+        CacheEntry<K, V> entry = map.get(key);
+        return entry != null && !isExpired(entry, now());
+    }
+
+    /**
+     * Creates a weakly consistent stream over the valid entries of this cache, mapped by given
+     * function. The stream neither copies the cache nor blocks writers. Entries that are written
+     * or expire while the stream is being consumed may or may not be included.
+     *
+     * @param mapper          the function mapping entries to stream elements, must not return
+     *                        null
+     * @param characteristics the additional spliterator characteristics of the mapped elements,
+     *                        such as {@link Spliterator#DISTINCT}
+     * @param <T>             the type of stream elements
+     * @return a stream of the mapped valid entries
+     */
+    <T> Stream<T> stream(Function<? super CacheEntry<K, V>, ? extends T> mapper, int characteristics) {
+        Spliterator<CacheEntry<K, V>> entries = map.values().spliterator();
+        return StreamSupport.stream(new CacheSpliterator<>(this, entries, mapper, characteristics, now()), false);
+    }
+
+    /**
+     * @return a weakly consistent stream of all valid entries
+     * @see #stream(Function, int)
+     */
+    Stream<CacheEntry<K, V>> entries() {
+        return stream(Function.identity(), Spliterator.DISTINCT);
+    }
+
+    /**
+     * Removes all expired entries from this cache.
+     */
+    void cleanUp() {
+        long now = now();
+        for (CacheStripe<K, V> stripe : stripes) {
+            stripe.cleanUp(now);
+        }
+    }
+
+    /**
+     * @return the counter recording the statistics of this cache, which ignores all recordings if
+     * statistics are disabled
+     */
+    StatsCounter getStatsCounter() {
+        return stats;
+    }
+
+    /**
+     * @return the number of entries currently stored, including entries that have expired but not
+     * yet been removed
+     */
+    long estimatedSize() {
+        return map.mappingCount();
+    }
+
+    private boolean discard(CacheEntry<K, V> entry) {
+        if (removeIfSame(entry)) {
+            afterRemoval(entry);
+            return true;
+        }
+        return false;
+    }
+
+    private void afterRemoval(CacheEntry<K, V> removed) {
+        if (needsBookkeeping()) {
+            stripeFor(removed.getKey()).afterRemoval(removed);
+        }
+    }
+
+    /**
+     * Removes given entry from the map if it is still the current mapping for its key and retires
+     * it. Does not update any stripe bookkeeping.
+     *
+     * @param entry the entry to remove
+     * @return whether the entry was removed by this call
+     */
+    boolean removeIfSame(CacheEntry<K, V> entry) {
+        if (map.remove(entry.getKey(), entry)) {
+            entry.retire();
+            return true;
+        }
+        return false;
+    }
+
+    boolean isExpired(CacheEntry<K, V> entry, long now) {
+        return (expiresAfterWrite() && now - entry.getWriteTime() >= writeExpiryNanos) ||
+                (expiresAfterAccess() && now - entry.getAccessTime() >= accessExpiryNanos);
+    }
+
+    boolean expiresAfterWrite() {
+        return writeExpiryNanos != ConcurrentCacheBuilder.UNSET;
+    }
+
+    boolean expiresAfterAccess() {
+        return accessExpiryNanos != ConcurrentCacheBuilder.UNSET;
+    }
+
+    private boolean needsBookkeeping() {
+        return expiresAfterWrite() || expiresAfterAccess() || bounded;
+    }
+
+    long now() {
+        return ticker.read();
+    }
+
+    private CacheStripe<K, V> stripeFor(K key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return stripes[hash & stripeMask];
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * An id cache that places a tiny per-thread near cache (L1) in front of a shared concurrent cache
+ * (L2). Lookups that hit the near cache of the calling thread need neither a concurrent map lookup
+ * nor synchronization, which pays off for extremely hot keys, such as the account of a player
+ * that is read for every chat message they send. <p>Every write and invalidation through this
+ * cache increments the invalidation version of the affected key, and clearing increments all
+ * versions. Near caches compare the version a mapping was read at with the current version before
+ * returning it, so changes become visible to all threads immediately without having to reach
+ * their near caches. Since versions are striped, an invalidation may also drop unrelated near
+ * mappings, which is harmless. Near mappings additionally expire after a short, separately
+ * configured time, so that they never outlive expiry of the shared cache by much.</p> <p>Each
+ * level records its own {@linkplain #nearStats() statistics} if statistics are enabled on the
+ * builder. Near misses are shared cache requests.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @see ConcurrentCacheBuilder#buildTwoLevelIdCache(Function, int, long, TimeUnit)
+ * @since 2026-10-17
+ */
+public class TwoLevelIdCache<K, V> implements IdCache<K, V> {
+    private static final int VERSION_STRIPES = 1024;
+    private final ConcurrentIdCache<K, V> shared;
+    private final Function<? super V, ? extends K> idFunction;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final ThreadLocal<NearCache<K, V>> nearCaches;
+    private final long nearExpiryNanos;
+    private final Ticker ticker;
+    private final StatsCounter nearStats;
+
+    TwoLevelIdCache(ConcurrentCacheBuilder<? super K, ? super V> builder, Function<? super V, ? extends K> idFunction,
+                    int nearCapacity, long nearExpiryNanos) {
+        Preconditions.checkArgument(nearCapacity > 0, "nearCapacity must be positive: %s", nearCapacity);
+        Preconditions.checkArgument(nearExpiryNanos > 0, "nearExpiry must be positive: %s", nearExpiryNanos);
+        this.shared = new ConcurrentIdCache<>(builder, idFunction);
+        this.idFunction = idFunction;
+        int capacity = Integer.highestOneBit(nearCapacity - 1) << 1;
+        this.nearCaches = ThreadLocal.withInitial(() -> new NearCache<>(Math.max(1, capacity)));
+        this.nearExpiryNanos = nearExpiryNanos;
+        this.ticker = builder.getTicker();
+        this.nearStats = builder.isRecordingStats() ? new StatsCounter() : StatsCounter.disabled();
+    }
+
+    private static int spread(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private long versionOf(int hash) {
+        return versions.get(hash & (VERSION_STRIPES - 1));
+    }
+
+    private void bumpVersion(K key) {
+        versions.incrementAndGet(spread(key) & (VERSION_STRIPES - 1));
+    }
+
+    private void bumpAllVersions() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+    }
+
+    private K idOf(V value) {
+        return Preconditions.checkNotNull(idFunction.apply(value), "idFunction returned null for %s", value);
+    }
+
+    @Override
+    public void clear() {
+        shared.clear();
+        bumpAllVersions();
+    }
+
+    @Override
+    public <R extends V> R cache(R value) {
+        shared.cache(value);
+        bumpVersion(idOf(value));
+        return value;
+    }
+
+    @Override
+    public <R extends V> R compute(K id, Function<? super K, R> supplier) {
+        R value = shared.compute(id, supplier);
+        bumpVersion(id);
+        return value;
+    }
+
+    @Override
+    public Optional<V> get(K id) {
+        Preconditions.checkNotNull(id, "id");
+        int hash = spread(id);
+        long version = versionOf(hash);
+        NearCache<K, V> near = nearCaches.get();
+        long now = ticker.read();
+        V value = near.get(id, hash, version, now - nearExpiryNanos);
+        if (value != null) {
+            nearStats.recordHit(value);
+            return Optional.of(value);
+        }
+        nearStats.recordMiss();
+        Optional<V> result = shared.get(id);
+        result.ifPresent(found -> near.put(id, hash, found, version, now));
+        return result;
+    }
+
+    @Override
+    public V getOrCompute(K id, Function<? super K, ? extends V> supplier) {
+        Preconditions.checkNotNull(id, "id");
+        int hash = spread(id);
+        long version = versionOf(hash);
+        NearCache<K, V> near = nearCaches.get();
+        long now = ticker.read();
+        V value = near.get(id, hash, version, now - nearExpiryNanos);
+        if (value != null) {
+            nearStats.recordHit(value);
+            return value;
+        }
+        nearStats.recordMiss();
+        value = shared.getOrCompute(id, supplier);
+        // the shared cache maps computed values by their own id, which invalidations refer to
+        if (value != null && id.equals(idOf(value))) {
+            near.put(id, hash, value, version, now);
+        }
+        return value;
+    }
+
+    /**
+     * {@inheritDoc} <p>Like with {@link ConcurrentIdCache#getOrComputeAll(Collection, Function)},
+     * each call to the loader counts as a single load of the shared cache.</p>
+     */
+    @Override
+    public Map<K, V> getOrComputeAll(Collection<? extends K> ids,
+                                     Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> loader) {
+        Preconditions.checkNotNull(loader, "loader");
+        return IdCache.super.getOrComputeAll(ids, shared.getStripedCache().timedBulkLoader(loader));
+    }
+
+    @Override
+    public void invalidateValue(V value) {
+        shared.invalidateValue(value);
+        bumpVersion(idOf(value));
+    }
+
+    @Override
+    public void invalidateKey(K key) {
+        shared.invalidateKey(key);
+        bumpVersion(key);
+    }
+
+    @Override
+    public boolean containsKey(K id) {
+        return shared.containsKey(id);
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        return shared.containsValue(value);
+    }
+
+    @Override
+    public Stream<V> stream() {
+        return shared.stream();
+    }
+
+    /**
+     * Returns the combined statistics of both levels. Hits in either level count as hits, while
+     * only shared cache misses count as misses.
+     *
+     * @return a snapshot of the combined statistics of this cache
+     */
+    @Override
+    public CacheStats stats() {
+        CacheStats near = nearStats();
+        return sharedStats().plus(new CacheStats(near.getHitCount(), near.getAbsentHitCount(), 0, 0, 0, 0,
+                new long[EvictionCause.values().length]));
+    }
+
+    /**
+     * @return a snapshot of the statistics of the per-thread near caches, aggregated over all
+     * threads
+     */
+    public CacheStats nearStats() {
+        return nearStats.snapshot();
+    }
+
+    /**
+     * @return a snapshot of the statistics of the shared cache
+     */
+    public CacheStats sharedStats() {
+        return shared.stats();
+    }
+
+    /**
+     * @return the shared cache backing this cache, for operations not related to lookups, such as
+     * snapshots. Writes and invalidations must go through this cache instead, since they would
+     * otherwise not reach the near caches.
+     */
+    public ConcurrentIdCache<K, V> getSharedCache() {
+        return shared;
+    }
+}
@@ -0,0 +1,479 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Open-addressing hash table keyed by the two halves of {@link java.util.UUID UUIDs}, which are
+ * stored inline instead of as objects. Collisions are resolved by linear probing, and removals
+ * shift subsequent entries back instead of leaving tombstones. Subclasses store values in a
+ * parallel array indexed by slot.
+ * <p>All mutations happen while holding the write lock of {@link #lock}. Lookups go through
+ * {@link #readValid(long, long, ValueReader)}, which uses optimistic reads: It reads all array
+ * fields into locals, {@linkplain StampedLock#validate(long) validates} the stamp, probes the
+ * local arrays and validates again before using the result. Arrays are only ever replaced by
+ * larger ones, and all arrays of a validated snapshot have the same capacity, so racy probes never
+ * index out of bounds.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+abstract class UuidHashTable {
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * Linear probing degrades quickly with high load factors, so the table is kept at most two
+     * thirds full.
+     */
+    private static final int MAXIMUM_LOAD_NUMERATOR = 2;
+    private static final int MAXIMUM_LOAD_DENOMINATOR = 3;
+    final StampedLock lock = new StampedLock();
+    private final Ticker ticker;
+    private final long writeExpiryNanos;
+    /**
+     * The key halves, with the most significant bits at {@code 2 * slot} and the least significant
+     * bits at {@code 2 * slot + 1}, so that comparing a key touches a single cache line.
+     */
+    long[] keys;
+    boolean[] used;
+    /**
+     * The write times of the mappings, or null if mappings never expire.
+     */
+    long[] writeTimes;
+    int size;
+
+    UuidHashTable(long writeExpiryNanos, Ticker ticker) {
+        this.writeExpiryNanos = writeExpiryNanos;
+        this.ticker = ticker;
+        this.keys = new long[INITIAL_CAPACITY * 2];
+        this.used = new boolean[INITIAL_CAPACITY];
+        this.writeTimes = expires() ? new long[INITIAL_CAPACITY] : null;
+    }
+
+    /**
+     * Moves the value at given slot to another, empty slot.
+     *
+     * @param from the slot to move the value from
+     * @param to   the slot to move the value to
+     */
+    abstract void moveValue(int from, int to);
+
+    /**
+     * Releases the value at given slot, which is no longer used.
+     *
+     * @param slot the slot to release
+     */
+    abstract void clearValue(int slot);
+
+    /**
+     * Replaces the value array with a new one of given capacity, moving each value from its old
+     * slot to the slot at the same index in given array. Must assign the new array before
+     * returning.
+     *
+     * @param newSlots    the new slot for each old slot, or -1 for unused old slots
+     * @param newCapacity the capacity of the new array
+     */
+    abstract void rehashValues(int[] newSlots, int newCapacity);
+
+    /**
+     * Releases all values.
+     */
+    abstract void clearValues();
+
+    /**
+     * @return the current value array, which is read together with the other arrays when
+     * capturing a snapshot for iteration
+     */
+    abstract Object valueArray();
+
+    /**
+     * Creates a weakly consistent spliterator over the valid mappings of this table. It traverses
+     * the arrays captured when it was created slot by slot using optimistic reads, so it neither
+     * copies the table nor blocks writers. Mappings written after it was created may or may not
+     * be reported. Mappings that are moved by concurrent removals may be missed, or, if they wrap
+     * around the end of the table, reported twice. If the table grows during iteration, the
+     * mappings as of the time of growth are reported.
+     *
+     * @param readerFactory the function creating the reader of mappings from a captured value
+     *                      array
+     * @param <T>           the type of elements produced
+     * @return a new spliterator
+     */
+    <T> Spliterator<T> spliterator(Function<Object, SlotReader<T>> readerFactory) {
+        long[] keys;
+        boolean[] used;
+        long[] writeTimes;
+        Object values;
+        long stamp;
+        do {
+            stamp = lock.tryOptimisticRead();
+            keys = this.keys;
+            used = this.used;
+            writeTimes = this.writeTimes;
+            values = valueArray();
+        } while (!lock.validate(stamp));
+        return new TableSpliterator<>(keys, used, writeTimes, readerFactory.apply(values), 0, used.length, now());
+    }
+
+    static long toPositiveNanos(long duration, TimeUnit unit) {
+        Preconditions.checkNotNull(unit, "unit");
+        Preconditions.checkArgument(duration > 0, "duration must be positive: %s", duration);
+        return unit.toNanos(duration);
+    }
+
+    static int indexFor(long mostSignificantBits, long leastSignificantBits, int mask) {
+        long hash = mostSignificantBits ^ leastSignificantBits;
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash & mask;
+    }
+
+    /**
+     * Finds the slot of given key in given arrays, regardless of expiry. Safe to call on racy
+     * snapshots, since it never probes more slots than there are.
+     *
+     * @return the slot of given key, or -1 if it is not present
+     */
+    static int probe(long[] keys, boolean[] used, long mostSignificantBits, long leastSignificantBits) {
+        int capacity = used.length;
+        int mask = capacity - 1;
+        int slot = indexFor(mostSignificantBits, leastSignificantBits, mask);
+        for (int probes = 0; probes < capacity; probes++) {
+            if (!used[slot]) {
+                return -1;
+            } else if (keys[slot * 2] == mostSignificantBits && keys[slot * 2 + 1] == leastSignificantBits) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the slot of given key in given arrays, treating expired mappings as absent.
+     *
+     * @return the slot of the valid mapping of given key, or -1 if there is none
+     */
+    int probeValid(long[] keys, boolean[] used, long[] writeTimes, long mostSignificantBits,
+                   long leastSignificantBits, long now) {
+        int slot = probe(keys, used, mostSignificantBits, leastSignificantBits);
+        if (slot >= 0 && writeTimes != null && isExpired(writeTimes[slot], now)) {
+            return -1;
+        }
+        return slot;
+    }
+
+    /**
+     * Finds the valid mapping of given key and reads a result from it using given reader. The
+     * reader is first run on an optimistic snapshot of the arrays and its result is discarded if
+     * the snapshot turns out to be stale, in which case the lookup is repeated with the read lock
+     * held. Readers must therefore not have side effects.
+     *
+     * @param reader the function reading the result from the value array and the slot of the
+     *               mapping, which is -1 if there is no valid mapping
+     * @param <T>    the type of the result
+     * @return the result of given reader
+     */
+    <T> T readValid(long mostSignificantBits, long leastSignificantBits, ValueReader<T> reader) {
+        long now = now();
+        long stamp = lock.tryOptimisticRead();
+        long[] keys = this.keys;
+        boolean[] used = this.used;
+        long[] writeTimes = this.writeTimes;
+        Object values = valueArray();
+        if (lock.validate(stamp)) {
+            int slot = probeValid(keys, used, writeTimes, mostSignificantBits, leastSignificantBits, now);
+            T result = reader.read(values, slot);
+            if (lock.validate(stamp)) {
+                return result;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            int slot = probeValid(this.keys, this.used, this.writeTimes, mostSignificantBits, leastSignificantBits, now);
+            return reader.read(valueArray(), slot);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private boolean isExpired(long writeTime, long now) {
+        return now - writeTime >= writeExpiryNanos;
+    }
+
+    /**
+     * Finds or claims the slot for given key and records the write time. Must be called with the
+     * write lock held. Expired mappings are removed before the table is grown. Since this may
+     * replace the value array, callers must read the value array only after this returns.
+     *
+     * @return the slot to store the value of given key in
+     */
+    int claimSlot(long mostSignificantBits, long leastSignificantBits, long now) {
+        int slot = probe(keys, used, mostSignificantBits, leastSignificantBits);
+        if (slot < 0) {
+            if ((size + 1) * MAXIMUM_LOAD_DENOMINATOR > used.length * MAXIMUM_LOAD_NUMERATOR) {
+                removeExpired(now);
+                if ((size + 1) * MAXIMUM_LOAD_DENOMINATOR > used.length * MAXIMUM_LOAD_NUMERATOR) {
+                    grow();
+                }
+            }
+            int mask = used.length - 1;
+            slot = indexFor(mostSignificantBits, leastSignificantBits, mask);
+            while (used[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot * 2] = mostSignificantBits;
+            keys[slot * 2 + 1] = leastSignificantBits;
+            used[slot] = true;
+            size++;
+        }
+        if (writeTimes != null) {
+            writeTimes[slot] = now;
+        }
+        return slot;
+    }
+
+    /**
+     * Removes the mapping of given key, if any. Must be called with the write lock held.
+     *
+     * @return whether there was a mapping, including expired ones
+     */
+    boolean remove(long mostSignificantBits, long leastSignificantBits) {
+        int slot = probe(keys, used, mostSignificantBits, leastSignificantBits);
+        if (slot < 0) {
+            return false;
+        }
+        removeSlot(slot);
+        return true;
+    }
+
+    private void removeSlot(int slot) {
+        int mask = used.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (used[next]) {
+            int ideal = indexFor(keys[next * 2], keys[next * 2 + 1], mask);
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                moveSlot(next, hole);
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        used[hole] = false;
+        clearValue(hole);
+        size--;
+    }
+
+    private void moveSlot(int from, int to) {
+        keys[to * 2] = keys[from * 2];
+        keys[to * 2 + 1] = keys[from * 2 + 1];
+        if (writeTimes != null) {
+            writeTimes[to] = writeTimes[from];
+        }
+        moveValue(from, to);
+    }
+
+    /**
+     * Removes all expired mappings. Must be called with the write lock held.
+     *
+     * @param now the current ticker time
+     */
+    void removeExpired(long now) {
+        if (writeTimes == null) {
+            return;
+        }
+        List<long[]> expired = new ArrayList<>();
+        for (int slot = 0; slot < used.length; slot++) {
+            if (used[slot] && isExpired(writeTimes[slot], now)) {
+                expired.add(new long[]{keys[slot * 2], keys[slot * 2 + 1]});
+            }
+        }
+        for (long[] key : expired) {
+            remove(key[0], key[1]);
+        }
+    }
+
+    private void grow() {
+        int newCapacity = used.length * 2;
+        int newMask = newCapacity - 1;
+        long[] newKeys = new long[newCapacity * 2];
+        boolean[] newUsed = new boolean[newCapacity];
+        long[] newWriteTimes = writeTimes == null ? null : new long[newCapacity];
+        int[] newSlots = new int[used.length];
+        for (int slot = 0; slot < used.length; slot++) {
+            if (!used[slot]) {
+                newSlots[slot] = -1;
+                continue;
+            }
+            int newSlot = indexFor(keys[slot * 2], keys[slot * 2 + 1], newMask);
+            while (newUsed[newSlot]) {
+                newSlot = (newSlot + 1) & newMask;
+            }
+            newKeys[newSlot * 2] = keys[slot * 2];
+            newKeys[newSlot * 2 + 1] = keys[slot * 2 + 1];
+            newUsed[newSlot] = true;
+            if (newWriteTimes != null) {
+                newWriteTimes[newSlot] = writeTimes[slot];
+            }
+            newSlots[slot] = newSlot;
+        }
+        rehashValues(newSlots, newCapacity);
+        this.keys = newKeys;
+        this.writeTimes = newWriteTimes;
+        this.used = newUsed;
+    }
+
+    /**
+     * Removes all mappings, keeping the current capacity. Must be called with the write lock held.
+     */
+    void clearAll() {
+        Arrays.fill(used, false);
+        clearValues();
+        size = 0;
+    }
+
+    /**
+     * Reads the result of a lookup from a captured value array.
+     *
+     * @param <T> the type of the result
+     */
+    interface ValueReader<T> {
+        /**
+         * @param values the captured value array
+         * @param slot   the slot of the valid mapping, or -1 if there is none
+         * @return the result of the lookup
+         */
+        T read(Object values, int slot);
+    }
+
+    /**
+     * Reads a mapping from a captured value array.
+     *
+     * @param <T> the type of elements produced
+     */
+    interface SlotReader<T> {
+        /**
+         * @param key  the key of the mapping
+         * @param slot the slot of the mapping
+         * @return the element for the mapping at given slot
+         */
+        T read(UUID key, int slot);
+    }
+
+    private class TableSpliterator<T> implements Spliterator<T> {
+        /**
+         * Ranges smaller than this are not split further, since per-task overhead would dominate.
+         */
+        private static final int MINIMUM_SPLIT_SLOTS = 64;
+        private final long[] keys;
+        private final boolean[] used;
+        private final long[] writeTimes;
+        private final SlotReader<T> reader;
+        private final long now;
+        private int index;
+        private final int fence;
+
+        TableSpliterator(long[] keys, boolean[] used, long[] writeTimes, SlotReader<T> reader,
+                         int index, int fence, long now) {
+            this.keys = keys;
+            this.used = used;
+            this.writeTimes = writeTimes;
+            this.reader = reader;
+            this.index = index;
+            this.fence = fence;
+            this.now = now;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (index < fence) {
+                T element = readSlot(index++);
+                if (element != null) {
+                    action.accept(element);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private T readSlot(int slot) {
+            while (true) {
+                long stamp = lock.tryOptimisticRead();
+                if (stamp == 0L) {
+                    Thread.yield();
+                    continue;
+                }
+                T element = null;
+                if (used[slot] && (writeTimes == null || !isExpired(writeTimes[slot], now))) {
+                    element = reader.read(new UUID(keys[slot * 2], keys[slot * 2 + 1]), slot);
+                }
+                if (lock.validate(stamp)) {
+                    return element;
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int remaining = fence - index;
+            if (remaining < MINIMUM_SPLIT_SLOTS * 2) {
+                return null;
+            }
+            int middle = index + remaining / 2;
+            Spliterator<T> prefix = new TableSpliterator<>(keys, used, writeTimes, reader, index, middle, now);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (long) (fence - index) * size / used.length;
+        }
+
+        @Override
+        public int characteristics() {
+            return CONCURRENT | NONNULL;
+        }
+    }
+
+    boolean expires() {
+        return writeExpiryNanos != ConcurrentCacheBuilder.UNSET;
+    }
+
+    long now() {
+        return expires() ? ticker.read() : 0L;
+    }
+}
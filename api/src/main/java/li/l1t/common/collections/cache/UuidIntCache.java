@@ -0,0 +1,269 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A thread-safe cache mapping {@link UUID UUIDs} to primitive {@code int} values, for example
+ * player statistics. Shares its storage layout and expiry behaviour with {@link UuidMapCache}, but
+ * stores values in an {@code int} array, so mappings cost no boxed integers. The primitive methods
+ * {@link #getInt(UUID, int)}, {@link #cacheInt(UUID, int)} and {@link #addAndGet(UUID, int)}
+ * never box, while the {@link MapCache} methods box values as needed. Like UuidMapCache, it
+ * cannot be bounded and does not record statistics.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @see ConcurrentCacheBuilder#buildUuidIntCache()
+ * @since 2026-10-17
+ */
+public class UuidIntCache extends UuidHashTable implements MapCache<UUID, Integer> {
+    private int[] values;
+
+    /**
+     * Creates a new cache that never expires its mappings.
+     */
+    public UuidIntCache() {
+        this(ConcurrentCacheBuilder.UNSET, Ticker.systemTicker());
+    }
+
+    /**
+     * Creates a new cache that expires mappings after a fixed time since they have been written.
+     *
+     * @param writeExpiry the amount of time after which mappings expire once written
+     * @param unit        the unit of the amount of time
+     */
+    public UuidIntCache(long writeExpiry, TimeUnit unit) {
+        this(toPositiveNanos(writeExpiry, unit), Ticker.systemTicker());
+    }
+
+    UuidIntCache(long writeExpiryNanos, Ticker ticker) {
+        super(writeExpiryNanos, ticker);
+        this.values = new int[used.length];
+    }
+
+    /**
+     * Gets the value currently mapped to given key, without boxing it.
+     *
+     * @param key          the key to retrieve the mapping for
+     * @param defaultValue the value to return if there is no valid mapping
+     * @return the value of the mapping for given key, or given default value if there is none
+     */
+    public int getInt(UUID key, int defaultValue) {
+        Integer value = readInt(key);
+        return value == null ? defaultValue : value;
+    }
+
+    private Integer readInt(UUID key) {
+        Preconditions.checkNotNull(key, "key");
+        return readValid(key.getMostSignificantBits(), key.getLeastSignificantBits(),
+                (values, slot) -> slot < 0 ? null : ((int[]) values)[slot]);
+    }
+
+    /**
+     * Maps given key to given value, without boxing it.
+     *
+     * @param key   the key of the mapping
+     * @param value the value of the mapping
+     * @return the value
+     */
+    public int cacheInt(UUID key, int value) {
+        Preconditions.checkNotNull(key, "key");
+        long now = now();
+        long stamp = lock.writeLock();
+        try {
+            int slot = claimSlot(key.getMostSignificantBits(), key.getLeastSignificantBits(), now);
+            values[slot] = value;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return value;
+    }
+
+    /**
+     * Atomically adds given delta to the value mapped to given key, treating keys without a valid
+     * mapping as mapped to zero. This counts as a write and resets the expiry of the mapping.
+     *
+     * @param key   the key of the mapping
+     * @param delta the amount to add, may be negative
+     * @return the new value of the mapping
+     */
+    public int addAndGet(UUID key, int delta) {
+        Preconditions.checkNotNull(key, "key");
+        long mostSignificantBits = key.getMostSignificantBits();
+        long leastSignificantBits = key.getLeastSignificantBits();
+        long now = now();
+        long stamp = lock.writeLock();
+        try {
+            int current = probeValid(keys, used, writeTimes, mostSignificantBits, leastSignificantBits, now);
+            int base = current < 0 ? 0 : values[current];
+            int slot = claimSlot(mostSignificantBits, leastSignificantBits, now);
+            values[slot] = base + delta;
+            return values[slot];
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            clearAll();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public <R extends Integer> R cache(UUID key, R value) {
+        Preconditions.checkNotNull(value, "value");
+        cacheInt(key, value);
+        return value;
+    }
+
+    @Override
+    public <R extends Integer> R compute(UUID key, Function<? super UUID, R> supplier) {
+        Preconditions.checkNotNull(supplier, "supplier");
+        return cache(key, supplier.apply(key));
+    }
+
+    @Override
+    public Optional<Integer> get(UUID key) {
+        return Optional.ofNullable(readInt(key));
+    }
+
+    @Override
+    public Integer getOrCompute(UUID key, Function<UUID, ? extends Integer> supplier) {
+        Preconditions.checkNotNull(supplier, "supplier");
+        return get(key).orElseGet(() -> cache(key, supplier.apply(key)));
+    }
+
+    @Override
+    public void invalidateKey(UUID key) {
+        Preconditions.checkNotNull(key, "key");
+        long stamp = lock.writeLock();
+        try {
+            remove(key.getMostSignificantBits(), key.getLeastSignificantBits());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean containsKey(UUID key) {
+        Preconditions.checkNotNull(key, "key");
+        return readValid(key.getMostSignificantBits(), key.getLeastSignificantBits(), (values, slot) -> slot >= 0);
+    }
+
+    /**
+     * {@inheritDoc} The stream traverses the table without copying it or blocking writers. It is
+     * weakly consistent: Mappings written concurrently may or may not be included, and mappings
+     * moved by concurrent removals may rarely be missed or included twice.
+     */
+    @Override
+    public Stream<Map.Entry<UUID, Integer>> entryStream() {
+        return StreamSupport.stream(spliterator(values -> (key, slot) ->
+                new AbstractMap.SimpleImmutableEntry<>(key, ((int[]) values)[slot])), false);
+    }
+
+    @Override
+    public Stream<UUID> keyStream() {
+        return StreamSupport.stream(spliterator(values -> (key, slot) -> key), false);
+    }
+
+    @Override
+    public Stream<Integer> valueStream() {
+        return StreamSupport.stream(spliterator(values -> (key, slot) -> ((int[]) values)[slot]), false);
+    }
+
+    /**
+     * Removes all expired mappings from this cache. Calling this method is never necessary for
+     * correctness, but may be used to release memory held by expired mappings in caches that are
+     * rarely written to.
+     */
+    public void cleanUp() {
+        long now = now();
+        long stamp = lock.writeLock();
+        try {
+            removeExpired(now);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return the number of mappings in this cache, which may include expired mappings that have
+     * not yet been cleaned up
+     */
+    public long estimatedSize() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(int slot) {
+        values[slot] = 0;
+    }
+
+    @Override
+    void rehashValues(int[] newSlots, int newCapacity) {
+        int[] newValues = new int[newCapacity];
+        for (int slot = 0; slot < newSlots.length; slot++) {
+            if (newSlots[slot] >= 0) {
+                newValues[newSlots[slot]] = values[slot];
+            }
+        }
+        this.values = newValues;
+    }
+
+    @Override
+    void clearValues() {
+        // values of unused slots are never read and need not be reset
+    }
+
+    @Override
+    Object valueArray() {
+        return values;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A thread-safe map cache specialised for {@link UUID} keys, which optionally expires mappings
+ * after a fixed time since they have been written. Keys are stored as their two {@code long}
+ * halves inline in an open-addressing hash table, so a mapping costs no node, key or entry object.
+ * Lookups and streams are lock-free in the absence of concurrent writes. Compared to {@link
+ * ConcurrentMapCache}, this implementation uses several times less memory per mapping, but all
+ * writes are serialised and it supports neither size bounds, access expiry nor statistics, which
+ * is why {@link ConcurrentCacheBuilder#buildUuidMapCache()} rejects these settings. Expired
+ * mappings are never returned and are removed in bulk before the table grows or on {@link
+ * #cleanUp()}. Neither keys nor values may be null.
+ *
+ * @param <V> the value type
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @see UuidIntCache for primitive int values
+ * @see ConcurrentCacheBuilder#buildUuidMapCache()
+ * @since 2026-10-17
+ */
+public class UuidMapCache<V> extends UuidHashTable implements MapCache<UUID, V> {
+    private Object[] values;
+
+    /**
+     * Creates a new cache that never expires its mappings.
+     */
+    public UuidMapCache() {
+        this(ConcurrentCacheBuilder.UNSET, Ticker.systemTicker());
+    }
+
+    /**
+     * Creates a new cache that expires mappings after a fixed time since they have been written.
+     *
+     * @param writeExpiry the amount of time after which mappings expire once written
+     * @param unit        the unit of the amount of time
+     */
+    public UuidMapCache(long writeExpiry, TimeUnit unit) {
+        this(toPositiveNanos(writeExpiry, unit), Ticker.systemTicker());
+    }
+
+    UuidMapCache(long writeExpiryNanos, Ticker ticker) {
+        super(writeExpiryNanos, ticker);
+        this.values = new Object[used.length];
+    }
+
+    @Override
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            clearAll();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public <R extends V> R cache(UUID key, R value) {
+        Preconditions.checkNotNull(key, "key");
+        Preconditions.checkNotNull(value, "value");
+        long now = now();
+        long stamp = lock.writeLock();
+        try {
+            int slot = claimSlot(key.getMostSignificantBits(), key.getLeastSignificantBits(), now);
+            values[slot] = value;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return value;
+    }
+
+    @Override
+    public <R extends V> R compute(UUID key, Function<? super UUID, R> supplier) {
+        Preconditions.checkNotNull(supplier, "supplier");
+        return cache(key, supplier.apply(key));
+    }
+
+    @Override
+    public Optional<V> get(UUID key) {
+        Preconditions.checkNotNull(key, "key");
+        return Optional.ofNullable(getIfPresent(key.getMostSignificantBits(), key.getLeastSignificantBits()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private V getIfPresent(long mostSignificantBits, long leastSignificantBits) {
+        return readValid(mostSignificantBits, leastSignificantBits,
+                (values, slot) -> slot < 0 ? null : (V) ((Object[]) values)[slot]);
+    }
+
+    @Override
+    public V getOrCompute(UUID key, Function<UUID, ? extends V> supplier) {
+        Preconditions.checkNotNull(supplier, "supplier");
+        return get(key).orElseGet(() -> cache(key, supplier.apply(key)));
+    }
+
+    @Override
+    public void invalidateKey(UUID key) {
+        Preconditions.checkNotNull(key, "key");
+        long stamp = lock.writeLock();
+        try {
+            remove(key.getMostSignificantBits(), key.getLeastSignificantBits());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean containsKey(UUID key) {
+        return get(key).isPresent();
+    }
+
+    /**
+     * {@inheritDoc} The stream traverses the table without copying it or blocking writers. It is
+     * weakly consistent: Mappings written concurrently may or may not be included, and mappings
+     * moved by concurrent removals may rarely be missed or included twice.
+     */
+    @Override
+    public Stream<Map.Entry<UUID, V>> entryStream() {
+        return stream((key, value) -> new AbstractMap.SimpleImmutableEntry<>(key, value));
+    }
+
+    @Override
+    public Stream<UUID> keyStream() {
+        return stream((key, value) -> key);
+    }
+
+    @Override
+    public Stream<V> valueStream() {
+        return stream((key, value) -> value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Stream<T> stream(BiFunction<UUID, V, T> mapper) {
+        return StreamSupport.stream(spliterator(values -> (key, slot) -> {
+            V value = (V) ((Object[]) values)[slot];
+            return value == null ? null : mapper.apply(key, value);
+        }), false);
+    }
+
+    /**
+     * Removes all expired mappings from this cache. Calling this method is never necessary for
+     * correctness, but may be used to release memory held by expired mappings in caches that are
+     * rarely written to.
+     */
+    public void cleanUp() {
+        long now = now();
+        long stamp = lock.writeLock();
+        try {
+            removeExpired(now);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return the number of mappings in this cache, which may include expired mappings that have
+     * not yet been cleaned up
+     */
+    public long estimatedSize() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(int slot) {
+        values[slot] = null;
+    }
+
+    @Override
+    void rehashValues(int[] newSlots, int newCapacity) {
+        Object[] newValues = new Object[newCapacity];
+        for (int slot = 0; slot < newSlots.length; slot++) {
+            if (newSlots[slot] >= 0) {
+                newValues[newSlots[slot]] = values[slot];
+            }
+        }
+        this.values = newValues;
+    }
+
+    @Override
+    void clearValues() {
+        Arrays.fill(values, null);
+    }
+
+    @Override
+    Object valueArray() {
+        return values;
+    }
+}
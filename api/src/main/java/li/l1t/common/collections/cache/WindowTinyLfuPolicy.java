@@ -0,0 +1,207 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Window TinyLFU eviction for a single stripe. New entries enter a small LRU window that takes one
+ * percent of the maximum weight. When the window overflows, its least recent entry becomes a
+ * candidate for the main space, which is a segmented LRU of a probation and a protected queue. If
+ * the main space is full, the candidate is only admitted if a {@link FrequencySketch} estimates it
+ * to be used more frequently than the entry the main space would evict. Otherwise, the candidate
+ * itself is evicted. This way, one-off scans over many keys cannot flush frequently used entries
+ * from the cache. Entries read while in probation are promoted to the protected queue, which takes
+ * up to eighty percent of the main space.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+final class WindowTinyLfuPolicy<K, V> extends SizePolicy<K, V> {
+    private static final byte WINDOW = 1;
+    private static final byte PROBATION = 2;
+    private static final byte PROTECTED = 3;
+    /**
+     * Candidates at least this frequent are sometimes admitted even if they are not more frequent
+     * than the victim, so that an attacker cannot keep a victim in the cache by artificially
+     * raising the frequency of colliding keys.
+     */
+    private static final int WARM_CANDIDATE_FREQUENCY = 6;
+    private final EntryDeque<K, V> window = EntryDeque.policyOrder();
+    private final EntryDeque<K, V> probation = EntryDeque.policyOrder();
+    private final EntryDeque<K, V> protectedQueue = EntryDeque.policyOrder();
+    private final FrequencySketch sketch;
+    private final long windowMaximum;
+    private final long mainMaximum;
+    private final long protectedMaximum;
+    private long windowWeight;
+    private long mainWeight;
+    private long protectedWeight;
+
+    WindowTinyLfuPolicy(long maximumWeight) {
+        super(maximumWeight);
+        this.windowMaximum = Math.min(maximumWeight, Math.max(1L, maximumWeight / 100L));
+        this.mainMaximum = maximumWeight - windowMaximum;
+        this.protectedMaximum = mainMaximum * 4L / 5L;
+        this.sketch = new FrequencySketch(maximumWeight);
+    }
+
+    @Override
+    void onAdd(CacheEntry<K, V> entry) {
+        sketch.increment(entry.getKey());
+        entry.policyQueue = WINDOW;
+        window.addLast(entry);
+        windowWeight += entry.getWeight();
+        addWeight(entry.getWeight());
+    }
+
+    @Override
+    void onAccess(CacheEntry<K, V> entry) {
+        if (!contains(entry)) {
+            return;
+        }
+        sketch.increment(entry.getKey());
+        switch (entry.policyQueue) {
+            case WINDOW:
+                window.moveToLast(entry);
+                break;
+            case PROBATION:
+                promote(entry);
+                break;
+            case PROTECTED:
+                protectedQueue.moveToLast(entry);
+                break;
+            default:
+                throw new AssertionError("unknown policy queue: " + entry.policyQueue);
+        }
+    }
+
+    private void promote(CacheEntry<K, V> entry) {
+        probation.remove(entry);
+        entry.policyQueue = PROTECTED;
+        protectedQueue.addLast(entry);
+        protectedWeight += entry.getWeight();
+        CacheEntry<K, V> demoted;
+        while (protectedWeight > protectedMaximum && (demoted = protectedQueue.peekFirst()) != entry) {
+            protectedQueue.remove(demoted);
+            protectedWeight -= demoted.getWeight();
+            demoted.policyQueue = PROBATION;
+            probation.addLast(demoted);
+        }
+    }
+
+    @Override
+    void onRemove(CacheEntry<K, V> entry) {
+        if (contains(entry)) {
+            queueOf(entry).remove(entry);
+            addQueueWeight(entry.policyQueue, -entry.getWeight());
+            addWeight(-entry.getWeight());
+            entry.policyQueue = 0;
+        }
+    }
+
+    @Override
+    void onReplace(CacheEntry<K, V> entry, CacheEntry<K, V> replacement) {
+        sketch.increment(replacement.getKey());
+        queueOf(entry).replace(entry, replacement);
+        replacement.policyQueue = entry.policyQueue;
+        entry.policyQueue = 0;
+        int delta = replacement.getWeight() - entry.getWeight();
+        addQueueWeight(replacement.policyQueue, delta);
+        addWeight(delta);
+    }
+
+    private EntryDeque<K, V> queueOf(CacheEntry<K, V> entry) {
+        switch (entry.policyQueue) {
+            case WINDOW:
+                return window;
+            case PROBATION:
+                return probation;
+            case PROTECTED:
+                return protectedQueue;
+            default:
+                throw new AssertionError("unknown policy queue: " + entry.policyQueue);
+        }
+    }
+
+    private void addQueueWeight(byte queue, long delta) {
+        if (queue == WINDOW) {
+            windowWeight += delta;
+        } else {
+            mainWeight += delta;
+            if (queue == PROTECTED) {
+                protectedWeight += delta;
+            }
+        }
+    }
+
+    @Override
+    CacheEntry<K, V> selectVictim() {
+        admitWhileMainHasRoom();
+        if (!isOverweight()) {
+            return null;
+        }
+        CacheEntry<K, V> candidate = windowWeight > windowMaximum ? window.peekFirst() : null;
+        CacheEntry<K, V> victim = probation.isEmpty() ? protectedQueue.peekFirst() : probation.peekFirst();
+        if (candidate == null) {
+            return victim == null ? window.peekFirst() : victim;
+        } else if (victim == null) {
+            return candidate;
+        } else if (admit(candidate, victim)) {
+            moveToProbation(candidate);
+            return victim;
+        } else {
+            return candidate;
+        }
+    }
+
+    private void admitWhileMainHasRoom() {
+        CacheEntry<K, V> candidate;
+        while (windowWeight > windowMaximum && (candidate = window.peekFirst()) != null &&
+                mainWeight + candidate.getWeight() <= mainMaximum) {
+            moveToProbation(candidate);
+        }
+    }
+
+    private void moveToProbation(CacheEntry<K, V> entry) {
+        window.remove(entry);
+        windowWeight -= entry.getWeight();
+        entry.policyQueue = PROBATION;
+        probation.addLast(entry);
+        mainWeight += entry.getWeight();
+    }
+
+    private boolean admit(CacheEntry<K, V> candidate, CacheEntry<K, V> victim) {
+        int candidateFrequency = sketch.frequency(candidate.getKey());
+        int victimFrequency = sketch.frequency(victim.getKey());
+        if (candidateFrequency > victimFrequency) {
+            return true;
+        } else if (candidateFrequency < WARM_CANDIDATE_FREQUENCY) {
+            return false;
+        } else {
+            return (ThreadLocalRandom.current().nextInt() & 127) == 0;
+        }
+    }
+}
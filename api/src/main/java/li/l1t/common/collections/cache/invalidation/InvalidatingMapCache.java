@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache.invalidation;
+
+import com.google.common.base.Preconditions;
+import li.l1t.common.collections.cache.CacheStats;
+import li.l1t.common.collections.cache.MapCache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A view of a cache that publishes its invalidations to an {@link InvalidationBus}. Created using
+ * {@link InvalidationBus#bind(String, MapCache, Function, Function)}. All other operations are
+ * forwarded to the local cache unchanged. Note that writes do not invalidate other nodes, so code
+ * that changes the underlying data should call {@link #invalidateKey(Object)} after writing.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class InvalidatingMapCache<K, V> implements MapCache<K, V> {
+    private final MapCache<K, V> delegate;
+    private final InvalidationBus bus;
+    private final String channel;
+    private final Function<? super K, String> keyWriter;
+
+    InvalidatingMapCache(MapCache<K, V> delegate, InvalidationBus bus, String channel,
+                         Function<? super K, String> keyWriter) {
+        this.delegate = delegate;
+        this.bus = bus;
+        this.channel = channel;
+        this.keyWriter = Preconditions.checkNotNull(keyWriter, "keyWriter");
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        bus.publishAll(channel);
+    }
+
+    @Override
+    public void invalidateKey(K key) {
+        delegate.invalidateKey(key);
+        bus.publish(channel, keyWriter.apply(key));
+    }
+
+    @Override
+    public <R extends V> R cache(K key, R value) {
+        return delegate.cache(key, value);
+    }
+
+    @Override
+    public <R extends V> R compute(K key, Function<? super K, R> supplier) {
+        return delegate.compute(key, supplier);
+    }
+
+    @Override
+    public Optional<V> get(K key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public V getOrCompute(K key, Function<K, ? extends V> supplier) {
+        return delegate.getOrCompute(key, supplier);
+    }
+
+    @Override
+    public Map<K, V> getAll(Collection<? extends K> keys) {
+        return delegate.getAll(keys);
+    }
+
+    @Override
+    public Map<K, V> getOrComputeAll(Collection<? extends K> keys,
+                                     Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> loader) {
+        return delegate.getOrComputeAll(keys, loader);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return delegate.containsKey(key);
+    }
+
+    @Override
+    public Stream<Map.Entry<K, V>> entryStream() {
+        return delegate.entryStream();
+    }
+
+    @Override
+    public Stream<K> keyStream() {
+        return delegate.keyStream();
+    }
+
+    @Override
+    public Stream<V> valueStream() {
+        return delegate.valueStream();
+    }
+
+    @Override
+    public CacheStats stats() {
+        return delegate.stats();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache.invalidation;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * An immutable request to invalidate either a single key or all keys of a channel. Channels
+ * identify a logical cache that exists on multiple nodes, for example {@code lanatus}. Keys are
+ * transported as strings, so that any transport can carry them.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public final class Invalidation {
+    private final String channel;
+    private final String key;
+
+    private Invalidation(String channel, String key) {
+        this.channel = Preconditions.checkNotNull(channel, "channel");
+        this.key = key;
+    }
+
+    /**
+     * @param channel the channel of the cache to invalidate the key in
+     * @param key     the string form of the key to invalidate
+     * @return an invalidation of given key
+     */
+    public static Invalidation ofKey(String channel, String key) {
+        return new Invalidation(channel, Preconditions.checkNotNull(key, "key"));
+    }
+
+    /**
+     * @param channel the channel of the cache to clear
+     * @return an invalidation of all keys in given channel
+     */
+    public static Invalidation ofAll(String channel) {
+        return new Invalidation(channel, null);
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * @return the string form of the key to invalidate, or null if all keys are invalidated
+     */
+    @Nullable
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return whether this invalidates all keys of its channel
+     */
+    public boolean isAll() {
+        return key == null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Invalidation that = (Invalidation) o;
+        return channel.equals(that.channel) && Objects.equals(key, that.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(channel, key);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("channel", channel)
+                .add("key", isAll() ? "*" : key)
+                .toString();
+    }
+}
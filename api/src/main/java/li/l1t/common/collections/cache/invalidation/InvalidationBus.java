@@ -0,0 +1,220 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache.invalidation;
+
+import com.google.common.base.Preconditions;
+import li.l1t.common.collections.cache.MapCache;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Propagates cache invalidations between nodes that cache the same data, for example multiple
+ * servers behind a proxy that all read from the same database. Invalidations published locally are
+ * buffered and coalesced until the next {@linkplain #tick() tick}, which sends them as a single
+ * batch using the configured transport and dispatches the batch received from other nodes to the
+ * local subscribers. Publishing the same key multiple times in a tick sends it only once, and
+ * invalidating a whole channel supersedes invalidations of single keys in it.
+ * <p>Ticking is not automatic. Typically, it is done by a repeating task. Since transports may
+ * block, that task should not run on the main server thread.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public class InvalidationBus {
+    private static final Logger LOGGER = Logger.getLogger(InvalidationBus.class.getName());
+    private final InvalidationTransport transport;
+    private final Map<String, List<Consumer<Invalidation>>> subscribers = new ConcurrentHashMap<>();
+    private final Object pendingLock = new Object();
+    private Set<Invalidation> pending = new LinkedHashSet<>();
+
+    public InvalidationBus(InvalidationTransport transport) {
+        this.transport = Preconditions.checkNotNull(transport, "transport");
+    }
+
+    /**
+     * Publishes an invalidation of a single key to other nodes with the next tick. Local caches are
+     * not notified.
+     *
+     * @param channel the channel of the cache to invalidate the key in
+     * @param key     the string form of the key to invalidate
+     */
+    public void publish(String channel, String key) {
+        enqueue(Invalidation.ofKey(channel, key));
+    }
+
+    /**
+     * Publishes an invalidation of all keys in a channel to other nodes with the next tick. Local
+     * caches are not notified.
+     *
+     * @param channel the channel of the cache to clear
+     */
+    public void publishAll(String channel) {
+        enqueue(Invalidation.ofAll(channel));
+    }
+
+    private void enqueue(Invalidation invalidation) {
+        synchronized (pendingLock) {
+            addCoalesced(pending, invalidation);
+        }
+    }
+
+    private static void addCoalesced(Set<Invalidation> target, Invalidation invalidation) {
+        if (invalidation.isAll()) {
+            target.removeIf(other -> other.getChannel().equals(invalidation.getChannel()));
+            target.add(invalidation);
+        } else if (!target.contains(Invalidation.ofAll(invalidation.getChannel()))) {
+            target.add(invalidation);
+        }
+    }
+
+    /**
+     * Registers a listener that is notified of invalidations received from other nodes in given
+     * channel. Listeners are called from the thread ticking this bus.
+     *
+     * @param channel  the channel to listen on
+     * @param listener the listener to notify
+     */
+    public void subscribe(String channel, Consumer<Invalidation> listener) {
+        Preconditions.checkNotNull(channel, "channel");
+        Preconditions.checkNotNull(listener, "listener");
+        subscribers.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Removes a listener previously registered with {@link #subscribe(String, Consumer)}.
+     *
+     * @param channel  the channel the listener was registered for
+     * @param listener the listener to remove
+     */
+    public void unsubscribe(String channel, Consumer<Invalidation> listener) {
+        List<Consumer<Invalidation>> listeners = subscribers.get(channel);
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
+    }
+
+    /**
+     * Connects a cache to this bus. Invalidations through the returned view are applied to the
+     * cache and published to other nodes, while invalidations received from other nodes are
+     * applied to the cache.
+     *
+     * @param channel   the channel identifying the cache on all nodes
+     * @param cache     the local cache
+     * @param keyWriter the function converting keys to their string form
+     * @param keyReader the function converting the string form back to keys
+     * @param <K>       the key type of the cache
+     * @param <V>       the value type of the cache
+     * @return a view of given cache that publishes invalidations to this bus
+     */
+    public <K, V> MapCache<K, V> bind(String channel, MapCache<K, V> cache,
+                                      Function<? super K, String> keyWriter,
+                                      Function<String, ? extends K> keyReader) {
+        Preconditions.checkNotNull(cache, "cache");
+        Preconditions.checkNotNull(keyReader, "keyReader");
+        subscribe(channel, invalidation -> {
+            if (invalidation.isAll()) {
+                cache.clear();
+            } else {
+                cache.invalidateKey(keyReader.apply(invalidation.getKey()));
+            }
+        });
+        return new InvalidatingMapCache<>(cache, this, channel, keyWriter);
+    }
+
+    /**
+     * Sends all invalidations published since the last tick and dispatches those received from
+     * other nodes. If sending fails, the batch is kept for the next tick. Failures are logged and
+     * never propagated, so that a database outage does not kill the ticking task.
+     */
+    public void tick() {
+        Set<Invalidation> batch;
+        synchronized (pendingLock) {
+            batch = pending;
+            pending = new LinkedHashSet<>();
+        }
+        if (!batch.isEmpty()) {
+            sendOrRequeue(batch);
+        }
+        Collection<Invalidation> received;
+        try {
+            received = transport.receive();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to receive invalidations", e);
+            return;
+        }
+        dispatch(received);
+    }
+
+    private void sendOrRequeue(Set<Invalidation> batch) {
+        try {
+            transport.send(batch);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to send " + batch.size() + " invalidations, retrying next tick", e);
+            synchronized (pendingLock) {
+                Set<Invalidation> merged = new LinkedHashSet<>();
+                batch.forEach(invalidation -> addCoalesced(merged, invalidation));
+                pending.forEach(invalidation -> addCoalesced(merged, invalidation));
+                pending = merged;
+            }
+        }
+    }
+
+    private void dispatch(Collection<Invalidation> received) {
+        Set<Invalidation> coalesced = new LinkedHashSet<>();
+        received.forEach(invalidation -> addCoalesced(coalesced, invalidation));
+        for (Invalidation invalidation : coalesced) {
+            List<Consumer<Invalidation>> listeners = subscribers.get(invalidation.getChannel());
+            if (listeners == null) {
+                continue;
+            }
+            for (Consumer<Invalidation> listener : listeners) {
+                try {
+                    listener.accept(invalidation);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Listener failed to handle " + invalidation, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the amount of invalidations waiting to be sent with the next tick
+     */
+    public int getPendingCount() {
+        synchronized (pendingLock) {
+            return pending.size();
+        }
+    }
+}
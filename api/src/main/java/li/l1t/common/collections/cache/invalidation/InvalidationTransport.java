@@ -0,0 +1,56 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache.invalidation;
+
+import java.util.Collection;
+
+/**
+ * Carries batches of invalidations between the nodes sharing an {@link InvalidationBus}.
+ * Transports are polled, so that delivery happens at a predictable point in time, namely when the
+ * bus is {@linkplain InvalidationBus#tick() ticked}. Both methods are only ever called from the
+ * thread ticking the bus.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public interface InvalidationTransport {
+    /**
+     * Sends a batch of invalidations to all other nodes. The batch is already coalesced.
+     *
+     * @param batch the invalidations to send
+     * @throws RuntimeException if the batch could not be sent, in which case it is retried with the
+     *                          next tick
+     */
+    void send(Collection<Invalidation> batch);
+
+    /**
+     * Receives the invalidations other nodes have sent since the last call. Invalidations sent by
+     * this node itself are never returned.
+     *
+     * @return the received invalidations in the order they were sent, possibly empty
+     * @throws RuntimeException if the invalidations could not be received
+     */
+    Collection<Invalidation> receive();
+}
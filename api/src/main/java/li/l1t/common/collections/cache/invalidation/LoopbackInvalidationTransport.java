@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache.invalidation;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * An in-memory transport that delivers invalidations between peers in the same JVM. Intended for
+ * tests and for setups that run multiple logical nodes in one process. Each instance is a node of
+ * its network, further nodes are created using {@link #newPeer()}.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+    private final Set<LoopbackInvalidationTransport> network;
+    private final Queue<Invalidation> inbox = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a new transport that is the only node of a new network.
+     */
+    public LoopbackInvalidationTransport() {
+        this(new CopyOnWriteArraySet<>());
+    }
+
+    private LoopbackInvalidationTransport(Set<LoopbackInvalidationTransport> network) {
+        this.network = network;
+        network.add(this);
+    }
+
+    /**
+     * @return a new transport in the same network as this one
+     */
+    public LoopbackInvalidationTransport newPeer() {
+        return new LoopbackInvalidationTransport(network);
+    }
+
+    @Override
+    public void send(Collection<Invalidation> batch) {
+        Preconditions.checkNotNull(batch, "batch");
+        for (LoopbackInvalidationTransport peer : network) {
+            if (peer != this) {
+                peer.inbox.addAll(batch);
+            }
+        }
+    }
+
+    @Override
+    public Collection<Invalidation> receive() {
+        List<Invalidation> received = new ArrayList<>();
+        Invalidation invalidation;
+        while ((invalidation = inbox.poll()) != null) {
+            received.add(invalidation);
+        }
+        return received;
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache.invalidation;
+
+import com.google.common.base.Preconditions;
+import li.l1t.common.exception.DatabaseException;
+import li.l1t.common.sql.sane.SaneSql;
+import li.l1t.common.sql.sane.exception.SqlExecutionException;
+import li.l1t.common.sql.sane.result.QueryResult;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * A transport that appends invalidations to a shared database table and polls it for rows written
+ * by other nodes. Each instance identifies itself by a random origin id, so that it can skip its
+ * own rows. Since rows are never updated, polling is a cheap range scan on the primary key.
+ * <p>The table is not cleaned up by itself. Some node should regularly call {@link
+ * #purgeOlderThan(long, TimeUnit)} with an age well above the poll interval and the gap timeout.
+ * </p> <p>Auto-increment ids do not necessarily become visible in order: If multiple nodes insert
+ * concurrently, a lower id may commit after a higher one has already been polled. Therefore, ids
+ * skipped by a poll are remembered as gaps and polled again until they show up or the gap times
+ * out. Gaps caused by rolled-back inserts or an auto-increment step above one simply time out.
+ * Rows are never reported twice.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public class SqlPollingInvalidationTransport implements InvalidationTransport {
+    private static final Pattern TABLE_NAME_PATTERN = Pattern.compile("[A-Za-z0-9_]+");
+    private static final int MAX_ROWS_PER_INSERT = 250;
+    private static final int MAX_TRACKED_GAPS = 500;
+    private final SaneSql sql;
+    private final String tableName;
+    private final long gapTimeoutMillis;
+    private final String origin = UUID.randomUUID().toString();
+    private final NavigableMap<Long, Long> gapDetectedMillis = new TreeMap<>();
+    private long lastSeenId = -1;
+
+    /**
+     * Creates a new transport that polls skipped ids for up to a minute.
+     *
+     * @param sql       the database to use
+     * @param tableName the name of the table to use, may only contain letters, digits and
+     *                  underscores since it is inserted into statements verbatim
+     */
+    public SqlPollingInvalidationTransport(SaneSql sql, String tableName) {
+        this(sql, tableName, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * @param sql        the database to use
+     * @param tableName  the name of the table to use, may only contain letters, digits and
+     *                   underscores since it is inserted into statements verbatim
+     * @param gapTimeout how long ids skipped by a poll are polled again, should exceed the
+     *                   longest transaction inserting into the table
+     * @param unit       the unit of the gap timeout
+     */
+    public SqlPollingInvalidationTransport(SaneSql sql, String tableName, long gapTimeout, TimeUnit unit) {
+        this.sql = Preconditions.checkNotNull(sql, "sql");
+        Preconditions.checkArgument(TABLE_NAME_PATTERN.matcher(tableName).matches(),
+                "invalid table name: %s", tableName);
+        Preconditions.checkNotNull(unit, "unit");
+        Preconditions.checkArgument(gapTimeout >= 0, "gapTimeout must not be negative: %s", gapTimeout);
+        this.tableName = tableName;
+        this.gapTimeoutMillis = unit.toMillis(gapTimeout);
+    }
+
+    /**
+     * Creates the table used by this transport if it does not exist yet.
+     *
+     * @throws DatabaseException if an error occurs communicating with the database
+     */
+    public void createTableIfNotExists() throws DatabaseException {
+        sql.updateRaw("CREATE TABLE IF NOT EXISTS " + tableName + " (" +
+                "id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                "origin CHAR(36) NOT NULL, " +
+                "channel VARCHAR(64) NOT NULL, " +
+                "item_key VARCHAR(255) NULL, " +
+                "created_at BIGINT NOT NULL)");
+    }
+
+    @Override
+    public void send(Collection<Invalidation> batch) throws DatabaseException {
+        List<Invalidation> rows = new ArrayList<>(batch);
+        for (int start = 0; start < rows.size(); start += MAX_ROWS_PER_INSERT) {
+            insert(rows.subList(start, Math.min(rows.size(), start + MAX_ROWS_PER_INSERT)));
+        }
+    }
+
+    private void insert(List<Invalidation> rows) {
+        StringBuilder query = new StringBuilder("INSERT INTO ").append(tableName)
+                .append(" (origin, channel, item_key, created_at) VALUES ");
+        Object[] parameters = new Object[rows.size() * 4];
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < rows.size(); i++) {
+            query.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+            Invalidation row = rows.get(i);
+            parameters[i * 4] = origin;
+            parameters[i * 4 + 1] = row.getChannel();
+            parameters[i * 4 + 2] = row.getKey();
+            parameters[i * 4 + 3] = now;
+        }
+        sql.updateRaw(query.toString(), parameters);
+    }
+
+    /**
+     * {@inheritDoc} <p>The first call only determines the current position in the table and
+     * returns nothing, since invalidations from before this node started cannot concern it.</p>
+     */
+    @Override
+    public synchronized Collection<Invalidation> receive() throws DatabaseException {
+        if (lastSeenId < 0) {
+            lastSeenId = findMaxId();
+            return Collections.emptyList();
+        }
+        long now = System.currentTimeMillis();
+        expireGaps(now);
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(lastSeenId);
+        StringBuilder query = new StringBuilder("SELECT id, origin, channel, item_key FROM ")
+                .append(tableName).append(" WHERE id > ?");
+        if (!gapDetectedMillis.isEmpty()) {
+            query.append(" OR id IN (");
+            for (Long gap : gapDetectedMillis.keySet()) {
+                query.append(parameters.size() == 1 ? "?" : ", ?");
+                parameters.add(gap);
+            }
+            query.append(")");
+        }
+        List<Invalidation> received = new ArrayList<>();
+        try (QueryResult result = sql.query(query.append(" ORDER BY id").toString(), parameters.toArray())) {
+            ResultSet rs = result.rs();
+            while (rs.next()) {
+                if (markSeen(rs.getLong("id"), now) && !origin.equals(rs.getString("origin"))) {
+                    received.add(toInvalidation(rs.getString("channel"), rs.getString("item_key")));
+                }
+            }
+        } catch (SQLException e) {
+            throw new SqlExecutionException(e);
+        }
+        return received;
+    }
+
+    private void expireGaps(long now) {
+        gapDetectedMillis.values().removeIf(detected -> now - detected > gapTimeoutMillis);
+    }
+
+    /**
+     * Records that a row has been read, remembering the ids skipped before it as gaps.
+     *
+     * @return whether the row has not been read before
+     */
+    private boolean markSeen(long id, long now) {
+        if (id <= lastSeenId) {
+            return gapDetectedMillis.remove(id) != null;
+        }
+        long firstGap = Math.max(lastSeenId + 1, id - MAX_TRACKED_GAPS);
+        for (long gap = firstGap; gap < id; gap++) {
+            gapDetectedMillis.put(gap, now);
+        }
+        Iterator<Long> oldestGaps = gapDetectedMillis.keySet().iterator();
+        while (gapDetectedMillis.size() > MAX_TRACKED_GAPS) {
+            oldestGaps.next();
+            oldestGaps.remove();
+        }
+        lastSeenId = id;
+        return true;
+    }
+
+    /**
+     * @return the amount of skipped ids that are currently polled again
+     */
+    public synchronized int getGapCount() {
+        return gapDetectedMillis.size();
+    }
+
+    private long findMaxId() {
+        try (QueryResult result = sql.query("SELECT MAX(id) FROM " + tableName)) {
+            ResultSet rs = result.rs();
+            return rs.next() ? rs.getLong(1) : 0L;
+        } catch (SQLException e) {
+            throw new SqlExecutionException(e);
+        }
+    }
+
+    private Invalidation toInvalidation(String channel, String key) {
+        return key == null ? Invalidation.ofAll(channel) : Invalidation.ofKey(channel, key);
+    }
+
+    /**
+     * Deletes all rows that were written more than given duration ago.
+     *
+     * @param age  the minimum age of rows to delete
+     * @param unit the unit of given age
+     * @return the amount of deleted rows
+     * @throws DatabaseException if an error occurs communicating with the database
+     */
+    public int purgeOlderThan(long age, TimeUnit unit) throws DatabaseException {
+        Preconditions.checkArgument(age >= 0, "age must not be negative: %s", age);
+        long threshold = System.currentTimeMillis() - unit.toMillis(age);
+        return sql.updateRaw("DELETE FROM " + tableName + " WHERE created_at < ?", threshold);
+    }
+}
@@ -24,6 +24,9 @@
 
 package li.l1t.common.sql;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Provides credentials for connecting to a JDBC database. <p><b>Note:</b> Try to keep the scope of
  * these as small as possible. Untrusted code could easily steal credentials!</p>
@@ -51,4 +54,17 @@ public interface SqlConnectable {
      * @return the user for authentication with the database
      */
     String getSqlUser();
+
+    /**
+     * Returns the hosts of read replicas of the database, which are connected to using the same
+     * database name and credentials as the primary host. This default implementation returns an
+     * empty list.
+     *
+     * @return the fully qualified JDBC connection strings for read replicas, or an empty list if
+     * there are none
+     * @see SqlConnectables#getReplicas(SqlConnectable)
+     */
+    default List<String> getSqlReplicaHosts() {
+        return Collections.emptyList();
+    }
 }
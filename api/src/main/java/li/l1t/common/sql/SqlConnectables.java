@@ -25,8 +25,11 @@
 package li.l1t.common.sql;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 
 import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Provides some static utility methods for {@link SqlConnectable}s.
@@ -95,6 +98,61 @@ public final class SqlConnectables {
         }
     }
 
+    /**
+     * Creates connectables for the {@link SqlConnectable#getSqlReplicaHosts() read replicas} of a
+     * connectable, using its database name and credentials.
+     *
+     * @param connectable the connectable of the primary database
+     * @return a connectable for each replica host, in order
+     */
+    @Nonnull
+    public static List<SqlConnectable> getReplicas(@Nonnull SqlConnectable connectable) {
+        Preconditions.checkNotNull(connectable, "connectable");
+        return connectable.getSqlReplicaHosts().stream()
+                .map(host -> fromCredentials(host, connectable.getSqlDb(), connectable.getSqlUser(),
+                        connectable.getSqlPwd()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param connectable  the connectable of the primary database
+     * @param replicaHosts {@link SqlConnectable#getSqlReplicaHosts() the fully-qualified JDBC URLs
+     *                     of read replicas}
+     * @return a connectable with the credentials of given connectable and given replica hosts
+     */
+    @Nonnull
+    public static SqlConnectable withReplicaHosts(@Nonnull final SqlConnectable connectable,
+                                                  @Nonnull List<String> replicaHosts) {
+        Preconditions.checkNotNull(connectable, "connectable");
+        final List<String> hosts = ImmutableList.copyOf(replicaHosts);
+        return new SqlConnectable() {
+            @Override
+            public String getSqlDb() {
+                return connectable.getSqlDb();
+            }
+
+            @Override
+            public String getSqlHost() {
+                return connectable.getSqlHost();
+            }
+
+            @Override
+            public String getSqlPwd() {
+                return connectable.getSqlPwd();
+            }
+
+            @Override
+            public String getSqlUser() {
+                return connectable.getSqlUser();
+            }
+
+            @Override
+            public List<String> getSqlReplicaHosts() {
+                return hosts;
+            }
+        };
+    }
+
     /**
      * @param host     {@link SqlConnectable#getSqlHost() the fully-qualified JDBC URL}
      * @param database {@link SqlConnectable#getSqlDb() the database}
@@ -0,0 +1,234 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import li.l1t.common.sql.sane.connection.PooledConnectionProvider;
+import li.l1t.common.sql.sane.exception.SqlExecutionException;
+import li.l1t.common.sql.sane.result.QueryResult;
+import li.l1t.common.sql.sane.result.ResultSetMapper;
+import li.l1t.common.sql.sane.result.UpdateResult;
+
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs statements of a {@link SaneSql} on a dedicated, bounded pool of worker threads, so that
+ * callers on the main server thread never block on the database. <p>Results are mapped on the
+ * worker that ran the statement, so that result sets never escape their thread and are always
+ * closed. Futures returned by this class complete on the worker thread. Use {@link
+ * #onMainThread(CompletableFuture)} to continue on the main server thread instead, for example to
+ * send messages to players.</p> <p>The worker pool has a fixed size, which should match the
+ * number of connections available, since additional workers would only wait for connections. If
+ * the queue of pending work is full, returned futures fail with a {@link
+ * RejectedExecutionException} right away instead of piling up work the database cannot handle.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public class AsyncSaneSql implements AutoCloseable {
+    private static final int QUEUE_CAPACITY_PER_THREAD = 64;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+    private final SaneSql sql;
+    private final ThreadPoolExecutor executor;
+    private final Executor mainThreadExecutor;
+
+    /**
+     * @param sql                the blocking SaneSql to run statements on, not closed by this class
+     * @param threadCount        the number of worker threads
+     * @param queueCapacity      the maximum number of pending tasks
+     * @param mainThreadExecutor the executor running tasks on the main server thread, for example
+     *                           {@code task -> server.getScheduler().runTask(plugin, task)}
+     */
+    public AsyncSaneSql(SaneSql sql, int threadCount, int queueCapacity, Executor mainThreadExecutor) {
+        Preconditions.checkArgument(threadCount > 0, "threadCount must be positive: %s", threadCount);
+        Preconditions.checkArgument(queueCapacity > 0, "queueCapacity must be positive: %s", queueCapacity);
+        this.sql = Preconditions.checkNotNull(sql, "sql");
+        this.mainThreadExecutor = Preconditions.checkNotNull(mainThreadExecutor, "mainThreadExecutor");
+        this.executor = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat("SaneSql-async-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Creates a facade with one worker per connection of given pool.
+     *
+     * @param sql                the blocking SaneSql to run statements on, not closed by this class
+     * @param pool               the pool used by given SaneSql
+     * @param mainThreadExecutor the executor running tasks on the main server thread
+     * @return a new facade sized to given pool
+     */
+    public static AsyncSaneSql sizedToPool(SaneSql sql, PooledConnectionProvider pool, Executor mainThreadExecutor) {
+        int threadCount = pool.getMaximumSize();
+        return new AsyncSaneSql(sql, threadCount, threadCount * QUEUE_CAPACITY_PER_THREAD, mainThreadExecutor);
+    }
+
+    /**
+     * Executes a query on a worker thread and maps its result there.
+     *
+     * @param sqlQuery   the SQL query to execute in the database
+     * @param mapper     the mapper reading the value from the result
+     * @param parameters the parameters for {@code ?} placeholders in the query string, in order
+     * @param <T>        the type of the mapped value
+     * @return a future of the mapped value
+     * @see SaneSql#query(String, Object...)
+     */
+    public <T> CompletableFuture<T> queryAsync(String sqlQuery, ResultSetMapper<? extends T> mapper,
+                                               Object... parameters) {
+        Preconditions.checkNotNull(sqlQuery, "sqlQuery");
+        Preconditions.checkNotNull(mapper, "mapper");
+        Object[] parametersCopy = parameters.clone();
+        return callAsync(sql -> {
+            try (QueryResult result = sql.query(sqlQuery, parametersCopy)) {
+                return mapper.map(result.rs());
+            } catch (SQLException e) {
+                throw new SqlExecutionException(e);
+            }
+        });
+    }
+
+    /**
+     * Executes an update on a worker thread and maps its generated keys there.
+     *
+     * @param sqlQuery   the SQL update statement to execute in the database
+     * @param keyMapper  the mapper reading the value from the generated keys
+     * @param parameters the parameters for {@code ?} placeholders in the query string, in order
+     * @param <T>        the type of the mapped value
+     * @return a future of the mapped value
+     * @see SaneSql#update(String, Object...)
+     */
+    public <T> CompletableFuture<T> updateAsync(String sqlQuery, ResultSetMapper<? extends T> keyMapper,
+                                                Object... parameters) {
+        Preconditions.checkNotNull(sqlQuery, "sqlQuery");
+        Preconditions.checkNotNull(keyMapper, "keyMapper");
+        Object[] parametersCopy = parameters.clone();
+        return callAsync(sql -> {
+            try (UpdateResult result = sql.update(sqlQuery, parametersCopy)) {
+                return keyMapper.map(result.gk());
+            } catch (SQLException e) {
+                throw new SqlExecutionException(e);
+            }
+        });
+    }
+
+    /**
+     * Executes an update on a worker thread without fetching generated keys.
+     *
+     * @param sqlQuery   the SQL update statement to execute in the database
+     * @param parameters the parameters for {@code ?} placeholders in the query string, in order
+     * @return a future of the raw JDBC result code, usually the number of affected rows
+     * @see SaneSql#updateRaw(String, Object...)
+     */
+    public CompletableFuture<Integer> updateRawAsync(String sqlQuery, Object... parameters) {
+        Preconditions.checkNotNull(sqlQuery, "sqlQuery");
+        Object[] parametersCopy = parameters.clone();
+        return callAsync(sql -> sql.updateRaw(sqlQuery, parametersCopy));
+    }
+
+    /**
+     * Runs arbitrary work with the underlying SaneSql on a worker thread, for example a batch
+     * update or multiple statements in a scoped session. The work must close all results it
+     * obtains.
+     *
+     * @param work the work to run
+     * @param <T>  the type of the result of the work
+     * @return a future of the result of the work
+     */
+    public <T> CompletableFuture<T> callAsync(Function<? super SaneSql, ? extends T> work) {
+        Preconditions.checkNotNull(work, "work");
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(work.apply(sql));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Returns a future that completes on the main server thread once given future completes, so
+     * that dependent actions run there. If the main thread executor refuses the task, for example
+     * because the plugin is being disabled, the returned future fails with the executor's exception
+     * instead.
+     *
+     * @param future the future to wait for
+     * @param <T>    the type of the result
+     * @return a future with the same result, completed on the main server thread
+     */
+    public <T> CompletableFuture<T> onMainThread(CompletableFuture<T> future) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((value, failure) -> {
+            try {
+                mainThreadExecutor.execute(() -> {
+                    if (failure != null) {
+                        result.completeExceptionally(failure);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            } catch (RuntimeException e) {
+                if (failure != null) {
+                    e.addSuppressed(failure);
+                }
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return the number of tasks waiting for a worker thread
+     */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Stops accepting new work and waits for pending work to finish, up to thirty seconds. Does not
+     * close the underlying SaneSql.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
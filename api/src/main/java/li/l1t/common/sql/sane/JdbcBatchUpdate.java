@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane;
+
+import com.google.common.base.Preconditions;
+import li.l1t.common.exception.DatabaseException;
+import li.l1t.common.sql.sane.exception.SqlExecutionException;
+import li.l1t.common.sql.sane.result.BatchResult;
+import li.l1t.common.sql.sane.statement.BatchUpdate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A batch update run by {@link JdbcSaneSql}. All chunks of an execution share one connection and
+ * statement.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class JdbcBatchUpdate implements BatchUpdate {
+    private static final int DEFAULT_CHUNK_SIZE = 500;
+    private final JdbcSaneSql sql;
+    private final String sqlQuery;
+    private final List<Object[]> rows = new ArrayList<>();
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private boolean returnGeneratedKeys;
+
+    JdbcBatchUpdate(JdbcSaneSql sql, String sqlQuery) {
+        this.sql = sql;
+        this.sqlQuery = sqlQuery;
+    }
+
+    @Override
+    public BatchUpdate chunkSize(int chunkSize) {
+        Preconditions.checkArgument(chunkSize > 0, "chunkSize must be positive: %s", chunkSize);
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    @Override
+    public BatchUpdate returnGeneratedKeys() {
+        this.returnGeneratedKeys = true;
+        return this;
+    }
+
+    @Override
+    public BatchUpdate add(Object... parameters) {
+        rows.add(Preconditions.checkNotNull(parameters, "parameters").clone());
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+
+    @Override
+    public BatchResult execute() throws DatabaseException {
+        if (rows.isEmpty()) {
+            return BatchResult.empty();
+        }
+        List<Object[]> pending = new ArrayList<>(rows);
+        rows.clear();
+        Connection connection = sql.borrowConnection();
+        try (PreparedStatement statement = prepare(connection)) {
+            int[] affectedRowCounts = new int[pending.size()];
+            KeyCollector keys = new KeyCollector();
+            for (int start = 0; start < pending.size(); start += chunkSize) {
+                int end = Math.min(pending.size(), start + chunkSize);
+                for (Object[] row : pending.subList(start, end)) {
+                    JdbcSaneSql.bindParameters(statement, row);
+                    statement.addBatch();
+                }
+                int[] chunkCounts = statement.executeBatch();
+                System.arraycopy(chunkCounts, 0, affectedRowCounts, start, Math.min(chunkCounts.length, end - start));
+                if (returnGeneratedKeys) {
+                    keys.collect(statement);
+                }
+            }
+            return new BatchResult(affectedRowCounts, keys.toArray());
+        } catch (SQLException e) {
+            throw new SqlExecutionException(e);
+        } finally {
+            sql.releaseConnection(connection);
+        }
+    }
+
+    private PreparedStatement prepare(Connection connection) throws SQLException {
+        if (returnGeneratedKeys) {
+            return connection.prepareStatement(sqlQuery, Statement.RETURN_GENERATED_KEYS);
+        } else {
+            return connection.prepareStatement(sqlQuery);
+        }
+    }
+
+    private static class KeyCollector {
+        private long[] keys = new long[16];
+        private int size;
+
+        void collect(Statement statement) throws SQLException {
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                while (generatedKeys.next()) {
+                    if (size == keys.length) {
+                        keys = Arrays.copyOf(keys, size * 2);
+                    }
+                    keys[size++] = generatedKeys.getLong(1);
+                }
+            }
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(keys, size);
+        }
+    }
+}
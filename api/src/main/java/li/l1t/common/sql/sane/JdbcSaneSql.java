@@ -0,0 +1,236 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane;
+
+import com.google.common.base.Preconditions;
+import li.l1t.common.exception.DatabaseException;
+import li.l1t.common.sql.sane.connection.ConnectionManager;
+import li.l1t.common.sql.sane.connection.ConnectionProvider;
+import li.l1t.common.sql.sane.exception.SqlExecutionException;
+import li.l1t.common.sql.sane.result.QueryResult;
+import li.l1t.common.sql.sane.result.UpdateResult;
+import li.l1t.common.sql.sane.scoped.RawScopedSession;
+import li.l1t.common.sql.sane.statement.BatchUpdate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * A SaneSql implementation that runs statements on connections obtained from a {@link
+ * ConnectionProvider}. <p>If the provider is a {@link ConnectionManager}, its shared connection is
+ * used for all statements and never closed. Otherwise, each statement borrows its own connection
+ * and closes it once its result is closed, which returns it to the pool for pooled providers such
+ * as {@link li.l1t.common.sql.sane.connection.PooledConnectionProvider}. In that case, results
+ * must be closed for the connection to be reused.</p> <p>Statements issued on a thread that has
+ * joined a {@linkplain #scoped() scoped session} use the connection of that session instead.
+ * Queries outside of scoped sessions use {@link ConnectionProvider#getReadConnection() read
+ * connections}, which may point to a read replica.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public class JdbcSaneSql implements SaneSql {
+    private final ConnectionProvider connectionProvider;
+    private final boolean sharedConnection;
+    private final ThreadLocal<JdbcScopedSession> sessions = new ThreadLocal<>();
+
+    /**
+     * @param connectionProvider the provider of connections to run statements on, closed together
+     *                           with this instance if it is {@link AutoCloseable}
+     */
+    public JdbcSaneSql(ConnectionProvider connectionProvider) {
+        this.connectionProvider = Preconditions.checkNotNull(connectionProvider, "connectionProvider");
+        this.sharedConnection = connectionProvider instanceof ConnectionManager;
+    }
+
+    @Override
+    public QueryResult query(String sqlQuery, Object... parameters) throws DatabaseException {
+        return query(0, sqlQuery, parameters);
+    }
+
+    @Override
+    public QueryResult query(int fetchSize, String sqlQuery, Object... parameters) throws DatabaseException {
+        Connection connection = borrowReadConnection();
+        PreparedStatement statement = null;
+        try {
+            statement = connection.prepareStatement(sqlQuery);
+            bindParameters(statement, parameters);
+            statement.setFetchSize(fetchSize); //also resets cached statements
+            return new JdbcQueryResult(this, connection, statement, statement.executeQuery());
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            releaseConnection(connection);
+            throw new SqlExecutionException(e);
+        }
+    }
+
+    @Override
+    public UpdateResult update(String sqlQuery, Object... parameters) throws DatabaseException {
+        Connection connection = borrowConnection();
+        PreparedStatement statement = null;
+        try {
+            statement = connection.prepareStatement(sqlQuery, Statement.RETURN_GENERATED_KEYS);
+            bindParameters(statement, parameters);
+            int affectedRowCount = statement.executeUpdate();
+            return new JdbcUpdateResult(this, connection, statement, statement.getGeneratedKeys(), affectedRowCount);
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            releaseConnection(connection);
+            throw new SqlExecutionException(e);
+        }
+    }
+
+    @Override
+    public int updateRaw(String sqlQuery, Object... parameters) throws DatabaseException {
+        Connection connection = borrowConnection();
+        try (PreparedStatement statement = connection.prepareStatement(sqlQuery)) {
+            bindParameters(statement, parameters);
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new SqlExecutionException(e);
+        } finally {
+            releaseConnection(connection);
+        }
+    }
+
+    @Override
+    public BatchUpdate batch(String sqlQuery) {
+        return new JdbcBatchUpdate(this, Preconditions.checkNotNull(sqlQuery, "sqlQuery"));
+    }
+
+    /**
+     * {@inheritDoc} <p>Sessions of this implementation are confined to the thread that obtained
+     * them. While joined, they hold a single connection that is used by all statements issued
+     * through this instance on that thread. Results of such statements must be closed before the
+     * session.</p>
+     */
+    @Override
+    public RawScopedSession scoped() {
+        JdbcScopedSession session = sessions.get();
+        return session == null ? new JdbcScopedSession(this) : session;
+    }
+
+    @Override
+    public boolean hasBoundSession() {
+        return sessions.get() != null;
+    }
+
+    static void bindParameters(PreparedStatement statement, Object[] parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setObject(i + 1, parameters[i]);
+        }
+    }
+
+    static void closeQuietly(Statement statement) {
+        if (statement == null) {
+            return;
+        }
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            //nothing we can do about it
+        }
+    }
+
+    Connection borrowConnection() throws DatabaseException {
+        JdbcScopedSession session = sessions.get();
+        if (session != null) {
+            return session.getConnection();
+        }
+        return borrowUnboundConnection();
+    }
+
+    private Connection borrowReadConnection() throws DatabaseException {
+        JdbcScopedSession session = sessions.get();
+        if (session != null) {
+            return session.getConnection();
+        }
+        return connectionProvider.getReadConnection();
+    }
+
+    Connection borrowUnboundConnection() throws DatabaseException {
+        return connectionProvider.getConnection();
+    }
+
+    void releaseConnection(Connection connection) {
+        JdbcScopedSession session = sessions.get();
+        if (session != null && session.getConnection() == connection) {
+            return;
+        }
+        releaseUnboundConnection(connection);
+    }
+
+    void releaseUnboundConnection(Connection connection) {
+        if (sharedConnection) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            //the pool will find out on its own
+        }
+    }
+
+    void bindSession(JdbcScopedSession session) {
+        JdbcScopedSession bound = sessions.get();
+        if (bound != null && bound != session) {
+            throw new IllegalStateException("another scoped session is already bound to this thread");
+        }
+        sessions.set(session);
+    }
+
+    void unbindSession(JdbcScopedSession session) {
+        if (sessions.get() == session) {
+            sessions.remove();
+        }
+    }
+
+    /**
+     * @return the provider of connections used by this instance
+     */
+    public ConnectionProvider getConnectionProvider() {
+        return connectionProvider;
+    }
+
+    /**
+     * Closes the connection provider if it is {@link AutoCloseable}.
+     *
+     * @throws DatabaseException if the provider fails to close
+     */
+    @Override
+    public void close() throws DatabaseException {
+        if (connectionProvider instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) connectionProvider).close();
+            } catch (DatabaseException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new SqlExecutionException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane;
+
+import li.l1t.common.exception.InternalException;
+import li.l1t.common.sql.sane.exception.SqlExecutionException;
+import li.l1t.common.sql.sane.scoped.RawScopedSession;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Savepoint;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A scoped session of {@link JdbcSaneSql} that holds a single connection for the life of its
+ * outermost scope. <p>Sessions are confined to the thread that created them, so the join depth is
+ * a plain counter and no locks are taken. While a session has references, all statements issued
+ * through its SaneSql on the owning thread use its connection. Once the last scope closes the
+ * session, the connection is returned to its provider and the session is unbound from the thread.
+ * </p> <p>Nested calls to {@link #tx()} set a savepoint in the existing transaction. If a nested
+ * layer calls {@link #rollbackAndClose()}, only the work since its savepoint is rolled back and
+ * outer layers may continue their transaction. {@link #commit()} in a nested layer releases its
+ * savepoint, leaving its work to be committed with the outer transaction. Nested layers that are
+ * closed without either simply become part of the outer transaction.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class JdbcScopedSession implements RawScopedSession {
+    private final JdbcSaneSql sql;
+    private final Thread owner;
+    private Connection connection;
+    private int depth;
+    private boolean transaction;
+    private boolean restoreAutoCommit;
+    private final Deque<NestedTransaction> nestedTransactions = new ArrayDeque<>();
+
+    JdbcScopedSession(JdbcSaneSql sql) {
+        this.sql = sql;
+        this.owner = Thread.currentThread();
+    }
+
+    @Override
+    public RawScopedSession join() {
+        checkOwner();
+        if (depth == 0) {
+            sql.bindSession(this);
+            try {
+                connection = sql.borrowUnboundConnection();
+            } catch (RuntimeException e) {
+                sql.unbindSession(this);
+                throw e;
+            }
+        }
+        depth++;
+        return this;
+    }
+
+    private void checkOwner() {
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("scoped session of " + owner.getName() +
+                    " accessed from " + Thread.currentThread().getName());
+        }
+    }
+
+    @Override
+    public RawScopedSession tx() {
+        join();
+        if (!transaction) {
+            try {
+                if (connection.getAutoCommit()) {
+                    connection.setAutoCommit(false);
+                    restoreAutoCommit = true;
+                }
+            } catch (SQLException e) {
+                close();
+                throw new SqlExecutionException(e);
+            }
+            transaction = true;
+        } else {
+            try {
+                nestedTransactions.push(new NestedTransaction(depth, connection.setSavepoint()));
+            } catch (SQLException e) {
+                close();
+                throw new SqlExecutionException(e);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void commit() {
+        checkTransaction();
+        NestedTransaction nested = popCurrentNestedTransaction();
+        if (nested != null) {
+            releaseQuietly(nested.savepoint);
+            return;
+        }
+        try {
+            connection.commit();
+        } catch (SQLException e) {
+            throw new SqlExecutionException(e);
+        } finally {
+            endTransaction();
+        }
+    }
+
+    private void checkTransaction() {
+        checkReferences();
+        if (!transaction) {
+            throw new InternalException("scoped session has no transaction");
+        }
+    }
+
+    private void checkReferences() {
+        checkOwner();
+        if (depth == 0) {
+            throw new InternalException("scoped session has no references");
+        }
+    }
+
+    private NestedTransaction popCurrentNestedTransaction() {
+        NestedTransaction nested = nestedTransactions.peek();
+        if (nested == null || nested.depth != depth) {
+            return null;
+        }
+        return nestedTransactions.pop();
+    }
+
+    private void releaseQuietly(Savepoint savepoint) {
+        try {
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLFeatureNotSupportedException ignored) {
+            //released on commit anyways
+        } catch (SQLException e) {
+            throw new SqlExecutionException(e);
+        }
+    }
+
+    private void endTransaction() {
+        transaction = false;
+        nestedTransactions.clear();
+        if (restoreAutoCommit) {
+            restoreAutoCommit = false;
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                throw new SqlExecutionException(e);
+            }
+        }
+    }
+
+    @Override
+    public void rollbackAndClose() {
+        checkTransaction();
+        NestedTransaction nested = popCurrentNestedTransaction();
+        try {
+            if (nested != null) {
+                connection.rollback(nested.savepoint);
+            } else {
+                rollback();
+            }
+        } catch (SQLException e) {
+            throw new SqlExecutionException(e);
+        } finally {
+            close();
+        }
+    }
+
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            throw new SqlExecutionException(e);
+        } finally {
+            endTransaction();
+        }
+    }
+
+    @Override
+    public void commitIfLast() {
+        checkTransaction();
+        if (depth == 1) {
+            commit();
+        }
+    }
+
+    @Override
+    public void commitIfLastAndChanged() {
+        checkReferences();
+        if (depth == 1 && transaction) {
+            commit();
+        }
+    }
+
+    @Override
+    public void close() throws InternalException {
+        checkReferences();
+        depth--;
+        while (!nestedTransactions.isEmpty() && nestedTransactions.peek().depth > depth) {
+            nestedTransactions.pop();
+        }
+        if (depth > 0) {
+            return;
+        }
+        boolean unfinishedTransaction = transaction;
+        try {
+            if (unfinishedTransaction) {
+                rollback();
+            }
+        } finally {
+            sql.releaseUnboundConnection(connection);
+            connection = null;
+            sql.unbindSession(this);
+        }
+        if (unfinishedTransaction) {
+            throw new InternalException("scoped session closed with an unfinished transaction, rolled back");
+        }
+    }
+
+    @Override
+    public boolean hasReferences() {
+        return depth > 0;
+    }
+
+    @Override
+    public boolean acceptsFurtherReferences() {
+        return Thread.currentThread() == owner;
+    }
+
+    @Override
+    public boolean hasTransaction() {
+        return transaction;
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    private static class NestedTransaction {
+        private final int depth;
+        private final Savepoint savepoint;
+
+        private NestedTransaction(int depth, Savepoint savepoint) {
+            this.depth = depth;
+            this.savepoint = savepoint;
+        }
+    }
+}
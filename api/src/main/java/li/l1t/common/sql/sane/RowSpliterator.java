@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane;
+
+import li.l1t.common.sql.sane.exception.SqlExecutionException;
+import li.l1t.common.sql.sane.result.QueryResult;
+import li.l1t.common.sql.sane.result.RowMapper;
+
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily maps the rows of a query result, advancing the cursor only as far as elements are
+ * requested. The result is closed once the last row has been read, or when the stream is closed.
+ *
+ * @param <T> the type of the mapped elements
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class RowSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+    private final QueryResult result;
+    private final RowMapper<? extends T> mapper;
+
+    private RowSpliterator(QueryResult result, RowMapper<? extends T> mapper) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED);
+        this.result = result;
+        this.mapper = mapper;
+    }
+
+    static <T> Stream<T> stream(QueryResult result, RowMapper<? extends T> mapper) {
+        return StreamSupport.stream(new RowSpliterator<T>(result, mapper), false)
+                .onClose(result::close);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        try {
+            if (!result.rs().next()) {
+                result.close();
+                return false;
+            }
+            action.accept(mapper.mapRow(result.rs()));
+            return true;
+        } catch (SQLException e) {
+            result.close();
+            throw new SqlExecutionException(e);
+        }
+    }
+}
@@ -26,10 +26,17 @@ package li.l1t.common.sql.sane;
 
 import li.l1t.common.exception.DatabaseException;
 import li.l1t.common.exception.InternalException;
+import li.l1t.common.sql.sane.exception.SqlExecutionException;
 import li.l1t.common.sql.sane.result.QueryResult;
+import li.l1t.common.sql.sane.result.RowCallback;
+import li.l1t.common.sql.sane.result.RowMapper;
 import li.l1t.common.sql.sane.result.UpdateResult;
 import li.l1t.common.sql.sane.scoped.RawScopedSession;
 import li.l1t.common.sql.sane.scoped.ScopedSession;
+import li.l1t.common.sql.sane.statement.BatchUpdate;
+
+import java.sql.SQLException;
+import java.util.stream.Stream;
 
 /**
  * Manages a connection to a JDBC database, providing methods to query and update it with plain SQL
@@ -41,6 +48,12 @@ import li.l1t.common.sql.sane.scoped.ScopedSession;
  * @since 2016-10-07
  */
 public interface SaneSql extends AutoCloseable {
+    /**
+     * The number of rows fetched from the database per round trip by the row mapping query methods
+     * if no fetch size is given.
+     */
+    int DEFAULT_FETCH_SIZE = 250;
+
     /**
      * Executes a SQL query on the underlying database. No guarantees are made about what connection
      * is used. <p><b>Note:</b> Care should be taken at all times when querying SQL databases.
@@ -59,6 +72,109 @@ public interface SaneSql extends AutoCloseable {
      */
     QueryResult query(String sqlQuery, Object... parameters) throws DatabaseException;
 
+    /**
+     * Executes a SQL query on the underlying database, hinting the driver to fetch given number of
+     * rows per round trip instead of loading the whole result at once. Otherwise behaves like
+     * {@link #query(String, Object...)}. <p>Whether the hint is honoured depends on the driver.
+     * MySQL Connector/J only fetches in chunks if {@code useCursorFetch=true} is set in the
+     * connection URL.</p> <p>This default implementation passes the hint to the result set after
+     * executing the query. Implementations should override it to set it on the statement
+     * instead.</p>
+     *
+     * @param fetchSize  the number of rows to fetch per round trip, or zero for the driver default
+     * @param sqlQuery   the SQL query to execute in the database
+     * @param parameters the parameters for {@code ?} placeholders in the query string, in order
+     * @return an object containing the result of the query
+     * @throws DatabaseException if an error occurs communicating with the database
+     */
+    default QueryResult query(int fetchSize, String sqlQuery, Object... parameters) throws DatabaseException {
+        QueryResult result = query(sqlQuery, parameters);
+        try {
+            result.rs().setFetchSize(fetchSize);
+        } catch (SQLException e) {
+            result.close();
+            throw new SqlExecutionException(e);
+        }
+        return result;
+    }
+
+    /**
+     * Executes a SQL query on the underlying database and lazily maps its rows, fetching {@link
+     * #DEFAULT_FETCH_SIZE} rows per round trip.
+     *
+     * @param sqlQuery   the SQL query to execute in the database
+     * @param mapper     the mapper reading an element from each row
+     * @param parameters the parameters for {@code ?} placeholders in the query string, in order
+     * @param <T>        the type of the mapped elements
+     * @return a stream of the mapped rows, which must be closed
+     * @throws DatabaseException if an error occurs communicating with the database
+     * @see #query(int, String, RowMapper, Object...)
+     */
+    default <T> Stream<T> query(String sqlQuery, RowMapper<? extends T> mapper, Object... parameters)
+            throws DatabaseException {
+        return query(DEFAULT_FETCH_SIZE, sqlQuery, mapper, parameters);
+    }
+
+    /**
+     * Executes a SQL query on the underlying database and lazily maps its rows. Rows are only read
+     * from the result set as the stream is consumed, so that large results need not fit into memory
+     * at once, given that the driver honours the fetch size. <p><b>Important:</b> The stream holds
+     * the statement, result set and possibly the connection until it is closed, so it should
+     * <b>always</b> be used with try-with-resources. It is closed automatically only once all rows
+     * have been read. Errors reading rows are thrown as {@link DatabaseException}s from the
+     * terminal operation of the stream.</p>
+     *
+     * @param fetchSize  the number of rows to fetch per round trip, or zero for the driver default
+     * @param sqlQuery   the SQL query to execute in the database
+     * @param mapper     the mapper reading an element from each row
+     * @param parameters the parameters for {@code ?} placeholders in the query string, in order
+     * @param <T>        the type of the mapped elements
+     * @return a stream of the mapped rows, which must be closed
+     * @throws DatabaseException if an error occurs communicating with the database
+     * @see #query(int, String, Object...) for notes on the fetch size
+     */
+    default <T> Stream<T> query(int fetchSize, String sqlQuery, RowMapper<? extends T> mapper,
+                                Object... parameters) throws DatabaseException {
+        return RowSpliterator.stream(query(fetchSize, sqlQuery, parameters), mapper);
+    }
+
+    /**
+     * Executes a SQL query on the underlying database and passes each row to given callback,
+     * fetching {@link #DEFAULT_FETCH_SIZE} rows per round trip.
+     *
+     * @param sqlQuery   the SQL query to execute in the database
+     * @param callback   the callback to process each row
+     * @param parameters the parameters for {@code ?} placeholders in the query string, in order
+     * @throws DatabaseException if an error occurs communicating with the database
+     * @see #forEach(int, String, RowCallback, Object...)
+     */
+    default void forEach(String sqlQuery, RowCallback callback, Object... parameters) throws DatabaseException {
+        forEach(DEFAULT_FETCH_SIZE, sqlQuery, callback, parameters);
+    }
+
+    /**
+     * Executes a SQL query on the underlying database and passes each row to given callback. The
+     * result is closed when this method returns, so, unlike with {@link #query(String,
+     * Object...)}, no cleanup is necessary.
+     *
+     * @param fetchSize  the number of rows to fetch per round trip, or zero for the driver default
+     * @param sqlQuery   the SQL query to execute in the database
+     * @param callback   the callback to process each row
+     * @param parameters the parameters for {@code ?} placeholders in the query string, in order
+     * @throws DatabaseException if an error occurs communicating with the database
+     * @see #query(int, String, Object...) for notes on the fetch size
+     */
+    default void forEach(int fetchSize, String sqlQuery, RowCallback callback, Object... parameters)
+            throws DatabaseException {
+        try (QueryResult result = query(fetchSize, sqlQuery, parameters)) {
+            while (result.rs().next()) {
+                callback.processRow(result.rs());
+            }
+        } catch (SQLException e) {
+            throw new SqlExecutionException(e);
+        }
+    }
+
     /**
      * Executes a SQL update statement on the underlying database. No guarantees are made about what
      * connection is used. <p><b>Note:</b> Care should be taken at all times when querying SQL
@@ -108,5 +224,31 @@ public interface SaneSql extends AutoCloseable {
      */
     RawScopedSession scoped();
 
-    // We could also add batch update support like SafeSql has, but only if necessary
+    /**
+     * Checks whether the current thread has joined a {@linkplain #scoped() scoped session} of this
+     * instance, without creating a session if there is none. <p>This default implementation
+     * returns false, which is only correct for implementations that do not bind sessions to
+     * threads. Implementations that do should override it.</p>
+     *
+     * @return whether statements issued on the current thread run in a joined scoped session
+     */
+    default boolean hasBoundSession() {
+        return false;
+    }
+
+    /**
+     * Creates a builder for a batch update, which sends many parameter rows for the same update
+     * statement to the database in few round trips. No guarantees are made about what connection
+     * is used. <p><b>Note:</b> The same care as for {@link #update(String, Object...)} should be
+     * taken regarding the main server thread and SQL Injection.</p> <p>This default
+     * implementation runs each row as a separate {@linkplain #update(String, Object...) update},
+     * which works with any implementation but does not save round trips. Implementations should
+     * override it to send rows in actual JDBC batches.</p>
+     *
+     * @param sqlQuery the SQL update statement, with {@code ?} placeholders for each parameter
+     * @return a new batch update builder for given statement
+     */
+    default BatchUpdate batch(String sqlQuery) {
+        return new SequentialBatchUpdate(this, sqlQuery);
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane;
+
+import com.google.common.base.Preconditions;
+import li.l1t.common.exception.DatabaseException;
+import li.l1t.common.sql.sane.exception.SqlExecutionException;
+import li.l1t.common.sql.sane.result.BatchResult;
+import li.l1t.common.sql.sane.result.UpdateResult;
+import li.l1t.common.sql.sane.statement.BatchUpdate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch update that runs each row as a separate update through the public methods of any
+ * SaneSql. Used by the default implementation of {@link SaneSql#batch(String)}, so that batch
+ * updates work with every implementation, just without saving round trips. The chunk size has no
+ * effect, since every row is its own round trip.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class SequentialBatchUpdate implements BatchUpdate {
+    private final SaneSql sql;
+    private final String sqlQuery;
+    private final List<Object[]> rows = new ArrayList<>();
+    private boolean returnGeneratedKeys;
+
+    SequentialBatchUpdate(SaneSql sql, String sqlQuery) {
+        this.sql = sql;
+        this.sqlQuery = Preconditions.checkNotNull(sqlQuery, "sqlQuery");
+    }
+
+    @Override
+    public BatchUpdate chunkSize(int chunkSize) {
+        Preconditions.checkArgument(chunkSize > 0, "chunkSize must be positive: %s", chunkSize);
+        return this;
+    }
+
+    @Override
+    public BatchUpdate returnGeneratedKeys() {
+        this.returnGeneratedKeys = true;
+        return this;
+    }
+
+    @Override
+    public BatchUpdate add(Object... parameters) {
+        rows.add(Preconditions.checkNotNull(parameters, "parameters").clone());
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+
+    @Override
+    public BatchResult execute() throws DatabaseException {
+        if (rows.isEmpty()) {
+            return BatchResult.empty();
+        }
+        List<Object[]> pending = new ArrayList<>(rows);
+        rows.clear();
+        int[] affectedRowCounts = new int[pending.size()];
+        List<Long> keys = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            if (returnGeneratedKeys) {
+                affectedRowCounts[i] = updateCollectingKeys(pending.get(i), keys);
+            } else {
+                affectedRowCounts[i] = sql.updateRaw(sqlQuery, pending.get(i));
+            }
+        }
+        return new BatchResult(affectedRowCounts, keys.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    private int updateCollectingKeys(Object[] row, List<Long> keys) {
+        try (UpdateResult result = sql.update(sqlQuery, row)) {
+            ResultSet generatedKeys = result.gk();
+            while (generatedKeys.next()) {
+                keys.add(generatedKeys.getLong(1));
+            }
+            return result.getAffectedRowCount();
+        } catch (SQLException e) {
+            throw new SqlExecutionException(e);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.buffer;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import li.l1t.common.exception.DatabaseException;
+import li.l1t.common.sql.sane.SaneSql;
+import li.l1t.common.sql.sane.resilience.SqlStates;
+import li.l1t.common.sql.sane.statement.BatchUpdate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A write-behind buffer for frequent updates where only the latest write matters, for example
+ * playtime or last-seen timestamps. Each update is keyed by its statement and a caller-provided
+ * identity, such as the player's unique id. A later update with the same key replaces the pending
+ * one. Pending updates are written as {@linkplain SaneSql#batch(String) batches} periodically, as
+ * soon as the number of pending updates reaches a threshold, and on {@link #close()}.
+ * <p>Updates of different statements are written in separate batches, so no ordering is
+ * guaranteed between them. Each batch is attempted even if another one fails. If a batch fails,
+ * its updates are kept for the next flush unless they have been replaced in the meantime. Once an
+ * update has failed {@value #MAX_BATCH_ATTEMPTS} times, its statement is written row by row
+ * instead, so that a single bad row cannot block the others. Rows that then fail {@linkplain
+ * SqlStates#isTransient(Throwable) permanently}, for example because a value is too long, are
+ * logged and dropped. Buffered updates are lost if the process dies before they are flushed, so
+ * this is only suitable for data that can tolerate that.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public class CoalescingUpdateBuffer implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(CoalescingUpdateBuffer.class.getName());
+    /**
+     * Number of failed attempts after which the updates of a statement are written row by row.
+     */
+    public static final int MAX_BATCH_ATTEMPTS = 3;
+    private final SaneSql sql;
+    private final int flushThreshold;
+    private final ScheduledExecutorService executor;
+    private final boolean ownsExecutor;
+    private final ScheduledFuture<?> periodicFlush;
+    private final Object pendingLock = new Object();
+    private final Object flushLock = new Object();
+    private final AtomicBoolean thresholdFlushQueued = new AtomicBoolean();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder writtenCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private Map<PendingKey, PendingUpdate> pending = new LinkedHashMap<>();
+    private boolean closed;
+
+    /**
+     * Creates a buffer that flushes on its own daemon thread.
+     *
+     * @param sql            the SaneSql to write updates to, not closed by this buffer
+     * @param flushThreshold the number of pending updates that triggers a flush
+     * @param flushInterval  the interval between periodic flushes
+     * @param unit           the unit of the interval
+     */
+    public CoalescingUpdateBuffer(SaneSql sql, int flushThreshold, long flushInterval, TimeUnit unit) {
+        this(sql, flushThreshold, flushInterval, unit, Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("SaneSql-write-behind-%d").setDaemon(true).build()
+        ), true);
+    }
+
+    /**
+     * Creates a buffer that flushes on given executor, which is not shut down by this buffer.
+     *
+     * @param sql            the SaneSql to write updates to, not closed by this buffer
+     * @param flushThreshold the number of pending updates that triggers a flush
+     * @param flushInterval  the interval between periodic flushes
+     * @param unit           the unit of the interval
+     * @param executor       the executor to run flushes on, must not be the main server thread
+     */
+    public CoalescingUpdateBuffer(SaneSql sql, int flushThreshold, long flushInterval, TimeUnit unit,
+                                  ScheduledExecutorService executor) {
+        this(sql, flushThreshold, flushInterval, unit, executor, false);
+    }
+
+    private CoalescingUpdateBuffer(SaneSql sql, int flushThreshold, long flushInterval, TimeUnit unit,
+                                   ScheduledExecutorService executor, boolean ownsExecutor) {
+        Preconditions.checkArgument(flushThreshold > 0, "flushThreshold must be positive: %s", flushThreshold);
+        Preconditions.checkArgument(flushInterval > 0, "flushInterval must be positive: %s", flushInterval);
+        this.sql = Preconditions.checkNotNull(sql, "sql");
+        this.flushThreshold = flushThreshold;
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.ownsExecutor = ownsExecutor;
+        this.periodicFlush = executor.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval, unit);
+    }
+
+    /**
+     * Buffers an update, replacing any pending update with the same statement and identity.
+     *
+     * @param sqlQuery   the SQL update statement
+     * @param identity   the identity of the written data, for example a player's unique id, which
+     *                   must implement equals and hashCode
+     * @param parameters the parameters for {@code ?} placeholders in the statement, in order
+     * @throws IllegalStateException if this buffer has been closed
+     */
+    public void update(String sqlQuery, Object identity, Object... parameters) {
+        PendingKey key = new PendingKey(sqlQuery, identity);
+        int pendingCount;
+        synchronized (pendingLock) {
+            Preconditions.checkState(!closed, "buffer has been closed");
+            if (pending.put(key, new PendingUpdate(parameters.clone(), 0)) != null) {
+                coalescedCount.increment();
+            }
+            pendingCount = pending.size();
+        }
+        if (pendingCount >= flushThreshold && thresholdFlushQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                thresholdFlushQueued.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to flush buffered updates, retrying next flush", e);
+        }
+    }
+
+    /**
+     * Writes all pending updates on the calling thread. Flushes never run concurrently, so that an
+     * older write cannot overtake a newer one.
+     *
+     * @return the number of updates written
+     * @throws DatabaseException if an error occurs writing the updates, in which case the updates
+     *                           that were not written are kept for the next flush and the failures
+     *                           of further statements are attached as suppressed exceptions
+     */
+    public int flush() throws DatabaseException {
+        synchronized (flushLock) {
+            Map<PendingKey, PendingUpdate> batch;
+            synchronized (pendingLock) {
+                if (pending.isEmpty()) {
+                    return 0;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            }
+            return writeOrRequeue(batch);
+        }
+    }
+
+    private int writeOrRequeue(Map<PendingKey, PendingUpdate> batch) {
+        Map<String, List<PendingKey>> keysBySql = new LinkedHashMap<>();
+        batch.keySet().forEach(key -> keysBySql.computeIfAbsent(key.sql, sql -> new ArrayList<>()).add(key));
+        Map<PendingKey, PendingUpdate> failed = new LinkedHashMap<>();
+        List<RuntimeException> failures = new ArrayList<>();
+        int written = 0;
+        for (Map.Entry<String, List<PendingKey>> entry : keysBySql.entrySet()) {
+            List<PendingKey> keys = entry.getValue();
+            if (keys.stream().anyMatch(key -> batch.get(key).failedAttempts >= MAX_BATCH_ATTEMPTS)) {
+                written += writeRowByRow(entry.getKey(), keys, batch, failed, failures);
+                continue;
+            }
+            try {
+                BatchUpdate update = sql.batch(entry.getKey());
+                keys.forEach(key -> update.add(batch.get(key).parameters));
+                update.execute();
+            } catch (RuntimeException e) {
+                keys.forEach(key -> failed.put(key, batch.get(key).failedAgain()));
+                failures.add(e);
+                continue;
+            }
+            written += keys.size();
+            writtenCount.add(keys.size());
+        }
+        if (!failed.isEmpty()) {
+            requeue(failed);
+        }
+        if (!failures.isEmpty()) {
+            RuntimeException first = failures.get(0);
+            failures.subList(1, failures.size()).forEach(first::addSuppressed);
+            throw first;
+        }
+        return written;
+    }
+
+    private int writeRowByRow(String sqlQuery, List<PendingKey> keys, Map<PendingKey, PendingUpdate> batch,
+                              Map<PendingKey, PendingUpdate> failed, List<RuntimeException> failures) {
+        int written = 0;
+        for (PendingKey key : keys) {
+            PendingUpdate update = batch.get(key);
+            try {
+                sql.updateRaw(sqlQuery, update.parameters);
+                written++;
+                writtenCount.increment();
+            } catch (RuntimeException e) {
+                if (SqlStates.isTransient(e)) {
+                    failed.put(key, update.failedAgain());
+                    failures.add(e);
+                } else {
+                    droppedCount.increment();
+                    LOGGER.log(Level.WARNING, "Dropping buffered update of " + key.identity + " after " +
+                            (update.failedAttempts + 1) + " failed attempts: " + sqlQuery, e);
+                }
+            }
+        }
+        return written;
+    }
+
+    private void requeue(Map<PendingKey, PendingUpdate> failed) {
+        synchronized (pendingLock) {
+            Map<PendingKey, PendingUpdate> merged = new LinkedHashMap<>(failed);
+            merged.putAll(pending);
+            pending = merged;
+        }
+    }
+
+    /**
+     * @return the number of updates waiting to be written
+     */
+    public int getPendingCount() {
+        synchronized (pendingLock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * @return the number of updates that were replaced by a later update before being written
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * @return the number of updates that were written to the database
+     */
+    public long getWrittenCount() {
+        return writtenCount.sum();
+    }
+
+    /**
+     * @return the number of updates that were dropped since they failed permanently
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Stops periodic flushing, rejects further updates and writes all pending updates on the
+     * calling thread.
+     *
+     * @throws DatabaseException if an error occurs writing the pending updates
+     */
+    @Override
+    public void close() throws DatabaseException {
+        synchronized (pendingLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        periodicFlush.cancel(false);
+        if (ownsExecutor) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    private static class PendingUpdate {
+        private final Object[] parameters;
+        private final int failedAttempts;
+
+        private PendingUpdate(Object[] parameters, int failedAttempts) {
+            this.parameters = parameters;
+            this.failedAttempts = failedAttempts;
+        }
+
+        private PendingUpdate failedAgain() {
+            return new PendingUpdate(parameters, failedAttempts + 1);
+        }
+    }
+
+    private static class PendingKey {
+        private final String sql;
+        private final Object identity;
+
+        private PendingKey(String sql, Object identity) {
+            this.sql = Preconditions.checkNotNull(sql, "sql");
+            this.identity = Preconditions.checkNotNull(identity, "identity");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            PendingKey that = (PendingKey) o;
+            return sql.equals(that.sql) && identity.equals(that.identity);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, identity);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.connection;
+
+import com.google.common.base.Preconditions;
+import li.l1t.common.sql.SqlConnectable;
+import li.l1t.common.sql.SqlConnectables;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Creates new physical connections to a JDBC data source. A {@link javax.sql.DataSource} can be
+ * adapted using a method reference to {@link javax.sql.DataSource#getConnection()}.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+@FunctionalInterface
+public interface ConnectionFactory {
+    /**
+     * @return a new connection to the data source, owned by the caller
+     * @throws SQLException if the connection cannot be established
+     */
+    Connection createConnection() throws SQLException;
+
+    /**
+     * @param connectable the credentials to connect with
+     * @return a factory that connects through the {@link DriverManager} using given credentials
+     */
+    static ConnectionFactory of(SqlConnectable connectable) {
+        Preconditions.checkNotNull(connectable, "connectable");
+        String hostString = SqlConnectables.getHostString(connectable);
+        return () -> DriverManager.getConnection(hostString, connectable.getSqlUser(), connectable.getSqlPwd());
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.connection;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds {@link PooledConnectionProvider}s. Example:
+ * <pre>{@code
+ * PooledConnectionProvider pool = ConnectionPoolBuilder.newBuilder(ConnectionFactory.of(credentials))
+ *         .minimumSize(2)
+ *         .maximumSize(8)
+ *         .build();
+ * }</pre>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public class ConnectionPoolBuilder {
+    private final ConnectionFactory factory;
+    private int minimumSize = 1;
+    private int maximumSize = 10;
+    private long idleTimeoutNanos = TimeUnit.MINUTES.toNanos(10);
+    private long maxLifetimeNanos = TimeUnit.MINUTES.toNanos(30);
+    private long borrowTimeoutNanos = TimeUnit.SECONDS.toNanos(30);
+    private int validationTimeoutSeconds = 5;
+    private int statementCacheSize;
+    private Ticker ticker = Ticker.systemTicker();
+
+    private ConnectionPoolBuilder(ConnectionFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * @param factory the factory creating the physical connections of built pools
+     * @return a new builder with default settings
+     */
+    public static ConnectionPoolBuilder newBuilder(ConnectionFactory factory) {
+        return new ConnectionPoolBuilder(Preconditions.checkNotNull(factory, "factory"));
+    }
+
+    /**
+     * Sets the number of connections built pools keep open even if they are idle. These are
+     * opened when the pool is built. The default is 1.
+     *
+     * @param minimumSize the minimum number of connections, must not be negative
+     * @return this builder
+     */
+    public ConnectionPoolBuilder minimumSize(int minimumSize) {
+        Preconditions.checkArgument(minimumSize >= 0, "minimumSize must not be negative: %s", minimumSize);
+        this.minimumSize = minimumSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of connections built pools open at the same time, including
+     * borrowed ones. The default is 10.
+     *
+     * @param maximumSize the maximum number of connections, must be positive
+     * @return this builder
+     */
+    public ConnectionPoolBuilder maximumSize(int maximumSize) {
+        Preconditions.checkArgument(maximumSize > 0, "maximumSize must be positive: %s", maximumSize);
+        this.maximumSize = maximumSize;
+        return this;
+    }
+
+    /**
+     * Sets the time after which idle connections above the minimum size are closed. The default
+     * is ten minutes.
+     *
+     * @param duration the amount of time, must be positive
+     * @param unit     the unit of the amount of time
+     * @return this builder
+     */
+    public ConnectionPoolBuilder idleTimeout(long duration, TimeUnit unit) {
+        this.idleTimeoutNanos = toPositiveNanos(duration, unit);
+        return this;
+    }
+
+    /**
+     * Sets the time after which connections are retired once created, regardless of whether they
+     * are used. Borrowed connections are retired once they are returned. This should be well
+     * below any timeout enforced by the database or network, such as the {@code wait_timeout} of
+     * MySQL. The default is thirty minutes.
+     *
+     * @param duration the amount of time, must be positive
+     * @param unit     the unit of the amount of time
+     * @return this builder
+     */
+    public ConnectionPoolBuilder maxLifetime(long duration, TimeUnit unit) {
+        this.maxLifetimeNanos = toPositiveNanos(duration, unit);
+        return this;
+    }
+
+    /**
+     * Sets the time callers wait for a connection to become available if the pool is exhausted
+     * before failing. The default is thirty seconds.
+     *
+     * @param duration the amount of time, must be positive
+     * @param unit     the unit of the amount of time
+     * @return this builder
+     */
+    public ConnectionPoolBuilder borrowTimeout(long duration, TimeUnit unit) {
+        this.borrowTimeoutNanos = toPositiveNanos(duration, unit);
+        return this;
+    }
+
+    /**
+     * Sets the time the driver may take to validate a connection on borrow using {@link
+     * java.sql.Connection#isValid(int)}. The default is five seconds.
+     *
+     * @param seconds the amount of seconds, must be positive
+     * @return this builder
+     */
+    public ConnectionPoolBuilder validationTimeout(int seconds) {
+        Preconditions.checkArgument(seconds > 0, "seconds must be positive: %s", seconds);
+        this.validationTimeoutSeconds = seconds;
+        return this;
+    }
+
+    /**
+     * Sets the number of prepared statements each connection of built pools keeps open for reuse,
+     * keyed by their SQL text. Statements prepared with {@link
+     * java.sql.Connection#prepareStatement(String)} on borrowed connections are then served from
+     * this cache, and closing them returns them to it. The default is 0, which disables caching.
+     *
+     * @param statementCacheSize the maximum number of cached statements per connection, must not
+     *                           be negative
+     * @return this builder
+     * @see li.l1t.common.sql.sane.statement.CachingStatementProvider
+     */
+    public ConnectionPoolBuilder statementCacheSize(int statementCacheSize) {
+        Preconditions.checkArgument(statementCacheSize >= 0,
+                "statementCacheSize must not be negative: %s", statementCacheSize);
+        this.statementCacheSize = statementCacheSize;
+        return this;
+    }
+
+    /**
+     * Sets the time source used for idle timeout and lifetime. Mostly useful for testing. The
+     * default is {@link Ticker#systemTicker()}.
+     *
+     * @param ticker the time source, nanosecond precision
+     * @return this builder
+     */
+    public ConnectionPoolBuilder ticker(Ticker ticker) {
+        this.ticker = Preconditions.checkNotNull(ticker, "ticker");
+        return this;
+    }
+
+    private long toPositiveNanos(long duration, TimeUnit unit) {
+        Preconditions.checkNotNull(unit, "unit");
+        Preconditions.checkArgument(duration > 0, "duration must be positive: %s", duration);
+        return unit.toNanos(duration);
+    }
+
+    /**
+     * Builds a new pool and opens its minimum number of connections. Failures to open these are
+     * logged, and the connections are opened on demand instead.
+     *
+     * @return a new pool with the settings of this builder
+     * @throws IllegalStateException if the minimum size exceeds the maximum size
+     */
+    public PooledConnectionProvider build() {
+        Preconditions.checkState(minimumSize <= maximumSize,
+                "minimumSize %s exceeds maximumSize %s", minimumSize, maximumSize);
+        return new PooledConnectionProvider(this);
+    }
+
+    ConnectionFactory getFactory() {
+        return factory;
+    }
+
+    int getMinimumSize() {
+        return minimumSize;
+    }
+
+    int getMaximumSize() {
+        return maximumSize;
+    }
+
+    long getIdleTimeoutNanos() {
+        return idleTimeoutNanos;
+    }
+
+    long getMaxLifetimeNanos() {
+        return maxLifetimeNanos;
+    }
+
+    long getBorrowTimeoutNanos() {
+        return borrowTimeoutNanos;
+    }
+
+    int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    Ticker getTicker() {
+        return ticker;
+    }
+}
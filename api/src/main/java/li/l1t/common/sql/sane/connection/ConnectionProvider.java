@@ -41,4 +41,17 @@ public interface ConnectionProvider {
      * @return a connection to the data source, either cached or newly created
      */
     Connection getConnection() throws SqlConnectionException;
+
+    /**
+     * Provides a connection for read-only queries outside of transactions. Implementations that
+     * know of read replicas may return a connection to one of them, which might lag behind the
+     * primary data source. The returned connection is subject to the same closing behaviour as
+     * connections from {@link #getConnection()}. This default implementation returns {@link
+     * #getConnection()}.
+     *
+     * @return a connection suitable for read-only queries
+     */
+    default Connection getReadConnection() throws SqlConnectionException {
+        return getConnection();
+    }
 }
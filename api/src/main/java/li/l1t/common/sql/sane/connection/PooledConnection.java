@@ -0,0 +1,242 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.connection;
+
+import li.l1t.common.sql.sane.statement.CachingStatementProvider;
+import li.l1t.common.sql.sane.statement.StatementCacheStats;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A physical connection managed by a {@link PooledConnectionProvider}. Callers never see the
+ * physical connection directly, but a lease proxy that returns it to the pool when closed and
+ * refuses to be used afterwards. Statements created through a lease that are still open when it is
+ * closed are closed with it. Auto-commit, read-only and transaction isolation changed through a
+ * lease are reset to the state the connection had when it was opened before it is reused. Since
+ * other session state, such as the catalog, schema or client info, cannot be reset reliably,
+ * connections on which any other setter was called are discarded instead of being reused. If
+ * statement caching is enabled, statements prepared through a lease are served from a cache that
+ * lives as long as the physical connection.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class PooledConnection {
+    /**
+     * Number of statements a lease keeps track of before it forgets those already closed.
+     */
+    private static final int STATEMENT_PRUNE_THRESHOLD = 32;
+    private final PooledConnectionProvider pool;
+    private final Connection connection;
+    private final long createdNanos;
+    private final boolean defaultAutoCommit;
+    private final boolean defaultReadOnly;
+    private final int defaultTransactionIsolation;
+    private final CachingStatementProvider statements;
+    private volatile long returnedNanos;
+    private volatile boolean dirty;
+    private volatile boolean unresettable;
+
+    PooledConnection(PooledConnectionProvider pool, Connection connection, long createdNanos,
+                     int statementCacheSize, StatementCacheStats statementStats) throws SQLException {
+        this.pool = pool;
+        this.connection = connection;
+        this.createdNanos = createdNanos;
+        this.returnedNanos = createdNanos;
+        this.defaultAutoCommit = connection.getAutoCommit();
+        this.defaultReadOnly = connection.isReadOnly();
+        this.defaultTransactionIsolation = connection.getTransactionIsolation();
+        this.statements = statementCacheSize == 0 ? null :
+                new CachingStatementProvider(connection, statementCacheSize, statementStats);
+    }
+
+    Connection lease() {
+        return (Connection) Proxy.newProxyInstance(PooledConnection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Lease());
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    long getCreatedNanos() {
+        return createdNanos;
+    }
+
+    long getReturnedNanos() {
+        return returnedNanos;
+    }
+
+    void markReturned(long nanos) {
+        returnedNanos = nanos;
+    }
+
+    /**
+     * Resets session state changed through the last lease, rolling back any open transaction.
+     *
+     * @return whether the connection may be reused
+     */
+    boolean reset() {
+        if (!dirty) {
+            return true;
+        } else if (unresettable) {
+            return false;
+        }
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+            connection.setAutoCommit(defaultAutoCommit);
+            connection.setReadOnly(defaultReadOnly);
+            connection.setTransactionIsolation(defaultTransactionIsolation);
+            dirty = false;
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void closeQuietly() {
+        if (statements != null) {
+            statements.close();
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            //we are discarding it anyways
+        }
+    }
+
+    private static boolean isResettable(String setter) {
+        switch (setter) {
+            case "setAutoCommit":
+            case "setReadOnly":
+            case "setTransactionIsolation":
+            case "setSavepoint":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private class Lease implements InvocationHandler {
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final List<Statement> openStatements = new ArrayList<>();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        closeStatements();
+                        pool.recycle(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + connection + "]";
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy);
+                case "unwrap":
+                    return unwrapLease(proxy, (Class<?>) args[0]);
+                default:
+                    break;
+            }
+            if (closed.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (statements != null && method.getName().equals("prepareStatement") && args.length == 1) {
+                return track(statements.prepare((String) args[0], (Connection) proxy));
+            }
+            if (method.getName().startsWith("set") || method.getName().equals("abort")) {
+                dirty = true;
+                unresettable |= !isResettable(method.getName());
+            }
+            Object result;
+            try {
+                result = method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return result instanceof Statement ? track((Statement) result) : result;
+        }
+
+        /**
+         * Only ever unwraps to the lease itself, since callers could otherwise close the physical
+         * connection or keep using it after returning it to the pool.
+         */
+        private Object unwrapLease(Object proxy, Class<?> iface) throws SQLException {
+            if (iface.isInstance(proxy)) {
+                return proxy;
+            }
+            throw new SQLException("Pooled connections cannot be unwrapped to " + iface.getName());
+        }
+
+        private Statement track(Statement statement) {
+            synchronized (openStatements) {
+                if (openStatements.size() >= STATEMENT_PRUNE_THRESHOLD) {
+                    openStatements.removeIf(this::isClosedQuietly);
+                }
+                openStatements.add(statement);
+            }
+            return statement;
+        }
+
+        private boolean isClosedQuietly(Statement statement) {
+            try {
+                return statement.isClosed();
+            } catch (SQLException e) {
+                return true;
+            }
+        }
+
+        private void closeStatements() {
+            synchronized (openStatements) {
+                for (Statement statement : openStatements) {
+                    try {
+                        statement.close();
+                    } catch (SQLException ignored) {
+                        //the connection is reset or discarded anyways
+                    }
+                }
+                openStatements.clear();
+            }
+        }
+    }
+}
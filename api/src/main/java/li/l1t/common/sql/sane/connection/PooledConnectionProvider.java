@@ -0,0 +1,416 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.connection;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import li.l1t.common.sql.sane.exception.SqlConnectionException;
+import li.l1t.common.sql.sane.statement.StatementCacheStats;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Provides connections from a pool of physical connections, so that concurrent callers, for
+ * example asynchronous tasks, do not have to share a single connection. <p>Connections returned
+ * by {@link #getConnection()} are owned by the caller until they are {@linkplain
+ * Connection#close() closed}, which returns them to the pool. Callers must therefore close them,
+ * preferably using try-with-resources. Using a connection after closing it fails.</p> <p>Borrowing
+ * and returning connections is lock-free as long as the pool is not exhausted. Idle connections
+ * are reused most-recently-returned first, so that rarely needed connections become idle and are
+ * closed after the idle timeout. If the pool is exhausted, callers wait in a fair queue and
+ * returned connections are handed to the longest-waiting caller directly. Connections that have
+ * been idle for a short while are validated using {@link Connection#isValid(int)} before they are
+ * handed out.</p> <p>Idle connections are evicted opportunistically when connections are
+ * returned. Since a pool that is not used at all does not evict anything, callers may
+ * additionally call {@link #evictIdleConnections()} regularly.</p> <p>Connections that replace
+ * discarded ones are opened by a background thread, so that returning a connection never blocks
+ * on opening a new one. That thread only lives while there is work for it.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @see ConnectionPoolBuilder
+ * @since 2026-10-17
+ */
+public class PooledConnectionProvider implements ConnectionProvider, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(PooledConnectionProvider.class.getName());
+    /**
+     * Connections returned less than this time ago are handed out without validation, since
+     * validation usually costs a round trip to the database.
+     */
+    private static final long VALIDATION_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private final ConnectionFactory factory;
+    private final int minimumSize;
+    private final int maximumSize;
+    private final long idleTimeoutNanos;
+    private final long maxLifetimeNanos;
+    private final long borrowTimeoutNanos;
+    private final int validationTimeoutSeconds;
+    private final Ticker ticker;
+    private final int statementCacheSize;
+    private final StatementCacheStats statementStats = new StatementCacheStats();
+    private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Queue<CompletableFuture<PooledConnection>> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger totalCount = new AtomicInteger();
+    private final AtomicBoolean replenishScheduled = new AtomicBoolean();
+    private final ExecutorService replenishExecutor;
+    private volatile boolean closed;
+
+    PooledConnectionProvider(ConnectionPoolBuilder builder) {
+        this.factory = builder.getFactory();
+        this.minimumSize = builder.getMinimumSize();
+        this.maximumSize = builder.getMaximumSize();
+        this.idleTimeoutNanos = builder.getIdleTimeoutNanos();
+        this.maxLifetimeNanos = builder.getMaxLifetimeNanos();
+        this.borrowTimeoutNanos = builder.getBorrowTimeoutNanos();
+        this.validationTimeoutSeconds = builder.getValidationTimeoutSeconds();
+        this.ticker = builder.getTicker();
+        this.statementCacheSize = builder.getStatementCacheSize();
+        this.replenishExecutor = new ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("SaneSql-pool-replenish-%d").setDaemon(true).build());
+        replenish();
+    }
+
+    /**
+     * Borrows a connection from this pool, opening a new one if there is no idle connection and
+     * the maximum size has not been reached yet. If the pool is exhausted, waits for another
+     * caller to return a connection, up to the borrow timeout.
+     *
+     * @return a connection owned by the caller until it is closed
+     * @throws SqlConnectionException if a new connection cannot be opened, no connection becomes
+     *                                available within the borrow timeout, the calling thread is
+     *                                interrupted while waiting, or this pool has been closed
+     */
+    @Override
+    public Connection getConnection() throws SqlConnectionException {
+        long deadline = ticker.read() + borrowTimeoutNanos;
+        while (true) {
+            checkOpen();
+            PooledConnection connection = null;
+            if (waiters.isEmpty()) {
+                connection = idle.pollFirst();
+                if (connection == null) {
+                    connection = tryCreate();
+                }
+            }
+            if (connection == null) {
+                connection = await(deadline);
+            }
+            if (isUsable(connection)) {
+                return connection.lease();
+            }
+            discard(connection);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new SqlConnectionException(new SQLException("Connection pool has been closed"));
+        }
+    }
+
+    private PooledConnection tryCreate() throws SqlConnectionException {
+        int count;
+        do {
+            count = totalCount.get();
+            if (count >= maximumSize) {
+                return null;
+            }
+        } while (!totalCount.compareAndSet(count, count + 1));
+        boolean created = false;
+        try {
+            PooledConnection connection = new PooledConnection(this, factory.createConnection(), ticker.read(),
+                    statementCacheSize, statementStats);
+            created = true;
+            return connection;
+        } catch (SQLException e) {
+            throw new SqlConnectionException(e);
+        } finally {
+            if (!created) {
+                totalCount.decrementAndGet();
+            }
+        }
+    }
+
+    private PooledConnection await(long deadline) throws SqlConnectionException {
+        CompletableFuture<PooledConnection> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+        try {
+            // a connection may have become available before we were visible to returning callers
+            PooledConnection available = idle.pollFirst();
+            if (available == null) {
+                available = tryCreate();
+            }
+            if (available != null) {
+                if (waiter.cancel(false)) {
+                    return available;
+                }
+                recycle(available);
+            }
+            return waiter.get(Math.max(0L, deadline - ticker.read()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            abandon(waiter);
+            throw new SqlConnectionException(new SQLTransientConnectionException(
+                    "No connection available within " + TimeUnit.NANOSECONDS.toMillis(borrowTimeoutNanos) + "ms"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon(waiter);
+            throw new SqlConnectionException(new SQLTransientConnectionException("Interrupted while waiting", e));
+        } catch (ExecutionException e) {
+            throw new SqlConnectionException(new SQLException("Connection pool has been closed"));
+        } catch (RuntimeException e) {
+            abandon(waiter);
+            throw e;
+        } finally {
+            waiters.remove(waiter);
+        }
+    }
+
+    private void abandon(CompletableFuture<PooledConnection> waiter) {
+        if (!waiter.cancel(false) && !waiter.isCompletedExceptionally()) {
+            recycle(waiter.join());
+        }
+    }
+
+    private boolean isUsable(PooledConnection connection) {
+        long now = ticker.read();
+        if (now - connection.getCreatedNanos() >= maxLifetimeNanos) {
+            return false;
+        }
+        if (now - connection.getReturnedNanos() < VALIDATION_BYPASS_NANOS) {
+            return true;
+        }
+        try {
+            return connection.getConnection().isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a connection to this pool, handing it to the longest-waiting caller if there is any.
+     *
+     * @param connection the connection to return
+     */
+    void recycle(PooledConnection connection) {
+        long now = ticker.read();
+        if (closed || now - connection.getCreatedNanos() >= maxLifetimeNanos || !connection.reset()) {
+            discard(connection);
+            return;
+        }
+        connection.markReturned(now);
+        if (!offerIdle(connection)) {
+            return;
+        }
+        dispatchToWaiters();
+        evictIfIdle(idle.peekLast(), now);
+    }
+
+    /**
+     * Adds a connection to the idle connections, unless this pool has been closed meanwhile.
+     * Since {@link #close()} sets the closed flag before closing idle connections, a connection
+     * added concurrently is either closed by it or noticed here.
+     *
+     * @return whether the connection has been added
+     */
+    private boolean offerIdle(PooledConnection connection) {
+        idle.offerFirst(connection);
+        if (closed && idle.removeFirstOccurrence(connection)) {
+            totalCount.decrementAndGet();
+            connection.closeQuietly();
+            return false;
+        }
+        return !closed;
+    }
+
+    private void dispatchToWaiters() {
+        // loops since a caller may start waiting right after we found no waiter
+        while (!waiters.isEmpty()) {
+            PooledConnection available = idle.pollFirst();
+            if (available == null) {
+                return;
+            }
+            if (!handOff(available)) {
+                idle.offerFirst(available);
+            }
+        }
+    }
+
+    private boolean handOff(PooledConnection connection) {
+        CompletableFuture<PooledConnection> waiter;
+        while ((waiter = waiters.poll()) != null) {
+            if (waiter.complete(connection)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void evictIfIdle(PooledConnection connection, long now) {
+        if (connection == null) {
+            return;
+        }
+        boolean expired = now - connection.getCreatedNanos() >= maxLifetimeNanos;
+        boolean idleTooLong = now - connection.getReturnedNanos() >= idleTimeoutNanos &&
+                totalCount.get() > minimumSize;
+        if ((expired || idleTooLong) && idle.removeLastOccurrence(connection)) {
+            discard(connection);
+        }
+    }
+
+    private void discard(PooledConnection connection) {
+        totalCount.decrementAndGet();
+        connection.closeQuietly();
+        scheduleReplenish();
+    }
+
+    private void scheduleReplenish() {
+        if (closed || !replenishScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            replenishExecutor.execute(() -> {
+                replenishScheduled.set(false);
+                replenish();
+            });
+        } catch (RejectedExecutionException e) {
+            replenishScheduled.set(false); //closed meanwhile
+        }
+    }
+
+    /**
+     * Opens connections until the minimum size is reached and every waiting caller has been
+     * served, as far as the maximum size permits.
+     */
+    private void replenish() {
+        while (!closed && (totalCount.get() < minimumSize || !waiters.isEmpty())) {
+            PooledConnection connection;
+            try {
+                connection = tryCreate();
+            } catch (SqlConnectionException e) {
+                LOGGER.log(Level.WARNING, "Unable to open pooled connection", e);
+                return;
+            }
+            if (connection == null || !offerIdle(connection)) {
+                return;
+            }
+            dispatchToWaiters();
+        }
+    }
+
+    /**
+     * Closes all idle connections that have exceeded the idle timeout, as long as there are more
+     * than the minimum number of connections, and all idle connections that have exceeded their
+     * maximum lifetime. Afterwards, opens connections up to the minimum size. Calling this method
+     * is never necessary for correctness, but may be used to release connections of pools that
+     * are rarely used.
+     */
+    public void evictIdleConnections() {
+        long now = ticker.read();
+        for (PooledConnection connection : idle) {
+            evictIfIdle(connection, now);
+        }
+        replenish();
+    }
+
+    /**
+     * @return the aggregate statistics of the statement caches of all connections of this pool,
+     * which are empty if statement caching is disabled
+     * @see ConnectionPoolBuilder#statementCacheSize(int)
+     */
+    public StatementCacheStats statementCacheStats() {
+        return statementStats;
+    }
+
+    /**
+     * @return the maximum number of connections this pool opens at the same time
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return the number of connections currently opened by this pool, including borrowed ones
+     */
+    public int getTotalCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * @return the number of connections currently waiting in this pool to be borrowed
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * @return the number of callers currently waiting for a connection to become available
+     */
+    public int getWaitingCount() {
+        return waiters.size();
+    }
+
+    /**
+     * Closes this pool and all idle connections. Callers waiting for a connection fail, and
+     * borrowed connections are closed once they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        replenishExecutor.shutdown();
+        CompletableFuture<PooledConnection> waiter;
+        while ((waiter = waiters.poll()) != null) {
+            waiter.completeExceptionally(new SQLException("Connection pool has been closed"));
+        }
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            totalCount.decrementAndGet();
+            connection.closeQuietly();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PooledConnectionProvider{total=" + getTotalCount() + ", idle=" + getIdleCount() +
+                ", waiting=" + getWaitingCount() + ", maximum=" + maximumSize + "}";
+    }
+}
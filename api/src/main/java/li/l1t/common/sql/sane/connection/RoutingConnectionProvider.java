@@ -0,0 +1,223 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.connection;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import li.l1t.common.sql.SqlConnectable;
+import li.l1t.common.sql.SqlConnectables;
+import li.l1t.common.sql.sane.exception.SqlConnectionException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Routes read-only queries to read replicas and everything else to the primary data source.
+ * {@link #getConnection()} always returns a connection to the primary, while {@link
+ * #getReadConnection()} returns a connection to a replica chosen by the configured {@link
+ * ReplicaSelection}. {@link li.l1t.common.sql.sane.JdbcSaneSql} uses read connections for queries
+ * outside of scoped sessions, so that transactions and writes always see the primary. If a
+ * replica cannot provide a connection, the next one is tried, falling back to the primary if none
+ * can. <p>Note that replicas might lag behind the primary, so queries that need to see a write
+ * that was just made should run in a scoped session.</p> <p>All connections must be closed by the
+ * caller, which is why the underlying providers must not be {@link ConnectionManager}s sharing a
+ * single connection.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public class RoutingConnectionProvider implements ConnectionProvider, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(RoutingConnectionProvider.class.getName());
+    private final ConnectionProvider primary;
+    private final List<ConnectionProvider> replicas;
+    private final ReplicaSelection selection;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final AtomicIntegerArray inFlightCounts;
+
+    /**
+     * @param primary   the provider of connections to the primary data source
+     * @param replicas  the providers of connections to the read replicas, may be empty
+     * @param selection the strategy for choosing a replica
+     */
+    public RoutingConnectionProvider(ConnectionProvider primary, List<? extends ConnectionProvider> replicas,
+                                     ReplicaSelection selection) {
+        this.primary = checkCloseable(primary, "primary");
+        this.replicas = ImmutableList.copyOf(Preconditions.checkNotNull(replicas, "replicas"));
+        this.replicas.forEach(replica -> checkCloseable(replica, "replica"));
+        this.selection = Preconditions.checkNotNull(selection, "selection");
+        this.inFlightCounts = new AtomicIntegerArray(this.replicas.size());
+    }
+
+    private static ConnectionProvider checkCloseable(ConnectionProvider provider, String name) {
+        Preconditions.checkNotNull(provider, name);
+        Preconditions.checkArgument(!(provider instanceof ConnectionManager),
+                "%s must not share a single connection, use a pool instead", name);
+        return provider;
+    }
+
+    /**
+     * Creates a routing provider with a connection pool for the primary and one for each {@link
+     * SqlConnectable#getSqlReplicaHosts() replica host} of given connectable.
+     *
+     * @param connectable  the credentials and hosts to connect to
+     * @param selection    the strategy for choosing a replica
+     * @param poolSettings the function creating a pool builder with the desired settings for a
+     *                     connection factory, for example {@code ConnectionPoolBuilder::newBuilder}
+     * @return a new routing provider
+     */
+    public static RoutingConnectionProvider pooled(SqlConnectable connectable, ReplicaSelection selection,
+                                                   Function<ConnectionFactory, ConnectionPoolBuilder> poolSettings) {
+        Preconditions.checkNotNull(poolSettings, "poolSettings");
+        PooledConnectionProvider primary = poolSettings.apply(ConnectionFactory.of(connectable)).build();
+        List<PooledConnectionProvider> replicas = SqlConnectables.getReplicas(connectable).stream()
+                .map(replica -> poolSettings.apply(ConnectionFactory.of(replica)).build())
+                .collect(Collectors.toList());
+        return new RoutingConnectionProvider(primary, replicas, selection);
+    }
+
+    /**
+     * @return a connection to the primary data source
+     */
+    @Override
+    public Connection getConnection() throws SqlConnectionException {
+        return primary.getConnection();
+    }
+
+    /**
+     * @return a connection to a read replica, or to the primary data source if there are no
+     * replicas or none of them can provide a connection
+     */
+    @Override
+    public Connection getReadConnection() throws SqlConnectionException {
+        if (replicas.isEmpty()) {
+            return primary.getConnection();
+        }
+        int first = selectReplica();
+        for (int i = 0; i < replicas.size(); i++) {
+            int replica = (first + i) % replicas.size();
+            try {
+                return borrowFromReplica(replica);
+            } catch (SqlConnectionException e) {
+                LOGGER.log(Level.WARNING, "Read replica #" + replica + " is unavailable, trying next", e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    private int selectReplica() {
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        if (selection == ReplicaSelection.ROUND_ROBIN) {
+            return start;
+        }
+        int best = start;
+        for (int i = 1; i < replicas.size(); i++) {
+            int candidate = (start + i) % replicas.size();
+            if (inFlightCounts.get(candidate) < inFlightCounts.get(best)) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private Connection borrowFromReplica(int replica) {
+        Connection connection = replicas.get(replica).getConnection();
+        inFlightCounts.incrementAndGet(replica);
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(RoutingConnectionProvider.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            if (closed.compareAndSet(false, true)) {
+                                inFlightCounts.decrementAndGet(replica);
+                            }
+                            break;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "Replica#" + replica + "[" + connection + "]";
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * @return the number of read replicas
+     */
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    /**
+     * @param replica the index of the replica
+     * @return the number of connections to given replica that are currently borrowed
+     */
+    public int getInFlightCount(int replica) {
+        return inFlightCounts.get(replica);
+    }
+
+    /**
+     * Closes the primary and all replica providers that are {@link AutoCloseable}.
+     *
+     * @throws Exception if any of the providers fails to close, after attempting to close all
+     */
+    @Override
+    public void close() throws Exception {
+        Exception failure = null;
+        for (ConnectionProvider provider : ImmutableList.<ConnectionProvider>builder()
+                .add(primary).addAll(replicas).build()) {
+            if (provider instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) provider).close();
+                } catch (Exception e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.metrics;
+
+import li.l1t.common.sql.sane.connection.ConnectionProvider;
+import li.l1t.common.sql.sane.exception.SqlConnectionException;
+
+import java.sql.Connection;
+import java.util.function.Supplier;
+
+/**
+ * A connection provider that records the time spent obtaining connections from another provider.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class InstrumentedConnectionProvider implements ConnectionProvider, AutoCloseable {
+    private final ConnectionProvider delegate;
+    private final SqlMetrics metrics;
+
+    InstrumentedConnectionProvider(ConnectionProvider delegate, SqlMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SqlConnectionException {
+        return recordWait(delegate::getConnection);
+    }
+
+    @Override
+    public Connection getReadConnection() throws SqlConnectionException {
+        return recordWait(delegate::getReadConnection);
+    }
+
+    private Connection recordWait(Supplier<Connection> source) {
+        long startNanos = metrics.read();
+        try {
+            Connection connection = source.get();
+            metrics.recordConnectionWait(startNanos);
+            return connection;
+        } catch (RuntimeException e) {
+            metrics.recordConnectionError();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable) {
+            ((AutoCloseable) delegate).close();
+        }
+    }
+}
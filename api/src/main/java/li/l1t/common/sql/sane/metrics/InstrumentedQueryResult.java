@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.metrics;
+
+import li.l1t.common.sql.sane.result.QueryResult;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * A query result that counts the rows read from its result set and records them when closed.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class InstrumentedQueryResult implements QueryResult {
+    private final QueryResult delegate;
+    private final StatementStats stats;
+    private ResultSet countingResultSet;
+    private long rowCount;
+    private boolean closed;
+
+    InstrumentedQueryResult(QueryResult delegate, StatementStats stats) {
+        this.delegate = delegate;
+        this.stats = stats;
+    }
+
+    @Override
+    public ResultSet rs() {
+        if (countingResultSet == null) {
+            ResultSet resultSet = delegate.rs();
+            countingResultSet = (ResultSet) Proxy.newProxyInstance(InstrumentedQueryResult.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                        Object result;
+                        try {
+                            result = method.invoke(resultSet, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                            rowCount++;
+                        }
+                        return result;
+                    });
+        }
+        return countingResultSet;
+    }
+
+    @Override
+    public PreparedStatement getStatement() {
+        return delegate.getStatement();
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            stats.recordRowsReturned(rowCount);
+        }
+        delegate.close();
+    }
+}
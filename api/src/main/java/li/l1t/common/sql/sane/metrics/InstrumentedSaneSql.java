@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.metrics;
+
+import li.l1t.common.exception.DatabaseException;
+import li.l1t.common.sql.sane.SaneSql;
+import li.l1t.common.sql.sane.result.QueryResult;
+import li.l1t.common.sql.sane.result.UpdateResult;
+import li.l1t.common.sql.sane.scoped.RawScopedSession;
+import li.l1t.common.sql.sane.statement.BatchUpdate;
+
+import java.util.function.Supplier;
+
+/**
+ * A SaneSql that records metrics of the statements it passes to another SaneSql.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class InstrumentedSaneSql implements SaneSql {
+    private final SaneSql delegate;
+    private final SqlMetrics metrics;
+    private final ThreadLocal<Long> sessionStartNanos = new ThreadLocal<>();
+
+    InstrumentedSaneSql(SaneSql delegate, SqlMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public QueryResult query(String sqlQuery, Object... parameters) throws DatabaseException {
+        StatementStats stats = metrics.statsFor(sqlQuery);
+        QueryResult result = execute(stats, parameters, () -> delegate.query(sqlQuery, parameters));
+        return new InstrumentedQueryResult(result, stats);
+    }
+
+    @Override
+    public QueryResult query(int fetchSize, String sqlQuery, Object... parameters) throws DatabaseException {
+        StatementStats stats = metrics.statsFor(sqlQuery);
+        QueryResult result = execute(stats, parameters, () -> delegate.query(fetchSize, sqlQuery, parameters));
+        return new InstrumentedQueryResult(result, stats);
+    }
+
+    private <T> T execute(StatementStats stats, Object[] parameters, Supplier<T> execution) {
+        long startNanos = metrics.read();
+        T result;
+        try {
+            result = execution.get();
+        } catch (RuntimeException e) {
+            stats.recordError();
+            throw e;
+        }
+        metrics.recordExecution(stats, startNanos, parameters);
+        return result;
+    }
+
+    @Override
+    public UpdateResult update(String sqlQuery, Object... parameters) throws DatabaseException {
+        StatementStats stats = metrics.statsFor(sqlQuery);
+        UpdateResult result = execute(stats, parameters, () -> delegate.update(sqlQuery, parameters));
+        stats.recordRowsAffected(result.getAffectedRowCount());
+        return result;
+    }
+
+    @Override
+    public int updateRaw(String sqlQuery, Object... parameters) throws DatabaseException {
+        StatementStats stats = metrics.statsFor(sqlQuery);
+        int resultCode = execute(stats, parameters, () -> delegate.updateRaw(sqlQuery, parameters));
+        stats.recordRowsAffected(resultCode);
+        return resultCode;
+    }
+
+    @Override
+    public RawScopedSession scoped() {
+        return new InstrumentedScopedSession(delegate.scoped(), this);
+    }
+
+    @Override
+    public boolean hasBoundSession() {
+        return delegate.hasBoundSession();
+    }
+
+    void markSessionStart() {
+        sessionStartNanos.set(metrics.read());
+    }
+
+    void markSessionEnd() {
+        Long startNanos = sessionStartNanos.get();
+        if (startNanos != null) {
+            sessionStartNanos.remove();
+            metrics.recordSessionHold(startNanos);
+        }
+    }
+
+    @Override
+    public BatchUpdate batch(String sqlQuery) {
+        return delegate.batch(sqlQuery);
+    }
+
+    @Override
+    public void close() throws Exception {
+        delegate.close();
+    }
+}
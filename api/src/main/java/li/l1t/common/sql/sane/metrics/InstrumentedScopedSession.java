@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.metrics;
+
+import li.l1t.common.exception.InternalException;
+import li.l1t.common.sql.sane.scoped.RawScopedSession;
+import li.l1t.common.sql.sane.scoped.ScopedSession;
+
+/**
+ * A scoped session that records the time from its outermost join to its last close.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class InstrumentedScopedSession implements RawScopedSession {
+    private final RawScopedSession delegate;
+    private final InstrumentedSaneSql sql;
+
+    InstrumentedScopedSession(RawScopedSession delegate, InstrumentedSaneSql sql) {
+        this.delegate = delegate;
+        this.sql = sql;
+    }
+
+    @Override
+    public ScopedSession<RawScopedSession> join() {
+        boolean outermost = !delegate.hasReferences();
+        delegate.join();
+        if (outermost) {
+            sql.markSessionStart();
+        }
+        return this;
+    }
+
+    @Override
+    public RawScopedSession tx() {
+        boolean outermost = !delegate.hasReferences();
+        delegate.tx();
+        if (outermost) {
+            sql.markSessionStart();
+        }
+        return this;
+    }
+
+    @Override
+    public void commit() {
+        delegate.commit();
+    }
+
+    @Override
+    public void rollbackAndClose() {
+        try {
+            delegate.rollbackAndClose();
+        } finally {
+            markEndIfReleased();
+        }
+    }
+
+    private void markEndIfReleased() {
+        if (!delegate.hasReferences()) {
+            sql.markSessionEnd();
+        }
+    }
+
+    @Override
+    public void commitIfLast() {
+        delegate.commitIfLast();
+    }
+
+    @Override
+    public void commitIfLastAndChanged() {
+        delegate.commitIfLastAndChanged();
+    }
+
+    @Override
+    public void close() throws InternalException {
+        try {
+            delegate.close();
+        } finally {
+            markEndIfReleased();
+        }
+    }
+
+    @Override
+    public boolean hasReferences() {
+        return delegate.hasReferences();
+    }
+
+    @Override
+    public boolean acceptsFurtherReferences() {
+        return delegate.acceptsFurtherReferences();
+    }
+
+    @Override
+    public boolean hasTransaction() {
+        return delegate.hasTransaction();
+    }
+}
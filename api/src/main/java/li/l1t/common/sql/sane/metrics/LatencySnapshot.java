@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.metrics;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable snapshot of a latency histogram. Percentiles are estimated from buckets with a
+ * relative error of at most about six percent, while count, mean and maximum are exact.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public final class LatencySnapshot {
+    private static final LatencySnapshot EMPTY =
+            new LatencySnapshot(new long[LatencyHistogram.BUCKET_COUNT], 0L, 0L, 0L);
+    private final long[] bucketCounts;
+    private final long count;
+    private final long totalNanos;
+    private final long maximumNanos;
+
+    LatencySnapshot(long[] bucketCounts, long count, long totalNanos, long maximumNanos) {
+        this.bucketCounts = bucketCounts;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maximumNanos = maximumNanos;
+    }
+
+    /**
+     * @return a snapshot without any recorded values
+     */
+    public static LatencySnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the sum of all recorded values, in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return the arithmetic mean of all recorded values in nanoseconds, or zero if there are none
+     */
+    public long getMeanNanos() {
+        return count == 0 ? 0L : totalNanos / count;
+    }
+
+    /**
+     * @return the largest recorded value, in nanoseconds
+     */
+    public long getMaximumNanos() {
+        return maximumNanos;
+    }
+
+    /**
+     * Estimates the value below which given fraction of recorded values lie.
+     *
+     * @param quantile the fraction of values, for example {@code 0.99} for the 99th percentile
+     * @return the estimated value in nanoseconds, never larger than the maximum, or zero if there
+     * are no recorded values
+     */
+    public long getPercentileNanos(double quantile) {
+        Preconditions.checkArgument(quantile >= 0D && quantile <= 1D, "quantile must be in [0,1]: %s", quantile);
+        long bucketTotal = 0;
+        for (long bucketCount : bucketCounts) {
+            bucketTotal += bucketCount;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(quantile * bucketTotal));
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                long upperBoundMicros = i + 1 < bucketCounts.length ?
+                        LatencyHistogram.lowerBoundMicros(i + 1) : LatencyHistogram.lowerBoundMicros(i);
+                long midpointMicros = (LatencyHistogram.lowerBoundMicros(i) + upperBoundMicros) / 2;
+                return Math.min(TimeUnit.MICROSECONDS.toNanos(midpointMicros), maximumNanos);
+            }
+        }
+        return 0L;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d, mean=%.2fms, p50=%.2fms, p99=%.2fms, max=%.2fms", count,
+                millis(getMeanNanos()), millis(getPercentileNanos(0.5D)), millis(getPercentileNanos(0.99D)),
+                millis(maximumNanos));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000D;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.metrics;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import li.l1t.common.sql.sane.SaneSql;
+import li.l1t.common.sql.sane.connection.ConnectionManager;
+import li.l1t.common.sql.sane.connection.ConnectionProvider;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Records latency histograms, row counts and errors of SQL statements, keyed by their normalized
+ * SQL text, as well as connection wait times and scoped session hold times. Metrics are recorded
+ * by {@linkplain #instrument(SaneSql) instrumented} SaneSql instances and connection providers,
+ * which may share a single instance of this class. Recording is lock-free. <p>Statements that take
+ * longer than the slow query threshold are logged with their normalized SQL text and the types of
+ * their parameters. Parameter values are never logged, since they might contain personal
+ * data.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public class SqlMetrics {
+    private static final Logger LOGGER = Logger.getLogger(SqlMetrics.class.getName());
+    /**
+     * The maximum number of distinct raw SQL strings to remember the normalized form of. Once
+     * exceeded, for example because values are concatenated into statements, further statements
+     * are normalized on every execution.
+     */
+    private static final int MAXIMUM_RAW_SQL_COUNT = 4096;
+    private final long slowQueryThresholdNanos;
+    private final Logger slowQueryLogger;
+    private final Ticker ticker;
+    private final ConcurrentMap<String, StatementStats> statsByNormalizedSql = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, StatementStats> statsByRawSql = new ConcurrentHashMap<>();
+    private final LatencyHistogram connectionWait = new LatencyHistogram();
+    private final LongAdder connectionErrorCount = new LongAdder();
+    private final LatencyHistogram sessionHoldTime = new LatencyHistogram();
+
+    /**
+     * @param slowQueryThreshold the execution time above which statements are logged as slow
+     * @param unit               the unit of the threshold
+     */
+    public SqlMetrics(long slowQueryThreshold, TimeUnit unit) {
+        this(slowQueryThreshold, unit, LOGGER, Ticker.systemTicker());
+    }
+
+    /**
+     * @param slowQueryThreshold the execution time above which statements are logged as slow
+     * @param unit               the unit of the threshold
+     * @param slowQueryLogger    the logger to log slow statements to, at level {@link
+     *                           Level#WARNING}
+     * @param ticker             the time source for measuring latencies
+     */
+    public SqlMetrics(long slowQueryThreshold, TimeUnit unit, Logger slowQueryLogger, Ticker ticker) {
+        Preconditions.checkArgument(slowQueryThreshold >= 0, "slowQueryThreshold must not be negative: %s",
+                slowQueryThreshold);
+        this.slowQueryThresholdNanos = unit.toNanos(slowQueryThreshold);
+        this.slowQueryLogger = Preconditions.checkNotNull(slowQueryLogger, "slowQueryLogger");
+        this.ticker = Preconditions.checkNotNull(ticker, "ticker");
+    }
+
+    /**
+     * Wraps given SaneSql so that its queries, updates and scoped sessions are recorded by this
+     * instance. Batch updates are passed through without being recorded.
+     *
+     * @param sql the SaneSql to instrument, closed with the returned instance
+     * @return an instrumented view of given SaneSql
+     */
+    public SaneSql instrument(SaneSql sql) {
+        return new InstrumentedSaneSql(Preconditions.checkNotNull(sql, "sql"), this);
+    }
+
+    /**
+     * Wraps given connection provider so that the time spent obtaining connections is recorded by
+     * this instance.
+     *
+     * @param provider the provider to instrument, closed with the returned instance if it is
+     *                 {@link AutoCloseable}
+     * @return an instrumented view of given provider
+     */
+    public ConnectionProvider instrument(ConnectionProvider provider) {
+        Preconditions.checkNotNull(provider, "provider");
+        if (provider instanceof ConnectionManager) {
+            return instrument((ConnectionManager) provider);
+        }
+        return new InstrumentedConnectionProvider(provider, this);
+    }
+
+    /**
+     * Wraps given connection manager so that the time spent obtaining connections is recorded by
+     * this instance. The returned manager still shares a single connection, so that SaneSql
+     * implementations do not close it.
+     *
+     * @param manager the manager to instrument, closed with the returned instance
+     * @return an instrumented view of given manager
+     */
+    public ConnectionManager instrument(ConnectionManager manager) {
+        return new InstrumentedConnectionManager(Preconditions.checkNotNull(manager, "manager"), this);
+    }
+
+    /**
+     * @return a snapshot of all metrics recorded so far
+     */
+    public SqlMetricsSnapshot snapshot() {
+        List<StatementSnapshot> statements = statsByNormalizedSql.values().stream()
+                .map(StatementStats::snapshot)
+                .sorted(Comparator.comparingLong((StatementSnapshot stats) -> stats.getLatency().getTotalNanos())
+                        .reversed())
+                .collect(Collectors.toList());
+        return new SqlMetricsSnapshot(statements, connectionWait.snapshot(), connectionErrorCount.sum(),
+                sessionHoldTime.snapshot());
+    }
+
+    StatementStats statsFor(String sql) {
+        StatementStats stats = statsByRawSql.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        stats = statsByNormalizedSql.computeIfAbsent(SqlNormalizer.normalize(sql), StatementStats::new);
+        if (statsByRawSql.size() < MAXIMUM_RAW_SQL_COUNT) {
+            statsByRawSql.putIfAbsent(sql, stats);
+        }
+        return stats;
+    }
+
+    long read() {
+        return ticker.read();
+    }
+
+    void recordExecution(StatementStats stats, long startNanos, Object[] parameters) {
+        long nanos = ticker.read() - startNanos;
+        boolean slow = nanos > slowQueryThresholdNanos;
+        stats.recordExecution(nanos, slow);
+        if (slow && slowQueryLogger.isLoggable(Level.WARNING)) {
+            slowQueryLogger.log(Level.WARNING, String.format("Slow statement took %d ms: %s with parameter types %s",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), stats.getNormalizedSql(), describeTypes(parameters)));
+        }
+    }
+
+    private static String describeTypes(Object[] parameters) {
+        return Arrays.stream(parameters)
+                .map(parameter -> parameter == null ? "null" : parameter.getClass().getSimpleName())
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    void recordConnectionWait(long startNanos) {
+        connectionWait.record(ticker.read() - startNanos);
+    }
+
+    void recordConnectionError() {
+        connectionErrorCount.increment();
+    }
+
+    void recordSessionHold(long startNanos) {
+        sessionHoldTime.record(ticker.read() - startNanos);
+    }
+}
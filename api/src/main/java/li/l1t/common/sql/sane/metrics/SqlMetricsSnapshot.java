@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.metrics;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable snapshot of all metrics recorded by {@link SqlMetrics}, for example for display in
+ * a status command. Note that the snapshot is not atomic with regard to concurrent recordings.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public final class SqlMetricsSnapshot {
+    private final List<StatementSnapshot> statements;
+    private final LatencySnapshot connectionWait;
+    private final long connectionErrorCount;
+    private final LatencySnapshot sessionHoldTime;
+
+    SqlMetricsSnapshot(List<StatementSnapshot> statements, LatencySnapshot connectionWait,
+                       long connectionErrorCount, LatencySnapshot sessionHoldTime) {
+        this.statements = Collections.unmodifiableList(statements);
+        this.connectionWait = connectionWait;
+        this.connectionErrorCount = connectionErrorCount;
+        this.sessionHoldTime = sessionHoldTime;
+    }
+
+    /**
+     * @return the metrics of each normalized statement, ordered by total execution time, highest
+     * first
+     */
+    public List<StatementSnapshot> getStatements() {
+        return statements;
+    }
+
+    /**
+     * @param limit the maximum number of statements to return
+     * @return the metrics of the statements with the highest total execution time, highest first
+     */
+    public List<StatementSnapshot> getTopStatements(int limit) {
+        Preconditions.checkArgument(limit >= 0, "limit must not be negative: %s", limit);
+        return statements.subList(0, Math.min(limit, statements.size()));
+    }
+
+    /**
+     * @return the time spent waiting for connections from instrumented connection providers
+     */
+    public LatencySnapshot getConnectionWait() {
+        return connectionWait;
+    }
+
+    /**
+     * @return the number of attempts to obtain a connection that failed
+     */
+    public long getConnectionErrorCount() {
+        return connectionErrorCount;
+    }
+
+    /**
+     * @return the time from the outermost join to the last close of scoped sessions
+     */
+    public LatencySnapshot getSessionHoldTime() {
+        return sessionHoldTime;
+    }
+
+    /**
+     * @return the total number of failed statement executions
+     */
+    public long getErrorCount() {
+        return statements.stream().mapToLong(StatementSnapshot::getErrorCount).sum();
+    }
+
+    @Override
+    public String toString() {
+        return "SqlMetricsSnapshot{statements=" + statements.size() + ", errors=" + getErrorCount() +
+                ", connectionWait={" + connectionWait + "}, connectionErrors=" + connectionErrorCount +
+                ", sessionHoldTime={" + sessionHoldTime + "}}";
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.metrics;
+
+/**
+ * An immutable snapshot of the metrics of all statements with the same normalized SQL text.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public final class StatementSnapshot {
+    private final String normalizedSql;
+    private final LatencySnapshot latency;
+    private final long rowsReturned;
+    private final long rowsAffected;
+    private final long errorCount;
+    private final long slowCount;
+
+    StatementSnapshot(String normalizedSql, LatencySnapshot latency, long rowsReturned, long rowsAffected,
+                      long errorCount, long slowCount) {
+        this.normalizedSql = normalizedSql;
+        this.latency = latency;
+        this.rowsReturned = rowsReturned;
+        this.rowsAffected = rowsAffected;
+        this.errorCount = errorCount;
+        this.slowCount = slowCount;
+    }
+
+    /**
+     * @return the SQL text of the statements, with literals replaced by {@code ?} placeholders
+     */
+    public String getNormalizedSql() {
+        return normalizedSql;
+    }
+
+    /**
+     * @return the execution latencies of successful executions, not including the time spent
+     * reading query results
+     */
+    public LatencySnapshot getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return the number of rows read from results of queries, counted when the results are closed
+     */
+    public long getRowsReturned() {
+        return rowsReturned;
+    }
+
+    /**
+     * @return the number of rows affected by updates, according to the driver
+     */
+    public long getRowsAffected() {
+        return rowsAffected;
+    }
+
+    /**
+     * @return the number of executions that failed with an exception
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * @return the number of executions that took longer than the slow query threshold
+     */
+    public long getSlowCount() {
+        return slowCount;
+    }
+
+    @Override
+    public String toString() {
+        return normalizedSql + " {" + latency + ", returned=" + rowsReturned + ", affected=" + rowsAffected +
+                ", errors=" + errorCount + ", slow=" + slowCount + "}";
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records executions of all statements with the same normalized SQL text.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class StatementStats {
+    private final String normalizedSql;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder rowsReturned = new LongAdder();
+    private final LongAdder rowsAffected = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private final LongAdder slowCount = new LongAdder();
+
+    StatementStats(String normalizedSql) {
+        this.normalizedSql = normalizedSql;
+    }
+
+    String getNormalizedSql() {
+        return normalizedSql;
+    }
+
+    void recordExecution(long nanos, boolean slow) {
+        latency.record(nanos);
+        if (slow) {
+            slowCount.increment();
+        }
+    }
+
+    void recordError() {
+        errorCount.increment();
+    }
+
+    void recordRowsReturned(long rows) {
+        rowsReturned.add(rows);
+    }
+
+    void recordRowsAffected(long rows) {
+        if (rows > 0) {
+            rowsAffected.add(rows);
+        }
+    }
+
+    StatementSnapshot snapshot() {
+        return new StatementSnapshot(normalizedSql, latency.snapshot(), rowsReturned.sum(), rowsAffected.sum(),
+                errorCount.sum(), slowCount.sum());
+    }
+}
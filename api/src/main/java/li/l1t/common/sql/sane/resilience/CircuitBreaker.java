@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.resilience;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stops calls to a failing resource so that callers fail fast instead of piling up while it is
+ * down. After a number of consecutive failures, the breaker opens and rejects all calls. Once the
+ * open duration has passed, a single probe call is let through. If it succeeds, the breaker closes
+ * again, otherwise it stays open for another open duration. All state transitions are lock-free.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public class CircuitBreaker {
+    private final int failureThreshold;
+    private final long openNanos;
+    private final Ticker ticker;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedNanos;
+
+    /**
+     * @param failureThreshold the number of consecutive failures that opens the breaker
+     * @param openDuration     the time the breaker stays open before letting a probe through
+     * @param unit             the unit of the open duration
+     * @param ticker           the time source, nanosecond precision
+     */
+    public CircuitBreaker(int failureThreshold, long openDuration, TimeUnit unit, Ticker ticker) {
+        Preconditions.checkArgument(failureThreshold > 0, "failureThreshold must be positive: %s", failureThreshold);
+        Preconditions.checkArgument(openDuration > 0, "openDuration must be positive: %s", openDuration);
+        this.failureThreshold = failureThreshold;
+        this.openNanos = unit.toNanos(openDuration);
+        this.ticker = Preconditions.checkNotNull(ticker, "ticker");
+    }
+
+    /**
+     * Asks for permission to make a call. Callers that are granted permission must report the
+     * outcome using {@link #recordSuccess()} or {@link #recordFailure()}.
+     *
+     * @return whether the call may be made
+     */
+    public boolean tryAcquire() {
+        switch (state.get()) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                return ticker.read() - openedNanos >= openNanos &&
+                        state.compareAndSet(State.OPEN, State.HALF_OPEN);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Records a successful call, which closes the breaker.
+     */
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        if (state.get() != State.CLOSED) {
+            state.set(State.CLOSED);
+        }
+    }
+
+    /**
+     * Records a failed call, which opens the breaker if the failure threshold is reached or the
+     * call was a probe.
+     */
+    public void recordFailure() {
+        if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedNanos = ticker.read();
+            state.set(State.OPEN);
+        }
+    }
+
+    /**
+     * @return the current state of this breaker
+     */
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * The states of a circuit breaker.
+     */
+    public enum State {
+        /**
+         * Calls are allowed.
+         */
+        CLOSED,
+        /**
+         * Calls are rejected until the open duration has passed.
+         */
+        OPEN,
+        /**
+         * A single probe call is in progress and all other calls are rejected.
+         */
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.resilience;
+
+import com.google.common.base.Ticker;
+import li.l1t.common.exception.DatabaseException;
+import li.l1t.common.sql.sane.SaneSql;
+import li.l1t.common.sql.sane.connection.ConnectionManager;
+import li.l1t.common.sql.sane.exception.SqlUnavailableException;
+import li.l1t.common.sql.sane.result.QueryResult;
+import li.l1t.common.sql.sane.result.UpdateResult;
+import li.l1t.common.sql.sane.scoped.RawScopedSession;
+import li.l1t.common.sql.sane.statement.BatchUpdate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A SaneSql that protects callers from short database outages, such as a MySQL restart or a stale
+ * connection. <p>Failures are {@linkplain SqlStates classified} as transient or permanent. Queries
+ * are assumed to be idempotent and are retried after transient failures with exponential backoff
+ * and full jitter, until the maximum number of attempts or the deadline is reached. Updates are not
+ * retried, since they might have been applied before the failure. Queries issued while the thread
+ * has joined a {@linkplain #scoped() scoped session} are not retried either: A deadlock rolls back
+ * the whole transaction and a connection failure kills the session's connection, so only the
+ * caller can retry the whole unit of work.</p> <p>After connection
+ * failures, the configured {@link ConnectionManager} is {@linkplain
+ * ConnectionManager#forceReconnect() reconnected}. Only one thread reconnects at a time, and
+ * reconnects are rate-limited, so that many failing worker threads do not all reconnect at
+ * once.</p> <p>Consecutive connection failures open a {@link CircuitBreaker}. Lock contention,
+ * such as deadlocks and lock wait timeouts, does not count towards it, since the database is
+ * reachable in that case. While the breaker is open,
+ * all statements fail fast with a {@link SqlUnavailableException} instead of blocking threads on
+ * a database that is down. Scoped sessions and batch updates are passed through unchanged.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @see ResilientSaneSqlBuilder
+ * @since 2026-10-17
+ */
+public class ResilientSaneSql implements SaneSql {
+    private static final Logger LOGGER = Logger.getLogger(ResilientSaneSql.class.getName());
+    private final SaneSql delegate;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final long deadlineNanos;
+    private final CircuitBreaker circuitBreaker;
+    private final ConnectionManager connectionManager;
+    private final long minimumReconnectIntervalNanos;
+    private final Ticker ticker;
+    private final AtomicBoolean reconnecting = new AtomicBoolean();
+    private volatile long lastReconnectNanos;
+
+    ResilientSaneSql(ResilientSaneSqlBuilder builder) {
+        this.delegate = builder.getDelegate();
+        this.maxAttempts = builder.getMaxAttempts();
+        this.initialBackoffNanos = builder.getInitialBackoffNanos();
+        this.maxBackoffNanos = builder.getMaxBackoffNanos();
+        this.deadlineNanos = builder.getDeadlineNanos();
+        this.circuitBreaker = builder.newCircuitBreaker();
+        this.connectionManager = builder.getConnectionManager();
+        this.minimumReconnectIntervalNanos = builder.getMinimumReconnectIntervalNanos();
+        this.ticker = builder.getTicker();
+        this.lastReconnectNanos = ticker.read() - minimumReconnectIntervalNanos;
+    }
+
+    @Override
+    public QueryResult query(String sqlQuery, Object... parameters) throws DatabaseException {
+        return retrying(() -> delegate.query(sqlQuery, parameters));
+    }
+
+    @Override
+    public QueryResult query(int fetchSize, String sqlQuery, Object... parameters) throws DatabaseException {
+        return retrying(() -> delegate.query(fetchSize, sqlQuery, parameters));
+    }
+
+    @Override
+    public UpdateResult update(String sqlQuery, Object... parameters) throws DatabaseException {
+        return once(() -> delegate.update(sqlQuery, parameters), null);
+    }
+
+    @Override
+    public int updateRaw(String sqlQuery, Object... parameters) throws DatabaseException {
+        return once(() -> delegate.updateRaw(sqlQuery, parameters), null);
+    }
+
+    private <T> T retrying(Supplier<T> statement) {
+        if (delegate.hasBoundSession()) {
+            return once(statement, null);
+        }
+        long deadline = ticker.read() + deadlineNanos;
+        RuntimeException lastFailure = null;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return once(statement, lastFailure);
+            } catch (SqlUnavailableException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                if (!SqlStates.isTransient(e) || attempt >= maxAttempts) {
+                    throw e;
+                }
+                lastFailure = e;
+            }
+            long backoffNanos = jitteredBackoffNanos(attempt);
+            if (ticker.read() + backoffNanos > deadline) {
+                throw lastFailure;
+            }
+            LOGGER.log(Level.FINE, "Retrying query after transient failure, attempt " + attempt, lastFailure);
+            try {
+                TimeUnit.NANOSECONDS.sleep(backoffNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw lastFailure;
+            }
+        }
+    }
+
+    private long jitteredBackoffNanos(int attempt) {
+        long backoffNanos = initialBackoffNanos << Math.min(attempt - 1, 30);
+        if (backoffNanos <= 0 || backoffNanos > maxBackoffNanos) {
+            backoffNanos = maxBackoffNanos;
+        }
+        return ThreadLocalRandom.current().nextLong(backoffNanos + 1);
+    }
+
+    private <T> T once(Supplier<T> statement, RuntimeException lastFailure) {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new SqlUnavailableException(lastFailure);
+        }
+        boolean recorded = false;
+        try {
+            T result = statement.get();
+            circuitBreaker.recordSuccess();
+            recorded = true;
+            return result;
+        } catch (RuntimeException e) {
+            recordFailure(e);
+            recorded = true;
+            throw e;
+        } finally {
+            if (!recorded) {
+                circuitBreaker.recordFailure(); //an Error must not leave a probe unanswered
+            }
+        }
+    }
+
+    private void recordFailure(RuntimeException failure) {
+        if (!SqlStates.isConnectionFailure(failure)) {
+            circuitBreaker.recordSuccess(); //the database answered, so it is up
+            return;
+        }
+        circuitBreaker.recordFailure();
+        reconnect();
+    }
+
+    private void reconnect() {
+        if (connectionManager == null || !reconnecting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = ticker.read();
+            if (now - lastReconnectNanos < minimumReconnectIntervalNanos) {
+                return;
+            }
+            lastReconnectNanos = now;
+            connectionManager.forceReconnect();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to reconnect to the database", e);
+        } finally {
+            reconnecting.set(false);
+        }
+    }
+
+    @Override
+    public RawScopedSession scoped() {
+        return delegate.scoped();
+    }
+
+    @Override
+    public boolean hasBoundSession() {
+        return delegate.hasBoundSession();
+    }
+
+    @Override
+    public BatchUpdate batch(String sqlQuery) {
+        return delegate.batch(sqlQuery);
+    }
+
+    /**
+     * @return the circuit breaker guarding the database
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    @Override
+    public void close() throws Exception {
+        delegate.close();
+    }
+}
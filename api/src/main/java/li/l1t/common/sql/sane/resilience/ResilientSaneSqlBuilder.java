@@ -0,0 +1,222 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.resilience;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import li.l1t.common.sql.sane.JdbcSaneSql;
+import li.l1t.common.sql.sane.SaneSql;
+import li.l1t.common.sql.sane.connection.ConnectionManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds {@link ResilientSaneSql} instances. Example usage:
+ * <pre>{@code
+ * SaneSql sql = ResilientSaneSqlBuilder.newBuilder(new JdbcSaneSql(connectionManager))
+ *         .maxAttempts(4)
+ *         .deadline(3, TimeUnit.SECONDS)
+ *         .build();
+ * }</pre>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public class ResilientSaneSqlBuilder {
+    private final SaneSql delegate;
+    private int maxAttempts = 3;
+    private long initialBackoffNanos = TimeUnit.MILLISECONDS.toNanos(50);
+    private long maxBackoffNanos = TimeUnit.SECONDS.toNanos(2);
+    private long deadlineNanos = TimeUnit.SECONDS.toNanos(5);
+    private int failureThreshold = 5;
+    private long openDurationNanos = TimeUnit.SECONDS.toNanos(10);
+    private long minimumReconnectIntervalNanos = TimeUnit.SECONDS.toNanos(5);
+    private ConnectionManager connectionManager;
+    private Ticker ticker = Ticker.systemTicker();
+
+    private ResilientSaneSqlBuilder(SaneSql delegate) {
+        this.delegate = delegate;
+        if (delegate instanceof JdbcSaneSql &&
+                ((JdbcSaneSql) delegate).getConnectionProvider() instanceof ConnectionManager) {
+            connectionManager = (ConnectionManager) ((JdbcSaneSql) delegate).getConnectionProvider();
+        }
+    }
+
+    /**
+     * @param delegate the SaneSql to run statements on
+     * @return a new builder with default settings
+     */
+    public static ResilientSaneSqlBuilder newBuilder(SaneSql delegate) {
+        return new ResilientSaneSqlBuilder(Preconditions.checkNotNull(delegate, "delegate"));
+    }
+
+    /**
+     * Sets the maximum number of attempts for a query, including the first one. The default is 3.
+     *
+     * @param maxAttempts the maximum number of attempts, must be positive
+     * @return this builder
+     */
+    public ResilientSaneSqlBuilder maxAttempts(int maxAttempts) {
+        Preconditions.checkArgument(maxAttempts > 0, "maxAttempts must be positive: %s", maxAttempts);
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Sets the backoff between attempts. The backoff doubles with every attempt, starting at the
+     * initial backoff and capped at the maximum backoff. The actual wait is chosen randomly between
+     * zero and that backoff, so that retries of many threads are spread out. The defaults are 50
+     * milliseconds and 2 seconds.
+     *
+     * @param initialBackoff the backoff before the second attempt
+     * @param maxBackoff     the maximum backoff
+     * @param unit           the unit of both durations
+     * @return this builder
+     */
+    public ResilientSaneSqlBuilder backoff(long initialBackoff, long maxBackoff, TimeUnit unit) {
+        this.initialBackoffNanos = toPositiveNanos(initialBackoff, unit);
+        this.maxBackoffNanos = toPositiveNanos(maxBackoff, unit);
+        Preconditions.checkArgument(initialBackoffNanos <= maxBackoffNanos,
+                "initialBackoff %s exceeds maxBackoff %s", initialBackoff, maxBackoff);
+        return this;
+    }
+
+    /**
+     * Sets the time after the first attempt at which no further attempts are started. The default
+     * is 5 seconds.
+     *
+     * @param deadline the deadline relative to the first attempt
+     * @param unit     the unit of the deadline
+     * @return this builder
+     */
+    public ResilientSaneSqlBuilder deadline(long deadline, TimeUnit unit) {
+        this.deadlineNanos = toPositiveNanos(deadline, unit);
+        return this;
+    }
+
+    /**
+     * Configures the circuit breaker that rejects statements while the database is down. Only
+     * connection failures count towards the threshold. The defaults are 5 consecutive connection
+     * failures and 10 seconds.
+     *
+     * @param failureThreshold the number of consecutive connection failures that opens the breaker
+     * @param openDuration     the time the breaker stays open before letting a probe through
+     * @param unit             the unit of the open duration
+     * @return this builder
+     */
+    public ResilientSaneSqlBuilder circuitBreaker(int failureThreshold, long openDuration, TimeUnit unit) {
+        Preconditions.checkArgument(failureThreshold > 0, "failureThreshold must be positive: %s", failureThreshold);
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = toPositiveNanos(openDuration, unit);
+        return this;
+    }
+
+    /**
+     * Sets the connection manager to {@linkplain ConnectionManager#forceReconnect() reconnect}
+     * after connection failures. By default, the manager of a {@link JdbcSaneSql} delegate is
+     * used, if any. Pooled providers replace broken connections on their own and need none.
+     *
+     * @param connectionManager the manager to reconnect, or null to never reconnect
+     * @return this builder
+     */
+    public ResilientSaneSqlBuilder connectionManager(ConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+        return this;
+    }
+
+    /**
+     * Sets the minimum time between two reconnects, so that many failing threads do not reconnect
+     * over and over. The default is 5 seconds.
+     *
+     * @param interval the minimum interval
+     * @param unit     the unit of the interval
+     * @return this builder
+     */
+    public ResilientSaneSqlBuilder minimumReconnectInterval(long interval, TimeUnit unit) {
+        this.minimumReconnectIntervalNanos = toPositiveNanos(interval, unit);
+        return this;
+    }
+
+    /**
+     * Sets the time source used for deadlines, the circuit breaker and reconnects. Mostly useful
+     * for testing. The default is {@link Ticker#systemTicker()}.
+     *
+     * @param ticker the time source, nanosecond precision
+     * @return this builder
+     */
+    public ResilientSaneSqlBuilder ticker(Ticker ticker) {
+        this.ticker = Preconditions.checkNotNull(ticker, "ticker");
+        return this;
+    }
+
+    private long toPositiveNanos(long duration, TimeUnit unit) {
+        Preconditions.checkNotNull(unit, "unit");
+        Preconditions.checkArgument(duration > 0, "duration must be positive: %s", duration);
+        return unit.toNanos(duration);
+    }
+
+    /**
+     * @return a new resilient SaneSql with the settings of this builder
+     */
+    public ResilientSaneSql build() {
+        return new ResilientSaneSql(this);
+    }
+
+    SaneSql getDelegate() {
+        return delegate;
+    }
+
+    int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    long getInitialBackoffNanos() {
+        return initialBackoffNanos;
+    }
+
+    long getMaxBackoffNanos() {
+        return maxBackoffNanos;
+    }
+
+    long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    CircuitBreaker newCircuitBreaker() {
+        return new CircuitBreaker(failureThreshold, openDurationNanos, TimeUnit.NANOSECONDS, ticker);
+    }
+
+    long getMinimumReconnectIntervalNanos() {
+        return minimumReconnectIntervalNanos;
+    }
+
+    ConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    Ticker getTicker() {
+        return ticker;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.resilience;
+
+import com.google.common.collect.ImmutableSet;
+import li.l1t.common.sql.sane.exception.SqlConnectionException;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.util.Set;
+
+/**
+ * Classifies database failures by their SQL state and vendor error code. Transient failures, such
+ * as lost connections, deadlocks and lock wait timeouts, may succeed if the statement is retried.
+ * Permanent failures, such as syntax errors or constraint violations, will fail again.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public final class SqlStates {
+    /**
+     * MySQL error codes of connection failures: server shutdown (1053), gone away (2006), lost
+     * connection (2013) and too many connections (1040).
+     */
+    private static final Set<Integer> MYSQL_CONNECTION_ERROR_CODES = ImmutableSet.of(1053, 2006, 2013, 1040);
+    /**
+     * MySQL error codes of transient failures other than connection failures: lock wait timeout
+     * (1205) and deadlock (1213).
+     */
+    private static final Set<Integer> MYSQL_TRANSIENT_ERROR_CODES = ImmutableSet.of(1205, 1213);
+
+    private SqlStates() {
+
+    }
+
+    /**
+     * @param failure the failure to classify, including its causes
+     * @return whether given failure is transient, so that retrying the failed statement may
+     * succeed
+     */
+    public static boolean isTransient(Throwable failure) {
+        if (isConnectionFailure(failure)) {
+            return true;
+        }
+        SQLException sqlException = findSqlException(failure);
+        if (sqlException == null) {
+            return false;
+        }
+        String state = sqlException.getSQLState();
+        return sqlException instanceof SQLTransientException ||
+                (state != null && (state.startsWith("40") || state.equals("HYT00"))) ||
+                MYSQL_TRANSIENT_ERROR_CODES.contains(sqlException.getErrorCode());
+    }
+
+    /**
+     * @param failure the failure to classify, including its causes
+     * @return whether given failure indicates that the connection to the database is broken, so
+     * that a reconnect may be necessary
+     */
+    public static boolean isConnectionFailure(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SqlConnectionException) {
+                return true;
+            }
+        }
+        SQLException sqlException = findSqlException(failure);
+        if (sqlException == null) {
+            return false;
+        }
+        String state = sqlException.getSQLState();
+        return sqlException instanceof SQLRecoverableException ||
+                sqlException instanceof SQLNonTransientConnectionException ||
+                sqlException instanceof SQLTransientConnectionException ||
+                (state != null && (state.startsWith("08") || state.equals("57P01"))) ||
+                MYSQL_CONNECTION_ERROR_CODES.contains(sqlException.getErrorCode());
+    }
+
+    private static SQLException findSqlException(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                return (SQLException) cause;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.result;
+
+import com.google.common.base.Preconditions;
+
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * The outcome of a batch update, fully read from the database so that it does not need to be
+ * closed.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public final class BatchResult {
+    private static final BatchResult EMPTY = new BatchResult(new int[0], new long[0]);
+    private final int[] affectedRowCounts;
+    private final long[] generatedKeys;
+
+    /**
+     * @param affectedRowCounts the number of rows affected by each parameter row, in order
+     * @param generatedKeys     the generated keys, in order, or an empty array if not requested
+     */
+    public BatchResult(int[] affectedRowCounts, long[] generatedKeys) {
+        this.affectedRowCounts = Preconditions.checkNotNull(affectedRowCounts, "affectedRowCounts").clone();
+        this.generatedKeys = Preconditions.checkNotNull(generatedKeys, "generatedKeys").clone();
+    }
+
+    /**
+     * @return the result of a batch without any rows
+     */
+    public static BatchResult empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return the number of parameter rows that were executed
+     */
+    public int getRowCount() {
+        return affectedRowCounts.length;
+    }
+
+    /**
+     * @param row the zero-based index of the parameter row
+     * @return the number of rows affected by given parameter row, according to the driver, or
+     * {@link Statement#SUCCESS_NO_INFO} if the driver does not know
+     */
+    public int getAffectedRowCount(int row) {
+        return affectedRowCounts[row];
+    }
+
+    /**
+     * @return the number of rows affected by each parameter row, in order, according to the driver
+     */
+    public int[] getAffectedRowCounts() {
+        return affectedRowCounts.clone();
+    }
+
+    /**
+     * @return the total number of affected rows, not counting parameter rows for which the driver
+     * did not report a count
+     */
+    public long getTotalAffectedRowCount() {
+        return Arrays.stream(affectedRowCounts).filter(count -> count > 0).asLongStream().sum();
+    }
+
+    /**
+     * @return the keys generated by the batch, in order, or an empty array if they were not
+     * requested. Only the first generated column is read, which is usually an auto-increment id.
+     */
+    public long[] getGeneratedKeys() {
+        return generatedKeys.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{rows=" + getRowCount() + ", affected=" + getTotalAffectedRowCount() +
+                ", generatedKeys=" + generatedKeys.length + "}";
+    }
+}
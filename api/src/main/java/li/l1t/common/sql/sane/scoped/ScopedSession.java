@@ -57,7 +57,9 @@ public interface ScopedSession<T> extends AutoCloseable {
 
     /**
      * Joins this session, starts a new transaction and ensures that the database driver does not
-     * auto-commit.
+     * auto-commit. If a transaction has already been started in an outer layer, implementations
+     * supporting savepoints start a nested transaction that can be committed or rolled back
+     * separately by this layer.
      *
      * @return this scoped session
      */
@@ -65,7 +67,8 @@ public interface ScopedSession<T> extends AutoCloseable {
 
     /**
      * Commits the managed transaction and resets the database driver's auto-commit state if
-     * changed.
+     * changed. If this layer started a nested transaction, only that nested transaction is ended
+     * and its changes are committed together with the outer transaction.
      *
      * @throws InternalException if this session has no transaction associated or there are no more
      *                           tracked references to this session
@@ -74,7 +77,8 @@ public interface ScopedSession<T> extends AutoCloseable {
 
     /**
      * Rolls back the managed transaction and resets the database driver's auto-commit state if
-     * changed.
+     * changed, then closes this layer. If this layer started a nested transaction, only the
+     * changes made since it was started are rolled back, and the outer transaction may continue.
      *
      * @throws InternalException if this session has no transaction associated or there are no more
      *                           tracked references to this session
@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.statement;
+
+import li.l1t.common.exception.DatabaseException;
+import li.l1t.common.sql.sane.result.BatchResult;
+
+/**
+ * Collects parameter rows for a single SQL update statement and sends them to the database in
+ * batches, which saves a round trip per row compared to issuing each update on its own. Rows are
+ * flushed in chunks of a configurable size, each using a single {@link
+ * java.sql.PreparedStatement#executeBatch()} call. <p>Note that chunks are committed one by one if
+ * the connection is in auto-commit mode. If a chunk fails, chunks sent before it are therefore
+ * not rolled back, unless the batch runs inside a transaction.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @see li.l1t.common.sql.sane.SaneSql#batch(String)
+ * @since 2026-10-17
+ */
+public interface BatchUpdate {
+    /**
+     * Sets the maximum number of rows sent with a single {@code executeBatch} call. The default is
+     * 500.
+     *
+     * @param chunkSize the maximum number of rows per round trip, must be positive
+     * @return this builder
+     */
+    BatchUpdate chunkSize(int chunkSize);
+
+    /**
+     * Requests the keys generated by the database to be included in the result.
+     *
+     * @return this builder
+     */
+    BatchUpdate returnGeneratedKeys();
+
+    /**
+     * Adds a row of parameters for the {@code ?} placeholders of the statement, in order.
+     *
+     * @param parameters the parameters of the row
+     * @return this builder
+     */
+    BatchUpdate add(Object... parameters);
+
+    /**
+     * @return the number of rows added since the last execution
+     */
+    int size();
+
+    /**
+     * Sends all added rows to the database and removes them from this builder, so that it may be
+     * reused for further rows. Does nothing if no rows have been added.
+     *
+     * @return the outcome of the batch
+     * @throws DatabaseException if an error occurs communicating with the database
+     */
+    BatchResult execute() throws DatabaseException;
+}
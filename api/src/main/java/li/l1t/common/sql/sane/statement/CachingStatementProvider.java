@@ -0,0 +1,375 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.statement;
+
+import com.google.common.base.Preconditions;
+import li.l1t.common.sql.sane.exception.SqlStatementException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Provides prepared statements of a single connection, keeping the most recently used ones open
+ * for reuse, keyed by their SQL text. This saves the database from parsing and planning the same
+ * statements over and over, and the client from allocating them. <p>Statements handed out by this
+ * provider are owned by the caller until they are {@linkplain PreparedStatement#close() closed}.
+ * Closing them closes their current result set, clears their parameters and pending batch, resets
+ * limits such as the maximum rows and query timeout, and returns them to the cache instead of
+ * actually closing them. Statements on which other statement options were changed, such as the
+ * cursor name, are closed instead. If a statement is requested while the cached statement for the
+ * same SQL text is in use, for example in nested queries, an uncached statement is prepared. The
+ * connection and result sets obtained from a statement refer back to the handed-out statement, so
+ * that closing them never closes the cached one.</p> <p>Since JDBC connections
+ * are not meant to be used concurrently, neither is this provider. Methods are synchronized only
+ * to keep the cache consistent if statements are closed from another thread.</p>
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public class CachingStatementProvider implements StatementProvider, AutoCloseable {
+    private final Connection connection;
+    private final int maximumSize;
+    private final StatementCacheStats stats;
+    private final LinkedHashMap<String, CachedStatement> cache = new LinkedHashMap<>(16, 0.75F, true);
+    private boolean closed;
+
+    /**
+     * @param connection  the connection to prepare statements on
+     * @param maximumSize the maximum number of statements to keep open
+     */
+    public CachingStatementProvider(Connection connection, int maximumSize) {
+        this(connection, maximumSize, new StatementCacheStats());
+    }
+
+    /**
+     * @param connection  the connection to prepare statements on
+     * @param maximumSize the maximum number of statements to keep open
+     * @param stats       the statistics to record requests to, may be shared between providers
+     */
+    public CachingStatementProvider(Connection connection, int maximumSize, StatementCacheStats stats) {
+        Preconditions.checkArgument(maximumSize > 0, "maximumSize must be positive: %s", maximumSize);
+        this.connection = Preconditions.checkNotNull(connection, "connection");
+        this.maximumSize = maximumSize;
+        this.stats = Preconditions.checkNotNull(stats, "stats");
+    }
+
+    @Override
+    public PreparedStatement create(String sql, Object... parameters) {
+        try {
+            PreparedStatement statement = prepare(sql);
+            try {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+            } catch (SQLException e) {
+                statement.close();
+                throw e;
+            }
+            return statement;
+        } catch (SQLException e) {
+            throw new SqlStatementException(e);
+        }
+    }
+
+    /**
+     * Gets the cached statement for given SQL text if it is not in use, or prepares a new one.
+     *
+     * @param sql the query string for the database
+     * @return a statement owned by the caller until it is closed
+     * @throws SQLException if the statement cannot be prepared
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return prepare(sql, connection);
+    }
+
+    /**
+     * Gets the cached statement for given SQL text if it is not in use, or prepares a new one.
+     *
+     * @param sql   the query string for the database
+     * @param owner the connection returned by {@link Statement#getConnection()} of the statement,
+     *              for example a wrapper of the actual connection
+     * @return a statement owned by the caller until it is closed
+     * @throws SQLException if the statement cannot be prepared
+     */
+    public synchronized PreparedStatement prepare(String sql, Connection owner) throws SQLException {
+        Preconditions.checkNotNull(sql, "sql");
+        Preconditions.checkNotNull(owner, "owner");
+        Preconditions.checkState(!closed, "statement provider has been closed");
+        CachedStatement cached = cache.get(sql);
+        if (cached != null && !cached.inUse) {
+            stats.recordHit();
+            cached.inUse = true;
+            return cached.lease(owner);
+        }
+        stats.recordMiss();
+        CachedStatement prepared = new CachedStatement(sql, connection.prepareStatement(sql));
+        prepared.inUse = true;
+        if (cached == null) {
+            cache.put(sql, prepared);
+            evictExcess();
+        } else {
+            prepared.cached = false;
+        }
+        return prepared.lease(owner);
+    }
+
+    private void evictExcess() {
+        Iterator<CachedStatement> iterator = cache.values().iterator();
+        while (cache.size() > maximumSize && iterator.hasNext()) {
+            CachedStatement eldest = iterator.next();
+            iterator.remove();
+            eldest.cached = false;
+            stats.recordEviction();
+            if (!eldest.inUse) {
+                eldest.closeQuietly();
+            }
+        }
+    }
+
+    private synchronized void release(CachedStatement statement) {
+        statement.inUse = false;
+        if (statement.cached && (closed || statement.unresettable)) {
+            cache.remove(statement.sql);
+            statement.cached = false;
+        }
+        if (!statement.cached) {
+            statement.closeQuietly();
+            return;
+        }
+        try {
+            ResultSet resultSet = statement.statement.getResultSet();
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            statement.statement.clearParameters();
+            statement.statement.clearBatch();
+            statement.restoreLimits();
+        } catch (SQLException e) {
+            cache.remove(statement.sql);
+            statement.cached = false;
+            statement.closeQuietly();
+        }
+    }
+
+    /**
+     * @return the statistics of this provider
+     */
+    public StatementCacheStats stats() {
+        return stats;
+    }
+
+    /**
+     * @return the number of statements currently cached
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    /**
+     * Closes all cached statements that are not in use. Statements that are in use are closed once
+     * they are released. Does not close the connection.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (Map.Entry<String, CachedStatement> entry : cache.entrySet()) {
+            entry.getValue().cached = false;
+            if (!entry.getValue().inUse) {
+                entry.getValue().closeQuietly();
+            }
+        }
+        cache.clear();
+    }
+
+    private class CachedStatement {
+        private final String sql;
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean cached = true;
+        private boolean unresettable;
+        private boolean limitsChanged;
+        private int[] defaultLimits;
+
+        private CachedStatement(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        private PreparedStatement lease(Connection owner) {
+            return (PreparedStatement) Proxy.newProxyInstance(CachingStatementProvider.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new Lease(owner));
+        }
+
+        /**
+         * Called before a statement option is changed through a lease, remembering the original
+         * limits the first time, or marking the statement unresettable for options other than
+         * limits.
+         */
+        private void beforeOptionChange(String setter) throws SQLException {
+            switch (setter) {
+                case "setMaxRows":
+                case "setQueryTimeout":
+                case "setFetchDirection":
+                case "setFetchSize":
+                case "setMaxFieldSize":
+                    if (defaultLimits == null) {
+                        defaultLimits = new int[]{statement.getMaxRows(), statement.getQueryTimeout(),
+                                statement.getFetchDirection(), statement.getFetchSize(), statement.getMaxFieldSize()};
+                    }
+                    limitsChanged = true;
+                    break;
+                default:
+                    unresettable = true;
+            }
+        }
+
+        private void restoreLimits() throws SQLException {
+            if (limitsChanged) {
+                statement.setMaxRows(defaultLimits[0]);
+                statement.setQueryTimeout(defaultLimits[1]);
+                statement.setFetchDirection(defaultLimits[2]);
+                statement.setFetchSize(defaultLimits[3]);
+                statement.setMaxFieldSize(defaultLimits[4]);
+                limitsChanged = false;
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+                //we are discarding it anyways
+            }
+        }
+
+        private class Lease implements InvocationHandler {
+            private final Connection owner;
+            private boolean released;
+
+            private Lease(Connection owner) {
+                this.owner = owner;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!released) {
+                            released = true;
+                            release(CachedStatement.this);
+                        }
+                        return null;
+                    case "isClosed":
+                        return released || statement.isClosed();
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "Cached[" + statement + "]";
+                    case "isWrapperFor":
+                        return ((Class<?>) args[0]).isInstance(proxy);
+                    case "unwrap":
+                        return unwrapProxy(proxy, (Class<?>) args[0]);
+                    default:
+                        break;
+                }
+                if (released) {
+                    throw new SQLException("Statement has already been returned to the cache");
+                }
+                if (method.getName().equals("getConnection")) {
+                    return owner;
+                }
+                if (isOptionSetter(method)) {
+                    beforeOptionChange(method.getName());
+                }
+                Object result;
+                try {
+                    result = method.invoke(statement, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                return result instanceof ResultSet ? wrap((ResultSet) result, (Statement) proxy) : result;
+            }
+        }
+    }
+
+    /**
+     * @return whether given method changes an option of the statement itself, as opposed to
+     * setting a parameter, which always takes the parameter index first
+     */
+    private static boolean isOptionSetter(Method method) {
+        if (method.getName().equals("closeOnCompletion")) {
+            return true;
+        }
+        return method.getName().startsWith("set") && method.getDeclaringClass() == Statement.class;
+    }
+
+    /**
+     * Only ever unwraps to given proxy itself, since callers could otherwise close the cached
+     * statement or keep using it after returning it to the cache.
+     */
+    private static Object unwrapProxy(Object proxy, Class<?> iface) throws SQLException {
+        if (iface.isInstance(proxy)) {
+            return proxy;
+        }
+        throw new SQLException("Cached statements cannot be unwrapped to " + iface.getName());
+    }
+
+    private static ResultSet wrap(ResultSet resultSet, Statement owner) {
+        return (ResultSet) Proxy.newProxyInstance(CachingStatementProvider.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getStatement":
+                            return owner;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "isWrapperFor":
+                            return ((Class<?>) args[0]).isInstance(proxy);
+                        case "unwrap":
+                            return unwrapProxy(proxy, (Class<?>) args[0]);
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(resultSet, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class BoundedCacheTest {
+    @Test
+    void maximumSize__neverExceeded() {
+        //given
+        ConcurrentMapCache<Integer, Integer> cache = givenBoundedCache(EvictionPolicy.WINDOW_TINY_LFU, 100);
+        //when
+        IntStream.range(0, 1_000).forEach(i -> cache.cache(i, i));
+        //then
+        assertThat(cache.estimatedSize(), is(lessThanOrEqualTo(100L)));
+    }
+
+    private ConcurrentMapCache<Integer, Integer> givenBoundedCache(EvictionPolicy policy, int maximumSize) {
+        return ConcurrentCacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .evictionPolicy(policy)
+                .buildMapCache();
+    }
+
+    @Test
+    void tinyLfu__scanDoesNotEvictHotEntries() {
+        //given
+        ConcurrentMapCache<Integer, Integer> cache = givenBoundedCache(EvictionPolicy.WINDOW_TINY_LFU, 100);
+        givenHotKeysWereReadOften(cache);
+        //when
+        IntStream.range(1_000, 2_000).forEach(i -> cache.cache(i, i));
+        //then
+        assertThat(countCachedHotKeys(cache), is(50L));
+    }
+
+    private void givenHotKeysWereReadOften(ConcurrentMapCache<Integer, Integer> cache) {
+        IntStream.range(0, 50).forEach(i -> cache.cache(i, i));
+        for (int round = 0; round < 20; round++) {
+            IntStream.range(0, 50).forEach(cache::get);
+        }
+    }
+
+    private long countCachedHotKeys(ConcurrentMapCache<Integer, Integer> cache) {
+        return IntStream.range(0, 50).filter(cache::containsKey).count();
+    }
+
+    @Test
+    void lru__scanEvictsHotEntries() {
+        //given
+        ConcurrentMapCache<Integer, Integer> cache = givenBoundedCache(EvictionPolicy.LRU, 100);
+        givenHotKeysWereReadOften(cache);
+        //when
+        IntStream.range(1_000, 2_000).forEach(i -> cache.cache(i, i));
+        //then
+        assertThat(countCachedHotKeys(cache), is(0L));
+    }
+
+    @Test
+    void weigher__boundsTotalWeight() {
+        //given
+        ConcurrentMapCache<String, String> cache = ConcurrentCacheBuilder.newBuilder()
+                .maximumWeight(64)
+                .weigher((String key, String value) -> value.length())
+                .buildMapCache();
+        //when
+        IntStream.range(0, 100).forEach(i -> cache.cache("key" + i, "sixteen-chars-xx"));
+        //then
+        assertThat(cache.estimatedSize(), is(lessThanOrEqualTo(4L)));
+    }
+
+    @Test
+    void weigher__requiresMaximumWeight() {
+        //given
+        ConcurrentCacheBuilder<String, String> builder = ConcurrentCacheBuilder.newBuilder()
+                .weigher((String key, String value) -> value.length());
+        //when, then
+        assertThrows(IllegalStateException.class, builder::buildMapCache);
+    }
+
+    @Test
+    void weigher__rejectsMaximumSizeInEitherOrder() {
+        assertThrows(IllegalStateException.class, () -> ConcurrentCacheBuilder.newBuilder()
+                .maximumSize(64)
+                .weigher((String key, String value) -> value.length()));
+        assertThrows(IllegalStateException.class, () -> ConcurrentCacheBuilder.newBuilder()
+                .weigher((String key, String value) -> value.length())
+                .maximumSize(64));
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class CacheSnapshotTest {
+    private final ConcurrentMapCacheTest.FakeTicker ticker = new ConcurrentMapCacheTest.FakeTicker();
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("cache", ".snapshot");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void loadSnapshot__keepsRemainingLifetime() throws IOException {
+        //given
+        ConcurrentMapCache<UUID, String> original = givenCache();
+        UUID older = UUID.randomUUID();
+        UUID newer = UUID.randomUUID();
+        original.cache(older, "older");
+        ticker.advance(6, TimeUnit.SECONDS);
+        original.cache(newer, "newer");
+        ticker.advance(2, TimeUnit.SECONDS);
+        original.saveSnapshot(file, CacheCodec.uuid(), CacheCodec.string());
+        ConcurrentMapCache<UUID, String> restored = givenCache();
+        //when
+        int count = restored.loadSnapshot(file, CacheCodec.uuid(), CacheCodec.string());
+        ticker.advance(3, TimeUnit.SECONDS);
+        //then
+        assertThat(count, is(2));
+        assertThat(restored.get(older), is(Optional.empty()));
+        assertThat(restored.get(newer), is(Optional.of("newer")));
+    }
+
+    private ConcurrentMapCache<UUID, String> givenCache() {
+        return ConcurrentCacheBuilder.newBuilder()
+                .expireAfterWrite(10, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .buildMapCache();
+    }
+
+    @Test
+    void loadSnapshot__doesNotOverwriteNewerMappings() throws IOException {
+        //given
+        ConcurrentMapCache<UUID, String> original = givenCache();
+        UUID key = UUID.randomUUID();
+        original.cache(key, "old");
+        original.saveSnapshot(file, CacheCodec.uuid(), CacheCodec.string());
+        ConcurrentMapCache<UUID, String> restored = givenCache();
+        restored.cache(key, "new");
+        //when
+        int count = restored.loadSnapshot(file, CacheCodec.uuid(), CacheCodec.string());
+        //then
+        assertThat(count, is(0));
+        assertThat(restored.get(key), is(Optional.of("new")));
+    }
+
+    @Test
+    void idCache__roundTripsWithoutKeys() throws IOException {
+        //given
+        ConcurrentIdCache<Integer, String> original = givenIdCache();
+        original.cache("four");
+        original.cache("three");
+        original.saveSnapshot(file, CacheCodec.string());
+        ConcurrentIdCache<Integer, String> restored = givenIdCache();
+        //when
+        restored.loadSnapshot(file, CacheCodec.string());
+        //then
+        assertThat(restored.get(4), is(Optional.of("four")));
+        assertThat(restored.get(5), is(Optional.of("three")));
+    }
+
+    private ConcurrentIdCache<Integer, String> givenIdCache() {
+        return ConcurrentCacheBuilder.newBuilder()
+                .ticker(ticker)
+                .buildIdCache(String::length);
+    }
+
+    @Test
+    void loadSnapshot__rejectsSnapshotOfOtherCacheKind() throws IOException {
+        //given
+        givenIdCache().saveSnapshot(file, CacheCodec.string());
+        ConcurrentMapCache<UUID, String> cache = givenCache();
+        //when
+        //then
+        assertThrows(IOException.class, () -> cache.loadSnapshot(file, CacheCodec.uuid(), CacheCodec.string()));
+    }
+
+    @Test
+    void loadSnapshot__missingFileRestoresNothing() throws IOException {
+        //given
+        Files.delete(file);
+        //when
+        int count = givenCache().loadSnapshot(file, CacheCodec.uuid(), CacheCodec.string());
+        //then
+        assertThat(count, is(0));
+    }
+}
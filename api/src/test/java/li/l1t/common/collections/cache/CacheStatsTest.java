@@ -0,0 +1,167 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class CacheStatsTest {
+    private final ConcurrentMapCacheTest.FakeTicker ticker = new ConcurrentMapCacheTest.FakeTicker();
+
+    @Test
+    void stats__hitsMissesAndLoads() {
+        //given
+        MapCache<String, Integer> cache = givenRecordingCache();
+        //when
+        cache.getOrCompute("one", key -> {
+            ticker.advance(3, TimeUnit.MILLISECONDS);
+            return 1;
+        });
+        cache.get("one");
+        cache.get("two");
+        assertThrows(IllegalStateException.class, () -> cache.getOrCompute("two", key -> {
+            throw new IllegalStateException("load failed");
+        }));
+        //then
+        CacheStats stats = cache.stats();
+        assertThat(stats.getHitCount(), is(1L));
+        assertThat(stats.getMissCount(), is(3L));
+        assertThat(stats.getLoadSuccessCount(), is(1L));
+        assertThat(stats.getLoadFailureCount(), is(1L));
+        assertThat(stats.getTotalLoadTime(TimeUnit.MILLISECONDS), is(3L));
+        assertThat(stats.getHitRate(), is(0.25D));
+    }
+
+    @Test
+    void stats__bulkLoadCountsAsSingleLoad() {
+        //given
+        MapCache<String, Integer> cache = givenRecordingCache();
+        cache.cache("one", 1);
+        //when
+        cache.getOrComputeAll(Arrays.asList("one", "two", "three"), keys -> {
+            ticker.advance(5, TimeUnit.MILLISECONDS);
+            Map<String, Integer> loaded = new HashMap<>();
+            keys.forEach(key -> loaded.put(key, key.length()));
+            return loaded;
+        });
+        assertThrows(IllegalStateException.class, () -> cache.getOrComputeAll(Collections.singleton("four"), keys -> {
+            throw new IllegalStateException("load failed");
+        }));
+        //then
+        CacheStats stats = cache.stats();
+        assertThat(stats.getHitCount(), is(1L));
+        assertThat(stats.getMissCount(), is(3L));
+        assertThat(stats.getLoadSuccessCount(), is(1L));
+        assertThat(stats.getLoadFailureCount(), is(1L));
+        assertThat(stats.getTotalLoadTime(TimeUnit.MILLISECONDS), is(5L));
+    }
+
+    private ConcurrentMapCache<String, Integer> givenRecordingCache() {
+        return ConcurrentCacheBuilder.newBuilder()
+                .expireAfterWrite(10, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .recordStats()
+                .buildMapCache();
+    }
+
+    @Test
+    void stats__evictionsByCause() {
+        //given
+        ConcurrentMapCache<Integer, Integer> cache = ConcurrentCacheBuilder.newBuilder()
+                .maximumSize(64)
+                .concurrencyLevel(1)
+                .expireAfterWrite(10, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .recordStats()
+                .buildMapCache();
+        IntStream.range(0, 100).forEach(i -> cache.cache(i, i));
+        //when
+        ticker.advance(10, TimeUnit.SECONDS);
+        cache.cleanUp();
+        //then
+        CacheStats stats = cache.stats();
+        assertThat(stats.getEvictionCount(EvictionCause.SIZE), is(36L));
+        assertThat(stats.getEvictionCount(EvictionCause.EXPIRED), is(64L));
+        assertThat(stats.getEvictionCount(), is(100L));
+    }
+
+    @Test
+    void stats__absentHitsOfOptionalCache() {
+        //given
+        OptionalCache<String, Integer> cache = ConcurrentCacheBuilder.newBuilder()
+                .recordStats()
+                .buildOptionalCache();
+        cache.cacheValue("present", 1);
+        cache.cacheAbsence("absent");
+        //when
+        cache.get("present");
+        cache.get("absent");
+        cache.getOptionally("absent");
+        //then
+        CacheStats stats = cache.stats();
+        assertThat(stats.getPresentHitCount(), is(1L));
+        assertThat(stats.getAbsentHitCount(), is(2L));
+    }
+
+    @Test
+    void minus__deltaSinceEarlierSnapshot() {
+        //given
+        MapCache<String, Integer> cache = givenRecordingCache();
+        cache.get("one");
+        CacheStats earlier = cache.stats();
+        //when
+        cache.cache("one", 1);
+        cache.get("one");
+        CacheStats delta = cache.stats().minus(earlier);
+        //then
+        assertThat(delta.getHitCount(), is(1L));
+        assertThat(delta.getMissCount(), is(0L));
+        assertThat(earlier.plus(delta), is(cache.stats()));
+    }
+
+    @Test
+    void stats__emptyIfNotRecording() {
+        //given
+        MapCache<String, Integer> cache = ConcurrentCacheBuilder.newBuilder().buildMapCache();
+        //when
+        cache.get("one");
+        //then
+        assertThat(cache.stats(), is(CacheStats.empty()));
+    }
+}
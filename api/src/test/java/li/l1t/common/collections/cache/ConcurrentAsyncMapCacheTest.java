@@ -0,0 +1,156 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class ConcurrentAsyncMapCacheTest {
+    @Test
+    void getOrComputeAsync__hitCompletesImmediately() {
+        //given
+        ConcurrentAsyncMapCache<String, String> cache = givenCache();
+        cache.synchronous().cache("key", "value");
+        QueueingExecutor executor = new QueueingExecutor();
+        //when
+        CompletableFuture<String> future = cache.getOrComputeAsync("key", key -> "other", executor);
+        //then
+        assertThat(future.isDone(), is(true));
+        assertThat(future.join(), is("value"));
+        assertThat(executor.queued(), is(0));
+    }
+
+    private ConcurrentAsyncMapCache<String, String> givenCache() {
+        return ConcurrentCacheBuilder.newBuilder().buildAsyncMapCache();
+    }
+
+    @Test
+    void getOrComputeAsync__pendingMissesAreDeduplicated() {
+        //given
+        ConcurrentAsyncMapCache<String, String> cache = givenCache();
+        QueueingExecutor executor = new QueueingExecutor();
+        AtomicInteger invocations = new AtomicInteger();
+        //when
+        CompletableFuture<String> first = cache.getOrComputeAsync("key", key -> {
+            invocations.incrementAndGet();
+            return "value";
+        }, executor);
+        CompletableFuture<String> second = cache.getOrComputeAsync("key", key -> "other", executor);
+        CompletableFuture<Optional<String>> lookup = cache.getAsync("key");
+        executor.runAll();
+        //then
+        assertThat(first.join(), is("value"));
+        assertThat(second.join(), is("value"));
+        assertThat(lookup.join(), is(Optional.of("value")));
+        assertThat(invocations.get(), is(1));
+        assertThat(cache.synchronous().get("key"), is(Optional.of("value")));
+        assertThat(cache.getPendingCount(), is(0));
+    }
+
+    @Test
+    void getOrComputeAsync__failureIsPropagatedAndNotCached() {
+        //given
+        ConcurrentAsyncMapCache<String, String> cache = givenCache();
+        QueueingExecutor executor = new QueueingExecutor();
+        //when
+        CompletableFuture<String> future = cache.getOrComputeAsync("key", key -> {
+            throw new IllegalArgumentException("load failed");
+        }, executor);
+        executor.runAll();
+        //then
+        ExecutionException thrown = assertThrows(ExecutionException.class, future::get);
+        assertThat(thrown.getCause(), is(instanceOf(IllegalArgumentException.class)));
+        assertThat(cache.synchronous().containsKey("key"), is(false));
+        assertThat(cache.getPendingCount(), is(0));
+    }
+
+    @Test
+    void invalidateKey__discardsPendingResult() {
+        //given
+        ConcurrentAsyncMapCache<String, String> cache = givenCache();
+        QueueingExecutor executor = new QueueingExecutor();
+        CompletableFuture<String> future = cache.getOrComputeAsync("key", key -> "stale", executor);
+        //when
+        cache.invalidateKey("key");
+        executor.runAll();
+        //then
+        assertThat(future.join(), is("stale"));
+        assertThat(cache.synchronous().containsKey("key"), is(false));
+    }
+
+    @Test
+    void synchronous__getOrComputeJoinsPendingComputation() {
+        //given
+        ConcurrentAsyncMapCache<String, String> cache = givenCache();
+        QueueingExecutor executor = new QueueingExecutor();
+        cache.getOrComputeAsync("key", key -> "async", executor);
+        //when
+        CompletableFuture<String> syncResult = CompletableFuture.supplyAsync(
+                () -> cache.synchronous().getOrCompute("key", key -> "sync"));
+        executor.runAll();
+        //then
+        assertThat(syncResult.join(), is("async"));
+    }
+
+    private static class QueueingExecutor implements Executor {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public synchronized void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        synchronized int queued() {
+            return tasks.size();
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = poll()) != null) {
+                task.run();
+            }
+        }
+
+        private synchronized Runnable poll() {
+            return tasks.poll();
+        }
+    }
+}
@@ -0,0 +1,400 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import com.google.common.base.Ticker;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class ConcurrentMapCacheTest {
+    private final FakeTicker ticker = new FakeTicker();
+
+    @Test
+    void get__cached() {
+        //given
+        MapCache<String, Integer> cache = givenWriteExpiringCache();
+        //when
+        cache.cache("one", 1);
+        //then
+        assertThat(cache.get("one"), is(Optional.of(1)));
+        assertThat(cache.containsKey("one"), is(true));
+    }
+
+    private ConcurrentMapCache<String, Integer> givenWriteExpiringCache() {
+        return ConcurrentCacheBuilder.newBuilder()
+                .expireAfterWrite(10, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .buildMapCache();
+    }
+
+    @Test
+    void get__writeExpired() {
+        //given
+        MapCache<String, Integer> cache = givenWriteExpiringCache();
+        cache.cache("one", 1);
+        //when
+        ticker.advance(10, TimeUnit.SECONDS);
+        //then
+        assertThat(cache.get("one"), is(Optional.empty()));
+        assertThat(cache.containsKey("one"), is(false));
+    }
+
+    @Test
+    void get__rewriteResetsExpiry() {
+        //given
+        MapCache<String, Integer> cache = givenWriteExpiringCache();
+        cache.cache("one", 1);
+        ticker.advance(6, TimeUnit.SECONDS);
+        //when
+        cache.cache("one", 2);
+        ticker.advance(6, TimeUnit.SECONDS);
+        //then
+        assertThat(cache.get("one"), is(Optional.of(2)));
+    }
+
+    @Test
+    void get__accessExtendsLifetime() {
+        //given
+        MapCache<String, Integer> cache = ConcurrentCacheBuilder.newBuilder()
+                .expireAfterAccess(10, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .buildMapCache();
+        cache.cache("read", 1);
+        cache.cache("idle", 2);
+        //when
+        ticker.advance(6, TimeUnit.SECONDS);
+        cache.get("read");
+        ticker.advance(6, TimeUnit.SECONDS);
+        //then
+        assertThat(cache.get("read"), is(Optional.of(1)));
+        assertThat(cache.get("idle"), is(Optional.empty()));
+    }
+
+    @Test
+    void cleanUp__removesExpired() {
+        //given
+        ConcurrentMapCache<String, Integer> cache = givenWriteExpiringCache();
+        cache.cache("old", 1);
+        ticker.advance(6, TimeUnit.SECONDS);
+        cache.cache("new", 2);
+        ticker.advance(6, TimeUnit.SECONDS);
+        //when
+        cache.cleanUp();
+        //then
+        assertThat(cache.estimatedSize(), is(1L));
+        assertThat(cache.keyStream().collect(Collectors.toList()), containsInAnyOrder("new"));
+    }
+
+    @Test
+    void write__cleansUpExpiredInStripe() {
+        //given
+        ConcurrentMapCache<String, Integer> cache = ConcurrentCacheBuilder.newBuilder()
+                .expireAfterWrite(10, TimeUnit.SECONDS)
+                .concurrencyLevel(1)
+                .ticker(ticker)
+                .buildMapCache();
+        cache.cache("old", 1);
+        ticker.advance(10, TimeUnit.SECONDS);
+        //when
+        cache.cache("new", 2);
+        //then
+        assertThat(cache.estimatedSize(), is(1L));
+    }
+
+    @Test
+    void getOrCompute__missComputes() {
+        //given
+        MapCache<String, Integer> cache = givenWriteExpiringCache();
+        //when
+        Integer value = cache.getOrCompute("four", String::length);
+        //then
+        assertThat(value, is(4));
+        assertThat(cache.get("four"), is(Optional.of(4)));
+    }
+
+    @Test
+    void getOrCompute__hitDoesNotCompute() {
+        //given
+        MapCache<String, Integer> cache = givenWriteExpiringCache();
+        cache.cache("four", 5);
+        //when
+        Integer value = cache.getOrCompute("four", String::length);
+        //then
+        assertThat(value, is(5));
+    }
+
+    @Test
+    void clear__removesAll() {
+        //given
+        MapCache<String, Integer> cache = givenWriteExpiringCache();
+        cache.cache("one", 1);
+        cache.cache("two", 2);
+        //when
+        cache.clear();
+        //then
+        assertThat(cache.entryStream().count(), is(0L));
+    }
+
+    @Test
+    void entryStream__parallelSkipsExpired() {
+        //given
+        ConcurrentMapCache<String, Integer> cache = givenWriteExpiringCache();
+        IntStream.range(0, 5_000).forEach(i -> cache.cache("old" + i, 1));
+        ticker.advance(5, TimeUnit.SECONDS);
+        IntStream.range(0, 10_000).forEach(i -> cache.cache("new" + i, 2));
+        ticker.advance(5, TimeUnit.SECONDS);
+        //when
+        long sum = cache.valueStream().parallel().mapToLong(Integer::longValue).sum();
+        //then
+        assertThat(sum, is(20_000L));
+        assertThat(cache.keyStream().spliterator().trySplit() != null, is(true));
+    }
+
+    @Test
+    void entryStream__toleratesConcurrentWrites() {
+        //given
+        ConcurrentMapCache<String, Integer> cache = givenWriteExpiringCache();
+        IntStream.range(0, 1_000).forEach(i -> cache.cache("key" + i, i));
+        //when
+        long count = cache.keyStream()
+                .filter(key -> !key.endsWith("-copy"))
+                .peek(key -> cache.cache(key + "-copy", 0))
+                .peek(cache::invalidateKey)
+                .count();
+        //then
+        assertThat(count, is(1_000L));
+    }
+
+    @Test
+    void idCache__mapsById() {
+        //given
+        IdCache<Integer, String> cache = ConcurrentCacheBuilder.newBuilder()
+                .ticker(ticker)
+                .buildIdCache(String::length);
+        //when
+        cache.cache("four");
+        //then
+        assertThat(cache.get(4), is(Optional.of("four")));
+        assertThat(cache.containsValue("four"), is(true));
+        assertThat(cache.containsValue("five"), is(false));
+    }
+
+    @Test
+    void getOrComputeAll__loadsOnlyMissesInOneCall() {
+        //given
+        MapCache<String, Integer> cache = givenWriteExpiringCache();
+        cache.cache("one", 1);
+        List<Set<String>> loaderCalls = new ArrayList<>();
+        //when
+        Map<String, Integer> result = cache.getOrComputeAll(Arrays.asList("one", "two", "three", "four"), keys -> {
+            loaderCalls.add(new HashSet<>(keys));
+            Map<String, Integer> loaded = new HashMap<>();
+            loaded.put("two", 2);
+            loaded.put("three", 3);
+            return loaded;
+        });
+        //then
+        assertThat(loaderCalls, is(Collections.singletonList(new HashSet<>(Arrays.asList("two", "three", "four")))));
+        assertThat(new ArrayList<>(result.keySet()), is(Arrays.asList("one", "two", "three")));
+        assertThat(cache.get("three"), is(Optional.of(3)));
+        assertThat(cache.containsKey("four"), is(false));
+    }
+
+    @Test
+    void idCache__getOrComputeAllCachesById() {
+        //given
+        IdCache<Integer, String> cache = ConcurrentCacheBuilder.newBuilder()
+                .ticker(ticker)
+                .buildIdCache(String::length);
+        cache.cache("four");
+        //when
+        Map<Integer, String> result = cache.getOrComputeAll(Arrays.asList(3, 4, 5), ids -> {
+            Map<Integer, String> loaded = new HashMap<>();
+            loaded.put(3, "one");
+            loaded.put(5, "seven");
+            return loaded;
+        });
+        //then
+        assertThat(result.get(3), is("one"));
+        assertThat(result.get(4), is("four"));
+        assertThat(cache.get(5), is(Optional.of("seven")));
+    }
+
+    @Test
+    void optionalCache__absence() {
+        //given
+        OptionalCache<String, Integer> cache = ConcurrentCacheBuilder.newBuilder()
+                .ticker(ticker)
+                .buildOptionalCache();
+        //when
+        cache.cacheAbsence("none");
+        //then
+        assertThat(cache.containsKey("none"), is(true));
+        assertThat(cache.getOptionally("none"), is(Optional.empty()));
+    }
+
+    @Test
+    void optionalCache__absenceExpiresSeparately() {
+        //given
+        OptionalCache<String, Integer> cache = ConcurrentCacheBuilder.newBuilder()
+                .expireAfterWrite(10, TimeUnit.SECONDS)
+                .expireAbsenceAfterWrite(1, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .buildOptionalCache();
+        cache.cacheValue("present", 1);
+        cache.cacheAbsence("absent");
+        //when
+        ticker.advance(1, TimeUnit.SECONDS);
+        //then
+        assertThat(cache.containsKey("absent"), is(false));
+        assertThat(cache.getOptionally("present"), is(Optional.of(1)));
+    }
+
+    @Test
+    void optionalCache__absenceBoundDoesNotEvictValues() {
+        //given
+        ConcurrentOptionalCache<Integer, Integer> cache = ConcurrentCacheBuilder.newBuilder()
+                .maximumSize(100)
+                .maximumAbsenceSize(32)
+                .buildOptionalCache();
+        IntStream.range(0, 50).forEach(i -> cache.cacheValue(i, i));
+        //when
+        IntStream.range(1_000, 2_000).forEach(cache::cacheAbsence);
+        //then
+        assertThat(IntStream.range(0, 50).filter(cache::containsKey).count(), is(50L));
+        assertThat(cache.estimatedAbsenceSize(), is(lessThanOrEqualTo(32L)));
+    }
+
+    @Test
+    void optionalCache__valueReplacesAbsence() {
+        //given
+        OptionalCache<String, Integer> cache = ConcurrentCacheBuilder.newBuilder()
+                .ticker(ticker)
+                .buildOptionalCache();
+        cache.cacheAbsence("key");
+        //when
+        cache.cacheValue("key", 1);
+        //then
+        assertThat(cache.get("key"), is(Optional.of(Optional.of(1))));
+        assertThat(cache.entryStream().count(), is(1L));
+    }
+
+    @Test
+    void optionalCache__concurrentValueAndAbsenceWritesLeaveOneMapping() throws Exception {
+        //given
+        OptionalCache<String, Integer> cache = ConcurrentCacheBuilder.newBuilder()
+                .ticker(ticker)
+                .buildOptionalCache();
+        CompletableFuture<Void> absenceWriter = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                cache.cacheAbsence("key");
+            }
+        });
+        //when
+        for (int i = 0; i < 10_000; i++) {
+            cache.cacheValue("key", i);
+        }
+        absenceWriter.get(10, TimeUnit.SECONDS);
+        //then
+        assertThat(cache.entryStream().count(), is(1L));
+        assertThat(cache.getOrCompute("key", key -> Optional.of(-1)), is(cache.getOptionally("key")));
+    }
+
+    @Test
+    void getOrCompute__refreshServesStaleValueAndReloadsInBackground() {
+        //given
+        List<Runnable> refreshTasks = new ArrayList<>();
+        MapCache<String, Integer> cache = givenRefreshingCache(refreshTasks);
+        cache.cache("one", 1);
+        ticker.advance(6, TimeUnit.SECONDS);
+        //when
+        Integer stale = cache.getOrCompute("one", key -> 2);
+        cache.getOrCompute("one", key -> 3);
+        refreshTasks.forEach(Runnable::run);
+        //then
+        assertThat(stale, is(1));
+        assertThat(refreshTasks.size(), is(1));
+        assertThat(cache.get("one"), is(Optional.of(2)));
+    }
+
+    private ConcurrentMapCache<String, Integer> givenRefreshingCache(List<Runnable> refreshTasks) {
+        return ConcurrentCacheBuilder.newBuilder()
+                .expireAfterWrite(10, TimeUnit.SECONDS)
+                .refreshAfterWrite(5, TimeUnit.SECONDS, refreshTasks::add)
+                .ticker(ticker)
+                .buildMapCache();
+    }
+
+    @Test
+    void getOrCompute__refreshDoesNotOverwriteNewerValue() {
+        //given
+        List<Runnable> refreshTasks = new ArrayList<>();
+        MapCache<String, Integer> cache = givenRefreshingCache(refreshTasks);
+        cache.cache("one", 1);
+        ticker.advance(6, TimeUnit.SECONDS);
+        cache.getOrCompute("one", key -> 2);
+        //when
+        cache.cache("one", 1);
+        refreshTasks.forEach(Runnable::run);
+        //then
+        assertThat(cache.get("one"), is(Optional.of(1)));
+    }
+
+    static class FakeTicker extends Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void advance(long duration, TimeUnit unit) {
+            nanos.addAndGet(unit.toNanos(duration));
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class SingleFlightLoadingTest {
+    private static final int CALLERS = 8;
+
+    @Test
+    void getOrCompute__concurrentMissesComputeOnce() throws Exception {
+        //given
+        ConcurrentMapCache<String, String> cache = givenSingleFlightCache();
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        //when
+        List<Future<String>> results = runConcurrently(() -> cache.getOrCompute("key", key -> {
+            invocations.incrementAndGet();
+            awaitQuietly(release);
+            return "value";
+        }), release);
+        //then
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS), is("value"));
+        }
+        assertThat(invocations.get(), is(1));
+        assertThat(cache.get("key").orElse(null), is("value"));
+    }
+
+    private ConcurrentMapCache<String, String> givenSingleFlightCache() {
+        return ConcurrentCacheBuilder.newBuilder()
+                .singleFlightLoading()
+                .buildMapCache();
+    }
+
+    private List<Future<String>> runConcurrently(Callable<String> task,
+                                                 CountDownLatch release) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(task));
+            }
+            Thread.sleep(100L);
+            release.countDown();
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void getOrCompute__waitersRethrowLoadFailure() throws Exception {
+        //given
+        ConcurrentMapCache<String, String> cache = givenSingleFlightCache();
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        //when
+        List<Future<String>> results = runConcurrently(() -> cache.getOrCompute("key", key -> {
+            invocations.incrementAndGet();
+            awaitQuietly(release);
+            throw new IllegalArgumentException("load failed");
+        }), release);
+        //then
+        for (Future<String> result : results) {
+            ExecutionException thrown = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertThat(thrown.getCause(), is(instanceOf(IllegalArgumentException.class)));
+        }
+        assertThat(invocations.get(), is(1));
+        assertThat(cache.containsKey("key"), is(false));
+    }
+
+    @Test
+    void getOrCompute__recursiveLoadOfSameKeyFails() {
+        //given
+        ConcurrentMapCache<String, String> cache = givenSingleFlightCache();
+        //when
+        //then
+        assertThrows(IllegalStateException.class,
+                () -> cache.getOrCompute("key", key -> cache.getOrCompute(key, inner -> "value")));
+    }
+
+    @Test
+    void getOrCompute__optionalCacheWaitersSeeCachedAbsence() throws Exception {
+        //given
+        ConcurrentOptionalCache<Integer, String> cache = ConcurrentCacheBuilder.newBuilder()
+                .singleFlightLoading()
+                .buildOptionalCache();
+        AtomicInteger invocations = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            //when
+            for (int key = 0; key < 200; key++) {
+                int currentKey = key;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Optional<String>>> results = new ArrayList<>();
+                for (int i = 0; i < CALLERS; i++) {
+                    results.add(executor.submit(() -> {
+                        awaitQuietly(start);
+                        return cache.getOrCompute(currentKey, ignored -> {
+                            invocations.incrementAndGet();
+                            return Optional.empty();
+                        });
+                    }));
+                }
+                start.countDown();
+                for (Future<Optional<String>> result : results) {
+                    assertThat(result.get(5, TimeUnit.SECONDS), is(Optional.empty()));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        //then
+        assertThat(invocations.get(), is(200));
+    }
+
+    @Test
+    void getOrCompute__idCacheComputesOnce() throws Exception {
+        //given
+        ConcurrentIdCache<String, String> cache = ConcurrentCacheBuilder.newBuilder()
+                .singleFlightLoading()
+                .buildIdCache(value -> value);
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        //when
+        List<Future<String>> results = runConcurrently(() -> cache.getOrCompute("key", key -> {
+            invocations.incrementAndGet();
+            awaitQuietly(release);
+            return key;
+        }), release);
+        //then
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS), is("key"));
+        }
+        assertThat(invocations.get(), is(1));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class TwoLevelIdCacheTest {
+    private final ConcurrentMapCacheTest.FakeTicker ticker = new ConcurrentMapCacheTest.FakeTicker();
+    private final TwoLevelIdCache<Integer, String> cache = ConcurrentCacheBuilder.newBuilder()
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .ticker(ticker)
+            .recordStats()
+            .buildTwoLevelIdCache(String::length, 16, 1, TimeUnit.SECONDS);
+
+    @Test
+    void get__repeatedLookupHitsNearCache() {
+        //given
+        cache.cache("one");
+        //when
+        cache.get(3);
+        cache.get(3);
+        //then
+        assertThat(cache.nearStats().getHitCount(), is(1L));
+        assertThat(cache.nearStats().getMissCount(), is(1L));
+        assertThat(cache.sharedStats().getHitCount(), is(1L));
+        assertThat(cache.stats().getHitCount(), is(2L));
+    }
+
+    @Test
+    void invalidateKey__fromOtherThreadReachesNearCache() {
+        //given
+        cache.cache("one");
+        cache.get(3);
+        //when
+        CompletableFuture.runAsync(() -> cache.invalidateKey(3)).join();
+        //then
+        assertThat(cache.get(3), is(Optional.empty()));
+    }
+
+    @Test
+    void cache__fromOtherThreadReplacesNearMapping() {
+        //given
+        cache.cache("one");
+        cache.get(3);
+        //when
+        CompletableFuture.runAsync(() -> cache.cache("two")).join();
+        //then
+        assertThat(cache.get(3), is(Optional.of("two")));
+    }
+
+    @Test
+    void getOrCompute__doesNotNearCacheValueWithOtherId() {
+        //given
+        cache.getOrCompute(3, id -> "four");
+        //when
+        cache.invalidateKey(4);
+        //then
+        assertThat(cache.getOrCompute(3, id -> "two"), is("two"));
+    }
+
+    @Test
+    void build__rejectsMissingNearExpiryUnit() {
+        assertThrows(NullPointerException.class, () -> ConcurrentCacheBuilder.newBuilder()
+                .buildTwoLevelIdCache(String::length, 16, 1, null));
+    }
+
+    @Test
+    void clear__dropsNearMappings() {
+        //given
+        cache.cache("one");
+        cache.get(3);
+        //when
+        cache.clear();
+        //then
+        assertThat(cache.get(3), is(Optional.empty()));
+    }
+
+    @Test
+    void get__nearMappingExpiresBeforeSharedMapping() {
+        //given
+        cache.cache("one");
+        cache.get(3);
+        //when
+        ticker.advance(2, TimeUnit.SECONDS);
+        cache.get(3);
+        //then
+        assertThat(cache.nearStats().getHitCount(), is(0L));
+        assertThat(cache.sharedStats().getHitCount(), is(2L));
+    }
+}
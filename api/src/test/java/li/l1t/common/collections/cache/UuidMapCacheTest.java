@@ -0,0 +1,209 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class UuidMapCacheTest {
+    private final ConcurrentMapCacheTest.FakeTicker ticker = new ConcurrentMapCacheTest.FakeTicker();
+
+    @Test
+    void cache__behavesLikeHashMapUnderRandomOperations() {
+        //given
+        UuidMapCache<Integer> cache = new UuidMapCache<>();
+        Map<UUID, Integer> expected = new HashMap<>();
+        List<UUID> keys = givenKeys(500);
+        Random random = new Random(42L);
+        //when
+        for (int i = 0; i < 20_000; i++) {
+            UUID key = keys.get(random.nextInt(keys.size()));
+            if (random.nextInt(3) == 0) {
+                cache.invalidateKey(key);
+                expected.remove(key);
+            } else {
+                cache.cache(key, i);
+                expected.put(key, i);
+            }
+        }
+        //then
+        for (UUID key : keys) {
+            assertThat(cache.get(key), is(Optional.ofNullable(expected.get(key))));
+        }
+        assertThat(cache.estimatedSize(), is((long) expected.size()));
+        assertThat(cache.entryStream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)), is(expected));
+    }
+
+    private List<UUID> givenKeys(int count) {
+        Random random = new Random(1337L);
+        return IntStream.range(0, count)
+                .mapToObj(i -> new UUID(random.nextLong(), random.nextLong()))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void entryStream__parallelTraversesAllMappings() {
+        //given
+        UuidIntCache cache = new UuidIntCache();
+        givenKeys(5_000).forEach(key -> cache.cacheInt(key, 1));
+        //when
+        long sum = cache.valueStream().parallel().mapToLong(Integer::longValue).sum();
+        //then
+        assertThat(sum, is(5_000L));
+    }
+
+    @Test
+    void entryStream__toleratesConcurrentWrites() {
+        //given
+        UuidMapCache<Integer> cache = new UuidMapCache<>();
+        List<UUID> keys = givenKeys(100);
+        keys.forEach(key -> cache.cache(key, 1));
+        //when
+        long count = cache.keyStream()
+                .peek(key -> givenKeys(10).forEach(other -> cache.cache(new UUID(other.getLeastSignificantBits(), key.getMostSignificantBits()), 2)))
+                .count();
+        //then
+        assertThat(count >= 100L, is(true));
+    }
+
+    @Test
+    void get__writeExpired() {
+        //given
+        UuidMapCache<String> cache = new UuidMapCache<>(TimeUnit.SECONDS.toNanos(10), ticker);
+        UUID key = UUID.randomUUID();
+        cache.cache(key, "value");
+        //when
+        ticker.advance(10, TimeUnit.SECONDS);
+        //then
+        assertThat(cache.get(key), is(Optional.empty()));
+        cache.cleanUp();
+        assertThat(cache.estimatedSize(), is(0L));
+    }
+
+    @Test
+    void growth__removesExpiredFirst() {
+        //given
+        UuidMapCache<Integer> cache = new UuidMapCache<>(TimeUnit.SECONDS.toNanos(10), ticker);
+        givenKeys(10).forEach(key -> cache.cache(key, 1));
+        ticker.advance(10, TimeUnit.SECONDS);
+        //when
+        List<UUID> fresh = givenKeys(20).subList(10, 20);
+        fresh.forEach(key -> cache.cache(key, 2));
+        //then
+        assertThat(cache.estimatedSize(), is(10L));
+        fresh.forEach(key -> assertThat(cache.get(key), is(Optional.of(2))));
+    }
+
+    @Test
+    void builder__uuidCacheUsesWriteExpiryAndTicker() {
+        //given
+        UuidMapCache<String> cache = ConcurrentCacheBuilder.newBuilder()
+                .expireAfterWrite(1, TimeUnit.MINUTES)
+                .ticker(ticker)
+                .buildUuidMapCache();
+        UUID key = UUID.randomUUID();
+        cache.cache(key, "value");
+        //when
+        ticker.advance(2, TimeUnit.MINUTES);
+        //then
+        assertThat(cache.get(key), is(Optional.empty()));
+    }
+
+    @Test
+    void builder__uuidCacheRejectsUnsupportedSettings() {
+        //given
+        ConcurrentCacheBuilder<Object, Object> builder = ConcurrentCacheBuilder.newBuilder().maximumSize(10);
+        //when, then
+        assertThrows(IllegalStateException.class, builder::buildUuidIntCache);
+        assertThrows(IllegalStateException.class, ConcurrentCacheBuilder.newBuilder().recordStats()::buildUuidMapCache);
+    }
+
+    @Test
+    void intCache__addAndGet() {
+        //given
+        UuidIntCache cache = new UuidIntCache();
+        UUID key = UUID.randomUUID();
+        //when
+        cache.addAndGet(key, 5);
+        int result = cache.addAndGet(key, -2);
+        //then
+        assertThat(result, is(3));
+        assertThat(cache.getInt(key, -1), is(3));
+        assertThat(cache.get(key), is(Optional.of(3)));
+        assertThat(cache.getInt(UUID.randomUUID(), -1), is(-1));
+    }
+
+    @Test
+    void intCache__invalidateKeepsCollidingKeysReachable() {
+        //given
+        UuidIntCache cache = new UuidIntCache();
+        List<UUID> keys = givenKeys(1_000);
+        IntStream.range(0, keys.size()).forEach(i -> cache.cacheInt(keys.get(i), i));
+        //when
+        IntStream.range(0, keys.size()).filter(i -> i % 2 == 0).forEach(i -> cache.invalidateKey(keys.get(i)));
+        //then
+        for (int i = 0; i < keys.size(); i++) {
+            assertThat(cache.getInt(keys.get(i), -1), is(i % 2 == 0 ? -1 : i));
+        }
+    }
+
+    @Test
+    void intCache__getSeesStableMappingsWhileTableGrows() throws Exception {
+        //given
+        UuidIntCache cache = new UuidIntCache();
+        List<UUID> stable = givenKeys(100);
+        stable.forEach(key -> cache.cacheInt(key, 7));
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(
+                () -> IntStream.range(0, 50_000).forEach(i -> cache.cacheInt(UUID.randomUUID(), 1)));
+        //when
+        boolean allFound = true;
+        while (!writer.isDone()) {
+            for (UUID key : stable) {
+                allFound &= cache.get(key).equals(Optional.of(7)) && cache.containsKey(key);
+            }
+        }
+        writer.get(10, TimeUnit.SECONDS);
+        //then
+        assertThat(allFound, is(true));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache.invalidation;
+
+import li.l1t.common.collections.cache.ConcurrentCacheBuilder;
+import li.l1t.common.collections.cache.MapCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class InvalidationBusTest {
+    private final LoopbackInvalidationTransport localTransport = new LoopbackInvalidationTransport();
+    private final InvalidationBus localBus = new InvalidationBus(localTransport);
+    private final InvalidationBus remoteBus = new InvalidationBus(localTransport.newPeer());
+
+    @Test
+    void bind__invalidateKeyReachesRemoteCacheWithTick() {
+        //given
+        MapCache<Integer, String> local = givenBoundCache(localBus);
+        MapCache<Integer, String> remote = givenBoundCache(remoteBus);
+        local.cache(1, "one");
+        remote.cache(1, "one");
+        //when
+        local.invalidateKey(1);
+        localBus.tick();
+        boolean cachedBeforeRemoteTick = remote.containsKey(1);
+        remoteBus.tick();
+        //then
+        assertThat(cachedBeforeRemoteTick, is(true));
+        assertThat(remote.containsKey(1), is(false));
+    }
+
+    private MapCache<Integer, String> givenBoundCache(InvalidationBus bus) {
+        return bus.bind("test", ConcurrentCacheBuilder.newBuilder().buildMapCache(),
+                String::valueOf, Integer::valueOf);
+    }
+
+    @Test
+    void tick__coalescesDuplicateKeys() {
+        //given
+        List<Invalidation> received = givenRemoteListener();
+        //when
+        localBus.publish("test", "a");
+        localBus.publish("test", "b");
+        localBus.publish("test", "a");
+        tickBoth();
+        //then
+        assertThat(received, contains(Invalidation.ofKey("test", "a"), Invalidation.ofKey("test", "b")));
+    }
+
+    private List<Invalidation> givenRemoteListener() {
+        List<Invalidation> received = new ArrayList<>();
+        remoteBus.subscribe("test", received::add);
+        return received;
+    }
+
+    private void tickBoth() {
+        localBus.tick();
+        remoteBus.tick();
+    }
+
+    @Test
+    void tick__allSupersedesKeys() {
+        //given
+        List<Invalidation> received = givenRemoteListener();
+        //when
+        localBus.publish("test", "a");
+        localBus.publishAll("test");
+        localBus.publish("test", "b");
+        tickBoth();
+        //then
+        assertThat(received, contains(Invalidation.ofAll("test")));
+    }
+
+    @Test
+    void tick__doesNotEchoOwnInvalidations() {
+        //given
+        List<Invalidation> ownReceived = new ArrayList<>();
+        localBus.subscribe("test", ownReceived::add);
+        //when
+        localBus.publish("test", "a");
+        tickBoth();
+        localBus.tick();
+        //then
+        assertThat(ownReceived, is(empty()));
+    }
+
+    @Test
+    void tick__failedSendIsRetried() {
+        //given
+        FlakyTransport transport = new FlakyTransport();
+        InvalidationBus bus = new InvalidationBus(transport);
+        bus.publish("test", "a");
+        //when
+        bus.tick();
+        int pendingAfterFailure = bus.getPendingCount();
+        bus.tick();
+        //then
+        assertThat(pendingAfterFailure, is(1));
+        assertThat(transport.sent, contains(Invalidation.ofKey("test", "a")));
+    }
+
+    private static class FlakyTransport implements InvalidationTransport {
+        private final List<Invalidation> sent = new ArrayList<>();
+        private boolean failNext = true;
+
+        @Override
+        public void send(Collection<Invalidation> batch) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("simulated outage");
+            }
+            sent.addAll(batch);
+        }
+
+        @Override
+        public Collection<Invalidation> receive() {
+            return new ArrayList<>();
+        }
+    }
+}
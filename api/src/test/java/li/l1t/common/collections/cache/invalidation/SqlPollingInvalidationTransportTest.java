@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache.invalidation;
+
+import li.l1t.common.sql.sane.FakeDatabase;
+import li.l1t.common.sql.sane.JdbcSaneSql;
+import li.l1t.common.sql.sane.connection.ConnectionPoolBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class SqlPollingInvalidationTransportTest {
+    private static final String[] COLUMNS = {"id", "origin", "channel", "item_key"};
+    private static final String SELECT = "SELECT id, origin, channel, item_key FROM invalidation WHERE id > ?";
+    private final FakeDatabase database = new FakeDatabase();
+    private final JdbcSaneSql sql = new JdbcSaneSql(ConnectionPoolBuilder.newBuilder(database).build());
+
+    @Test
+    void receive__readsLateCommittedLowerId() {
+        //given
+        SqlPollingInvalidationTransport transport = givenTransportAt(1L, 1, TimeUnit.MINUTES);
+        database.givenRows(SELECT + " ORDER BY id", COLUMNS, row(2L, "a"), row(4L, "c"));
+        transport.receive();
+        database.givenRows(SELECT + " OR id IN (?) ORDER BY id", COLUMNS, row(3L, "b"), row(5L, "d"));
+        //when
+        Collection<Invalidation> received = transport.receive();
+        //then
+        assertThat(received, contains(Invalidation.ofKey("test", "b"), Invalidation.ofKey("test", "d")));
+        assertThat(transport.getGapCount(), is(0));
+    }
+
+    @Test
+    void receive__doesNotReportRowsTwice() {
+        //given
+        SqlPollingInvalidationTransport transport = givenTransportAt(1L, 1, TimeUnit.MINUTES);
+        database.givenRows(SELECT + " ORDER BY id", COLUMNS, row(2L, "a"), row(4L, "c"));
+        transport.receive();
+        database.givenRows(SELECT + " OR id IN (?) ORDER BY id", COLUMNS, row(2L, "a"), row(4L, "c"));
+        //when
+        Collection<Invalidation> received = transport.receive();
+        //then
+        assertThat(received, is(empty()));
+        assertThat(transport.getGapCount(), is(1));
+    }
+
+    @Test
+    void receive__forgetsTimedOutGaps() {
+        //given
+        SqlPollingInvalidationTransport transport = givenTransportAt(1L, 0, TimeUnit.MILLISECONDS);
+        database.givenRows(SELECT + " ORDER BY id", COLUMNS, row(3L, "b"));
+        transport.receive();
+        //when
+        sleepPastTimeout();
+        transport.receive();
+        //then
+        assertThat(database.getExecutedStatements().get(database.getExecutedStatements().size() - 1),
+                is(SELECT + " ORDER BY id"));
+    }
+
+    private SqlPollingInvalidationTransport givenTransportAt(long maxId, long gapTimeout, TimeUnit unit) {
+        database.givenRows("SELECT MAX(id) FROM invalidation", new String[]{"max"}, new Object[]{maxId});
+        SqlPollingInvalidationTransport transport = new SqlPollingInvalidationTransport(sql, "invalidation",
+                gapTimeout, unit);
+        assertThat(transport.receive(), is(empty()));
+        return transport;
+    }
+
+    private Object[] row(long id, String key) {
+        return new Object[]{id, "other-node", "test", key};
+    }
+
+    private void sleepPastTimeout() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
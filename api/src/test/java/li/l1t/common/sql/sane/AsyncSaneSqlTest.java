@@ -0,0 +1,167 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane;
+
+import li.l1t.common.sql.sane.connection.ConnectionPoolBuilder;
+import li.l1t.common.sql.sane.connection.PooledConnectionProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class AsyncSaneSqlTest {
+    private static final String SELECT = "SELECT name FROM player";
+    private final FakeDatabase database = new FakeDatabase();
+    private final PooledConnectionProvider pool = ConnectionPoolBuilder.newBuilder(database)
+            .minimumSize(0)
+            .maximumSize(1)
+            .build();
+    private final BlockingQueue<Runnable> mainThreadTasks = new LinkedBlockingQueue<>();
+    private final Executor mainThread = mainThreadTasks::add;
+    private final AsyncSaneSql async = AsyncSaneSql.sizedToPool(new JdbcSaneSql(pool), pool, mainThread);
+
+    @AfterEach
+    void tearDown() {
+        async.close();
+        pool.close();
+    }
+
+    @Test
+    void queryAsync__mapsOnWorkerThread() throws Exception {
+        //given
+        database.givenRows(SELECT, new String[]{"name"}, new Object[]{"chris"}, new Object[]{"xxyy"});
+        //when
+        String threadName = async.queryAsync(SELECT, rs -> Thread.currentThread().getName())
+                .get(5, TimeUnit.SECONDS);
+        //then
+        assertThat(threadName, startsWith("SaneSql-async-"));
+        assertThat(database.getOpenConnectionCount(), is(1));
+    }
+
+    @Test
+    void queryAsync__returnsMappedRows() throws Exception {
+        //given
+        database.givenRows(SELECT, new String[]{"name"}, new Object[]{"chris"}, new Object[]{"xxyy"});
+        //when
+        List<String> names = async.queryAsync(SELECT, rs -> {
+            List<String> result = new ArrayList<>();
+            while (rs.next()) {
+                result.add(rs.getString("name"));
+            }
+            return result;
+        }).get(5, TimeUnit.SECONDS);
+        //then
+        assertThat(names, contains("chris", "xxyy"));
+    }
+
+    @Test
+    void updateRawAsync__executesStatement() throws Exception {
+        //given
+        String update = "UPDATE player SET name = ? WHERE id = ?";
+        //when
+        int affected = async.updateRawAsync(update, "chris", 5).get(5, TimeUnit.SECONDS);
+        //then
+        assertThat(affected, is(1));
+        assertThat(database.getExecutedStatements(), contains(update));
+    }
+
+    @Test
+    void onMainThread__completesOnMainExecutor() throws Exception {
+        //given
+        CompletableFuture<Integer> future = async.updateRawAsync("DELETE FROM player");
+        CompletableFuture<Integer> bridged = async.onMainThread(future);
+        Runnable mainThreadTask = mainThreadTasks.poll(5, TimeUnit.SECONDS);
+        //when
+        boolean doneBeforeMainThreadTick = bridged.isDone();
+        mainThreadTask.run();
+        //then
+        assertThat(doneBeforeMainThreadTick, is(false));
+        assertThat(bridged.getNow(null), is(1));
+    }
+
+    @Test
+    void onMainThread__failsWhenMainExecutorRejects() throws Exception {
+        //given
+        AsyncSaneSql disabledAsync = new AsyncSaneSql(new JdbcSaneSql(pool), 1, 1, task -> {
+            throw new IllegalStateException("plugin is disabled");
+        });
+        //when
+        CompletableFuture<Integer> bridged = disabledAsync.onMainThread(CompletableFuture.completedFuture(1));
+        //then
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> bridged.get(5, TimeUnit.SECONDS));
+        assertThat(thrown.getCause(), is(instanceOf(IllegalStateException.class)));
+        disabledAsync.close();
+    }
+
+    @Test
+    void callAsync__rejectsWhenQueueFull() throws Exception {
+        //given
+        AsyncSaneSql tinyAsync = new AsyncSaneSql(new JdbcSaneSql(pool), 1, 1, mainThread);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        tinyAsync.callAsync(sql -> {
+            started.countDown();
+            return awaitQuietly(release);
+        });
+        started.await(5, TimeUnit.SECONDS);
+        tinyAsync.callAsync(sql -> true);
+        //when
+        CompletableFuture<Boolean> rejected = tinyAsync.callAsync(sql -> true);
+        //then
+        ExecutionException thrown = assertThrows(ExecutionException.class, rejected::get);
+        assertThat(thrown.getCause(), is(instanceOf(RejectedExecutionException.class)));
+        release.countDown();
+        tinyAsync.close();
+    }
+
+    private boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane;
+
+import li.l1t.common.sql.sane.connection.ConnectionFactory;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A minimal in-memory stand-in for a JDBC database, built from dynamic proxies. Queries return
+ * rows configured in advance, updates affect one row each and generate ascending keys. All
+ * executed statements are recorded for assertions.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public class FakeDatabase implements ConnectionFactory {
+    private final Map<String, Rows> rowsBySql = new ConcurrentHashMap<>();
+    private final List<String> executedStatements = Collections.synchronizedList(new ArrayList<>());
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> transactionEvents = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger createdConnectionCount = new AtomicInteger();
+    private final AtomicInteger openConnectionCount = new AtomicInteger();
+    private final AtomicLong nextKey = new AtomicLong(1);
+
+    /**
+     * Configures the rows returned by given query.
+     *
+     * @param sql     the exact query text
+     * @param columns the column labels of the rows
+     * @param rows    the rows, each containing a value per column
+     */
+    public void givenRows(String sql, String[] columns, Object[]... rows) {
+        rowsBySql.put(sql, new Rows(columns, Arrays.asList(rows)));
+    }
+
+    @Override
+    public Connection createConnection() {
+        createdConnectionCount.incrementAndGet();
+        openConnectionCount.incrementAndGet();
+        return proxy(Connection.class, new FakeConnection()::handle);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(FakeDatabase.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "Fake" + type.getSimpleName();
+                        default:
+                            Object result = handler.handle(proxy, method.getName(), args == null ? new Object[0] : args);
+                            return result == null ? defaultValue(method.getReturnType()) : result;
+                    }
+                }));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type.isPrimitive() && type != void.class) {
+            throw new UnsupportedOperationException("no default for " + type);
+        }
+        return null;
+    }
+
+    public List<String> getExecutedStatements() {
+        return executedStatements;
+    }
+
+    public List<Integer> getBatchSizes() {
+        return batchSizes;
+    }
+
+    /**
+     * @return the transaction control calls made on any connection, such as {@code commit} or
+     * {@code autoCommit=false}, in order
+     */
+    public List<String> getTransactionEvents() {
+        return transactionEvents;
+    }
+
+    public int getCreatedConnectionCount() {
+        return createdConnectionCount.get();
+    }
+
+    public int getOpenConnectionCount() {
+        return openConnectionCount.get();
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Object proxy, String method, Object[] args) throws Exception;
+    }
+
+    private static class Rows {
+        private final String[] columns;
+        private final List<Object[]> values;
+
+        private Rows(String[] columns, List<Object[]> values) {
+            this.columns = columns;
+            this.values = values;
+        }
+    }
+
+    private class FakeConnection {
+        private boolean closed;
+        private boolean autoCommit = true;
+        private int savepointCount;
+
+        Object handle(Object proxy, String method, Object[] args) {
+            switch (method) {
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, new FakeStatement(proxy, (String) args[0])::handle);
+                case "getAutoCommit":
+                    return autoCommit;
+                case "setAutoCommit":
+                    if (autoCommit != (Boolean) args[0]) {
+                        autoCommit = (Boolean) args[0];
+                        transactionEvents.add("autoCommit=" + autoCommit);
+                    }
+                    return null;
+                case "commit":
+                    transactionEvents.add(method);
+                    return null;
+                case "rollback":
+                    transactionEvents.add(args.length == 0 ? method : "rollback to " + savepointId(args[0]));
+                    return null;
+                case "setSavepoint":
+                    int id = ++savepointCount;
+                    transactionEvents.add("savepoint " + id);
+                    return proxy(Savepoint.class, (savepoint, savepointMethod, savepointArgs) ->
+                            savepointMethod.equals("getSavepointId") ? id : null);
+                case "releaseSavepoint":
+                    transactionEvents.add("release " + savepointId(args[0]));
+                    return null;
+                case "isReadOnly":
+                    return false;
+                case "getTransactionIsolation":
+                    return Connection.TRANSACTION_READ_COMMITTED;
+                case "isValid":
+                    return !closed;
+                case "isClosed":
+                    return closed;
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        openConnectionCount.decrementAndGet();
+                    }
+                    return null;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private static int savepointId(Object savepoint) {
+        try {
+            return ((Savepoint) savepoint).getSavepointId();
+        } catch (SQLException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private class FakeStatement {
+        private final Object connection;
+        private final String sql;
+        private final Map<Integer, Object> parameters = new HashMap<>();
+        private final List<Map<Integer, Object>> batch = new ArrayList<>();
+        private ResultSet resultSet;
+        private ResultSet generatedKeys;
+        private int fetchSize;
+        private boolean closed;
+
+        private FakeStatement(Object connection, String sql) {
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        Object handle(Object proxy, String method, Object[] args) throws Exception {
+            if (method.startsWith("set") && args.length == 2 && args[0] instanceof Integer) {
+                parameters.put((Integer) args[0], args[1]);
+                return null;
+            }
+            switch (method) {
+                case "clearParameters":
+                    parameters.clear();
+                    return null;
+                case "executeQuery":
+                    executedStatements.add(sql);
+                    Rows rows = rowsBySql.getOrDefault(sql, new Rows(new String[0], Collections.emptyList()));
+                    resultSet = proxy(ResultSet.class, new FakeResultSet(proxy, rows)::handle);
+                    return resultSet;
+                case "executeUpdate":
+                    executedStatements.add(sql);
+                    generatedKeys = keysResultSet(proxy, 1);
+                    return 1;
+                case "addBatch":
+                    batch.add(new HashMap<>(parameters));
+                    return null;
+                case "executeBatch":
+                    executedStatements.add(sql);
+                    batchSizes.add(batch.size());
+                    int[] counts = new int[batch.size()];
+                    Arrays.fill(counts, 1);
+                    generatedKeys = keysResultSet(proxy, batch.size());
+                    batch.clear();
+                    return counts;
+                case "getGeneratedKeys":
+                    return generatedKeys;
+                case "getResultSet":
+                    return resultSet;
+                case "setFetchSize":
+                    fetchSize = (Integer) args[0];
+                    return null;
+                case "getFetchSize":
+                    return fetchSize;
+                case "getConnection":
+                    return connection;
+                case "isClosed":
+                    return closed;
+                case "close":
+                    closed = true;
+                    return null;
+                default:
+                    return null;
+            }
+        }
+
+        private ResultSet keysResultSet(Object statement, int count) {
+            Object[][] keys = new Object[count][];
+            for (int i = 0; i < count; i++) {
+                keys[i] = new Object[]{nextKey.getAndIncrement()};
+            }
+            return proxy(ResultSet.class, new FakeResultSet(statement, new Rows(new String[]{"id"}, Arrays.asList(keys)))::handle);
+        }
+    }
+
+    private static class FakeResultSet {
+        private final Object statement;
+        private final Rows rows;
+        private int position = -1;
+        private int fetchSize;
+        private boolean closed;
+
+        private FakeResultSet(Object statement, Rows rows) {
+            this.statement = statement;
+            this.rows = rows;
+        }
+
+        Object handle(Object proxy, String method, Object[] args) {
+            switch (method) {
+                case "next":
+                    return ++position < rows.values.size();
+                case "getObject":
+                case "getString":
+                case "getLong":
+                case "getInt":
+                    return convert(method, valueOf(args[0]));
+                case "setFetchSize":
+                    fetchSize = (Integer) args[0];
+                    return null;
+                case "getFetchSize":
+                    return fetchSize;
+                case "getStatement":
+                    return statement;
+                case "isClosed":
+                    return closed;
+                case "close":
+                    closed = true;
+                    return null;
+                default:
+                    return null;
+            }
+        }
+
+        private Object valueOf(Object column) {
+            Object[] row = rows.values.get(position);
+            if (column instanceof Integer) {
+                return row[(Integer) column - 1];
+            }
+            return row[Arrays.asList(rows.columns).indexOf(column)];
+        }
+
+        private Object convert(String method, Object value) {
+            switch (method) {
+                case "getString":
+                    return value == null ? null : String.valueOf(value);
+                case "getLong":
+                    return value == null ? 0L : ((Number) value).longValue();
+                case "getInt":
+                    return value == null ? 0 : ((Number) value).intValue();
+                default:
+                    return value;
+            }
+        }
+    }
+}
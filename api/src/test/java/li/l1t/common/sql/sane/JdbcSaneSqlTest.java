@@ -0,0 +1,245 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane;
+
+import li.l1t.common.sql.sane.connection.ConnectionPoolBuilder;
+import li.l1t.common.sql.sane.connection.PooledConnectionProvider;
+import li.l1t.common.sql.sane.result.BatchResult;
+import li.l1t.common.sql.sane.result.QueryResult;
+import li.l1t.common.sql.sane.result.UpdateResult;
+import li.l1t.common.sql.sane.scoped.RawScopedSession;
+import li.l1t.common.sql.sane.statement.BatchUpdate;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class JdbcSaneSqlTest {
+    private static final String INSERT = "INSERT INTO position (player, x) VALUES (?, ?)";
+    private static final String SELECT_X = "SELECT x FROM position";
+    private final FakeDatabase database = new FakeDatabase();
+    private final PooledConnectionProvider pool = ConnectionPoolBuilder.newBuilder(database)
+            .minimumSize(0)
+            .maximumSize(1)
+            .build();
+    private final JdbcSaneSql sql = new JdbcSaneSql(pool);
+
+    @Test
+    void batch__flushesInChunks() {
+        //given
+        BatchUpdate batch = givenBatchOfFive().chunkSize(2);
+        //when
+        BatchResult result = batch.execute();
+        //then
+        assertThat(database.getBatchSizes(), contains(2, 2, 1));
+        assertThat(result.getRowCount(), is(5));
+        assertThat(result.getTotalAffectedRowCount(), is(5L));
+        assertThat(result.getGeneratedKeys().length, is(0));
+    }
+
+    private BatchUpdate givenBatchOfFive() {
+        BatchUpdate batch = sql.batch(INSERT);
+        for (int i = 0; i < 5; i++) {
+            batch.add("player" + i, i);
+        }
+        return batch;
+    }
+
+    @Test
+    void batch__returnsGeneratedKeysOfAllChunks() {
+        //given
+        BatchUpdate batch = givenBatchOfFive().chunkSize(3).returnGeneratedKeys();
+        //when
+        BatchResult result = batch.execute();
+        //then
+        assertThat(result.getGeneratedKeys(), is(new long[]{1, 2, 3, 4, 5}));
+    }
+
+    @Test
+    void batch__defaultRunsRowsAsSingleUpdates() {
+        //given
+        SaneSql minimal = new MinimalSaneSql(sql);
+        BatchUpdate batch = minimal.batch(INSERT).returnGeneratedKeys();
+        batch.add("player0", 0);
+        batch.add("player1", 1);
+        //when
+        BatchResult result = batch.execute();
+        //then
+        assertThat(database.getExecutedStatements(), contains(INSERT, INSERT));
+        assertThat(database.getBatchSizes(), is(empty()));
+        assertThat(result.getAffectedRowCounts(), is(new int[]{1, 1}));
+        assertThat(result.getGeneratedKeys(), is(new long[]{1, 2}));
+    }
+
+    /**
+     * Implements only the abstract methods of SaneSql, like a third-party implementation might.
+     */
+    private static class MinimalSaneSql implements SaneSql {
+        private final SaneSql delegate;
+
+        private MinimalSaneSql(SaneSql delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public QueryResult query(String sqlQuery, Object... parameters) {
+            return delegate.query(sqlQuery, parameters);
+        }
+
+        @Override
+        public UpdateResult update(String sqlQuery, Object... parameters) {
+            return delegate.update(sqlQuery, parameters);
+        }
+
+        @Override
+        public int updateRaw(String sqlQuery, Object... parameters) {
+            return delegate.updateRaw(sqlQuery, parameters);
+        }
+
+        @Override
+        public RawScopedSession scoped() {
+            return delegate.scoped();
+        }
+
+        @Override
+        public void close() throws Exception {
+            delegate.close();
+        }
+    }
+
+    @Test
+    void batch__executeClearsRowsAndReturnsConnection() {
+        //given
+        BatchUpdate batch = givenBatchOfFive();
+        batch.execute();
+        //when
+        BatchResult second = batch.execute();
+        //then
+        assertThat(second.getRowCount(), is(0));
+        assertThat(batch.size(), is(0));
+        assertThat(database.getBatchSizes(), contains(5));
+        assertThat(pool.getIdleCount(), is(1));
+    }
+
+    @Test
+    void query__returnsConnectionOnClose() throws SQLException {
+        //given
+        database.givenRows("SELECT x FROM position", new String[]{"x"}, new Object[]{4}, new Object[]{2});
+        int sum = 0;
+        //when
+        try (QueryResult result = sql.query("SELECT x FROM position")) {
+            while (result.rs().next()) {
+                sum += result.rs().getInt("x");
+            }
+            assertThat(pool.getIdleCount(), is(0));
+        }
+        //then
+        assertThat(sum, is(6));
+        assertThat(pool.getIdleCount(), is(1));
+    }
+
+    @Test
+    void updateRaw__returnsConnection() {
+        //given
+        assertThat(database.getExecutedStatements(), is(empty()));
+        //when
+        int affected = sql.updateRaw(INSERT, "player", 1);
+        //then
+        assertThat(affected, is(1));
+        assertThat(database.getExecutedStatements(), contains(INSERT));
+        assertThat(pool.getIdleCount(), is(1));
+    }
+
+    @Test
+    void queryMapper__mapsLazily() {
+        //given
+        givenThreePositions();
+        AtomicInteger mappedCount = new AtomicInteger();
+        //when
+        List<Integer> firstX;
+        try (Stream<Integer> xs = sql.query(SELECT_X, rs -> {
+            mappedCount.incrementAndGet();
+            return rs.getInt("x");
+        })) {
+            firstX = xs.limit(1).collect(Collectors.toList());
+            assertThat(pool.getIdleCount(), is(0));
+        }
+        //then
+        assertThat(firstX, contains(4));
+        assertThat(mappedCount.get(), is(1));
+        assertThat(pool.getIdleCount(), is(1));
+    }
+
+    private void givenThreePositions() {
+        database.givenRows(SELECT_X, new String[]{"x"}, new Object[]{4}, new Object[]{2}, new Object[]{7});
+    }
+
+    @Test
+    void queryMapper__closesWhenExhausted() {
+        //given
+        givenThreePositions();
+        //when
+        List<Integer> xs = sql.query(SELECT_X, rs -> rs.getInt("x")).collect(Collectors.toList());
+        //then
+        assertThat(xs, contains(4, 2, 7));
+        assertThat(pool.getIdleCount(), is(1));
+    }
+
+    @Test
+    void query__setsFetchSizeOnStatement() throws SQLException {
+        //given
+        givenThreePositions();
+        //when
+        try (QueryResult result = sql.query(2, SELECT_X)) {
+            //then
+            assertThat(result.getStatement().getFetchSize(), is(2));
+        }
+    }
+
+    @Test
+    void forEach__visitsAllRowsAndReturnsConnection() {
+        //given
+        givenThreePositions();
+        List<Integer> xs = new ArrayList<>();
+        //when
+        sql.forEach(SELECT_X, rs -> xs.add(rs.getInt("x")));
+        //then
+        assertThat(xs, contains(4, 2, 7));
+        assertThat(pool.getIdleCount(), is(1));
+    }
+}
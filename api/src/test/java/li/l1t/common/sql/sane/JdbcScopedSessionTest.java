@@ -0,0 +1,183 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane;
+
+import li.l1t.common.exception.InternalException;
+import li.l1t.common.sql.sane.connection.ConnectionPoolBuilder;
+import li.l1t.common.sql.sane.connection.PooledConnectionProvider;
+import li.l1t.common.sql.sane.scoped.RawScopedSession;
+import li.l1t.common.sql.sane.scoped.ScopedSession;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class JdbcScopedSessionTest {
+    private static final String INSERT = "INSERT INTO purchase (player, product) VALUES (?, ?)";
+    private final FakeDatabase database = new FakeDatabase();
+    private final PooledConnectionProvider pool = ConnectionPoolBuilder.newBuilder(database)
+            .minimumSize(0)
+            .maximumSize(2)
+            .build();
+    private final JdbcSaneSql sql = new JdbcSaneSql(pool);
+
+    @Test
+    void join__holdsSingleConnectionUntilLastClose() {
+        //given
+        RawScopedSession outer = sql.scoped();
+        //when
+        try (ScopedSession<RawScopedSession> ignored = outer.join()) {
+            sql.updateRaw(INSERT, "chris", 1);
+            try (ScopedSession<RawScopedSession> inner = sql.scoped().join()) {
+                assertThat(inner, is(sameInstance(outer)));
+                sql.updateRaw(INSERT, "chris", 2);
+            }
+            assertThat(outer.hasReferences(), is(true));
+            assertThat(pool.getIdleCount(), is(0));
+        }
+        //then
+        assertThat(outer.hasReferences(), is(false));
+        assertThat(pool.getIdleCount(), is(1));
+        assertThat(database.getCreatedConnectionCount(), is(1));
+    }
+
+    @Test
+    void tx__nestedTransactionsReuseConnection() {
+        //given
+        //when
+        try (RawScopedSession outer = sql.scoped().tx()) {
+            sql.updateRaw(INSERT, "chris", 1);
+            try (RawScopedSession inner = sql.scoped().tx()) {
+                sql.updateRaw(INSERT, "chris", 2);
+                inner.commitIfLast();
+            }
+            outer.commitIfLast();
+        }
+        //then
+        assertThat(database.getTransactionEvents(), contains(
+                "autoCommit=false", "savepoint 1", "commit", "autoCommit=true"
+        ));
+        assertThat(database.getCreatedConnectionCount(), is(1));
+    }
+
+    @Test
+    void close__rollsBackUnfinishedTransaction() {
+        //given
+        RawScopedSession session = sql.scoped().tx();
+        sql.updateRaw(INSERT, "chris", 1);
+        //when
+        assertThrows(InternalException.class, session::close);
+        //then
+        assertThat(database.getTransactionEvents(), contains("autoCommit=false", "rollback", "autoCommit=true"));
+        assertThat(pool.getIdleCount(), is(1));
+    }
+
+    @Test
+    void scoped__isBoundToThread() throws Exception {
+        //given
+        try (ScopedSession<RawScopedSession> session = sql.scoped().join()) {
+            //when
+            RawScopedSession other = CompletableFuture.supplyAsync(sql::scoped).get(5, TimeUnit.SECONDS);
+            Throwable joinFailure = CompletableFuture.supplyAsync(session::join)
+                    .handle((joined, failure) -> failure.getCause())
+                    .get(5, TimeUnit.SECONDS);
+            //then
+            assertThat(other, is(not(sameInstance(session))));
+            assertThat(joinFailure, is(instanceOf(IllegalStateException.class)));
+        }
+    }
+
+    @Test
+    void hasBoundSession__onlyWhileJoinedOnThisThread() throws Exception {
+        //given
+        RawScopedSession session = sql.scoped();
+        assertThat(sql.hasBoundSession(), is(false));
+        //when
+        try (ScopedSession<RawScopedSession> ignored = session.join()) {
+            //then
+            assertThat(sql.hasBoundSession(), is(true));
+            assertThat(CompletableFuture.supplyAsync(sql::hasBoundSession).get(5, TimeUnit.SECONDS), is(false));
+        }
+        assertThat(sql.hasBoundSession(), is(false));
+    }
+
+    @Test
+    void commit__requiresTransaction() {
+        //given
+        try (ScopedSession<RawScopedSession> session = sql.scoped().join()) {
+            //when, then
+            assertThrows(InternalException.class, session::commit);
+        }
+    }
+
+    @Test
+    void tx__nestedRollbackOnlyUndoesNestedWork() {
+        //given
+        try (RawScopedSession outer = sql.scoped().tx()) {
+            sql.updateRaw(INSERT, "chris", 1);
+            RawScopedSession inner = sql.scoped().tx();
+            sql.updateRaw(INSERT, "chris", 2);
+            //when
+            inner.rollbackAndClose();
+            //then
+            assertThat(outer.hasTransaction(), is(true));
+            assertThat(outer.hasReferences(), is(true));
+            sql.updateRaw(INSERT, "chris", 3);
+            outer.commitIfLast();
+        }
+        assertThat(database.getTransactionEvents(), contains(
+                "autoCommit=false", "savepoint 1", "rollback to 1", "commit", "autoCommit=true"
+        ));
+    }
+
+    @Test
+    void tx__nestedCommitReleasesSavepoint() {
+        //given
+        try (RawScopedSession outer = sql.scoped().tx()) {
+            try (RawScopedSession inner = sql.scoped().tx()) {
+                //when
+                inner.commit();
+            }
+            //then
+            assertThat(outer.hasTransaction(), is(true));
+            outer.commit();
+        }
+        assertThat(database.getTransactionEvents(), contains(
+                "autoCommit=false", "savepoint 1", "release 1", "commit", "autoCommit=true"
+        ));
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.buffer;
+
+import li.l1t.common.exception.DatabaseException;
+import li.l1t.common.sql.sane.FakeDatabase;
+import li.l1t.common.sql.sane.JdbcSaneSql;
+import li.l1t.common.sql.sane.SaneSql;
+import li.l1t.common.sql.sane.connection.ConnectionPoolBuilder;
+import li.l1t.common.sql.sane.connection.PooledConnectionProvider;
+import li.l1t.common.sql.sane.exception.SqlExecutionException;
+import li.l1t.common.sql.sane.result.BatchResult;
+import li.l1t.common.sql.sane.result.QueryResult;
+import li.l1t.common.sql.sane.result.UpdateResult;
+import li.l1t.common.sql.sane.scoped.RawScopedSession;
+import li.l1t.common.sql.sane.statement.BatchUpdate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLDataException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class CoalescingUpdateBufferTest {
+    private static final String UPDATE = "UPDATE player SET last_seen = ? WHERE uuid = ?";
+    private static final String UPDATE_NAME = "UPDATE player SET name = ? WHERE uuid = ?";
+    private static final UUID CHRIS = UUID.fromString("2b61a2e1-7e6a-4d1b-8c38-0ed1c6cf9d55");
+    private static final UUID XXYY = UUID.fromString("5c2a4f4e-3b07-4a2e-a1fd-b39c3fb2e8a1");
+    private final FakeDatabase database = new FakeDatabase();
+    private final PooledConnectionProvider pool = ConnectionPoolBuilder.newBuilder(database)
+            .minimumSize(0)
+            .maximumSize(1)
+            .build();
+    private final CoalescingUpdateBuffer buffer = new CoalescingUpdateBuffer(new JdbcSaneSql(pool), 100,
+            1, TimeUnit.HOURS);
+
+    @AfterEach
+    void tearDown() {
+        if (buffer.getPendingCount() == 0) {
+            buffer.close();
+        }
+    }
+
+    @Test
+    void update__replacesPendingUpdateWithSameIdentity() {
+        //given
+        buffer.update(UPDATE, CHRIS, 1L, CHRIS.toString());
+        buffer.update(UPDATE, XXYY, 2L, XXYY.toString());
+        buffer.update(UPDATE, CHRIS, 3L, CHRIS.toString());
+        //when
+        int written = buffer.flush();
+        //then
+        assertThat(written, is(2));
+        assertThat(database.getBatchSizes(), contains(2));
+        assertThat(buffer.getCoalescedCount(), is(1L));
+        assertThat(buffer.getPendingCount(), is(0));
+    }
+
+    @Test
+    void update__flushesAtThreshold() throws InterruptedException {
+        //given
+        CoalescingUpdateBuffer smallBuffer = new CoalescingUpdateBuffer(new JdbcSaneSql(pool), 2,
+                1, TimeUnit.HOURS);
+        smallBuffer.update(UPDATE, CHRIS, 1L, CHRIS.toString());
+        //when
+        smallBuffer.update(UPDATE, XXYY, 2L, XXYY.toString());
+        //then
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (smallBuffer.getWrittenCount() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(smallBuffer.getWrittenCount(), is(2L));
+        smallBuffer.close();
+    }
+
+    @Test
+    void close__flushesAndRejectsUpdates() {
+        //given
+        buffer.update(UPDATE, CHRIS, 1L, CHRIS.toString());
+        //when
+        buffer.close();
+        //then
+        assertThat(database.getBatchSizes(), contains(1));
+        assertThrows(IllegalStateException.class, () -> buffer.update(UPDATE, CHRIS, 2L, CHRIS.toString()));
+    }
+
+    @Test
+    void flush__keepsUpdatesOnFailure() {
+        //given
+        buffer.update(UPDATE, CHRIS, 1L, CHRIS.toString());
+        buffer.update(UPDATE, XXYY, 2L, XXYY.toString());
+        pool.close();
+        //when
+        assertThrows(DatabaseException.class, buffer::flush);
+        buffer.update(UPDATE, CHRIS, 3L, CHRIS.toString());
+        //then
+        assertThat(buffer.getPendingCount(), is(2));
+        assertThat(buffer.getWrittenCount(), is(0L));
+        assertThrows(DatabaseException.class, buffer::close);
+    }
+
+    @Test
+    void flush__writesOtherStatementsWhenOneFails() {
+        //given
+        CoalescingUpdateBuffer failingBuffer = givenBufferRejecting("bad");
+        failingBuffer.update(UPDATE_NAME, CHRIS, "bad", CHRIS.toString());
+        failingBuffer.update(UPDATE, XXYY, 2L, XXYY.toString());
+        //when
+        assertThrows(DatabaseException.class, failingBuffer::flush);
+        //then
+        assertThat(failingBuffer.getWrittenCount(), is(1L));
+        assertThat(failingBuffer.getPendingCount(), is(1));
+    }
+
+    @Test
+    void flush__dropsPermanentlyFailingRowAfterMaxAttempts() {
+        //given
+        CoalescingUpdateBuffer failingBuffer = givenBufferRejecting("bad");
+        failingBuffer.update(UPDATE_NAME, CHRIS, "bad", CHRIS.toString());
+        failingBuffer.update(UPDATE_NAME, XXYY, "xxyy", XXYY.toString());
+        for (int i = 0; i < CoalescingUpdateBuffer.MAX_BATCH_ATTEMPTS; i++) {
+            assertThrows(DatabaseException.class, failingBuffer::flush);
+        }
+        //when
+        int written = failingBuffer.flush();
+        //then
+        assertThat(written, is(1));
+        assertThat(failingBuffer.getDroppedCount(), is(1L));
+        assertThat(failingBuffer.getPendingCount(), is(0));
+    }
+
+    private CoalescingUpdateBuffer givenBufferRejecting(String badValue) {
+        return new CoalescingUpdateBuffer(new RejectingSaneSql(new JdbcSaneSql(pool), badValue), 100,
+                1, TimeUnit.HOURS);
+    }
+
+    /**
+     * Fails statements containing a specific value with a permanent error, like a value that is
+     * too long for its column.
+     */
+    private static class RejectingSaneSql implements SaneSql {
+        private final SaneSql delegate;
+        private final String badValue;
+
+        private RejectingSaneSql(SaneSql delegate, String badValue) {
+            this.delegate = delegate;
+            this.badValue = badValue;
+        }
+
+        private void checkValues(Object... parameters) {
+            if (Arrays.asList(parameters).contains(badValue)) {
+                throw new SqlExecutionException(new SQLDataException("Data too long", "22001", 1406));
+            }
+        }
+
+        @Override
+        public QueryResult query(String sqlQuery, Object... parameters) {
+            return delegate.query(sqlQuery, parameters);
+        }
+
+        @Override
+        public UpdateResult update(String sqlQuery, Object... parameters) {
+            checkValues(parameters);
+            return delegate.update(sqlQuery, parameters);
+        }
+
+        @Override
+        public int updateRaw(String sqlQuery, Object... parameters) {
+            checkValues(parameters);
+            return delegate.updateRaw(sqlQuery, parameters);
+        }
+
+        @Override
+        public BatchUpdate batch(String sqlQuery) {
+            BatchUpdate update = delegate.batch(sqlQuery);
+            List<Object[]> rows = new ArrayList<>();
+            return new BatchUpdate() {
+                @Override
+                public BatchUpdate chunkSize(int chunkSize) {
+                    update.chunkSize(chunkSize);
+                    return this;
+                }
+
+                @Override
+                public BatchUpdate returnGeneratedKeys() {
+                    update.returnGeneratedKeys();
+                    return this;
+                }
+
+                @Override
+                public BatchUpdate add(Object... parameters) {
+                    rows.add(parameters);
+                    update.add(parameters);
+                    return this;
+                }
+
+                @Override
+                public int size() {
+                    return update.size();
+                }
+
+                @Override
+                public BatchResult execute() {
+                    rows.forEach(RejectingSaneSql.this::checkValues);
+                    return update.execute();
+                }
+            };
+        }
+
+        @Override
+        public RawScopedSession scoped() {
+            return delegate.scoped();
+        }
+
+        @Override
+        public void close() throws Exception {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.connection;
+
+import com.google.common.base.Ticker;
+import li.l1t.common.sql.sane.exception.SqlConnectionException;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class PooledConnectionProviderTest {
+    private final FakeConnectionFactory factory = new FakeConnectionFactory();
+    private final FakeTicker ticker = new FakeTicker();
+
+    private ConnectionPoolBuilder givenBuilder() {
+        return ConnectionPoolBuilder.newBuilder(factory)
+                .minimumSize(0)
+                .maximumSize(2)
+                .borrowTimeout(100, TimeUnit.MILLISECONDS)
+                .ticker(ticker);
+    }
+
+    @Test
+    void getConnection__reusesReturnedConnection() throws SQLException {
+        //given
+        PooledConnectionProvider pool = givenBuilder().build();
+        //when
+        pool.getConnection().close();
+        pool.getConnection().close();
+        //then
+        assertThat(factory.created.size(), is(1));
+        assertThat(pool.getIdleCount(), is(1));
+    }
+
+    @Test
+    void getConnection__failsOnceExhausted() {
+        //given
+        PooledConnectionProvider pool = givenBuilder().build();
+        pool.getConnection();
+        pool.getConnection();
+        //when, then
+        assertThrows(SqlConnectionException.class, pool::getConnection);
+        assertThat(pool.getTotalCount(), is(2));
+        assertThat(pool.getWaitingCount(), is(0));
+    }
+
+    @Test
+    void close__handsConnectionToWaitingCaller() throws Exception {
+        //given
+        PooledConnectionProvider pool = givenBuilder().maximumSize(1).borrowTimeout(10, TimeUnit.SECONDS).build();
+        Connection borrowed = pool.getConnection();
+        CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(pool::getConnection);
+        awaitWaitingCaller(pool);
+        //when
+        borrowed.close();
+        //then
+        assertThat(waiting.get(10, TimeUnit.SECONDS).isClosed(), is(false));
+        assertThat(factory.created.size(), is(1));
+    }
+
+    private void awaitWaitingCaller(PooledConnectionProvider pool) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pool.getWaitingCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void getConnection__replacesInvalidConnection() throws SQLException {
+        //given
+        PooledConnectionProvider pool = givenBuilder().build();
+        pool.getConnection().close();
+        factory.created.get(0).valid = false;
+        ticker.advance(1, TimeUnit.SECONDS);
+        //when
+        Connection connection = pool.getConnection();
+        //then
+        assertThat(factory.created.size(), is(2));
+        assertThat(factory.created.get(0).closed, is(true));
+        assertThat(pool.getTotalCount(), is(1));
+        connection.close();
+    }
+
+    @Test
+    void close__retiresConnectionPastMaxLifetime() throws SQLException {
+        //given
+        PooledConnectionProvider pool = givenBuilder().maxLifetime(1, TimeUnit.MINUTES).build();
+        Connection connection = pool.getConnection();
+        ticker.advance(2, TimeUnit.MINUTES);
+        //when
+        connection.close();
+        //then
+        assertThat(factory.created.get(0).closed, is(true));
+        assertThat(pool.getTotalCount(), is(0));
+    }
+
+    @Test
+    void evictIdleConnections__keepsMinimumSize() throws SQLException {
+        //given
+        PooledConnectionProvider pool = givenBuilder().minimumSize(1).idleTimeout(1, TimeUnit.MINUTES).build();
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+        first.close();
+        second.close();
+        ticker.advance(2, TimeUnit.MINUTES);
+        //when
+        pool.evictIdleConnections();
+        //then
+        assertThat(pool.getTotalCount(), is(1));
+        assertThat(pool.getIdleCount(), is(1));
+    }
+
+    @Test
+    void lease__unusableAfterClose() throws SQLException {
+        //given
+        PooledConnectionProvider pool = givenBuilder().build();
+        Connection connection = pool.getConnection();
+        //when
+        connection.close();
+        //then
+        assertThat(connection.isClosed(), is(true));
+        assertThrows(SQLException.class, connection::createStatement);
+        assertThat(pool.getConnection(), is(not(sameInstance(connection))));
+    }
+
+    @Test
+    void lease__doesNotUnwrapToPhysicalConnection() throws SQLException {
+        //given
+        PooledConnectionProvider pool = givenBuilder().build();
+        Connection connection = pool.getConnection();
+        //when
+        Connection unwrapped = connection.unwrap(Connection.class);
+        //then
+        assertThat(unwrapped, is(sameInstance(connection)));
+        assertThat(connection.isWrapperFor(Connection.class), is(true));
+        assertThrows(SQLException.class, () -> connection.unwrap(FakeConnection.class));
+    }
+
+    @Test
+    void close__resetsChangedSessionState() throws SQLException {
+        //given
+        PooledConnectionProvider pool = givenBuilder().build();
+        Connection connection = pool.getConnection();
+        connection.setAutoCommit(false);
+        //when
+        connection.close();
+        //then
+        FakeConnection physical = factory.created.get(0);
+        assertThat(physical.rolledBack, is(true));
+        assertThat(physical.autoCommit, is(true));
+    }
+
+    @Test
+    void close__discardsConnectionWithUnresettableState() throws SQLException {
+        //given
+        PooledConnectionProvider pool = givenBuilder().build();
+        Connection connection = pool.getConnection();
+        connection.setCatalog("other");
+        //when
+        connection.close();
+        //then
+        assertThat(factory.created.get(0).closed, is(true));
+        assertThat(pool.getTotalCount(), is(0));
+    }
+
+    @Test
+    void close__closesStatementsLeftOpen() throws SQLException {
+        //given
+        PooledConnectionProvider pool = givenBuilder().build();
+        Connection connection = pool.getConnection();
+        Statement statement = connection.createStatement();
+        //when
+        connection.close();
+        //then
+        assertThat(statement.isClosed(), is(true));
+        assertThat(factory.created.get(0).closed, is(false));
+    }
+
+    @Test
+    void close__replenishesDiscardedConnectionInBackground() throws Exception {
+        //given
+        PooledConnectionProvider pool = givenBuilder().minimumSize(1).maxLifetime(1, TimeUnit.MINUTES).build();
+        Connection connection = pool.getConnection();
+        ticker.advance(2, TimeUnit.MINUTES);
+        //when
+        connection.close();
+        //then
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pool.getIdleCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(pool.getIdleCount(), is(1));
+        assertThat(factory.created.size(), is(2));
+    }
+
+    private static class FakeConnectionFactory implements ConnectionFactory {
+        private final List<FakeConnection> created = new ArrayList<>();
+
+        @Override
+        public synchronized Connection createConnection() {
+            FakeConnection connection = new FakeConnection();
+            created.add(connection);
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> connection.handle(method.getName(), args));
+        }
+    }
+
+    private static class FakeConnection {
+        private volatile boolean valid = true;
+        private volatile boolean closed;
+        private volatile boolean autoCommit = true;
+        private volatile boolean rolledBack;
+
+        Object handle(String method, Object[] args) {
+            switch (method) {
+                case "getAutoCommit":
+                    return autoCommit;
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "rollback":
+                    rolledBack = true;
+                    return null;
+                case "createStatement":
+                    return fakeStatement();
+                case "isReadOnly":
+                    return false;
+                case "getTransactionIsolation":
+                    return Connection.TRANSACTION_READ_COMMITTED;
+                case "isValid":
+                    return valid;
+                case "isClosed":
+                    return closed;
+                case "close":
+                    closed = true;
+                    return null;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private static Statement fakeStatement() {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Statement) Proxy.newProxyInstance(PooledConnectionProviderTest.class.getClassLoader(),
+                new Class<?>[]{Statement.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isClosed":
+                            return closed.get();
+                        case "close":
+                            closed.set(true);
+                            return null;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static class FakeTicker extends Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void advance(long duration, TimeUnit unit) {
+            nanos.addAndGet(unit.toNanos(duration));
+        }
+    }
+}
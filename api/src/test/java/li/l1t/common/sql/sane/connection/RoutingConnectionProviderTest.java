@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.connection;
+
+import li.l1t.common.sql.SqlConnectable;
+import li.l1t.common.sql.SqlConnectables;
+import li.l1t.common.sql.sane.FakeDatabase;
+import li.l1t.common.sql.sane.JdbcSaneSql;
+import li.l1t.common.sql.sane.result.QueryResult;
+import li.l1t.common.sql.sane.scoped.RawScopedSession;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class RoutingConnectionProviderTest {
+    private static final String SELECT = "SELECT points FROM leaderboard";
+    private static final String UPDATE = "UPDATE leaderboard SET points = points + 1";
+    private final FakeDatabase primaryDatabase = new FakeDatabase();
+    private final List<FakeDatabase> replicaDatabases = Arrays.asList(new FakeDatabase(), new FakeDatabase());
+    private final PooledConnectionProvider primary = givenPool(primaryDatabase);
+    private final PooledConnectionProvider firstReplica = givenPool(replicaDatabases.get(0));
+    private final PooledConnectionProvider secondReplica = givenPool(replicaDatabases.get(1));
+
+    private PooledConnectionProvider givenPool(FakeDatabase database) {
+        return ConnectionPoolBuilder.newBuilder(database)
+                .minimumSize(0)
+                .maximumSize(2)
+                .build();
+    }
+
+    private RoutingConnectionProvider givenRouter(ReplicaSelection selection) {
+        return new RoutingConnectionProvider(primary, Arrays.asList(firstReplica, secondReplica), selection);
+    }
+
+    @Test
+    void getReadConnection__roundRobin() throws SQLException {
+        //given
+        RoutingConnectionProvider router = givenRouter(ReplicaSelection.ROUND_ROBIN);
+        //when
+        String first = borrowAndClose(router);
+        String second = borrowAndClose(router);
+        String third = borrowAndClose(router);
+        //then
+        assertThat(first, startsWith("Replica#0"));
+        assertThat(second, startsWith("Replica#1"));
+        assertThat(third, startsWith("Replica#0"));
+    }
+
+    private String borrowAndClose(RoutingConnectionProvider router) throws SQLException {
+        try (Connection connection = router.getReadConnection()) {
+            return connection.toString();
+        }
+    }
+
+    @Test
+    void getReadConnection__leastInFlight() throws SQLException {
+        //given
+        RoutingConnectionProvider router = givenRouter(ReplicaSelection.LEAST_IN_FLIGHT);
+        try (Connection held = router.getReadConnection()) {
+            //when
+            String second = borrowAndClose(router);
+            String third = borrowAndClose(router);
+            //then
+            assertThat(held.toString(), startsWith("Replica#0"));
+            assertThat(second, startsWith("Replica#1"));
+            assertThat(third, startsWith("Replica#1"));
+            assertThat(router.getInFlightCount(0), is(1));
+        }
+        assertThat(router.getInFlightCount(0), is(0));
+    }
+
+    @Test
+    void getReadConnection__fallsBackToPrimary() throws SQLException {
+        //given
+        RoutingConnectionProvider router = givenRouter(ReplicaSelection.ROUND_ROBIN);
+        firstReplica.close();
+        secondReplica.close();
+        //when
+        router.getReadConnection().close();
+        //then
+        assertThat(primaryDatabase.getCreatedConnectionCount(), is(1));
+    }
+
+    @Test
+    void jdbcSaneSql__routesQueriesToReplicasAndTransactionsToPrimary() {
+        //given
+        JdbcSaneSql sql = new JdbcSaneSql(givenRouter(ReplicaSelection.ROUND_ROBIN));
+        //when
+        sql.query(SELECT).close();
+        sql.updateRaw(UPDATE);
+        try (RawScopedSession session = sql.scoped().tx()) {
+            try (QueryResult ignored = sql.query(SELECT)) {
+                sql.updateRaw(UPDATE);
+            }
+            session.commitIfLast();
+        }
+        //then
+        assertThat(replicaDatabases.get(0).getExecutedStatements(), contains(SELECT));
+        assertThat(replicaDatabases.get(1).getExecutedStatements(), is(empty()));
+        assertThat(primaryDatabase.getExecutedStatements(), contains(UPDATE, SELECT, UPDATE));
+    }
+
+    @Test
+    void getReplicas__usesPrimaryCredentials() {
+        //given
+        SqlConnectable connectable = SqlConnectables.withReplicaHosts(
+                SqlConnectables.fromCredentials("jdbc:mysql://primary/", "lanatus", "user", "pass"),
+                Arrays.asList("jdbc:mysql://replica-a/", "jdbc:mysql://replica-b/")
+        );
+        //when
+        List<SqlConnectable> replicas = SqlConnectables.getReplicas(connectable);
+        //then
+        assertThat(replicas.get(1).getSqlHost(), is("jdbc:mysql://replica-b/"));
+        assertThat(replicas.get(1).getSqlDb(), is("lanatus"));
+        assertThat(replicas.get(1).getSqlUser(), is("user"));
+    }
+}
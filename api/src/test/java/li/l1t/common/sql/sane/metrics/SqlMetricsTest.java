@@ -0,0 +1,211 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.metrics;
+
+import com.google.common.base.Ticker;
+import li.l1t.common.exception.DatabaseException;
+import li.l1t.common.sql.sane.FakeDatabase;
+import li.l1t.common.sql.sane.JdbcSaneSql;
+import li.l1t.common.sql.sane.SaneSql;
+import li.l1t.common.sql.sane.connection.ConnectionPoolBuilder;
+import li.l1t.common.sql.sane.connection.PooledConnectionProvider;
+import li.l1t.common.sql.sane.result.QueryResult;
+import li.l1t.common.sql.sane.scoped.RawScopedSession;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class SqlMetricsTest {
+    private static final String SELECT = "SELECT name FROM player WHERE id = ?";
+    private final FakeDatabase database = new FakeDatabase();
+    private final SteppingTicker ticker = new SteppingTicker(TimeUnit.MILLISECONDS.toNanos(5));
+    private final List<LogRecord> slowQueryLog = new ArrayList<>();
+    private final SqlMetrics metrics = new SqlMetrics(20, TimeUnit.MILLISECONDS, givenCapturingLogger(), ticker);
+    private final PooledConnectionProvider pool = ConnectionPoolBuilder.newBuilder(database)
+            .minimumSize(0)
+            .maximumSize(1)
+            .build();
+    private final SaneSql sql = metrics.instrument(new JdbcSaneSql(metrics.instrument(pool)));
+
+    private Logger givenCapturingLogger() {
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                slowQueryLog.add(record);
+            }
+
+            @Override
+            public void flush() {
+
+            }
+
+            @Override
+            public void close() {
+
+            }
+        });
+        return logger;
+    }
+
+    @Test
+    void normalize__replacesLiteralsAndLists() {
+        //given
+        String sql = "SELECT *  FROM purchase\n WHERE player = 'chris''s' AND product IN (1, 2, 3) AND t1.x > -4.5";
+        //when
+        String normalized = SqlNormalizer.normalize(sql);
+        //then
+        assertThat(normalized, is("SELECT * FROM purchase WHERE player = ? AND product IN (?) AND t1.x > ?"));
+    }
+
+    @Test
+    void normalize__collapsesMultiRowValues() {
+        //given
+        String sql = "INSERT INTO position (player, x) VALUES (?, ?), (?, ?),(?, ?)";
+        //when
+        String normalized = SqlNormalizer.normalize(sql);
+        //then
+        assertThat(normalized, is("INSERT INTO position (player, x) VALUES (?, ?)"));
+    }
+
+    @Test
+    void query__recordsLatencyAndRowsReturned() throws SQLException {
+        //given
+        database.givenRows(SELECT, new String[]{"name"}, new Object[]{"chris"}, new Object[]{"xxyy"});
+        //when
+        try (QueryResult result = sql.query(SELECT, 5)) {
+            while (result.rs().next()) {
+                result.rs().getString("name");
+            }
+        }
+        //then
+        StatementSnapshot statement = metrics.snapshot().getStatements().get(0);
+        assertThat(statement.getNormalizedSql(), is(SELECT));
+        assertThat(statement.getLatency().getCount(), is(1L));
+        assertThat(statement.getLatency().getTotalNanos(), is(TimeUnit.MILLISECONDS.toNanos(15))); //incl. conn wait
+        assertThat(statement.getRowsReturned(), is(2L));
+    }
+
+    @Test
+    void updateRaw__groupsByNormalizedSql() {
+        //given
+        //when
+        sql.updateRaw("DELETE FROM player WHERE id = 4");
+        sql.updateRaw("DELETE FROM player WHERE id = 17");
+        //then
+        SqlMetricsSnapshot snapshot = metrics.snapshot();
+        assertThat(snapshot.getStatements(), hasSize(1));
+        assertThat(snapshot.getStatements().get(0).getRowsAffected(), is(2L));
+        assertThat(snapshot.getConnectionWait().getCount(), is(2L));
+    }
+
+    @Test
+    void slowQuery__logsParameterTypesButNotValues() {
+        //given
+        ticker.step = TimeUnit.MILLISECONDS.toNanos(50);
+        //when
+        sql.updateRaw("UPDATE player SET name = ? WHERE id = ?", "secret-name", 5);
+        //then
+        assertThat(slowQueryLog, hasSize(1));
+        String message = slowQueryLog.get(0).getMessage();
+        assertThat(message, containsString("[String, Integer]"));
+        assertThat(message, not(containsString("secret-name")));
+        assertThat(metrics.snapshot().getStatements().get(0).getSlowCount(), is(1L));
+    }
+
+    @Test
+    void scoped__recordsSessionHoldTime() {
+        //given
+        //when
+        try (RawScopedSession session = sql.scoped().tx()) {
+            sql.updateRaw("DELETE FROM player");
+            session.commitIfLast();
+        }
+        //then
+        assertThat(metrics.snapshot().getSessionHoldTime().getCount(), is(1L));
+    }
+
+    @Test
+    void error__isCounted() {
+        //given
+        pool.close();
+        //when
+        assertThrows(DatabaseException.class, () -> sql.updateRaw("DELETE FROM player"));
+        //then
+        SqlMetricsSnapshot snapshot = metrics.snapshot();
+        assertThat(snapshot.getErrorCount(), is(1L));
+        assertThat(snapshot.getConnectionErrorCount(), is(1L));
+        assertThat(snapshot.getStatements().get(0).getLatency().getCount(), is(0L));
+    }
+
+    @Test
+    void histogram__estimatesPercentiles() {
+        //given
+        LatencyHistogram histogram = new LatencyHistogram();
+        //when
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        //then
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertThat((double) snapshot.getPercentileNanos(0.5D), is(closeTo(500_000_000D, 500_000_000D / 16)));
+        assertThat((double) snapshot.getPercentileNanos(0.99D), is(closeTo(990_000_000D, 990_000_000D / 16)));
+        assertThat(snapshot.getMaximumNanos(), is(TimeUnit.MILLISECONDS.toNanos(1000)));
+    }
+
+    private static class SteppingTicker extends Ticker {
+        private long nanos;
+        private long step;
+
+        private SteppingTicker(long step) {
+            this.step = step;
+        }
+
+        @Override
+        public long read() {
+            nanos += step;
+            return nanos;
+        }
+    }
+}
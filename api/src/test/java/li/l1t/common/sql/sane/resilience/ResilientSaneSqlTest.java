@@ -0,0 +1,357 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.resilience;
+
+import com.google.common.base.Ticker;
+import li.l1t.common.sql.sane.SaneSql;
+import li.l1t.common.sql.sane.connection.ConnectionManager;
+import li.l1t.common.sql.sane.exception.SqlConnectionException;
+import li.l1t.common.sql.sane.exception.SqlExecutionException;
+import li.l1t.common.sql.sane.exception.SqlUnavailableException;
+import li.l1t.common.sql.sane.result.QueryResult;
+import li.l1t.common.sql.sane.result.UpdateResult;
+import li.l1t.common.sql.sane.scoped.RawScopedSession;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class ResilientSaneSqlTest {
+    private static final String SELECT = "SELECT name FROM player WHERE id = ?";
+    private final ScriptedSaneSql delegate = new ScriptedSaneSql();
+    private final AtomicInteger reconnects = new AtomicInteger();
+    private final ManualTicker ticker = new ManualTicker();
+
+    @Test
+    void query__retriesTransientFailure() {
+        //given
+        SaneSql sql = newBuilder().build();
+        delegate.failNext(connectionLost());
+        delegate.failNext(deadlock());
+        //when
+        sql.query(SELECT, 1);
+        //then
+        assertThat(delegate.getQueryCount(), is(3));
+    }
+
+    @Test
+    void query__doesNotRetryInScopedSession() {
+        //given
+        SaneSql sql = newBuilder().build();
+        delegate.joinSession();
+        delegate.failNext(deadlock());
+        //when
+        assertThrows(SqlExecutionException.class, () -> sql.query(SELECT, 1));
+        //then
+        assertThat(delegate.getQueryCount(), is(1));
+    }
+
+    @Test
+    void query__doesNotRetryPermanentFailure() {
+        //given
+        SaneSql sql = newBuilder().build();
+        SqlExecutionException syntaxError = new SqlExecutionException(new SQLSyntaxErrorException("bad", "42000"));
+        delegate.failNext(syntaxError);
+        //when
+        SqlExecutionException thrown = assertThrows(SqlExecutionException.class, () -> sql.query(SELECT, 1));
+        //then
+        assertThat(thrown, is(sameInstance(syntaxError)));
+        assertThat(delegate.getQueryCount(), is(1));
+    }
+
+    @Test
+    void query__stopsAfterMaxAttempts() {
+        //given
+        SaneSql sql = newBuilder().maxAttempts(2).build();
+        delegate.failNext(deadlock());
+        delegate.failNext(deadlock());
+        delegate.failNext(deadlock());
+        //when
+        assertThrows(SqlExecutionException.class, () -> sql.query(SELECT, 1));
+        //then
+        assertThat(delegate.getQueryCount(), is(2));
+    }
+
+    @Test
+    void query__stopsAtDeadline() {
+        //given
+        SaneSql sql = newBuilder().deadline(10, TimeUnit.MILLISECONDS).build();
+        delegate.onQuery(() -> ticker.advance(20, TimeUnit.MILLISECONDS));
+        delegate.failNext(deadlock());
+        delegate.failNext(deadlock());
+        //when
+        assertThrows(SqlExecutionException.class, () -> sql.query(SELECT, 1));
+        //then
+        assertThat(delegate.getQueryCount(), is(1));
+    }
+
+    @Test
+    void update__isNotRetried() {
+        //given
+        SaneSql sql = newBuilder().build();
+        delegate.failNext(deadlock());
+        //when
+        assertThrows(SqlExecutionException.class, () -> sql.updateRaw("UPDATE player SET name = ?", "chris"));
+        //then
+        assertThat(delegate.getUpdateCount(), is(1));
+    }
+
+    @Test
+    void query__failsFastWhileCircuitIsOpen() {
+        //given
+        ResilientSaneSql sql = newBuilder().maxAttempts(1).circuitBreaker(2, 1, TimeUnit.SECONDS).build();
+        delegate.failNext(connectionLost());
+        delegate.failNext(connectionLost());
+        assertThrows(SqlConnectionException.class, () -> sql.query(SELECT, 1));
+        assertThrows(SqlConnectionException.class, () -> sql.query(SELECT, 1));
+        //when
+        assertThrows(SqlUnavailableException.class, () -> sql.query(SELECT, 1));
+        //then
+        assertThat(delegate.getQueryCount(), is(2));
+        assertThat(sql.getCircuitBreaker().getState(), is(CircuitBreaker.State.OPEN));
+    }
+
+    @Test
+    void query__lockContentionDoesNotOpenCircuit() {
+        //given
+        ResilientSaneSql sql = newBuilder().maxAttempts(1).circuitBreaker(1, 1, TimeUnit.SECONDS).build();
+        delegate.failNext(deadlock());
+        delegate.failNext(new SqlExecutionException(new SQLException("Lock wait timeout", "HY000", 1205)));
+        assertThrows(SqlExecutionException.class, () -> sql.query(SELECT, 1));
+        assertThrows(SqlExecutionException.class, () -> sql.query(SELECT, 1));
+        //when
+        sql.query(SELECT, 1);
+        //then
+        assertThat(sql.getCircuitBreaker().getState(), is(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    void query__closesCircuitAfterSuccessfulProbe() {
+        //given
+        ResilientSaneSql sql = newBuilder().maxAttempts(1).circuitBreaker(1, 1, TimeUnit.SECONDS).build();
+        delegate.failNext(connectionLost());
+        assertThrows(SqlConnectionException.class, () -> sql.query(SELECT, 1));
+        ticker.advance(1, TimeUnit.SECONDS);
+        //when
+        sql.query(SELECT, 1);
+        //then
+        assertThat(sql.getCircuitBreaker().getState(), is(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    void query__reopensCircuitAfterProbeThrowsError() {
+        //given
+        ResilientSaneSql sql = newBuilder().maxAttempts(1).circuitBreaker(1, 1, TimeUnit.SECONDS).build();
+        delegate.failNext(connectionLost());
+        assertThrows(SqlConnectionException.class, () -> sql.query(SELECT, 1));
+        ticker.advance(1, TimeUnit.SECONDS);
+        delegate.onQuery(() -> {
+            throw new NoClassDefFoundError("com/mysql/jdbc/Driver");
+        });
+        //when
+        assertThrows(NoClassDefFoundError.class, () -> sql.query(SELECT, 1));
+        //then
+        assertThat(sql.getCircuitBreaker().getState(), is(CircuitBreaker.State.OPEN));
+        delegate.onQuery(() -> {
+        });
+        ticker.advance(1, TimeUnit.SECONDS);
+        sql.query(SELECT, 1);
+        assertThat(sql.getCircuitBreaker().getState(), is(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    void query__reconnectsOnceWithinInterval() {
+        //given
+        SaneSql sql = newBuilder().maxAttempts(1).connectionManager(fakeManager()).build();
+        delegate.failNext(connectionLost());
+        delegate.failNext(connectionLost());
+        //when
+        assertThrows(SqlConnectionException.class, () -> sql.query(SELECT, 1));
+        assertThrows(SqlConnectionException.class, () -> sql.query(SELECT, 1));
+        //then
+        assertThat(reconnects.get(), is(1));
+    }
+
+    @Test
+    void query__reconnectsAgainAfterInterval() {
+        //given
+        SaneSql sql = newBuilder().maxAttempts(1).connectionManager(fakeManager())
+                .minimumReconnectInterval(1, TimeUnit.SECONDS).build();
+        delegate.failNext(connectionLost());
+        delegate.failNext(connectionLost());
+        assertThrows(SqlConnectionException.class, () -> sql.query(SELECT, 1));
+        ticker.advance(1, TimeUnit.SECONDS);
+        //when
+        assertThrows(SqlConnectionException.class, () -> sql.query(SELECT, 1));
+        //then
+        assertThat(reconnects.get(), is(2));
+    }
+
+    @Test
+    void query__doesNotReconnectOnDeadlock() {
+        //given
+        SaneSql sql = newBuilder().maxAttempts(1).connectionManager(fakeManager()).build();
+        delegate.failNext(deadlock());
+        //when
+        assertThrows(SqlExecutionException.class, () -> sql.query(SELECT, 1));
+        //then
+        assertThat(reconnects.get(), is(0));
+    }
+
+    @Test
+    void isTransient__classifiesSqlStates() {
+        assertThat(SqlStates.isTransient(connectionLost()), is(true));
+        assertThat(SqlStates.isTransient(deadlock()), is(true));
+        assertThat(SqlStates.isTransient(new SQLException("lock wait", "HY000", 1205)), is(true));
+        assertThat(SqlStates.isTransient(new SQLSyntaxErrorException("bad", "42000")), is(false));
+        assertThat(SqlStates.isTransient(new SQLException("duplicate", "23000", 1062)), is(false));
+        assertThat(SqlStates.isConnectionFailure(deadlock()), is(false));
+        assertThat(SqlStates.isConnectionFailure(new SQLException("gone away", "HY000", 2006)), is(true));
+    }
+
+    private ResilientSaneSqlBuilder newBuilder() {
+        return ResilientSaneSqlBuilder.newBuilder(delegate)
+                .backoff(1, 1, TimeUnit.NANOSECONDS)
+                .ticker(ticker);
+    }
+
+    private SqlConnectionException connectionLost() {
+        return new SqlConnectionException(new SQLException("Communications link failure", "08S01"));
+    }
+
+    private SqlExecutionException deadlock() {
+        return new SqlExecutionException(new SQLException("Deadlock found", "40001", 1213));
+    }
+
+    private ConnectionManager fakeManager() {
+        return (ConnectionManager) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ConnectionManager.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("forceReconnect")) {
+                        reconnects.incrementAndGet();
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static class ManualTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long duration, TimeUnit unit) {
+            nanos += unit.toNanos(duration);
+        }
+    }
+
+    private static class ScriptedSaneSql implements SaneSql {
+        private final Deque<RuntimeException> failures = new ArrayDeque<>();
+        private Runnable queryHook = () -> {
+        };
+        private int queryCount;
+        private int updateCount;
+        private boolean inSession;
+
+        void failNext(RuntimeException failure) {
+            failures.add(failure);
+        }
+
+        void onQuery(Runnable hook) {
+            this.queryHook = hook;
+        }
+
+        private void maybeFail() {
+            RuntimeException failure = failures.poll();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        @Override
+        public QueryResult query(String sqlQuery, Object... parameters) {
+            queryCount++;
+            queryHook.run();
+            maybeFail();
+            return null;
+        }
+
+        @Override
+        public UpdateResult update(String sqlQuery, Object... parameters) {
+            updateCount++;
+            maybeFail();
+            return null;
+        }
+
+        @Override
+        public int updateRaw(String sqlQuery, Object... parameters) {
+            updateCount++;
+            maybeFail();
+            return 0;
+        }
+
+        void joinSession() {
+            this.inSession = true;
+        }
+
+        @Override
+        public RawScopedSession scoped() {
+            throw new UnsupportedOperationException("scoped");
+        }
+
+        @Override
+        public boolean hasBoundSession() {
+            return inSession;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        int getQueryCount() {
+            return queryCount;
+        }
+
+        int getUpdateCount() {
+            return updateCount;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.sql.sane.statement;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class CachingStatementProviderTest {
+    private final List<FakeStatement> prepared = new ArrayList<>();
+    private final CachingStatementProvider provider = new CachingStatementProvider(givenConnection(), 2);
+
+    private Connection givenConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> method.getName().equals("prepareStatement") ? prepare((String) args[0]) : null);
+    }
+
+    private PreparedStatement prepare(String sql) {
+        FakeStatement statement = new FakeStatement(sql);
+        prepared.add(statement);
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> statement.handle(proxy, method.getName(), args));
+    }
+
+    @Test
+    void create__reusesStatementForSameSql() throws SQLException {
+        //given
+        provider.create("SELECT 1", 1).close();
+        //when
+        provider.create("SELECT 1", 2).close();
+        //then
+        assertThat(prepared.size(), is(1));
+        assertThat(provider.stats().getHitCount(), is(1L));
+        assertThat(provider.stats().getMissCount(), is(1L));
+    }
+
+    @Test
+    void close__clearsParametersInsteadOfClosing() throws SQLException {
+        //given
+        PreparedStatement statement = provider.create("SELECT 1", 1);
+        //when
+        statement.close();
+        //then
+        assertThat(prepared.get(0).cleared, is(true));
+        assertThat(prepared.get(0).closed, is(false));
+        assertThat(statement.isClosed(), is(true));
+        assertThrows(SQLException.class, statement::executeQuery);
+    }
+
+    @Test
+    void create__evictsLeastRecentlyUsed() throws SQLException {
+        //given
+        provider.create("SELECT 'a'").close();
+        provider.create("SELECT 'b'").close();
+        provider.create("SELECT 'a'").close();
+        //when
+        provider.create("SELECT 'c'").close();
+        //then
+        assertThat(prepared.get(0).closed, is(false));
+        assertThat(prepared.get(1).closed, is(true));
+        assertThat(provider.size(), is(2));
+        assertThat(provider.stats().getEvictionCount(), is(1L));
+    }
+
+    @Test
+    void create__preparesUncachedStatementWhileInUse() throws SQLException {
+        //given
+        PreparedStatement outer = provider.create("SELECT 1");
+        //when
+        provider.create("SELECT 1").close();
+        //then
+        assertThat(prepared.size(), is(2));
+        assertThat(prepared.get(1).closed, is(true));
+        outer.close();
+        assertThat(prepared.get(0).closed, is(false));
+    }
+
+    @Test
+    void close__clearsPendingBatch() throws SQLException {
+        //given
+        PreparedStatement statement = provider.create("INSERT INTO log VALUES (?)", 1);
+        statement.addBatch();
+        //when
+        statement.close();
+        //then
+        assertThat(prepared.get(0).batchCleared, is(true));
+        assertThat(prepared.get(0).closed, is(false));
+    }
+
+    @Test
+    void close__restoresChangedLimits() throws SQLException {
+        //given
+        PreparedStatement statement = provider.create("SELECT 1");
+        statement.setMaxRows(5);
+        //when
+        statement.close();
+        //then
+        assertThat(prepared.get(0).maxRows, is(0));
+        assertThat(prepared.get(0).closed, is(false));
+    }
+
+    @Test
+    void close__closesStatementWithUnresettableOption() throws SQLException {
+        //given
+        PreparedStatement statement = provider.create("SELECT 1");
+        statement.setCursorName("cursor");
+        //when
+        statement.close();
+        //then
+        assertThat(prepared.get(0).closed, is(true));
+        assertThat(provider.size(), is(0));
+    }
+
+    @Test
+    void create__exposesOnlyLeasedObjects() throws SQLException {
+        //given
+        Connection owner = givenConnection();
+        PreparedStatement statement = provider.prepare("SELECT 1", owner);
+        //when
+        ResultSet resultSet = statement.executeQuery();
+        //then
+        assertThat(statement.getConnection(), is(sameInstance(owner)));
+        assertThat(resultSet.getStatement(), is(sameInstance(statement)));
+        resultSet.getStatement().close();
+        assertThat(prepared.get(0).closed, is(false));
+    }
+
+    @Test
+    void create__doesNotUnwrapToCachedStatement() throws SQLException {
+        //given
+        PreparedStatement statement = provider.prepare("SELECT 1", givenConnection());
+        ResultSet resultSet = statement.executeQuery();
+        //when
+        PreparedStatement unwrapped = statement.unwrap(PreparedStatement.class);
+        //then
+        assertThat(unwrapped, is(sameInstance(statement)));
+        assertThat(statement.isWrapperFor(PreparedStatement.class), is(true));
+        assertThat(resultSet.unwrap(ResultSet.class), is(sameInstance(resultSet)));
+        assertThrows(SQLException.class, () -> statement.unwrap(Connection.class));
+        unwrapped.close();
+        assertThat(prepared.get(0).closed, is(false));
+    }
+
+    private static class FakeStatement {
+        private final String sql;
+        private boolean cleared;
+        private boolean batchCleared;
+        private boolean closed;
+        private int maxRows;
+
+        private FakeStatement(String sql) {
+            this.sql = sql;
+        }
+
+        Object handle(Object proxy, String method, Object[] args) {
+            switch (method) {
+                case "clearParameters":
+                    cleared = true;
+                    return null;
+                case "clearBatch":
+                    batchCleared = true;
+                    return null;
+                case "setMaxRows":
+                    maxRows = (Integer) args[0];
+                    return null;
+                case "getMaxRows":
+                    return maxRows;
+                case "getQueryTimeout":
+                case "getFetchSize":
+                case "getMaxFieldSize":
+                    return 0;
+                case "getFetchDirection":
+                    return ResultSet.FETCH_FORWARD;
+                case "executeQuery":
+                    return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+                            (resultSet, resultMethod, resultArgs) ->
+                                    resultMethod.getName().equals("getStatement") ? proxy : null);
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "toString":
+                    return sql;
+                default:
+                    return null;
+            }
+        }
+    }
+}
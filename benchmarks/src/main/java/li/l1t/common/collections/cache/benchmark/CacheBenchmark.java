@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of all cache implementations for read-only, write-only and mixed
+ * workloads. Each benchmark thread walks the same pre-drawn sequence of keys, starting at a random
+ * offset. Thread counts are set on the command line, for example {@code -t 4} for the read and
+ * write benchmarks and {@code -tg 6,2} for the mixed group. Allocation rates are obtained by
+ * adding {@code -prof gc}.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheBenchmark {
+    private static final int KEY_COUNT = 1 << 17;
+    private static final int SAMPLE_COUNT = 1 << 20;
+    private static final int SAMPLE_MASK = SAMPLE_COUNT - 1;
+    private static final long SEED = 0x58594353L;
+
+    @Param
+    public CacheType cacheType;
+    @Param
+    public KeyDistribution distribution;
+    /**
+     * Maximum size of size-bounded caches, a quarter of the key space by default.
+     */
+    @Param("32768")
+    public int maximumSize;
+
+    private BenchmarkValue[] values;
+    private int[] samples;
+    private BenchmarkCache cache;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        values = new BenchmarkValue[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            values[i] = new BenchmarkValue(new UUID(random.nextLong(), random.nextLong()), i);
+        }
+        samples = distribution.sample(KEY_COUNT, SAMPLE_COUNT, random);
+        cache = cacheType.create(maximumSize);
+        for (int sample : samples) {
+            cache.put(values[sample]);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int position;
+
+        @Setup
+        public void setUp() {
+            position = ThreadLocalRandom.current().nextInt(SAMPLE_COUNT);
+        }
+
+        int next() {
+            return position++ & SAMPLE_MASK;
+        }
+    }
+
+    private BenchmarkValue nextValue(Cursor cursor) {
+        return values[samples[cursor.next()]];
+    }
+
+    @Benchmark
+    public Object read(Cursor cursor) {
+        return cache.get(nextValue(cursor).getId());
+    }
+
+    @Benchmark
+    public void write(Cursor cursor) {
+        cache.put(nextValue(cursor));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Object mixedRead(Cursor cursor) {
+        return cache.get(nextValue(cursor).getId());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public void mixedWrite(Cursor cursor) {
+        cache.put(nextValue(cursor));
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache.benchmark;
+
+import li.l1t.common.collections.cache.ConcurrentCacheBuilder;
+import li.l1t.common.collections.cache.EvictionPolicy;
+import li.l1t.common.collections.cache.IdCache;
+import li.l1t.common.collections.cache.MapCache;
+import li.l1t.common.collections.cache.OptionalCache;
+import li.l1t.common.collections.cache.UuidIntCache;
+import li.l1t.common.collections.cache.UuidMapCache;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cache implementations and configurations under benchmark. All caches expire mappings after
+ * write, so that expiry checks are part of the measurement, as they would be in production.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public enum CacheType {
+    MAP {
+        @Override
+        BenchmarkCache create(int maximumSize) {
+            return ofMapCache(newBuilder().buildMapCache());
+        }
+    },
+    MAP_TINY_LFU {
+        @Override
+        BenchmarkCache create(int maximumSize) {
+            return ofMapCache(newBuilder()
+                    .maximumSize(maximumSize)
+                    .evictionPolicy(EvictionPolicy.WINDOW_TINY_LFU)
+                    .buildMapCache());
+        }
+    },
+    MAP_LRU {
+        @Override
+        BenchmarkCache create(int maximumSize) {
+            return ofMapCache(newBuilder()
+                    .maximumSize(maximumSize)
+                    .evictionPolicy(EvictionPolicy.LRU)
+                    .buildMapCache());
+        }
+    },
+    ASYNC_MAP {
+        @Override
+        BenchmarkCache create(int maximumSize) {
+            return ofMapCache(newBuilder().<UUID, BenchmarkValue>buildAsyncMapCache().synchronous());
+        }
+    },
+    OPTIONAL {
+        @Override
+        BenchmarkCache create(int maximumSize) {
+            OptionalCache<UUID, BenchmarkValue> cache = newBuilder().buildOptionalCache();
+            return new BenchmarkCache() {
+                @Override
+                public Object get(UUID key) {
+                    return cache.getOptionally(key);
+                }
+
+                @Override
+                public void put(BenchmarkValue value) {
+                    cache.cacheValue(value.getId(), value);
+                }
+            };
+        }
+    },
+    ID {
+        @Override
+        BenchmarkCache create(int maximumSize) {
+            return ofIdCache(newBuilder().buildIdCache(BenchmarkValue::getId));
+        }
+    },
+    TWO_LEVEL_ID {
+        @Override
+        BenchmarkCache create(int maximumSize) {
+            return ofIdCache(newBuilder().buildTwoLevelIdCache(BenchmarkValue::getId, 64, 1, TimeUnit.SECONDS));
+        }
+    },
+    UUID_MAP {
+        @Override
+        BenchmarkCache create(int maximumSize) {
+            return ofMapCache(new UuidMapCache<>(EXPIRY_MINUTES, TimeUnit.MINUTES));
+        }
+    },
+    UUID_INT {
+        @Override
+        BenchmarkCache create(int maximumSize) {
+            UuidIntCache cache = new UuidIntCache(EXPIRY_MINUTES, TimeUnit.MINUTES);
+            return new BenchmarkCache() {
+                @Override
+                public Object get(UUID key) {
+                    return cache.getInt(key, -1);
+                }
+
+                @Override
+                public void put(BenchmarkValue value) {
+                    cache.cacheInt(value.getId(), value.getNumber());
+                }
+            };
+        }
+    };
+
+    private static final long EXPIRY_MINUTES = 5;
+
+    /**
+     * @param maximumSize the maximum size of size-bounded configurations, ignored by the others
+     * @return a new, empty cache of this type
+     */
+    abstract BenchmarkCache create(int maximumSize);
+
+    private static ConcurrentCacheBuilder<Object, Object> newBuilder() {
+        return ConcurrentCacheBuilder.newBuilder().expireAfterWrite(EXPIRY_MINUTES, TimeUnit.MINUTES);
+    }
+
+    private static BenchmarkCache ofMapCache(MapCache<UUID, BenchmarkValue> cache) {
+        return new BenchmarkCache() {
+            @Override
+            public Object get(UUID key) {
+                return cache.get(key);
+            }
+
+            @Override
+            public void put(BenchmarkValue value) {
+                cache.cache(value.getId(), value);
+            }
+        };
+    }
+
+    private static BenchmarkCache ofIdCache(IdCache<UUID, BenchmarkValue> cache) {
+        return new BenchmarkCache() {
+            @Override
+            public Object get(UUID key) {
+                return cache.get(key);
+            }
+
+            @Override
+            public void put(BenchmarkValue value) {
+                cache.cache(value);
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.common.collections.cache.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The distributions keys are drawn from. Samples are drawn ahead of time, so that generating them
+ * is not part of the measurement.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public enum KeyDistribution {
+    /**
+     * Every key is equally likely. This is the worst case for caches that are smaller than the key
+     * space.
+     */
+    UNIFORM {
+        @Override
+        int[] sample(int keyCount, int sampleCount, Random random) {
+            int[] samples = new int[sampleCount];
+            for (int i = 0; i < sampleCount; i++) {
+                samples[i] = random.nextInt(keyCount);
+            }
+            return samples;
+        }
+    },
+    /**
+     * The probability of the key with rank {@code k} is proportional to {@code 1 / k^0.99}, so that
+     * few keys are very hot while most are rarely used. This is close to what is observed for
+     * player data, where online players are read all the time.
+     */
+    ZIPFIAN {
+        @Override
+        int[] sample(int keyCount, int sampleCount, Random random) {
+            double[] cumulative = new double[keyCount];
+            double sum = 0;
+            for (int rank = 0; rank < keyCount; rank++) {
+                sum += 1D / Math.pow(rank + 1, ZIPF_EXPONENT);
+                cumulative[rank] = sum;
+            }
+            int[] samples = new int[sampleCount];
+            for (int i = 0; i < sampleCount; i++) {
+                int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                samples[i] = Math.min(keyCount - 1, index >= 0 ? index : -index - 1);
+            }
+            return samples;
+        }
+    };
+
+    private static final double ZIPF_EXPONENT = 0.99;
+
+    /**
+     * @param keyCount    the number of distinct keys
+     * @param sampleCount the number of samples to draw
+     * @param random      the source of randomness
+     * @return the drawn key indices, each in {@code [0, keyCount)}
+     */
+    abstract int[] sample(int keyCount, int sampleCount, Random random);
+}
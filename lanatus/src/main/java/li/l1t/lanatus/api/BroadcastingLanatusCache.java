@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.lanatus.api;
+
+import com.google.common.base.Preconditions;
+import li.l1t.common.collections.cache.invalidation.Invalidation;
+import li.l1t.common.collections.cache.invalidation.InvalidationBus;
+
+import java.util.UUID;
+
+/**
+ * A Lanatus cache that shares invalidations with other nodes using an {@link InvalidationBus}.
+ * Clearing this cache clears the local cache and publishes the invalidation to other nodes, while
+ * invalidations received from other nodes clear the local cache. This way, crediting melons on one
+ * server does not leave stale balances in the caches of other servers until they expire.
+ *
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+public class BroadcastingLanatusCache implements LanatusCache {
+    /**
+     * The channel used for Lanatus invalidations. All Lanatus clients share it, since they operate
+     * on the same player data regardless of their module.
+     */
+    public static final String CHANNEL = "lanatus";
+    private final LanatusCache delegate;
+    private final InvalidationBus bus;
+
+    /**
+     * Creates a new broadcasting cache and subscribes it to given bus.
+     *
+     * @param delegate the local cache to clear
+     * @param bus      the bus to publish and receive invalidations on
+     */
+    public BroadcastingLanatusCache(LanatusCache delegate, InvalidationBus bus) {
+        this.delegate = Preconditions.checkNotNull(delegate, "delegate");
+        this.bus = Preconditions.checkNotNull(bus, "bus");
+        bus.subscribe(CHANNEL, this::handleRemote);
+    }
+
+    private void handleRemote(Invalidation invalidation) {
+        if (invalidation.isAll()) {
+            delegate.clearCache();
+        } else {
+            delegate.clearCachesFor(UUID.fromString(invalidation.getKey()));
+        }
+    }
+
+    @Override
+    public void clearCache() {
+        delegate.clearCache();
+        bus.publishAll(CHANNEL);
+    }
+
+    @Override
+    public void clearCachesFor(UUID playerId) {
+        Preconditions.checkNotNull(playerId, "playerId");
+        delegate.clearCachesFor(playerId);
+        bus.publish(CHANNEL, playerId.toString());
+    }
+}
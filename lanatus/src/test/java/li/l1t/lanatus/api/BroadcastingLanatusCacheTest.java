@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016-2017 Philipp Nowak (Literallie)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package li.l1t.lanatus.api;
+
+import li.l1t.common.collections.cache.invalidation.InvalidationBus;
+import li.l1t.common.collections.cache.invalidation.LoopbackInvalidationTransport;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+/**
+ * @author <a href="https://l1t.li/">Literallie</a>
+ * @since 2026-10-17
+ */
+class BroadcastingLanatusCacheTest {
+    private static final UUID PLAYER_ID = UUID.fromString("2b61a2e1-7e6a-4d1b-8c38-0ed1c6cf9d55");
+    private final LoopbackInvalidationTransport localTransport = new LoopbackInvalidationTransport();
+    private final InvalidationBus localBus = new InvalidationBus(localTransport);
+    private final InvalidationBus remoteBus = new InvalidationBus(localTransport.newPeer());
+    private final RecordingCache localDelegate = new RecordingCache();
+    private final RecordingCache remoteDelegate = new RecordingCache();
+    private final BroadcastingLanatusCache local = new BroadcastingLanatusCache(localDelegate, localBus);
+    private final BroadcastingLanatusCache remote = new BroadcastingLanatusCache(remoteDelegate, remoteBus);
+
+    @Test
+    void clearCachesFor__clearsRemotePlayerWithTick() {
+        //given
+        //when
+        local.clearCachesFor(PLAYER_ID);
+        localBus.tick();
+        remoteBus.tick();
+        //then
+        assertThat(localDelegate.events, contains("player " + PLAYER_ID));
+        assertThat(remoteDelegate.events, contains("player " + PLAYER_ID));
+    }
+
+    @Test
+    void clearCache__clearsRemoteCacheWithTick() {
+        //given
+        //when
+        local.clearCache();
+        localBus.tick();
+        remoteBus.tick();
+        //then
+        assertThat(localDelegate.events, contains("all"));
+        assertThat(remoteDelegate.events, contains("all"));
+    }
+
+    @Test
+    void clearCachesFor__doesNotEchoToSender() {
+        //given
+        local.clearCachesFor(PLAYER_ID);
+        localBus.tick();
+        remoteBus.tick();
+        //when
+        localBus.tick();
+        //then
+        assertThat(localDelegate.events, contains("player " + PLAYER_ID));
+    }
+
+    @Test
+    void clearCachesFor__remoteUnaffectedWithoutTick() {
+        //given
+        //when
+        local.clearCachesFor(PLAYER_ID);
+        remoteBus.tick();
+        //then
+        assertThat(remoteDelegate.events, empty());
+    }
+
+    private static class RecordingCache implements LanatusCache {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void clearCache() {
+            events.add("all");
+        }
+
+        @Override
+        public void clearCachesFor(UUID playerId) {
+            events.add("player " + playerId);
+        }
+    }
+}